@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.trends.databrowser3.model.PlotSample;
+import org.csstudio.trends.databrowser3.model.PlotSampleMerger;
+import org.diirt.vtype.ValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of {@link PlotSampleMerger#merge}
+ *
+ *  <p>Merges archived samples into existing samples,
+ *  as done when the data browser fetches archived data.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlotSampleMergerBenchmark
+{
+    /** Number of existing samples */
+    @Param({ "10000", "100000" })
+    public int samples;
+
+    private PlotSample[] old, before, overlap;
+
+    private static PlotSample[] createSamples(final Instant start, final int count)
+    {
+        final PlotSample[] result = new PlotSample[count];
+        for (int i=0; i<count; ++i)
+            result[i] = new PlotSample("Benchmark",
+                                       ValueFactory.newVDouble(Math.sin(i * 0.01),
+                                                               ValueFactory.alarmNone(),
+                                                               ValueFactory.newTime(start.plusSeconds(i)),
+                                                               ValueFactory.displayNone()));
+        return result;
+    }
+
+    @Setup
+    public void createSamples()
+    {
+        final Instant start = Instant.ofEpochSecond(1500000000L);
+        old = createSamples(start, samples);
+        // New samples that are all before the existing ones
+        before = createSamples(start.minusSeconds(samples), samples / 10);
+        // New samples that overlap the second half of the existing ones
+        overlap = createSamples(start.plusSeconds(samples / 2), samples);
+    }
+
+    @Benchmark
+    public PlotSample[] mergeBefore()
+    {
+        return PlotSampleMerger.merge(old, before);
+    }
+
+    @Benchmark
+    public PlotSample[] mergeOverlap()
+    {
+        return PlotSampleMerger.merge(old, overlap);
+    }
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.properties.FormatOption;
+import org.csstudio.display.builder.model.util.FormatOptionHandler;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of {@link FormatOptionHandler#format}
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatOptionHandlerBenchmark
+{
+    @Param({ "DEFAULT", "DECIMAL", "EXPONENTIAL", "ENGINEERING", "HEX", "COMPACT", "SEXAGESIMAL" })
+    public FormatOption option;
+
+    private VType number, array;
+
+    @Setup
+    public void createValues()
+    {
+        final Display display = ValueFactory.newDisplay(-10.0, -9.0, -8.0, "V", DecimalFormat.getNumberInstance(),
+                                                        8.0, 9.0, 10.0, -10.0, 10.0);
+        number = ValueFactory.newVDouble(3.14159265, ValueFactory.alarmNone(), ValueFactory.timeNow(), display);
+        final double[] values = new double[10];
+        for (int i=0; i<values.length; ++i)
+            values[i] = Math.sin(i) * 1000.0;
+        array = ValueFactory.newVDoubleArray(new ArrayDouble(values), ValueFactory.alarmNone(), ValueFactory.timeNow(), display);
+    }
+
+    @Benchmark
+    public String formatNumber()
+    {
+        return FormatOptionHandler.format(number, option, 3, true);
+    }
+
+    @Benchmark
+    public String formatArray()
+    {
+        return FormatOptionHandler.format(array, option, 3, true);
+    }
+}
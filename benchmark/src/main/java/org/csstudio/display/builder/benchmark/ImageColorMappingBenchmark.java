@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.csstudio.display.builder.model.properties.PredefinedColorMaps;
+import org.csstudio.javafx.rtplot.ColorMappingFunction;
+import org.csstudio.javafx.rtplot.internal.ImageColorMapping;
+import org.diirt.util.array.ArrayByte;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.array.ArrayShort;
+import org.diirt.util.array.IteratorNumber;
+import org.diirt.util.array.ListNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of the image plot color mapping
+ *
+ *  <p>Compares the per-sample <code>map</code>
+ *  with the lookup table and parallel <code>apply</code>,
+ *  after checking that both create the same pixels.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageColorMappingBenchmark
+{
+    /** Image width and height */
+    @Param({ "512", "2048" })
+    public int size;
+
+    /** Data type */
+    @Param({ "byte", "short", "double" })
+    public String type;
+
+    /** Logarithmic color map? */
+    @Param({ "false", "true" })
+    public boolean log;
+
+    private ListNumber numbers;
+    private ToDoubleFunction<IteratorNumber> next_sample_func;
+    private double max;
+    private int[] pixels;
+    private final ImageColorMapping mapper = new ImageColorMapping();
+    private final ColorMappingFunction color_mapping =
+        value -> ColorMappingFunction.getRGB(PredefinedColorMaps.VIRIDIS.getColor(value));
+
+    @Setup
+    public void createImage()
+    {
+        final int N = size * size;
+        if ("byte".equals(type))
+        {
+            final byte[] data = new byte[N];
+            for (int i=0; i<N; ++i)
+                data[i] = (byte) (i % size);
+            numbers = new ArrayByte(data);
+            max = 255;
+        }
+        else if ("short".equals(type))
+        {
+            final short[] data = new short[N];
+            for (int i=0; i<N; ++i)
+                data[i] = (short) (i * 7);
+            numbers = new ArrayShort(data);
+            max = 65535;
+        }
+        else
+        {
+            final double[] data = new double[N];
+            for (int i=0; i<N; ++i)
+                data[i] = Math.abs(Math.sin(i * 0.001)) * 1000.0;
+            numbers = new ArrayDouble(data);
+            max = 1000;
+        }
+        next_sample_func = ImageColorMapping.getSampleFunction(numbers, true);
+        pixels = new int[N];
+
+        final int[] expected = map().clone();
+        if (! Arrays.equals(apply(), expected))
+            throw new IllegalStateException("Lookup table mapping differs from per-sample mapping");
+    }
+
+    @Benchmark
+    public int[] map()
+    {
+        ImageColorMapping.map(pixels, size, size, numbers, next_sample_func, 1.0, max, log, color_mapping);
+        return pixels;
+    }
+
+    @Benchmark
+    public int[] apply()
+    {
+        mapper.apply(pixels, size, size, numbers, true, 1.0, max, log, color_mapping);
+        return pixels;
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.macros.MacroHandler;
+import org.csstudio.display.builder.model.macros.Macros;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of {@link MacroHandler#replace}
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MacroHandlerBenchmark
+{
+    /** Text to expand */
+    @Param({ "Plain text without macros",
+             "$(P):$(R)Value",
+             "$(S)_$(DEVICE$(N)):Setpoint.$(FIELD) ${UNDEFINED}" })
+    public String text;
+
+    private Macros macros;
+
+    @Setup
+    public void createMacros()
+    {
+        macros = new Macros();
+        for (int i=0; i<20; ++i)
+            macros.add("M" + i, "Value" + i);
+        macros.add("P", "Accelerator:Section1");
+        macros.add("R", "Magnet12:");
+        macros.add("S", "Ring");
+        macros.add("N", "3");
+        macros.add("DEVICE3", "Quadrupole$(N)");
+        macros.add("FIELD", "VAL");
+    }
+
+    @Benchmark
+    public String replace() throws Exception
+    {
+        return MacroHandler.replace(macros, text);
+    }
+}
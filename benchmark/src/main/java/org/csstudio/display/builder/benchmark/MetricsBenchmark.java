@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.util.metrics.Meter;
+import org.csstudio.display.builder.util.metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of {@link Metrics} overhead
+ *
+ *  <p>With metrics disabled, <code>metered</code> should
+ *  match <code>volatileRead</code>, i.e. cost no more
+ *  than the single volatile read of {@link Metrics#isEnabled()}.
+ *
+ *  @author Kay Kasemir
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark
+{
+    /** Enable metrics? */
+    @Param({ "false", "true" })
+    public boolean enabled;
+
+    private final Meter meter = new Meter();
+
+    private volatile boolean flag = false;
+
+    private long value = 0;
+
+    @Setup
+    public void setup()
+    {
+        Metrics.setEnabled(enabled);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Metrics.setEnabled(false);
+    }
+
+    /** @return Work without any metrics */
+    @Benchmark
+    public long baseline()
+    {
+        return ++value;
+    }
+
+    /** @return Work plus the read of a volatile flag, for reference */
+    @Benchmark
+    public long volatileRead()
+    {
+        if (flag)
+            meter.add(value);
+        return ++value;
+    }
+
+    /** @return Work plus metrics as used in the hot paths */
+    @Benchmark
+    public long metered()
+    {
+        if (Metrics.isEnabled())
+            meter.add(value);
+        return ++value;
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.persist.ModelReader;
+import org.csstudio.display.builder.model.persist.ModelWriter;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.RectangleWidget;
+import org.csstudio.display.builder.model.widgets.TextUpdateWidget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of the {@link ModelReader}
+ *
+ *  <p>Parses a large display file, generated in memory.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelReaderBenchmark
+{
+    /** Number of widgets in the display */
+    @Param({ "1000", "10000" })
+    public int widgets;
+
+    private byte[] xml;
+
+    @Setup
+    public void createDisplay() throws Exception
+    {
+        final DisplayModel model = new DisplayModel();
+        GroupWidget group = null;
+        for (int i=0; i<widgets; ++i)
+        {
+            if (i % 100 == 0)
+            {
+                group = new GroupWidget();
+                group.propName().setValue("Group " + i/100);
+                model.runtimeChildren().addChild(group);
+            }
+            switch (i % 3)
+            {
+            case 0:
+            {
+                final LabelWidget label = new LabelWidget();
+                label.propText().setValue("Label $(N) " + i);
+                group.runtimeChildren().addChild(label);
+                break;
+            }
+            case 1:
+            {
+                final TextUpdateWidget update = new TextUpdateWidget();
+                update.propPVName().setValue("sim://sine(0, 10, 100, 0.1) " + i);
+                group.runtimeChildren().addChild(update);
+                break;
+            }
+            default:
+            {
+                final RectangleWidget rect = new RectangleWidget();
+                rect.propX().setValue(i % 800);
+                rect.propY().setValue(i % 600);
+                group.runtimeChildren().addChild(rect);
+            }
+            }
+        }
+
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try
+        (
+            final ModelWriter writer = new ModelWriter(buf);
+        )
+        {
+            writer.writeModel(model);
+        }
+        xml = buf.toByteArray();
+    }
+
+    @Benchmark
+    public DisplayModel readModel() throws Exception
+    {
+        return new ModelReader(new ByteArrayInputStream(xml)).readModel();
+    }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.javafx.rtplot.LineStyle;
+import org.csstudio.javafx.rtplot.PointType;
+import org.csstudio.javafx.rtplot.TraceType;
+import org.csstudio.javafx.rtplot.data.ArrayPlotDataProvider;
+import org.csstudio.javafx.rtplot.data.DoubleArrayPlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.data.SimpleDataItem;
+import org.csstudio.javafx.rtplot.internal.PlotPart;
+import org.csstudio.javafx.rtplot.internal.PlotPartListener;
+import org.csstudio.javafx.rtplot.internal.TraceImpl;
+import org.csstudio.javafx.rtplot.internal.TracePainter;
+import org.csstudio.javafx.rtplot.internal.YAxisImpl;
+import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.scene.paint.Color;
+
+/** Benchmark of {@link TracePainter#paint} into a headless {@link BufferedImage}
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracePainterBenchmark
+{
+    private static final int WIDTH = 800, HEIGHT = 600;
+
+    /** Number of samples in trace */
+    @Param({ "1000", "100000" })
+    public int samples;
+
+    @Param({ "AREA", "LINES", "SINGLE_LINE_DIRECT", "BARS" })
+    public TraceType type;
+
+    /** Data as 'items' in {@link ArrayPlotDataProvider} or 'arrays' in {@link DoubleArrayPlotDataProvider} */
+    @Param({ "items", "arrays" })
+    public String data;
+
+    private final PlotPartListener listener = new PlotPartListener()
+    {
+        @Override
+        public void layoutPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+
+        @Override
+        public void refreshPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+    };
+
+    private final TracePainter<Double> painter = new TracePainter<>();
+    private final LinearScreenTransform x_transform = new LinearScreenTransform();
+    private BufferedImage image;
+    private Graphics2D gc;
+    private YAxisImpl<Double> y_axis;
+    private TraceImpl<Double> trace;
+
+    @Setup
+    public void createTrace() throws Exception
+    {
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        gc = image.createGraphics();
+
+        final PlotDataProvider<Double> trace_data;
+        if ("arrays".equals(data))
+        {
+            final double[] y = new double[samples];
+            for (int i=0; i<samples; ++i)
+                y[i] = Math.sin(i * 20.0 * Math.PI / samples);
+            trace_data = new DoubleArrayPlotDataProvider(null, y, new double[] { 0.2 });
+        }
+        else
+        {
+            final ArrayPlotDataProvider<Double> items = new ArrayPlotDataProvider<>();
+            for (int i=0; i<samples; ++i)
+            {
+                final double value = Math.sin(i * 20.0 * Math.PI / samples);
+                items.add(new SimpleDataItem<>((double) i, value, 0.1, value - 0.2, value + 0.2, null));
+            }
+            trace_data = items;
+        }
+        x_transform.config(0.0, (double) samples, 0, WIDTH);
+        y_axis = new YAxisImpl<>("Value", listener);
+        y_axis.setBounds(0, 0, 50, HEIGHT);
+        y_axis.setValueRange(-1.5, 1.5);
+        trace = new TraceImpl<>("Trace", "", trace_data, Color.BLUE, type, 2,
+                                LineStyle.SOLID, PointType.NONE, 5, 0);
+    }
+
+    @Benchmark
+    public BufferedImage paint()
+    {
+        painter.paint(gc, new Rectangle(0, 0, WIDTH, HEIGHT), 50, x_transform, y_axis, trace);
+        return image;
+    }
+
+    @TearDown
+    public void dispose()
+    {
+        gc.dispose();
+    }
+}
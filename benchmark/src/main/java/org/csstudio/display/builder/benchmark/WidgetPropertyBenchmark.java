@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark of {@link WidgetProperty} updates and listener notification
+ *
+ *  @author Kay Kasemir
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WidgetPropertyBenchmark
+{
+    /** Number of property listeners */
+    @Param({ "0", "1", "10" })
+    public int listeners;
+
+    private LabelWidget widget;
+    private int value = 0;
+
+    /** Updated by listeners */
+    private long notifications = 0;
+
+    @Setup
+    public void createWidget()
+    {
+        widget = new LabelWidget();
+        for (int i=0; i<listeners; ++i)
+        {
+            widget.propX().addPropertyListener((prop, old_value, new_value) -> notifications += new_value);
+            widget.propText().addUntypedPropertyListener((prop, old_value, new_value) -> ++notifications);
+        }
+    }
+
+    /** Set a new value, notifying listeners */
+    @Benchmark
+    public void setValue()
+    {
+        widget.propX().setValue(++value);
+    }
+
+    /** Set the same value, which does not notify listeners */
+    @Benchmark
+    public void setSameValue()
+    {
+        widget.propX().setValue(42);
+    }
+
+    /** Set text */
+    @Benchmark
+    public void setText()
+    {
+        widget.propText().setValue((++value & 1) == 0 ? "Even" : "Odd");
+    }
+}
@@ -0,0 +1,377 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.persist.ModelLoader;
+import org.csstudio.display.builder.model.persist.ModelWriter;
+import org.csstudio.display.builder.model.util.NamedDaemonPool;
+import org.csstudio.display.builder.model.widgets.LEDWidget;
+import org.csstudio.display.builder.model.widgets.MeterWidget;
+import org.csstudio.display.builder.model.widgets.PVWidget;
+import org.csstudio.display.builder.model.widgets.ProgressBarWidget;
+import org.csstudio.display.builder.model.widgets.TextUpdateWidget;
+import org.csstudio.display.builder.model.widgets.plots.ImageWidget;
+import org.csstudio.display.builder.runtime.RuntimeUtil;
+import org.csstudio.vtype.pv.PVPool;
+import org.csstudio.vtype.pv.local.LocalPVFactory;
+
+/** Headless display load test
+ *
+ *  <p>Loads a display, starts its runtime with simulated PVs
+ *  and represents it in a toolkit that only records updates.
+ *  Reports latency from sending a value to the update
+ *  of the widget representation, values that were dropped or
+ *  coalesced, allocation rate and threads as JSON.
+ *
+ *  <p>PVs of type 'ca', 'pva', 'sim' and 'loadgen' as well as PVs
+ *  without type are simulated, 'loc' PVs are handled as usual.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class DisplayLoadTest
+{
+    /** Types of PVs that are simulated */
+    private static final String[] SIMULATED = { LoadGeneratorPVFactory.TYPE, "ca", "pva", "sim" };
+
+    /** Prefix of load generator thread names */
+    private static final String GENERATOR_THREADS = "LoadGenerator";
+
+    private final LoadGeneratorPVFactory.Settings settings = new LoadGeneratorPVFactory.Settings();
+    private final LoadStatistics statistics = new LoadStatistics();
+    private String display = null;
+    private int widgets = 1000, pvs = 1000, images = 0, threads = 2;
+    private double warmup = 5.0, duration = 30.0;
+    private File output = null;
+
+    private static void usage()
+    {
+        System.out.println("USAGE: DisplayLoadTest [options] [display.bob]");
+        System.out.println();
+        System.out.println("Without display file, a display is created for the test.");
+        System.out.println();
+        System.out.println("Options:");
+        System.out.println("  -rate 10             Updates per second of each PV");
+        System.out.println("  -jitter 0.0          Random variation of the update period, 0..1");
+        System.out.println("  -array 1000          Number of elements for array PVs");
+        System.out.println("  -arrays 'wave.*'     Regular expression for names of array PVs");
+        System.out.println("  -threads 2           Threads that send PV updates");
+        System.out.println("  -widgets 1000        Number of widgets in created display");
+        System.out.println("  -pvs 1000            Number of scalar PVs in created display");
+        System.out.println("  -images 0            Number of image widgets with array PVs in created display");
+        System.out.println("  -warmup 5            Seconds to run before recording statistics");
+        System.out.println("  -duration 30         Seconds to record statistics");
+        System.out.println("  -out result.json     File for result, in addition to stdout");
+        System.out.println("  -verbose             Show log messages");
+    }
+
+    /** @param args Command line arguments
+     *  @return <code>true</code> if OK
+     */
+    private boolean parse(final String[] args)
+    {
+        try
+        {
+            for (int i=0; i<args.length; ++i)
+            {
+                final String arg = args[i];
+                if ("-rate".equals(arg))
+                    settings.rate = Double.parseDouble(args[++i]);
+                else if ("-jitter".equals(arg))
+                    settings.jitter = Double.parseDouble(args[++i]);
+                else if ("-array".equals(arg))
+                    settings.array_size = Integer.parseInt(args[++i]);
+                else if ("-arrays".equals(arg))
+                    settings.array_names = Pattern.compile(args[++i]);
+                else if ("-threads".equals(arg))
+                    threads = Integer.parseInt(args[++i]);
+                else if ("-widgets".equals(arg))
+                    widgets = Integer.parseInt(args[++i]);
+                else if ("-pvs".equals(arg))
+                    pvs = Integer.parseInt(args[++i]);
+                else if ("-images".equals(arg))
+                    images = Integer.parseInt(args[++i]);
+                else if ("-warmup".equals(arg))
+                    warmup = Double.parseDouble(args[++i]);
+                else if ("-duration".equals(arg))
+                    duration = Double.parseDouble(args[++i]);
+                else if ("-out".equals(arg))
+                    output = new File(args[++i]);
+                else if ("-verbose".equals(arg))
+                    Logger.getLogger("").setLevel(Level.INFO);
+                else if (arg.startsWith("-"))
+                    return false;
+                else
+                    display = arg;
+            }
+        }
+        catch (Exception ex)
+        {
+            return false;
+        }
+        return settings.rate > 0  &&  settings.jitter >= 0  &&  settings.jitter <= 1  &&
+               settings.array_size > 0  &&  threads > 0  &&  pvs > 0  &&  duration > 0;
+    }
+
+    /** @return Display file with widgets for the simulated PVs
+     *  @throws Exception on error
+     */
+    private String createDisplay() throws Exception
+    {
+        final DisplayModel model = new DisplayModel();
+        model.propName().setValue("Load Test");
+        for (int i=0; i<widgets; ++i)
+        {
+            final PVWidget widget;
+            switch (i % 4)
+            {
+            case 0:
+                widget = new TextUpdateWidget();
+                break;
+            case 1:
+                widget = new LEDWidget();
+                break;
+            case 2:
+                widget = new ProgressBarWidget();
+                break;
+            default:
+                widget = new MeterWidget();
+            }
+            widget.propX().setValue(10 + 110 * (i % 20));
+            widget.propY().setValue(10 + 60 * (i / 20));
+            widget.propPVName().setValue(LoadGeneratorPVFactory.TYPE + "://pv" + (i % pvs));
+            model.runtimeChildren().addChild(widget);
+        }
+        final int width = (int) Math.max(1, Math.sqrt(settings.array_size));
+        for (int i=0; i<images; ++i)
+        {
+            final ImageWidget image = new ImageWidget();
+            image.propX().setValue(10 + 410 * i);
+            image.propY().setValue(20 + 60 * (widgets / 20));
+            image.propWidth().setValue(400);
+            image.propHeight().setValue(400);
+            image.propDataWidth().setValue(width);
+            image.propDataHeight().setValue(settings.array_size / width);
+            image.propPVName().setValue(LoadGeneratorPVFactory.TYPE + "://wave" + i);
+            model.runtimeChildren().addChild(image);
+        }
+
+        final File file = File.createTempFile("load_test", ".bob");
+        file.deleteOnExit();
+        try
+        (
+            final ModelWriter writer = new ModelWriter(new FileOutputStream(file));
+        )
+        {
+            writer.writeModel(model);
+        }
+        return file.getPath();
+    }
+
+    /** @return Allocated bytes by thread ID, empty if not supported */
+    private static Map<Long, Long> getAllocatedBytes()
+    {
+        final Map<Long, Long> result = new HashMap<>();
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean sun_bean = (com.sun.management.ThreadMXBean) bean;
+            if (sun_bean.isThreadAllocatedMemorySupported()  &&  sun_bean.isThreadAllocatedMemoryEnabled())
+            {
+                final long[] ids = sun_bean.getAllThreadIds();
+                final long[] bytes = sun_bean.getThreadAllocatedBytes(ids);
+                for (int i=0; i<ids.length; ++i)
+                    if (bytes[i] >= 0)
+                        result.put(ids[i], bytes[i]);
+            }
+        }
+        return result;
+    }
+
+    /** @return Number of live threads by name, without instance numbers */
+    private static Map<String, Integer> getThreadsByName()
+    {
+        final Map<String, Integer> result = new TreeMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            final String name = thread.getName().replaceAll("[-#]?\\d+$", "");
+            result.merge(name, 1, Integer::sum);
+        }
+        return result;
+    }
+
+    private static String quote(final String text)
+    {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private void run() throws Exception
+    {
+        // Simulate PVs
+        final ScheduledExecutorService timer = Executors.newScheduledThreadPool(threads, new NamedDaemonPool(GENERATOR_THREADS));
+        for (String type : SIMULATED)
+            PVPool.addPVFactory(new LoadGeneratorPVFactory(type, settings, statistics, timer));
+        PVPool.addPVFactory(new LocalPVFactory());
+        PVPool.setDefaultType(LoadGeneratorPVFactory.TYPE);
+
+        // Load display
+        final String file = display == null ? createDisplay() : display;
+        long start = System.nanoTime();
+        final DisplayModel model = ModelLoader.loadModel(file);
+        final double load_secs = (System.nanoTime() - start) / 1e9;
+
+        // Represent, start runtime
+        final NoopToolkitRepresentation toolkit = new NoopToolkitRepresentation(statistics);
+        RuntimeUtil.hookRepresentationListener(toolkit);
+        start = System.nanoTime();
+        toolkit.submit(() -> toolkit.openNewWindow(model, m -> {})).get(60, TimeUnit.SECONDS);
+        final double represent_secs = (System.nanoTime() - start) / 1e9;
+        start = System.nanoTime();
+        RuntimeUtil.startRuntime(model);
+        final double start_secs = (System.nanoTime() - start) / 1e9;
+
+        TimeUnit.MILLISECONDS.sleep(Math.round(warmup * 1000));
+
+        // Record statistics
+        final ThreadMXBean thread_bean = ManagementFactory.getThreadMXBean();
+        thread_bean.resetPeakThreadCount();
+        statistics.reset();
+        final Map<Long, Long> start_bytes = getAllocatedBytes();
+        start = System.nanoTime();
+
+        TimeUnit.MILLISECONDS.sleep(Math.round(duration * 1000));
+
+        final double secs = (System.nanoTime() - start) / 1e9;
+        final Map<Long, Long> end_bytes = getAllocatedBytes();
+        final long generated = statistics.generated.sum(),
+                   received = statistics.received.sum(),
+                   dropped = statistics.dropped.sum(),
+                   coalesced = statistics.coalesced.sum(),
+                   updates = statistics.updates.sum(),
+                   ui_nanos = statistics.ui_nanos.get();
+        final long[] latencies = statistics.getLatencyPercentiles(0, 50, 90, 99, 99.9, 100);
+
+        // Allocations by threads that were alive at the end of the test.
+        // Allocations by threads that exited while the test ran are not included.
+        long allocated = 0, generator_allocated = 0;
+        final Map<Long, String> names = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+            names.put(thread.getId(), thread.getName());
+        for (Map.Entry<Long, Long> entry : end_bytes.entrySet())
+        {
+            final long bytes = entry.getValue() - start_bytes.getOrDefault(entry.getKey(), 0L);
+            allocated += bytes;
+            if (names.getOrDefault(entry.getKey(), "").startsWith(GENERATOR_THREADS))
+                generator_allocated += bytes;
+        }
+        final Map<String, Integer> threads_by_name = getThreadsByName();
+
+        // Report
+        final StringBuilder buf = new StringBuilder();
+        buf.append("{\n");
+        buf.append("  \"display\": ").append(quote(file)).append(",\n");
+        buf.append("  \"widgets\": ").append(model.getChildren().size()).append(",\n");
+        buf.append("  \"pvs\": ").append(PVPool.getPVReferences().size()).append(",\n");
+        buf.append(String.format(Locale.ROOT, "  \"load_seconds\": %.3f,\n", load_secs));
+        buf.append(String.format(Locale.ROOT, "  \"represent_seconds\": %.3f,\n", represent_secs));
+        buf.append(String.format(Locale.ROOT, "  \"start_seconds\": %.3f,\n", start_secs));
+        buf.append("  \"settings\": {\n");
+        buf.append(String.format(Locale.ROOT, "    \"rate\": %.3f,\n", settings.rate));
+        buf.append(String.format(Locale.ROOT, "    \"jitter\": %.3f,\n", settings.jitter));
+        buf.append("    \"array_size\": ").append(settings.array_size).append(",\n");
+        buf.append("    \"arrays\": ").append(quote(settings.array_names.pattern())).append(",\n");
+        buf.append("    \"threads\": ").append(threads).append(",\n");
+        buf.append(String.format(Locale.ROOT, "    \"warmup_seconds\": %.3f\n", warmup));
+        buf.append("  },\n");
+        buf.append(String.format(Locale.ROOT, "  \"seconds\": %.3f,\n", secs));
+        buf.append("  \"updates\": {\n");
+        buf.append("    \"generated\": ").append(generated).append(",\n");
+        buf.append(String.format(Locale.ROOT, "    \"generated_per_second\": %.1f,\n", generated / secs));
+        buf.append("    \"received\": ").append(received).append(",\n");
+        buf.append("    \"dropped\": ").append(dropped).append(",\n");
+        buf.append("    \"coalesced\": ").append(coalesced).append(",\n");
+        buf.append("    \"representation_updates\": ").append(updates).append(",\n");
+        buf.append(String.format(Locale.ROOT, "    \"representation_updates_per_second\": %.1f\n", updates / secs));
+        buf.append("  },\n");
+        buf.append("  \"latency_ms\": {\n");
+        buf.append(String.format(Locale.ROOT, "    \"min\": %.3f,\n", latencies[0] / 1e6));
+        buf.append(String.format(Locale.ROOT, "    \"p50\": %.3f,\n", latencies[1] / 1e6));
+        buf.append(String.format(Locale.ROOT, "    \"p90\": %.3f,\n", latencies[2] / 1e6));
+        buf.append(String.format(Locale.ROOT, "    \"p99\": %.3f,\n", latencies[3] / 1e6));
+        buf.append(String.format(Locale.ROOT, "    \"p99.9\": %.3f,\n", latencies[4] / 1e6));
+        buf.append(String.format(Locale.ROOT, "    \"max\": %.3f\n", latencies[5] / 1e6));
+        buf.append("  },\n");
+        buf.append(String.format(Locale.ROOT, "  \"ui_thread_busy_percent\": %.2f,\n", ui_nanos / 1e9 / secs * 100.0));
+        buf.append("  \"allocation_mb_per_second\": {\n");
+        buf.append(String.format(Locale.ROOT, "    \"total\": %.3f,\n", allocated / 1e6 / secs));
+        buf.append(String.format(Locale.ROOT, "    \"load_generator\": %.3f,\n", generator_allocated / 1e6 / secs));
+        buf.append(String.format(Locale.ROOT, "    \"display\": %.3f\n", (allocated - generator_allocated) / 1e6 / secs));
+        buf.append("  },\n");
+        buf.append("  \"threads\": {\n");
+        buf.append("    \"live\": ").append(thread_bean.getThreadCount()).append(",\n");
+        buf.append("    \"peak\": ").append(thread_bean.getPeakThreadCount()).append(",\n");
+        buf.append("    \"daemon\": ").append(thread_bean.getDaemonThreadCount()).append(",\n");
+        buf.append("    \"by_name\": {\n");
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : threads_by_name.entrySet())
+        {
+            buf.append("      ").append(quote(entry.getKey())).append(": ").append(entry.getValue());
+            buf.append(++i < threads_by_name.size() ? ",\n" : "\n");
+        }
+        buf.append("    }\n");
+        buf.append("  }\n");
+        buf.append("}\n");
+
+        System.out.print(buf);
+        if (output != null)
+            try
+            (
+                final PrintStream out = new PrintStream(output, "UTF-8");
+            )
+            {
+                out.print(buf);
+            }
+
+        // Stop
+        RuntimeUtil.stopRuntime(model);
+        toolkit.submit(() -> toolkit.disposeRepresentation(model)).get(10, TimeUnit.SECONDS);
+        toolkit.shutdown();
+        timer.shutdownNow();
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        Logger.getLogger("").setLevel(Level.WARNING);
+        final DisplayLoadTest test = new DisplayLoadTest();
+        if (! test.parse(args))
+        {
+            usage();
+            System.exit(-1);
+        }
+        test.run();
+        // Jython and PV threads may remain, need to exit() to really quit
+        System.exit(0);
+    }
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.csstudio.vtype.pv.PV;
+import org.csstudio.vtype.pv.PVFactory;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.vtype.Time;
+import org.diirt.vtype.VNumber;
+import org.diirt.vtype.VNumberArray;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+
+/** PV factory for simulated PVs that update at a configurable rate
+ *
+ *  <p>Each PV sends its update count as a value.
+ *  Array PVs send the update count as the first element.
+ *  This allows detecting values that were dropped on the way to a widget.
+ *
+ *  <p>The time stamp of each value is set from a monotonic clock
+ *  with nanosecond resolution to measure the latency
+ *  of the update.
+ *
+ *  <p>The factory can be registered for several PV types,
+ *  for example to simulate all 'ca://' PVs of a display.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class LoadGeneratorPVFactory implements PVFactory
+{
+    /** Default PV type */
+    public static final String TYPE = "loadgen";
+
+    /** Monotonic clock with nanosecond resolution, mapped to wall clock time */
+    private static final long base_nanos = System.nanoTime();
+    private static final Instant base_time = Instant.now();
+
+    /** Load generator settings, shared by all PV types */
+    public static class Settings
+    {
+        /** Updates per second of each PV */
+        public double rate = 10.0;
+
+        /** Random variation of the update period, 0..1 */
+        public double jitter = 0.0;
+
+        /** Number of elements for array PVs */
+        public int array_size = 1000;
+
+        /** PVs with matching name send arrays */
+        public Pattern array_names = Pattern.compile("wave.*");
+    }
+
+    private final String type;
+    private final Settings settings;
+    private final LoadStatistics statistics;
+    private final ScheduledExecutorService timer;
+
+    /** Simulated PV */
+    private class LoadGeneratorPV extends PV
+    {
+        private final boolean is_array;
+        private final long period_nanos;
+        private volatile boolean running = true;
+        private volatile ScheduledFuture<?> next = null;
+        private long count = 0;
+
+        LoadGeneratorPV(final String name, final String base_name)
+        {
+            super(name);
+            is_array = settings.array_names.matcher(base_name).matches();
+            period_nanos = Math.round(1e9 / settings.rate);
+            schedule();
+        }
+
+        private void schedule()
+        {
+            long delay = period_nanos;
+            if (settings.jitter > 0)
+                delay += Math.round(period_nanos * settings.jitter * (2*ThreadLocalRandom.current().nextDouble() - 1));
+            next = timer.schedule(this::update, Math.max(0, delay), TimeUnit.NANOSECONDS);
+        }
+
+        private void update()
+        {
+            final Time time = ValueFactory.newTime(now());
+            final VType value;
+            if (is_array)
+            {
+                final double[] data = new double[settings.array_size];
+                data[0] = count;
+                for (int i=1; i<data.length; ++i)
+                    data[i] = Math.sin((count + i) * 0.01);
+                value = ValueFactory.newVDoubleArray(new ArrayDouble(data), ValueFactory.alarmNone(), time, ValueFactory.displayNone());
+            }
+            else
+                value = ValueFactory.newVDouble((double) count, ValueFactory.alarmNone(), time, ValueFactory.displayNone());
+            ++count;
+            statistics.generated.increment();
+            notifyListenersOfValue(value);
+            if (running)
+                schedule();
+        }
+
+        @Override
+        protected void close()
+        {
+            running = false;
+            final ScheduledFuture<?> task = next;
+            if (task != null)
+                task.cancel(false);
+        }
+    }
+
+    /** @param type PV type to simulate
+     *  @param settings Load generator settings
+     *  @param statistics Statistics that count generated values
+     *  @param timer Timer for sending updates, may be shared by several factories
+     */
+    public LoadGeneratorPVFactory(final String type, final Settings settings,
+                                  final LoadStatistics statistics, final ScheduledExecutorService timer)
+    {
+        this.type = type;
+        this.settings = settings;
+        this.statistics = statistics;
+        this.timer = timer;
+    }
+
+    /** @return Current time from monotonic clock */
+    public static Instant now()
+    {
+        return base_time.plusNanos(System.nanoTime() - base_nanos);
+    }
+
+    /** @param value Value sent by a simulated PV
+     *  @return Nanoseconds since value was sent, -1 if unknown
+     */
+    public static long getAge(final VType value)
+    {
+        if (! (value instanceof Time))
+            return -1;
+        final Instant time = ((Time) value).getTimestamp();
+        return System.nanoTime() - base_nanos - Duration.between(base_time, time).toNanos();
+    }
+
+    /** @param value Value sent by a simulated PV
+     *  @return Update count of the PV, -1 if unknown
+     */
+    public static long getCount(final VType value)
+    {
+        if (value instanceof VNumber)
+            return ((VNumber) value).getValue().longValue();
+        if (value instanceof VNumberArray)
+        {
+            final VNumberArray array = (VNumberArray) value;
+            if (array.getData().size() > 0)
+                return array.getData().getLong(0);
+        }
+        return -1;
+    }
+
+    @Override
+    public String getType()
+    {
+        return type;
+    }
+
+    @Override
+    public PV createPV(final String name, final String base_name) throws Exception
+    {
+        return new LoadGeneratorPV(name, base_name);
+    }
+}
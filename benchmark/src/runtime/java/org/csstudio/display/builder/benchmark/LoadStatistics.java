@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Statistics of a display load test
+ *
+ *  <p>Counters are updated by the load generator,
+ *  the widget runtime and the representation threads.
+ *
+ *  @author Kay Kasemir
+ */
+public class LoadStatistics
+{
+    /** Limit for the number of recorded latencies */
+    private static final int MAX_LATENCIES = 10000000;
+
+    /** Values sent by the load generator */
+    public final LongAdder generated = new LongAdder();
+
+    /** Values received by widgets */
+    public final LongAdder received = new LongAdder();
+
+    /** Values that were sent but never reached a widget */
+    public final LongAdder dropped = new LongAdder();
+
+    /** Values that reached a widget, but were replaced by a newer value before the representation was updated */
+    public final LongAdder coalesced = new LongAdder();
+
+    /** Calls to <code>updateChanges</code> */
+    public final LongAdder updates = new LongAdder();
+
+    /** Time spent in the UI thread */
+    public final AtomicLong ui_nanos = new AtomicLong();
+
+    /** Latencies from sending a value to <code>updateChanges</code> [ns]
+     *
+     *  <p>SYNC on this
+     */
+    private long[] latencies = new long[100000];
+    private int latency_count = 0;
+
+    /** @param nanos Latency from sending a value to <code>updateChanges</code> */
+    public synchronized void addLatency(final long nanos)
+    {
+        if (latency_count >= latencies.length)
+        {
+            if (latencies.length >= MAX_LATENCIES)
+                return;
+            latencies = Arrays.copyOf(latencies, Math.min(MAX_LATENCIES, latencies.length * 2));
+        }
+        latencies[latency_count++] = nanos;
+    }
+
+    /** @param percentiles Percentiles 0..100
+     *  @return Latencies [ns] for the percentiles, -1 if there are none
+     */
+    public synchronized long[] getLatencyPercentiles(final double... percentiles)
+    {
+        final long[] result = new long[percentiles.length];
+        if (latency_count <= 0)
+        {
+            Arrays.fill(result, -1);
+            return result;
+        }
+        final long[] sorted = Arrays.copyOf(latencies, latency_count);
+        Arrays.sort(sorted);
+        for (int i=0; i<percentiles.length; ++i)
+        {
+            final int index = (int) Math.ceil(percentiles[i] / 100.0 * sorted.length) - 1;
+            result[i] = sorted[Math.max(0, Math.min(sorted.length-1, index))];
+        }
+        return result;
+    }
+
+    /** Reset all counters, for example at the end of the warm-up */
+    public void reset()
+    {
+        generated.reset();
+        received.reset();
+        dropped.reset();
+        coalesced.reset();
+        updates.reset();
+        ui_nanos.set(0);
+        synchronized (this)
+        {
+            latency_count = 0;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.benchmark;
+
+import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.runtimePropPVValue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.WidgetDescriptor;
+import org.csstudio.display.builder.model.WidgetFactory;
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.WidgetPropertyListener;
+import org.csstudio.display.builder.model.util.NamedDaemonPool;
+import org.csstudio.display.builder.model.widgets.EmbeddedDisplayWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.representation.EmbeddedDisplayRepresentationUtil;
+import org.csstudio.display.builder.representation.EmbeddedDisplayRepresentationUtil.DisplayAndGroup;
+import org.csstudio.display.builder.representation.ToolkitRepresentation;
+import org.csstudio.display.builder.representation.WidgetRepresentation;
+import org.csstudio.display.builder.representation.WidgetRepresentationFactory;
+import org.diirt.vtype.VType;
+
+/** Toolkit representation that doesn't show anything
+ *
+ *  <p>Widget representations are scheduled for updates
+ *  by the representation update throttle whenever their
+ *  PV value changes, just like a JavaFX or SWT representation,
+ *  but the update only records statistics.
+ *
+ *  <p>The 'UI thread' is a plain thread.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class NoopToolkitRepresentation extends ToolkitRepresentation<Object, Object>
+{
+    /** Statistics, set before the first instance is created */
+    private static volatile LoadStatistics statistics;
+
+    /** Parent item, there are no actual toolkit items */
+    private static final Object PARENT = new Object();
+
+    private final ExecutorService ui_thread = Executors.newSingleThreadExecutor(new NamedDaemonPool("NoopUI"));
+
+    /** Representation that records updates of the PV value */
+    private static class NoopWidgetRepresentation extends WidgetRepresentation<Object, Object, Widget>
+    {
+        /** Values received since last update */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /** Update count of the last received value */
+        private final AtomicLong last_count = new AtomicLong(-1);
+
+        /** Most recent value */
+        private volatile VType value = null;
+
+        private Optional<WidgetProperty<VType>> value_prop = Optional.empty();
+
+        private final WidgetPropertyListener<VType> value_listener = (prop, old, new_value) ->
+        {
+            final long count = LoadGeneratorPVFactory.getCount(new_value);
+            final long last = last_count.getAndSet(count);
+            if (last >= 0  &&  count > last + 1)
+                statistics.dropped.add(count - last - 1);
+            statistics.received.increment();
+            value = new_value;
+            pending.incrementAndGet();
+            toolkit.scheduleUpdate(this);
+        };
+
+        @Override
+        public Object createComponents(final Object parent) throws Exception
+        {
+            value_prop = model_widget.checkProperty(runtimePropPVValue);
+            value_prop.ifPresent(prop -> prop.addPropertyListener(value_listener));
+
+            if (model_widget instanceof TabsWidget)
+                for (TabsWidget.TabItemProperty tab : ((TabsWidget) model_widget).propTabs().getValue())
+                    for (Widget child : tab.children().getValue())
+                        toolkit.representWidget(parent, child);
+            else if (model_widget instanceof EmbeddedDisplayWidget)
+                CompletableFuture.runAsync(() -> representContent((EmbeddedDisplayWidget) model_widget, parent));
+            return parent;
+        }
+
+        /** Load and represent content of embedded display
+         *  @param widget {@link EmbeddedDisplayWidget}
+         *  @param parent Parent item
+         */
+        private void representContent(final EmbeddedDisplayWidget widget, final Object parent)
+        {
+            try
+            {
+                final DisplayAndGroup handle = new DisplayAndGroup(widget.propFile().getValue(), widget.propGroupName().getValue());
+                final DisplayModel content = EmbeddedDisplayRepresentationUtil.loadDisplayModel(widget, handle);
+                toolkit.submit(() ->
+                {
+                    toolkit.representModel(parent, content);
+                    return null;
+                }).get(10, TimeUnit.SECONDS);
+                // Allows EmbeddedDisplayRuntime to start the content's runtime
+                widget.runtimePropEmbeddedModel().setValue(content);
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.WARNING, "Cannot represent content of " + widget, ex);
+            }
+        }
+
+        @Override
+        public void updateChanges()
+        {
+            final int values = pending.getAndSet(0);
+            if (values <= 0)
+                return;
+            statistics.updates.increment();
+            if (values > 1)
+                statistics.coalesced.add(values - 1);
+            final long age = LoadGeneratorPVFactory.getAge(value);
+            if (age >= 0)
+                statistics.addLatency(age);
+        }
+
+        @Override
+        public void dispose()
+        {
+            value_prop.ifPresent(prop -> prop.removePropertyListener(value_listener));
+        }
+    }
+
+    /** @param stats Statistics to update */
+    public NoopToolkitRepresentation(final LoadStatistics stats)
+    {
+        super(false);
+        statistics = stats;
+    }
+
+    @Override
+    protected void initialize()
+    {
+        for (WidgetDescriptor desc : WidgetFactory.getInstance().getWidgetDescriptions())
+            register(desc.getType(), NoopWidgetRepresentation::new);
+        register(WidgetRepresentationFactory.UNKNOWN, NoopWidgetRepresentation::new);
+    }
+
+    @Override
+    public ToolkitRepresentation<Object, Object> openNewWindow(final DisplayModel model,
+                                                               final Consumer<DisplayModel> close_handler) throws Exception
+    {
+        representModel(PARENT, model);
+        return this;
+    }
+
+    @Override
+    public void execute(final Runnable command)
+    {
+        ui_thread.execute(() ->
+        {
+            final long start = System.nanoTime();
+            try
+            {
+                command.run();
+            }
+            finally
+            {
+                statistics.ui_nanos.addAndGet(System.nanoTime() - start);
+            }
+        });
+    }
+
+    @Override
+    public void showMessageDialog(final Widget widget, final String message)
+    {
+        logger.log(Level.INFO, message);
+    }
+
+    @Override
+    public void showErrorDialog(final Widget widget, final String error)
+    {
+        logger.log(Level.WARNING, error);
+    }
+
+    @Override
+    public boolean showConfirmationDialog(final Widget widget, final String question)
+    {
+        return false;
+    }
+
+    @Override
+    public String showSelectionDialog(final Widget widget, final String title, final List<String> options)
+    {
+        return null;
+    }
+
+    @Override
+    public String showPasswordDialog(final Widget widget, final String title, final String correct_password)
+    {
+        return null;
+    }
+
+    @Override
+    public String showSaveAsDialog(final Widget widget, final String initial_value)
+    {
+        return null;
+    }
+
+    @Override
+    public Future<Boolean> playAudio(final String url)
+    {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public void shutdown()
+    {
+        super.shutdown();
+        ui_thread.shutdown();
+    }
+}
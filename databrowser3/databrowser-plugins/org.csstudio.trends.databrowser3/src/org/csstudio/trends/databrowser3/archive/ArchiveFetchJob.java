@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import org.csstudio.apputil.time.BenchmarkTimer;
@@ -20,6 +21,8 @@ import org.csstudio.archive.reader.ArchiveRepository;
 import org.csstudio.archive.reader.UnknownChannelException;
 import org.csstudio.archive.reader.ValueIterator;
 import org.csstudio.display.builder.model.macros.MacroHandler;
+import org.csstudio.display.builder.util.metrics.Meter;
+import org.csstudio.display.builder.util.metrics.Metrics;
 import org.csstudio.trends.databrowser3.Activator;
 import org.csstudio.trends.databrowser3.Messages;
 import org.csstudio.trends.databrowser3.model.ArchiveDataSource;
@@ -27,6 +30,11 @@ import org.csstudio.trends.databrowser3.model.PVItem;
 import org.csstudio.trends.databrowser3.model.RequestType;
 import org.csstudio.trends.databrowser3.model.TimeHelper;
 import org.csstudio.trends.databrowser3.preferences.Preferences;
+import org.diirt.vtype.VEnum;
+import org.diirt.vtype.VNumber;
+import org.diirt.vtype.VNumberArray;
+import org.diirt.vtype.VStatistics;
+import org.diirt.vtype.VString;
 import org.diirt.vtype.VType;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -47,6 +55,38 @@ public class ArchiveFetchJob extends Job
     /** Poll period in millisecs */
     private static final int POLL_PERIOD_MS = 1000;
 
+    /** Metrics of all fetch jobs */
+    private static class FetchMetrics implements ArchiveFetchMetricsMXBean
+    {
+        final AtomicInteger active = new AtomicInteger();
+        final Meter samples = new Meter();
+
+        @Override
+        public int getActiveFetches()
+        {
+            return active.get();
+        }
+
+        @Override
+        public double getSamplesPerSecond()
+        {
+            return samples.getRate();
+        }
+
+        @Override
+        public double getBytesPerSecond()
+        {
+            return samples.getSumRate();
+        }
+    }
+
+    private static final FetchMetrics metrics = new FetchMetrics();
+
+    static
+    {
+        Metrics.add("ArchiveFetch", "All", metrics);
+    }
+
     /**to manage concurrency on postgresql*/
     private final boolean concurrency;
 
@@ -151,8 +191,26 @@ public class ArchiveFetchJob extends Job
                     }
                     // Get samples into array
                     final List<VType> result = new ArrayList<VType>();
-                    while (value_iter.hasNext())
-                        result.add(value_iter.next());
+                    if (Metrics.isEnabled())
+                    {
+                        metrics.active.incrementAndGet();
+                        try
+                        {
+                            while (value_iter.hasNext())
+                            {
+                                final VType value = value_iter.next();
+                                metrics.samples.add(estimateBytes(value));
+                                result.add(value);
+                            }
+                        }
+                        finally
+                        {
+                            metrics.active.decrementAndGet();
+                        }
+                    }
+                    else
+                        while (value_iter.hasNext())
+                            result.add(value_iter.next());
                     samples += result.size();
                     item.mergeArchivedSamples(the_reader.getServerName(), result);
                     if (cancelled)
@@ -196,6 +254,31 @@ public class ArchiveFetchJob extends Job
         }
     }
 
+    /** Estimate size of a sample for metrics
+     *
+     *  <p>Archive readers don't report the bytes they transfer,
+     *  so this is based on the value type:
+     *  8 bytes per number, 2 per character, plus the time stamp.
+     *
+     *  @param value Sample
+     *  @return Estimated number of bytes
+     */
+    private static long estimateBytes(final VType value)
+    {
+        long bytes = 12;
+        if (value instanceof VStatistics)
+            bytes += 4*8 + 4;
+        else if (value instanceof VNumber)
+            bytes += 8;
+        else if (value instanceof VNumberArray)
+            bytes += 8L * ((VNumberArray) value).getData().size();
+        else if (value instanceof VEnum)
+            bytes += 4;
+        else if (value instanceof VString)
+            bytes += 2L * ((VString) value).getValue().length();
+        return bytes;
+    }
+
     /** Initialize
      *  @param item
      *  @param start
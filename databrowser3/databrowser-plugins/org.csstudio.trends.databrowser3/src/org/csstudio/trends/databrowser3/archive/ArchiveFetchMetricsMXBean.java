@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser3.archive;
+
+/** JMX metrics of all {@link ArchiveFetchJob}s
+ *  @author Kay Kasemir
+ */
+public interface ArchiveFetchMetricsMXBean
+{
+    /** @return Number of fetch jobs that are currently reading samples */
+    public int getActiveFetches();
+
+    /** @return Archived samples received per second */
+    public double getSamplesPerSecond();
+
+    /** @return Estimated bytes of archived samples received per second */
+    public double getBytesPerSecond();
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.editor.tree;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
+import org.junit.Test;
+
+import javafx.scene.control.TreeItem;
+
+/** JUnit test of the {@link WidgetTreeItems}
+ *
+ *  <p>Counts the tree items that are created
+ *  while the selection moves across 1000 widgets.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class WidgetTreeItemsTest
+{
+    private static final int GROUPS = 10, WIDGETS_PER_GROUP = 100;
+
+    /** @return Display with 1000 labels in groups, and a tabs widget */
+    private DisplayModel createModel()
+    {
+        final DisplayModel model = new DisplayModel();
+        for (int g=0; g<GROUPS; ++g)
+        {
+            final GroupWidget group = new GroupWidget();
+            group.propName().setValue("Group " + g);
+            for (int i=0; i<WIDGETS_PER_GROUP; ++i)
+            {
+                final LabelWidget label = new LabelWidget();
+                label.propName().setValue("Label " + g + "." + i);
+                group.runtimeChildren().addChild(label);
+            }
+            model.runtimeChildren().addChild(group);
+        }
+        final TabsWidget tabs = new TabsWidget();
+        for (TabItemProperty tab : tabs.propTabs().getValue())
+            tab.children().addChild(new LabelWidget());
+        model.runtimeChildren().addChild(tabs);
+        return model;
+    }
+
+    private static List<Widget> getLabels(final DisplayModel model)
+    {
+        final List<Widget> labels = new ArrayList<>();
+        for (Widget widget : model.getChildren())
+            if (widget instanceof GroupWidget)
+                labels.addAll(((GroupWidget) widget).runtimeChildren().getValue());
+        return labels;
+    }
+
+    /** Check that created items match the model */
+    private static void checkItems(final WidgetTreeItems items, final Widget widget)
+    {
+        final TreeItem<WidgetOrTab> item = items.getItem(widget);
+        assertThat(item.getValue().getWidget(), sameInstance(widget));
+        final ChildrenProperty children = ChildrenProperty.getChildren(widget);
+        if (children == null)
+            return;
+        final List<TreeItem<WidgetOrTab>> child_items = item.getChildren();
+        assertThat(child_items.size(), equalTo(children.getValue().size()));
+        for (int i=0; i<child_items.size(); ++i)
+        {
+            assertThat(child_items.get(i).getValue().getWidget(), sameInstance(children.getValue().get(i)));
+            checkItems(items, children.getValue().get(i));
+        }
+    }
+
+    @Test
+    public void testSelectionCycle() throws Exception
+    {
+        final DisplayModel model = createModel();
+        final WidgetTreeItems items = new WidgetTreeItems(Runnable::run, () -> {});
+        final TreeItem<WidgetOrTab> root = items.setModel(model);
+
+        // Only the root and top-level items are created
+        final int top_level = 1 + GROUPS + 1;
+        assertThat(items.getCreatedItemCount(), equalTo(top_level));
+        assertThat(root.getChildren().size(), equalTo(GROUPS + 1));
+        assertThat(items.getItem(getLabels(model).get(0)), nullValue());
+
+        // Select each label, several times.
+        // Items are created once, when the parent of the selected widget is populated
+        final List<Widget> labels = getLabels(model);
+        assertThat(labels.size(), equalTo(GROUPS * WIDGETS_PER_GROUP));
+        final long start = System.nanoTime();
+        for (int cycle=0; cycle<5; ++cycle)
+        {
+            for (Widget label : labels)
+                assertThat(items.reveal(label).getValue().getWidget(), sameInstance(label));
+            assertThat(items.getCreatedItemCount(), equalTo(top_level + labels.size()));
+        }
+        final long nanos = System.nanoTime() - start;
+        System.out.format("Selected %d widgets 5 times: %d items created, %.1f us per selection\n",
+                          labels.size(), items.getCreatedItemCount(), nanos / 1e3 / (5 * labels.size()));
+        checkItems(items, model);
+
+        // Selecting a widget in a tab creates the tab items and the tab's children
+        final TabsWidget tabs = (TabsWidget) model.getChildren().get(GROUPS);
+        final Widget in_tab = tabs.propTabs().getValue().get(1).children().getValue().get(0);
+        final TreeItem<WidgetOrTab> tab_item = items.reveal(in_tab).getParent();
+        assertThat(tab_item.getValue().getTab(), sameInstance(tabs.propTabs().getValue().get(1)));
+        assertThat(items.getCreatedItemCount(), equalTo(top_level + labels.size() + 2 + 1));
+        items.dispose();
+    }
+
+    @Test
+    public void testIncrementalUpdates() throws Exception
+    {
+        final DisplayModel model = createModel();
+        final WidgetTreeItems items = new WidgetTreeItems(Runnable::run, () -> {});
+        items.setModel(model);
+        final GroupWidget populated = (GroupWidget) model.getChildren().get(0);
+        final GroupWidget collapsed = (GroupWidget) model.getChildren().get(1);
+        items.reveal(populated.runtimeChildren().getValue().get(0));
+        int count = items.getCreatedItemCount();
+
+        // Adding to a populated group creates just one item at the correct index
+        final LabelWidget added = new LabelWidget();
+        populated.runtimeChildren().addChild(5, added);
+        assertThat(items.getCreatedItemCount(), equalTo(++count));
+        assertThat(items.getItem(populated).getChildren().get(5), sameInstance(items.getItem(added)));
+        checkItems(items, populated);
+
+        // Move to other position
+        populated.runtimeChildren().removeChild(added);
+        assertThat(items.getItem(added), nullValue());
+        populated.runtimeChildren().addChild(added);
+        assertThat(items.getCreatedItemCount(), equalTo(++count));
+        checkItems(items, populated);
+
+        // Adding to a group that has not been expanded creates no item
+        final LabelWidget hidden = new LabelWidget();
+        collapsed.runtimeChildren().addChild(hidden);
+        assertThat(items.getCreatedItemCount(), equalTo(count));
+        assertThat(items.getItem(hidden), nullValue());
+        // .. until it's revealed
+        assertThat(items.reveal(hidden).getValue().getWidget(), sameInstance(hidden));
+        checkItems(items, collapsed);
+
+        // Nested group
+        final GroupWidget nested = new GroupWidget();
+        nested.runtimeChildren().addChild(new LabelWidget());
+        populated.runtimeChildren().addChild(0, nested);
+        items.reveal(nested.runtimeChildren().getValue().get(0));
+        checkItems(items, model);
+
+        // Removing a group removes items and listeners of its children
+        count = items.getCreatedItemCount();
+        model.runtimeChildren().removeChild(populated);
+        assertThat(items.getItem(populated), nullValue());
+        assertThat(items.getItem(added), nullValue());
+        assertThat(items.getItem(nested), nullValue());
+        populated.runtimeChildren().addChild(new LabelWidget());
+        assertThat(items.getCreatedItemCount(), equalTo(count));
+        checkItems(items, model);
+
+        // Tabs
+        final TabsWidget tabs = (TabsWidget) model.getChildren().get(model.getChildren().size()-1);
+        final TreeItem<WidgetOrTab> tabs_item = items.getItem(tabs);
+        assertThat(tabs_item.getChildren().size(), equalTo(tabs.propTabs().size()));
+        final TabItemProperty tab = tabs.propTabs().addElement();
+        assertThat(tabs_item.getChildren().size(), equalTo(tabs.propTabs().size()));
+        final LabelWidget in_tab = new LabelWidget();
+        tab.children().addChild(in_tab);
+        assertThat(items.reveal(in_tab).getParent().getValue().getTab(), sameInstance(tab));
+        tabs.propTabs().removeElement();
+        assertThat(tabs_item.getChildren().size(), equalTo(tabs.propTabs().size()));
+        assertThat(items.getItem(in_tab), nullValue());
+
+        items.dispose();
+        assertThat(items.getItem(model), nullValue());
+    }
+}
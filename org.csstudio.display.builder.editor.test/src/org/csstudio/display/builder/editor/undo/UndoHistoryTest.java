@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.editor.undo;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.MacroizedWidgetProperty;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.persist.ModelWriter;
+import org.csstudio.display.builder.model.properties.Points;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.PolylineWidget;
+import org.csstudio.display.builder.util.undo.CompoundUndoableAction;
+import org.csstudio.display.builder.util.undo.UndoableActionManager;
+import org.junit.Test;
+
+/** JUnit test of the undo history
+ *
+ *  <p>Replays many random edits, then checks that
+ *  undoing all of them restores the original model,
+ *  and redoing all of them restores the edited model,
+ *  while edits are coalesced and compacted.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class UndoHistoryTest
+{
+    private static final int EDITS = 100000;
+
+    private final Random random = new Random(42);
+
+    private DisplayModel createModel()
+    {
+        final DisplayModel model = new DisplayModel();
+        for (int g=0; g<5; ++g)
+        {
+            final GroupWidget group = new GroupWidget();
+            for (int i=0; i<10; ++i)
+            {
+                final LabelWidget label = new LabelWidget();
+                label.propText().setValue("Label " + i);
+                group.runtimeChildren().addChild(label);
+            }
+            final PolylineWidget line = new PolylineWidget();
+            line.propPoints().setValue(createPoints());
+            group.runtimeChildren().addChild(line);
+            model.runtimeChildren().addChild(group);
+        }
+        return model;
+    }
+
+    private Points createPoints()
+    {
+        final Points points = new Points();
+        final int N = 2 + random.nextInt(50);
+        for (int i=0; i<N; ++i)
+            points.add(random.nextInt(1000), random.nextInt(1000));
+        return points;
+    }
+
+    private String createText()
+    {
+        final StringBuilder buf = new StringBuilder();
+        // Mostly short text, some long enough to be compacted
+        final int N = random.nextInt(10) == 0 ? 500 + random.nextInt(2000) : 1 + random.nextInt(20);
+        for (int i=0; i<N; ++i)
+            buf.append((char) ('a' + random.nextInt(26)));
+        return buf.toString();
+    }
+
+    private Widget pickWidget(final DisplayModel model)
+    {
+        final GroupWidget group = (GroupWidget) model.getChildren().get(random.nextInt(model.getChildren().size()));
+        return group.runtimeChildren().getValue().get(random.nextInt(group.runtimeChildren().getValue().size()));
+    }
+
+    /** Move widget like the editor does: Update the widget, then add the action */
+    private UpdateWidgetLocationAction move(final Widget widget)
+    {
+        final int orig_x = widget.propX().getValue(),
+                  orig_y = widget.propY().getValue(),
+                  orig_width = widget.propWidth().getValue(),
+                  orig_height = widget.propHeight().getValue();
+        widget.propX().setValue(random.nextInt(800));
+        widget.propY().setValue(random.nextInt(600));
+        if (random.nextBoolean())
+            widget.propWidth().setValue(10 + random.nextInt(200));
+        final ChildrenProperty parent = ChildrenProperty.getParentsChildren(widget);
+        return new UpdateWidgetLocationAction(widget, parent, parent, orig_x, orig_y, orig_width, orig_height);
+    }
+
+    /** Perform random edit
+     *
+     *  <p>Often edits the same widget several times in a row,
+     *  like a user who drags a widget or types a value.
+     */
+    private void edit(final UndoableActionManager undo, final DisplayModel model, final Widget widget)
+    {
+        switch (random.nextInt(5))
+        {
+        case 0:
+            undo.execute(new SetWidgetPropertyAction<>(widget.propHeight(), 10 + random.nextInt(200)));
+            break;
+        case 1:
+            if (widget instanceof LabelWidget)
+                undo.execute(new SetMacroizedWidgetPropertyAction((MacroizedWidgetProperty<?>) ((LabelWidget) widget).propText(), createText()));
+            else
+                undo.execute(new SetWidgetPropertyAction<>(widget.propName(), createText()));
+            break;
+        case 2:
+            if (widget instanceof PolylineWidget)
+                undo.execute(new SetWidgetPointsAction(((PolylineWidget) widget).propPoints(), createPoints()));
+            else
+                undo.add(move(widget));
+            break;
+        case 3:
+        {
+            final CompoundUndoableAction compound = new CompoundUndoableAction("Move");
+            compound.add(move(widget));
+            compound.add(move(pickWidget(model)));
+            undo.add(compound);
+            break;
+        }
+        default:
+            undo.add(move(widget));
+        }
+    }
+
+    private void checkReplay(final UndoableActionManager undo) throws Exception
+    {
+        final DisplayModel model = createModel();
+        final String original = ModelWriter.getXML(model.getChildren());
+
+        long start = System.nanoTime();
+        Widget widget = pickWidget(model);
+        for (int i=0; i<EDITS; ++i)
+        {
+            if (random.nextInt(4) == 0)
+                widget = pickWidget(model);
+            edit(undo, model, widget);
+        }
+        long nanos = System.nanoTime() - start;
+        final String edited = ModelWriter.getXML(model.getChildren());
+        assertThat(edited, not(equalTo(original)));
+
+        int steps = 0;
+        start = System.nanoTime();
+        while (undo.undoLast() != null)
+            ++steps;
+        final long undo_nanos = System.nanoTime() - start;
+        System.out.format("%d edits in %.1f ms, %d undo steps in %.1f ms using %d bytes, %d spilled\n",
+                          EDITS, nanos/1e6, steps, undo_nanos/1e6,
+                          undo.getSize(), undo.getSpilledSize());
+        assertTrue(steps < EDITS);
+        assertThat(ModelWriter.getXML(model.getChildren()), equalTo(original));
+
+        int redo_steps = 0;
+        while (undo.redoLast() != null)
+            ++redo_steps;
+        assertThat(redo_steps, equalTo(steps));
+        assertThat(ModelWriter.getXML(model.getChildren()), equalTo(edited));
+    }
+
+    @Test
+    public void testReplay() throws Exception
+    {
+        final UndoableActionManager undo = new UndoableActionManager(EDITS);
+        checkReplay(undo);
+    }
+
+    @Test
+    public void testSpilledReplay() throws Exception
+    {
+        final UndoableActionManager undo = new UndoableActionManager(EDITS, Long.MAX_VALUE, true);
+        checkReplay(undo);
+        assertTrue(undo.getSpilledSize() > 0);
+        undo.clear();
+        assertThat(undo.getSpilledSize(), equalTo(0L));
+    }
+
+    @Test
+    public void testSpillCompaction() throws Exception
+    {
+        final int stack_size = 10, edits = 1000, length = 4000;
+        final UndoableActionManager undo = new UndoableActionManager(stack_size, Long.MAX_VALUE, true);
+        final LabelWidget label = new LabelWidget();
+        final MacroizedWidgetProperty<?> text = (MacroizedWidgetProperty<?>) label.propText();
+
+        // Each edit spills its text, but only the last few edits are kept
+        String kept = null;
+        long max_spilled = 0;
+        for (int i=0; i<edits; ++i)
+        {
+            if (i == edits - stack_size)
+                kept = text.getSpecification();
+            final StringBuilder buf = new StringBuilder();
+            for (int c=0; c<length; ++c)
+                buf.append((char) ('a' + random.nextInt(26)));
+            undo.execute(new SetMacroizedWidgetPropertyAction(text, buf.toString()));
+            max_spilled = Math.max(max_spilled, undo.getSpilledSize());
+        }
+        System.out.println("Spill file for " + stack_size + " of " + edits + " edits used up to " + max_spilled + " bytes");
+        assertTrue(max_spilled > 0);
+        // Without reclaiming the space of dropped entries,
+        // the file would hold the text of all edits
+        assertTrue(max_spilled < 4 * stack_size * length);
+
+        // Kept entries can still be read after the file was compacted
+        final String edited = text.getSpecification();
+        int steps = 0;
+        while (undo.undoLast() != null)
+            ++steps;
+        assertThat(steps, equalTo(stack_size));
+        assertThat(text.getSpecification(), equalTo(kept));
+        while (undo.redoLast() != null)
+            --steps;
+        assertThat(steps, equalTo(0));
+        assertThat(text.getSpecification(), equalTo(edited));
+
+        undo.clear();
+        assertThat(undo.getSpilledSize(), equalTo(0L));
+    }
+
+    @Test
+    public void testMemoryBudget() throws Exception
+    {
+        final long budget = 100 * 1024;
+        final UndoableActionManager undo = new UndoableActionManager(EDITS, budget, false);
+        final DisplayModel model = createModel();
+        for (int i=0; i<EDITS; ++i)
+        {
+            edit(undo, model, pickWidget(model));
+            assertTrue(undo.getSize() <= budget);
+        }
+        int steps = 0;
+        while (undo.undoLast() != null)
+            ++steps;
+        System.out.println("Budget of " + budget + " bytes keeps " + steps + " undo steps");
+        assertTrue(steps > 10);
+        assertTrue(steps < EDITS);
+    }
+
+    @Test
+    public void testCoalesce() throws Exception
+    {
+        final UndoableActionManager undo = new UndoableActionManager(10);
+        final DisplayModel model = createModel();
+        final Widget widget = pickWidget(model);
+        final int orig_x = widget.propX().getValue();
+
+        // Dragging a widget results in one undo step
+        for (int i=0; i<100; ++i)
+            undo.add(move(widget));
+        final int x = widget.propX().getValue();
+        assertThat(undo.undoLast() != null, equalTo(true));
+        assertThat(undo.canUndo(), equalTo(false));
+        assertThat(widget.propX().getValue(), equalTo(orig_x));
+        undo.redoLast();
+        assertThat(widget.propX().getValue(), equalTo(x));
+
+        // After undo/redo, next edit is a new step
+        undo.add(move(widget));
+        undo.add(move(widget));
+        undo.undoLast();
+        assertThat(widget.propX().getValue(), equalTo(x));
+    }
+}
@@ -38,6 +38,7 @@ import org.csstudio.display.builder.model.WidgetDescriptor;
 import org.csstudio.display.builder.model.persist.ModelReader;
 import org.csstudio.display.builder.model.persist.ModelWriter;
 import org.csstudio.display.builder.model.util.ModelThreadPool;
+import org.csstudio.display.builder.model.util.WidgetSpatialIndex;
 import org.csstudio.display.builder.model.widgets.ArrayWidget;
 import org.csstudio.display.builder.model.widgets.TabsWidget;
 import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
@@ -150,7 +151,7 @@ public class DisplayEditor
     public DisplayEditor(final JFXRepresentation toolkit, final int stack_size)
     {
         this.toolkit = toolkit;
-        undo = new UndoableActionManager(stack_size);
+        undo = new UndoableActionManager(stack_size, Preferences.getUndoMemory(), Preferences.isUndoSpilled());
 
         group_handler = new ParentHandler(edit_tools, selection);
 
@@ -550,8 +551,13 @@ public class DisplayEditor
 
         final DisplayModel old_model = this.model;
         if (old_model != null)
+        {
             toolkit.disposeRepresentation(old_model);
+            WidgetSpatialIndex.remove(old_model);
+        }
         this.model = Objects.requireNonNull(model);
+        // Index widget locations for rubberband, snap, parent lookup
+        WidgetSpatialIndex.of(model);
 
         // Create representation for model items
         try
@@ -732,8 +738,13 @@ public class DisplayEditor
 
     public void dispose()
     {
+        // Also closes the undo journal's spill file
+        undo.clear();
         if (model != null)
+        {
             toolkit.disposeRepresentation(model);
+            WidgetSpatialIndex.remove(model);
+        }
         model = null;
     }
 
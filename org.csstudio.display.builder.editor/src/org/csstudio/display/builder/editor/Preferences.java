@@ -35,4 +35,23 @@ public class Preferences
         }
         return deprecated;
     }
+
+    /** @return Memory budget for undo/redo history in bytes */
+    public static long getUndoMemory()
+    {
+        int mb = 64;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs != null)
+            mb = prefs.getInt(Plugin.ID, "undo_memory_mb", mb, null);
+        return mb * 1024L * 1024L;
+    }
+
+    /** @return Spill larger undo data to a temporary file? */
+    public static boolean isUndoSpilled()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+            return false;
+        return prefs.getBoolean(Plugin.ID, "undo_spill", false, null);
+    }
 }
@@ -142,8 +142,11 @@ public class PropertyPanel extends BorderPane
         }
         final DisplayModel model = editor.getModel();
 
-        section.clear();
         section.setClassMode(model != null && model.isClassModel());
+        // Re-use existing UI items when only the values change
+        if (section.rebind(filtered, other))
+            return;
+        section.clear();
         section.fill(editor.getUndoableActionManager(), filtered, other);
     }
 }
@@ -97,6 +97,11 @@ import javafx.scene.layout.StackPane;
  *  or to re-create the complete section (currently done).
  *  See {@link ArraySizePropertyBinding} for details.
  *
+ *  <p>When the selection changes to widgets that result in the same
+ *  layout, i.e. same widget type and same properties,
+ *  the existing UI items are kept and their bindings
+ *  are moved to the properties of the newly selected widgets.
+ *
  *  @author Kay Kasemir
  *  @author Claudio Rosati
  */
@@ -112,6 +117,9 @@ public class PropertyPanelSection extends GridPane
     private final List<WidgetPropertyBinding<?,?>> bindings = new ArrayList<>();
     private int next_row = -1;
 
+    /** Layout of the current UI items, see {@link #computeLayout(Collection)} */
+    private List<String> layout = null;
+
     //  Instance initializer.
     {
 
@@ -136,6 +144,7 @@ public class PropertyPanelSection extends GridPane
               final Collection<WidgetProperty<?>> properties,
               final List<Widget> other)
     {
+        layout = computeLayout(properties);
         // Add UI items for each property
         WidgetPropertyCategory category = null;
         for (final WidgetProperty<?> property : properties)
@@ -168,6 +177,63 @@ public class PropertyPanelSection extends GridPane
         }
     }
 
+    /** Bind existing UI items to different properties
+     *
+     *  <p>Only possible if the properties result in the same layout
+     *  as the properties used to {@link #fill} the section.
+     *
+     *  @param properties Properties of the primary widget
+     *  @param other Zero or more additional widgets that have same type of property
+     *  @return <code>true</code> if UI items were re-used,
+     *          <code>false</code> if section needs to be cleared and filled
+     */
+    boolean rebind(final Collection<WidgetProperty<?>> properties,
+                   final List<Widget> other)
+    {
+        if (layout == null  ||  ! layout.equals(computeLayout(properties)))
+            return false;
+        if (! properties.isEmpty())
+        {
+            final Widget primary = properties.iterator().next().getWidget();
+            for (WidgetPropertyBinding<?,?> binding : bindings)
+                binding.rebind(primary, other);
+        }
+        return true;
+    }
+
+    /** Determine layout of UI items
+     *
+     *  <p>Properties of the same type, name and read-only state
+     *  in the same order use the same UI items.
+     *  Labels, combo box items and class information depend on the widget type.
+     *
+     *  @param properties Properties
+     *  @return Description of the layout
+     */
+    private List<String> computeLayout(final Collection<? extends WidgetProperty<?>> properties)
+    {
+        final List<String> result = new ArrayList<>();
+        result.add(class_mode ? "class" : "display");
+        if (! properties.isEmpty())
+            result.add(properties.iterator().next().getWidget().getType());
+        addLayout(result, properties);
+        return result;
+    }
+
+    private void addLayout(final List<String> result, final Collection<? extends WidgetProperty<?>> properties)
+    {
+        for (WidgetProperty<?> property : properties)
+        {
+            if (property.getCategory() == WidgetPropertyCategory.RUNTIME)
+                continue;
+            result.add(property.getClass().getName() + " " + property.getName() + (property.isReadonly() ? " (ro)" : ""));
+            if (property instanceof StructuredWidgetProperty)
+                addLayout(result, ((StructuredWidgetProperty) property).getValue());
+            else if (property instanceof ArrayWidgetProperty)
+                addLayout(result, ((ArrayWidgetProperty<?>) property).getValue());
+        }
+    }
+
     /** @return Next row in grid layout, i.e. row that is not populated */
     private int getNextGridRow()
     {
@@ -214,8 +280,10 @@ public class PropertyPanelSection extends GridPane
             else
             {
                 final TextField text = new TextField();
-                text.setText(String.valueOf(property.getValue()));
                 text.setDisable(true);
+                final ReadonlyPropertyBinding binding = new ReadonlyPropertyBinding(text, property);
+                bindings.add(binding);
+                binding.bind();
                 field = text;
             }
         }
@@ -261,14 +329,22 @@ public class PropertyPanelSection extends GridPane
             BorderPane.setMargin(macroButton, new Insets(0, 0, 0, 3));
             BorderPane.setAlignment(macroButton, Pos.CENTER);
 
-            final EnumWidgetPropertyBinding binding = new EnumWidgetPropertyBinding(undo, combo, enum_prop, other);
-            bindings.add(binding);
-            binding.bind();
+            final EnumWidgetPropertyBinding binding = new EnumWidgetPropertyBinding(undo, combo, enum_prop, other)
+            {
+                @Override
+                public void bind()
+                {
+                    super.bind();
+                    // Show macro mode for the (possibly re-bound) property
+                    macroButton.setSelected(MacroHandler.containsMacros(widget_property.getSpecification()));
+                    macroButton.getOnAction().handle(null);
+                }
+            };
 
             final EventHandler<ActionEvent> macro_handler = event ->
             {
                 final boolean use_macro = macroButton.isSelected() ||
-                                          MacroHandler.containsMacros(enum_prop.getSpecification());
+                                          MacroHandler.containsMacros(binding.widget_property.getSpecification());
                 combo.setEditable(use_macro);
                 // Combo's text field has been set to the current value
                 // while the combo was non-editable.
@@ -278,8 +354,8 @@ public class PropertyPanelSection extends GridPane
                     binding.restore();
             };
             macroButton.setOnAction(macro_handler);
-            macroButton.setSelected(MacroHandler.containsMacros(enum_prop.getSpecification()));
-            macro_handler.handle(null);
+            bindings.add(binding);
+            binding.bind();
 
             field = new BorderPane(combo, null, macroButton, null, null);
             // When used in RulesDialog, field can get focus.
@@ -373,23 +449,25 @@ public class PropertyPanelSection extends GridPane
             final TextField text = InputUtils.wrap(new TextField());
             text.setPromptText(file_prop.getDefaultValue().toString());
             text.setMaxWidth(Double.MAX_VALUE);
+            final MacroizedWidgetPropertyBinding binding = new MacroizedWidgetPropertyBinding(undo, text, file_prop, other);
+            bindings.add(binding);
+            binding.bind();
             final Button select_file = new Button("...");
             select_file.setOnAction(event ->
             {
+                // Binding may have been moved to the same property of another widget
+                final FilenameWidgetProperty bound_prop = (FilenameWidgetProperty) binding.widget_property;
                 try
                 {
-                    final String filename = FilenameSupport.promptForRelativePath(widget, file_prop.getValue());
+                    final String filename = FilenameSupport.promptForRelativePath(bound_prop.getWidget(), bound_prop.getValue());
                     if (filename != null)
-                        undo.execute(new SetMacroizedWidgetPropertyAction(file_prop, filename));
+                        undo.execute(new SetMacroizedWidgetPropertyAction(bound_prop, filename));
                 }
                 catch (Exception ex)
                 {
-                    logger.log(Level.WARNING, "Cannot prompt for " + file_prop, ex);
+                    logger.log(Level.WARNING, "Cannot prompt for " + bound_prop, ex);
                 }
             });
-            final MacroizedWidgetPropertyBinding binding = new MacroizedWidgetPropertyBinding(undo, text, file_prop, other);
-            bindings.add(binding);
-            binding.bind();
             field = new HBox(text, select_file);
             HBox.setHgrow(text, Priority.ALWAYS);
             // For RulesDialog, see above
@@ -428,15 +506,16 @@ public class PropertyPanelSection extends GridPane
             final Button open_editor = new Button("...");
             open_editor.setOnAction(event ->
             {
-                final MultiLineInputDialog dialog = new MultiLineInputDialog(pv_prop.getSpecification());
+                final MacroizedWidgetProperty<?> bound_prop = binding.widget_property;
+                final MultiLineInputDialog dialog = new MultiLineInputDialog(bound_prop.getSpecification());
                 DialogHelper.positionDialog(dialog, open_editor, -600, 0);
                 final Optional<String> result = dialog.showAndWait();
                 if (!result.isPresent())
                     return;
-                undo.execute(new SetMacroizedWidgetPropertyAction(pv_prop, result.get()));
-                for (Widget w : other)
+                undo.execute(new SetMacroizedWidgetPropertyAction(bound_prop, result.get()));
+                for (Widget w : binding.other)
                 {
-                    final MacroizedWidgetProperty<?> other_prop = (MacroizedWidgetProperty<?>) w.getProperty(pv_prop.getName());
+                    final MacroizedWidgetProperty<?> other_prop = (MacroizedWidgetProperty<?>) w.getProperty(bound_prop.getName());
                     undo.execute(new SetMacroizedWidgetPropertyAction(other_prop, result.get()));
                 }
             });
@@ -464,14 +543,15 @@ public class PropertyPanelSection extends GridPane
                 final Button open_editor = new Button("...");
                 open_editor.setOnAction(event ->
                 {
-                    final MultiLineInputDialog dialog = new MultiLineInputDialog(open_editor, macro_prop.getSpecification());
+                    final MacroizedWidgetProperty<?> bound_prop = binding.widget_property;
+                    final MultiLineInputDialog dialog = new MultiLineInputDialog(open_editor, bound_prop.getSpecification());
                     final Optional<String> result = dialog.showAndWait();
                     if (!result.isPresent())
                         return;
-                    undo.execute(new SetMacroizedWidgetPropertyAction(macro_prop, result.get()));
-                    for (Widget w : other)
+                    undo.execute(new SetMacroizedWidgetPropertyAction(bound_prop, result.get()));
+                    for (Widget w : binding.other)
                     {
-                        final MacroizedWidgetProperty<?> other_prop = (MacroizedWidgetProperty<?>) w.getProperty(macro_prop.getName());
+                        final MacroizedWidgetProperty<?> other_prop = (MacroizedWidgetProperty<?>) w.getProperty(bound_prop.getName());
                         undo.execute(new SetMacroizedWidgetPropertyAction(other_prop, result.get()));
                     }
                 });
@@ -651,8 +731,10 @@ public class PropertyPanelSection extends GridPane
         else
         {   // Fallback for unknown property: read-only
             final TextField text = new TextField();
-            text.setText(String.valueOf(property.getValue()));
             text.setEditable(false);
+            final ReadonlyPropertyBinding binding = new ReadonlyPropertyBinding(text, property);
+            bindings.add(binding);
+            binding.bind();
             field = text;
         }
 
@@ -776,6 +858,7 @@ public class PropertyPanelSection extends GridPane
      */
     void clear()
     {
+        layout = null;
         bindings.forEach(WidgetPropertyBinding::unbind);
         bindings.clear();
         getChildren().clear();
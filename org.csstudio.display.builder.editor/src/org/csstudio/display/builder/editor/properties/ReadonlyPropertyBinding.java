@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.editor.properties;
+
+import org.csstudio.display.builder.model.WidgetProperty;
+
+import javafx.scene.control.TextField;
+
+/** Show value of a property that cannot be edited
+ *
+ *  <p>Only updates the text field when bound.
+ *
+ *  @author Kay Kasemir
+ */
+public class ReadonlyPropertyBinding extends WidgetPropertyBinding<TextField, WidgetProperty<?>>
+{
+    public ReadonlyPropertyBinding(final TextField field, final WidgetProperty<?> property)
+    {
+        super(null, field, property, null);
+    }
+
+    @Override
+    public void bind()
+    {
+        jfx_node.setText(String.valueOf(widget_property.getValue()));
+    }
+
+    @Override
+    public void unbind()
+    {
+        // Nothing to remove
+    }
+}
@@ -235,6 +235,7 @@ public class RulesDialog extends Dialog<List<RuleInfo>>
         protected StringProperty name = new SimpleStringProperty();
         protected StringProperty prop_id = new SimpleStringProperty();
         public BooleanProperty prop_as_expr = new SimpleBooleanProperty(false);
+        protected int min_period = 0;
         protected Widget attached_widget = null;
 
 
@@ -276,7 +277,9 @@ public class RulesDialog extends Dialog<List<RuleInfo>>
                 }
             });
 
-            return new RuleItem(attached_widget, exprs, pvs, info.getName(), info.getPropID(), info.getPropAsExprFlag());
+            final RuleItem item = new RuleItem(attached_widget, exprs, pvs, info.getName(), info.getPropID(), info.getPropAsExprFlag());
+            item.min_period = info.getMinPeriod();
+            return item;
         }
 
         public RuleInfo getRuleInfo()
@@ -285,7 +288,7 @@ public class RulesDialog extends Dialog<List<RuleInfo>>
             pvs.forEach(pv -> spvs.add(pv.toScriptPV()));
             final List<ExpressionInfo<?>> exps = new ArrayList<>();
             expressions.forEach(exp -> exps.add(exp.toExprInfo()));
-            return new RuleInfo(name.get(), prop_id.get(), prop_as_expr.get(), exps, spvs);
+            return new RuleInfo(name.get(), prop_id.get(), prop_as_expr.get(), min_period, exps, spvs);
         }
 
         public StringProperty nameProperty()
@@ -24,8 +24,8 @@ abstract public class WidgetPropertyBinding<JFX extends Node, WP extends WidgetP
 {
     protected final UndoableActionManager undo;
     protected final JFX jfx_node;
-    protected final WP widget_property;
-    protected final List<Widget> other;
+    protected WP widget_property;
+    protected List<Widget> other;
 
     /** Break update loops JFX change -> model change -> JFX change -> ... */
     protected boolean updating = false;
@@ -50,4 +50,23 @@ abstract public class WidgetPropertyBinding<JFX extends Node, WP extends WidgetP
 
     /** Remove the binding */
     abstract public void unbind();
+
+    /** Bind to the same property of a different widget
+     *
+     *  <p>Allows the property panel to re-use the JFX node
+     *  when the selection changes to widgets with the same properties.
+     *
+     *  @param widget Widget that has a property of the same type at the same path
+     *  @param other Other widgets where same property should be updated
+     */
+    @SuppressWarnings("unchecked")
+    public void rebind(final Widget widget, final List<Widget> other)
+    {
+        final WP property = (WP) widget.getProperty(widget_property.getPath());
+        unbind();
+        widget_property = property;
+        this.other = other;
+        updating = false;
+        bind();
+    }
 }
@@ -10,12 +10,12 @@ package org.csstudio.display.builder.editor.tracker;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.RecursiveTask;
 
 import org.csstudio.display.builder.editor.util.GeometryTools;
-import org.csstudio.display.builder.model.ChildrenProperty;
 import org.csstudio.display.builder.model.DisplayModel;
 import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.util.WidgetSpatialIndex;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
 
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
@@ -29,24 +29,13 @@ import javafx.scene.shape.Line;
 @SuppressWarnings("nls")
 public class TrackerSnapConstraint extends TrackerConstraint
 {
-    // Brute-force implementation that searches all widgets
-    // for the closest match.
-    //
-    // Idea by Tom Pelaia:
-    // Create lists of widgets sorted by coordinates.
-    // Probably need one for X0, Y0, X1, Y1.
-    // Then perform binary search in those lists for closest widget.
-    // When moving tracker, start next search at last index in list to further minimize
-    // the 'binary' search.
-
-    /** If number of widgets to check exceeds this threshold,
-     *  the search is parallelized into 2 sub-tasks.
-     *
-     *  When too small, creating of threads defeats the parallel gain.
-     *
-     *  XXX Preference setting for PARALLEL_THRESHOLD or find optimum value
-     */
-    public static final int PARALLEL_THRESHOLD = 50;
+    // Uses the WidgetSpatialIndex of the model to only check
+    // widgets with corners close to the requested point:
+    // A corner within the horizontal snap distance lies in a vertical
+    // strip around the requested point, and vice versa.
+
+    /** Strip that extends across the whole display */
+    private static final double STRIP_START = -Integer.MAX_VALUE / 2, STRIP_SIZE = Integer.MAX_VALUE;
 
     private final double snap_distance = 10;
 
@@ -73,132 +62,91 @@ public class TrackerSnapConstraint extends TrackerConstraint
 
         /** Distance at which the vertical snap was found */
         double vert_distance = Double.MAX_VALUE;
+    }
 
-        /** @param other Other result from which to use horiz or vert if they're closer */
-        public void updateFrom(final SnapResult other)
-        {
-            if (other.horiz_distance < horiz_distance)
-            {
-                horiz = other.horiz;
-                horiz_distance = other.horiz_distance;
-            }
-            if (other.vert_distance < vert_distance)
-            {
-                vert = other.vert;
-                vert_distance = other.vert_distance;
-            }
-        }
+    /** @param result Result to update
+     *  @param x Requested X position
+     *  @param y Requested Y position
+     *  @param bounds Bounds of widget where corners are checked as snap candidates
+     */
+    private void checkCorners(final SnapResult result, final double x, final double y, final Rectangle2D bounds)
+    {
+        updateSnapResult(result, x, y, bounds.getMinX(), bounds.getMinY());
+        updateSnapResult(result, x, y, bounds.getMaxX(), bounds.getMinY());
+        updateSnapResult(result, x, y, bounds.getMaxX(), bounds.getMaxY());
+        updateSnapResult(result, x, y, bounds.getMinX(), bounds.getMaxY());
     }
 
-    /** Parallel search for snap points in list of widgets */
-    private class SnapSearch extends RecursiveTask<SnapResult>
+    /** @param widget Widget
+     *  @return Is widget a snap candidate?
+     */
+    private boolean isCandidate(Widget widget)
     {
-        private static final long serialVersionUID = 7120422764377430462L;
-        private final List<Widget> widgets;
-        private final double x;
-        private final double y;
-
-        /** @param widgets Widgets to search
-         *  @param x Requested X position
-         *  @param y Requested Y position
-         */
-        SnapSearch(final List<Widget> widgets, final double x, final double y)
+        while (widget != null  &&  ! (widget instanceof DisplayModel))
         {
-            this.widgets = widgets;
-            this.x = x;
-            this.y = y;
+            // Do _not_ snap to one of the active widgets (or their children),
+            // because that would lock their coordinates.
+            if (selected_widgets.contains(widget))
+                return false;
+            final Widget parent = widget.getParent().orElse(null);
+            // Widgets inside tabs are not considered
+            if (parent instanceof TabsWidget)
+                return false;
+            widget = parent;
         }
+        return true;
+    }
 
-        @Override
-        protected SnapResult compute()
-        {
-            return checkWidgets(widgets);
-        }
+    /** @param result Result to update if this test point is closer
+     *  @param x Requested X position
+     *  @param y Requested Y position
+     *  @param corner_x X coord of a widget corner
+     *  @param corner_y Y coord of a widget corner
+     */
+    private void updateSnapResult(final SnapResult result,
+                                  final double x, final double y,
+                                  final double corner_x, final double corner_y)
+    {
+        // Determine distance of corner from requested point
+        final double dx = Math.abs(corner_x - x);
+        final double dy = Math.abs(corner_y - y);
+        final double distance = dx*dx + dy*dy;
 
-        private SnapResult checkWidgets(final List<Widget> widgets)
+        // Horizontal snap, closer to what's been found before?
+        if (dx < snap_distance  &&  distance < result.horiz_distance)
         {
-            final SnapResult result;
-            final int N = widgets.size();
-            if (N > PARALLEL_THRESHOLD)
-            {
-                // System.out.println("Splitting the search");
-                final int split = N / 2;
-                final SnapSearch sub1 = new SnapSearch(widgets.subList(0, split), x, y);
-                final SnapSearch sub2 = new SnapSearch(widgets.subList(split, N), x, y);
-                // Spawn sub1, handle sub2 in this thread, then combine results
-                sub1.fork();
-                result = sub2.compute();
-                result.updateFrom(sub1.join());
-            }
-            else
-            {
-                result = new SnapResult();
-                for (final Widget child : widgets)
-                {
-                    final SnapResult sub_result = checkWidget(x, y, child);
-                    result.updateFrom(sub_result);
-                }
-            }
-            return result;
+            result.horiz = corner_x;
+            result.horiz_distance = distance;
         }
 
-        /** @param x Requested X position
-         *  @param y Requested Y position
-         *  @param widget Widget where corners are checked as snap candidates
-         *  @return {@link SnapResult}
-         */
-        private SnapResult checkWidget(final double x, final double y, final Widget widget)
+        // Vertical snap, closer to what's been found before?
+        if (dy < snap_distance  &&  distance < result.vert_distance)
         {
-            // System.out.println("Checking " + widget.getClass().getSimpleName() + " in " + Thread.currentThread().getName());
-            final SnapResult result = new SnapResult();
-
-            // Do _not_ snap to one of the active widgets,
-            // because that would lock their coordinates.
-            if (selected_widgets.contains(widget))
-                return result;
-
-            // Check all widget corners
-            final Rectangle2D bounds = GeometryTools.getDisplayBounds(widget);
-            updateSnapResult(result, x, y, bounds.getMinX(), bounds.getMinY());
-            updateSnapResult(result, x, y, bounds.getMaxX(), bounds.getMinY());
-            updateSnapResult(result, x, y, bounds.getMaxX(), bounds.getMaxY());
-            updateSnapResult(result, x, y, bounds.getMinX(), bounds.getMaxY());
-
-            final ChildrenProperty children = ChildrenProperty.getChildren(widget);
-            if (children != null)
-                result.updateFrom(checkWidgets(children.getValue()));
-            return result;
+            result.vert = corner_y;
+            result.vert_distance = distance;
         }
+    }
 
-        /** @param result Result to update if this test point is closer
-         *  @param x Requested X position
-         *  @param y Requested Y position
-         *  @param corner_x X coord of a widget corner
-         *  @param corner_y Y coord of a widget corner
-         */
-        private void updateSnapResult(final SnapResult result,
-                                      final double x, final double y,
-                                      final double corner_x, final double corner_y)
-        {
-            // Determine distance of corner from requested point
-            final double dx = Math.abs(corner_x - x);
-            final double dy = Math.abs(corner_y - y);
-            final double distance = dx*dx + dy*dy;
-
-            // Horizontal snap, closer to what's been found before?
-            if (dx < snap_distance  &&  distance < result.horiz_distance)
-            {
-                result.horiz = corner_x;
-                result.horiz_distance = distance;
-            }
-
-            // Vertical snap, closer to what's been found before?
-            if (dy < snap_distance  &&  distance < result.vert_distance)
+    /** @param x Requested X position
+     *  @param y Requested Y position
+     *  @return {@link SnapResult}
+     */
+    private SnapResult findSnap(final double x, final double y)
+    {
+        final SnapResult result = new SnapResult();
+        checkCorners(result, x, y, GeometryTools.getDisplayBounds(model));
+
+        final WidgetSpatialIndex index = WidgetSpatialIndex.of(model);
+        final List<Widget> vert_strip = index.findIntersecting(x - snap_distance, STRIP_START, 2*snap_distance, STRIP_SIZE);
+        final List<Widget> horiz_strip = index.findIntersecting(STRIP_START, y - snap_distance, STRIP_SIZE, 2*snap_distance);
+        for (List<Widget> candidates : Arrays.asList(vert_strip, horiz_strip))
+            for (Widget widget : candidates)
             {
-                result.vert = corner_y;
-                result.vert_distance = distance;
+                final int[] bounds = index.getBounds(widget);
+                if (bounds != null  &&  isCandidate(widget))
+                    checkCorners(result, x, y, GeometryTools.toRectangle(bounds));
             }
-        }
+        return result;
     }
 
     /** @param group Group where snap lines are added */
@@ -245,10 +193,7 @@ public class TrackerSnapConstraint extends TrackerConstraint
     @Override
     public Point2D constrain(double x, double y)
     {
-        // System.out.println("Snap search:");
-        final SnapSearch task = new SnapSearch(Arrays.asList(model), x, y);
-        final SnapResult result = task.compute();
-        // System.out.println("Done");
+        final SnapResult result = findSnap(x, y);
 
         // Editor's viewport that's used to determine size of snap lines
         final Parent viewport;
@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.editor.tree;
+
+import static org.csstudio.display.builder.editor.Plugin.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import org.csstudio.display.builder.model.ArrayWidgetProperty;
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.WidgetPropertyListener;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
+import org.csstudio.javafx.TreeHelper;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+/** Tree items for the widget hierarchy of a model
+ *
+ *  <p>Tree items for the children of a widget are only created
+ *  when the item of the widget is expanded, or when a child
+ *  needs to be revealed because it is selected.
+ *  Listeners to the model are added as items get populated,
+ *  and changes in the model's widget hierarchy are applied
+ *  to the affected items instead of re-creating the tree.
+ *
+ *  <p>Items must be accessed on the UI thread.
+ *  Model changes are passed to the UI thread via the provided executor.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+class WidgetTreeItems
+{
+    /** Executor for the UI thread */
+    private final Executor ui_thread;
+
+    /** Invoked on the UI thread after widgets were added */
+    private final Runnable on_add;
+
+    /** Map model widgets to their tree items
+     *
+     *  <p>When model notifies about changed Widget,
+     *  this map provides the corresponding TreeItem.
+     *  Only contains widgets for which items have been created.
+     */
+    private final Map<Widget, WidgetItem> widget2tree = new ConcurrentHashMap<>();
+
+    /** Map of tab's name property to TreeItem */
+    private final Map<WidgetProperty<String>, WidgetItem> tab_name2tree = new ConcurrentHashMap<>();
+
+    /** Number of items created, for tests */
+    private final AtomicInteger created = new AtomicInteger();
+
+    private volatile WidgetItem root = null;
+
+    /** Tree item that creates its child items when they are first requested */
+    private class WidgetItem extends TreeItem<WidgetOrTab>
+    {
+        private volatile boolean populated = false;
+
+        WidgetItem(final WidgetOrTab widget_or_tab)
+        {
+            super(widget_or_tab);
+            created.incrementAndGet();
+        }
+
+        @Override
+        public boolean isLeaf()
+        {
+            // Determined without populating the item.
+            // Containers may turn out to be empty.
+            final WidgetOrTab wot = getValue();
+            if (! wot.isWidget())
+                return wot.getTab() == null;
+            final Widget widget = wot.getWidget();
+            return ! (widget instanceof TabsWidget)  &&
+                   ChildrenProperty.getChildren(widget) == null;
+        }
+
+        @Override
+        public ObservableList<TreeItem<WidgetOrTab>> getChildren()
+        {
+            if (! populated)
+            {
+                populated = true;
+                populate(this);
+            }
+            return super.getChildren();
+        }
+    }
+
+    /** Listener to changes in a widget's children */
+    private final WidgetPropertyListener<List<Widget>> children_listener = (p, removed, added) ->
+    {
+        // Update must be on UI thread.
+        // Even if already on UI thread, decouple.
+        if (removed != null)
+            ui_thread.execute(() ->
+            {
+                for (Widget removed_widget : removed)
+                    removeWidget(removed_widget);
+            });
+
+        if (added != null)
+        {   // Need to determine the index of added item in model _now_,
+            // not in decoupled thread.
+            // Assume model [ a, b, c, d ] that moves a, b, to the end: [ b, c, d, a ], then [ c, d, a, b ]
+            // By the time decoupled thread moves a, it will already see the model as [ c, d, a, b ]
+            // and thus determine that a needs to be at index 2 -> [ b, c, a, d ]
+            // Then it moves b, determined that it needs to be at index 3 -> [ c, a, d, b ]
+            final int[] indices = new int[added.size()];
+            for (int i=0; i<indices.length; ++i)
+                indices[i] = determineWidgetIndex(added.get(i));
+
+            ui_thread.execute(() ->
+            {
+                for (int i=0; i<indices.length; ++i)
+                    addWidget(added.get(i), indices[i]);
+                on_add.run();
+            });
+        }
+    };
+
+    /** Listener to changes in a widget's name */
+    private final WidgetPropertyListener<String> name_listener = (property, old, new_name) ->
+    {
+        final Widget widget = property.getWidget();
+        logger.log(Level.FINE, "{0} changed name", widget);
+        ui_thread.execute(() ->
+        {
+            final TreeItem<WidgetOrTab> item = widget2tree.get(widget);
+            if (item != null)
+                TreeHelper.triggerTreeItemRefresh(item);
+        });
+    };
+
+    /** Listener to changes in a TabWidget's tabs */
+    private final WidgetPropertyListener<List<TabItemProperty>> tabs_listener = (tabs, removed, added) ->
+    {
+        ui_thread.execute(() ->
+        {
+            if (added != null)
+                for (TabItemProperty tab : added)
+                    addTab(tab);
+            if (removed != null)
+                for (TabItemProperty tab : removed)
+                    removeTab(tab);
+        });
+    };
+
+    /** Update the name of a tab item in the tree */
+    private final WidgetPropertyListener<String> tab_name_listener = (tab_name, old_name, new_name) ->
+    {
+        ui_thread.execute(() ->
+        {
+            final TreeItem<WidgetOrTab> tab_item = tab_name2tree.get(tab_name);
+            if (tab_item != null)
+                TreeHelper.triggerTreeItemRefresh(tab_item);
+        });
+    };
+
+    /** @param ui_thread Executor for the UI thread
+     *  @param on_add Invoked on the UI thread after widgets were added
+     */
+    WidgetTreeItems(final Executor ui_thread, final Runnable on_add)
+    {
+        this.ui_thread = ui_thread;
+        this.on_add = on_add;
+    }
+
+    /** Create root item for model
+     *
+     *  <p>Detaches from a previous model.
+     *  May be called off the UI thread before the new root is shown.
+     *
+     *  @param model Model, may be <code>null</code>
+     *  @return Root item
+     */
+    TreeItem<WidgetOrTab> setModel(final DisplayModel model)
+    {
+        dispose();
+        final WidgetItem item = createWidgetItem(model);
+        if (model != null)
+        {   // Top-level items are always shown
+            item.getChildren();
+            item.setExpanded(true);
+        }
+        root = item;
+        return item;
+    }
+
+    /** @param widget Widget
+     *  @return Tree item of widget or <code>null</code> if not (yet) created
+     */
+    TreeItem<WidgetOrTab> getItem(final Widget widget)
+    {
+        return widget2tree.get(widget);
+    }
+
+    /** Get tree item for widget, creating items of its parents as necessary
+     *
+     *  @param widget Widget
+     *  @return Tree item of widget or <code>null</code> if widget is not in model
+     */
+    TreeItem<WidgetOrTab> reveal(final Widget widget)
+    {
+        final TreeItem<WidgetOrTab> item = widget2tree.get(widget);
+        if (item != null)
+            return item;
+        final Widget widget_parent = widget.getParent().orElse(null);
+        if (widget_parent == null)
+            return null;
+        final TreeItem<WidgetOrTab> parent_item = reveal(widget_parent);
+        if (parent_item == null)
+            return null;
+        if (widget_parent instanceof TabsWidget)
+        {
+            parent_item.getChildren();
+            final TreeItem<WidgetOrTab> tab_item = findTabItem((TabsWidget) widget_parent, widget);
+            if (tab_item == null)
+                return null;
+            tab_item.getChildren();
+        }
+        else
+            parent_item.getChildren();
+        return widget2tree.get(widget);
+    }
+
+    /** @return Number of tree items that have been created */
+    int getCreatedItemCount()
+    {
+        return created.get();
+    }
+
+    /** Detach from model */
+    void dispose()
+    {
+        final WidgetItem old_root = root;
+        root = null;
+        if (old_root != null)
+            unlink(old_root);
+        widget2tree.clear();
+        tab_name2tree.clear();
+    }
+
+    private WidgetItem createWidgetItem(final Widget widget)
+    {
+        final WidgetItem item = new WidgetItem(WidgetOrTab.of(widget));
+        if (widget != null)
+        {
+            widget2tree.put(widget, item);
+            widget.propName().addPropertyListener(name_listener);
+        }
+        return item;
+    }
+
+    private WidgetItem createTabItem(final TabItemProperty tab)
+    {
+        final WidgetItem item = new WidgetItem(WidgetOrTab.of(tab));
+        tab_name2tree.put(tab.name(), item);
+        tab.name().addPropertyListener(tab_name_listener);
+        return item;
+    }
+
+    /** Create child items, start to monitor changes to children
+     *  @param item Item to populate
+     */
+    private void populate(final WidgetItem item)
+    {
+        final List<TreeItem<WidgetOrTab>> items = new ArrayList<>();
+        final WidgetOrTab wot = item.getValue();
+        if (wot.isWidget())
+        {
+            final Widget widget = wot.getWidget();
+            if (widget instanceof TabsWidget)
+            {
+                final ArrayWidgetProperty<TabItemProperty> tabs = ((TabsWidget)widget).propTabs();
+                tabs.addPropertyListener(tabs_listener);
+                for (TabItemProperty tab : tabs.getValue())
+                    items.add(createTabItem(tab));
+            }
+            else
+            {
+                final ChildrenProperty children = ChildrenProperty.getChildren(widget);
+                if (children != null)
+                {
+                    children.addPropertyListener(children_listener);
+                    for (Widget child : children.getValue())
+                        items.add(createWidgetItem(child));
+                }
+            }
+        }
+        else if (wot.getTab() != null)
+        {
+            final ChildrenProperty children = wot.getTab().children();
+            children.addPropertyListener(children_listener);
+            for (Widget child : children.getValue())
+                items.add(createWidgetItem(child));
+        }
+        if (! items.isEmpty())
+            item.getChildren().setAll(items);
+    }
+
+    /** Recursively remove model listeners for item and its created child items
+     *  @param item Item to unlink
+     */
+    private void unlink(final WidgetItem item)
+    {
+        final WidgetOrTab wot = item.getValue();
+        if (wot.isWidget())
+        {
+            final Widget widget = wot.getWidget();
+            if (widget == null)
+                return;
+            widget.propName().removePropertyListener(name_listener);
+            widget2tree.remove(widget);
+            if (item.populated)
+            {
+                if (widget instanceof TabsWidget)
+                    ((TabsWidget)widget).propTabs().removePropertyListener(tabs_listener);
+                else
+                {
+                    final ChildrenProperty children = ChildrenProperty.getChildren(widget);
+                    if (children != null)
+                        children.removePropertyListener(children_listener);
+                }
+            }
+        }
+        else if (wot.getTab() != null)
+        {
+            final TabItemProperty tab = wot.getTab();
+            tab.name().removePropertyListener(tab_name_listener);
+            tab_name2tree.remove(tab.name());
+            if (item.populated)
+                tab.children().removePropertyListener(children_listener);
+        }
+        if (item.populated)
+            for (TreeItem<WidgetOrTab> child : item.getChildren())
+                unlink((WidgetItem) child);
+    }
+
+    /** Determine location of widget within parent of model
+     *  @param widget Widget
+     *  @return Index of widget in model's parent
+     */
+    private static int determineWidgetIndex(final Widget widget)
+    {
+        final Widget widget_parent = widget.getParent().orElse(null);
+        if (widget_parent instanceof TabsWidget)
+        {
+            for (TabItemProperty tab : ((TabsWidget)widget_parent).propTabs().getValue())
+            {
+                int index = tab.children().getValue().indexOf(widget);
+                if (index >= 0)
+                    return index;
+            }
+        }
+        else if (widget_parent != null)
+            return ChildrenProperty.getChildren(widget_parent).getValue().indexOf(widget);
+        return -1;
+    }
+
+    /** @param tabs Tabs widget
+     *  @param widget Widget in one of the tabs
+     *  @return Item of the tab that holds the widget, or <code>null</code>
+     */
+    private TreeItem<WidgetOrTab> findTabItem(final TabsWidget tabs, final Widget widget)
+    {
+        for (TabItemProperty tab : tabs.propTabs().getValue())
+            if (tab.children().getValue().contains(widget))
+                return tab_name2tree.get(tab.name());
+        return null;
+    }
+
+    /** Add widget to existing tree
+     *  @param added_widget Widget to add
+     *  @param index Index of widget within parent. -1 to add at end
+     */
+    private void addWidget(final Widget added_widget, final int index)
+    {
+        // Widget was meanwhile removed from model, or already has an item
+        // because parent was populated after the widget was added
+        final Widget widget_parent = added_widget.getParent().orElse(null);
+        if (widget_parent == null  ||  widget2tree.containsKey(added_widget))
+            return;
+
+        // Determine parent tree item
+        final WidgetItem item_parent = (WidgetItem) (widget_parent instanceof TabsWidget
+                                                     ? findTabItem((TabsWidget)widget_parent, added_widget)
+                                                     : widget2tree.get(widget_parent));
+        // Items for children of parent will be created when parent is expanded
+        if (item_parent == null  ||  ! item_parent.populated)
+            return;
+
+        final WidgetItem item = createWidgetItem(added_widget);
+        final ObservableList<TreeItem<WidgetOrTab>> siblings = item_parent.getChildren();
+        if (index >= 0  &&  index <= siblings.size())
+            // Add at same index into Tree
+            siblings.add(index, item);
+        else// Append to end
+            siblings.add(item);
+    }
+
+    /** Remove widget from existing tree
+     *  @param removed_widget Widget to remove
+     */
+    private void removeWidget(final Widget removed_widget)
+    {
+        final WidgetItem item = widget2tree.get(removed_widget);
+        if (item == null)
+            return;
+        unlink(item);
+        final TreeItem<WidgetOrTab> item_parent = item.getParent();
+        if (item_parent != null)
+            item_parent.getChildren().remove(item);
+    }
+
+    private void addTab(final TabItemProperty tab)
+    {
+        final WidgetItem widget_item = widget2tree.get(tab.getWidget());
+        if (widget_item == null  ||  ! widget_item.populated  ||  tab_name2tree.containsKey(tab.name()))
+            return;
+        widget_item.getChildren().add(createTabItem(tab));
+    }
+
+    private void removeTab(final TabItemProperty tab)
+    {
+        final WidgetItem tab_item = tab_name2tree.get(tab.name());
+        if (tab_item == null)
+            return;
+        unlink(tab_item);
+        final TreeItem<WidgetOrTab> item_parent = tab_item.getParent();
+        if (item_parent != null)
+            item_parent.getChildren().remove(tab_item);
+    }
+}
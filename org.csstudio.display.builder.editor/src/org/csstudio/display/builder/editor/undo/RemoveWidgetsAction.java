@@ -74,4 +74,24 @@ public class RemoveWidgetsAction extends UndoableAction
         }
         selection.setSelection(sel);
     }
+
+    /** Removed widgets are kept in memory, so estimate by their properties */
+    @Override
+    public long getSize()
+    {
+        long size = super.getSize();
+        for (Info i : info)
+            size += getSize(i.widget);
+        return size;
+    }
+
+    private static long getSize(final Widget widget)
+    {
+        long size = 100L * widget.getProperties().size();
+        final ChildrenProperty children = ChildrenProperty.getChildren(widget);
+        if (children != null)
+            for (Widget child : children.getValue())
+                size += getSize(child);
+        return size;
+    }
 }
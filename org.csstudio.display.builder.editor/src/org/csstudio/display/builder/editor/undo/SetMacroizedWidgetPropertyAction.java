@@ -7,19 +7,34 @@
  *******************************************************************************/
 package org.csstudio.display.builder.editor.undo;
 
+import static org.csstudio.display.builder.editor.Plugin.logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+
 import org.csstudio.display.builder.editor.Messages;
 import org.csstudio.display.builder.model.MacroizedWidgetProperty;
+import org.csstudio.display.builder.util.undo.UndoJournal;
 import org.csstudio.display.builder.util.undo.UndoableAction;
 import org.eclipse.osgi.util.NLS;
 
 /** Action to update widget property
+ *
+ *  <p>Longer text, for example an embedded script,
+ *  is moved into the journal once the action is compacted.
+ *
  *  @author Kay Kasemir
  */
+@SuppressWarnings("nls")
 public class SetMacroizedWidgetPropertyAction extends UndoableAction
 {
+    /** Text up to this length remains in memory */
+    private static final int COMPACT_LENGTH = 256;
+
     private final MacroizedWidgetProperty<?> widget_property;
-    private final String orig_text;
-    private final String text;
+    private String orig_text;
+    private String text;
+    private UndoJournal.Entry orig_entry = null, entry = null;
 
     public SetMacroizedWidgetPropertyAction(final MacroizedWidgetProperty<?> widget_property,
                                             final String text)
@@ -33,12 +48,94 @@ public class SetMacroizedWidgetPropertyAction extends UndoableAction
     @Override
     public void run()
     {
-        widget_property.setSpecification(text);
+        final String spec = read(entry, text);
+        if (spec != null)
+            widget_property.setSpecification(spec);
     }
 
     @Override
     public void undo()
     {
-        widget_property.setSpecification(orig_text);
+        final String spec = read(orig_entry, orig_text);
+        if (spec != null)
+            widget_property.setSpecification(spec);
+    }
+
+    /** @param entry Journal entry or <code>null</code>
+     *  @param text Text to use when there is no entry
+     *  @return Text, <code>null</code> if journal cannot be read
+     */
+    private String read(final UndoJournal.Entry entry, final String text)
+    {
+        if (entry == null)
+            return text;
+        try
+        {
+            return new String(entry.read(), StandardCharsets.UTF_8);
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot restore " + widget_property.getName(), ex);
+            return null;
+        }
+    }
+
+    @Override
+    public long getSize()
+    {
+        return super.getSize() + size(orig_entry, orig_text) + size(entry, text);
+    }
+
+    private static long size(final UndoJournal.Entry entry, final String text)
+    {
+        if (entry != null)
+            return entry.getSize();
+        return text == null ? 0 : 40 + 2 * text.length();
+    }
+
+    /** Can coalesce another update of the same property */
+    @Override
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        return newer instanceof SetMacroizedWidgetPropertyAction  &&
+               ((SetMacroizedWidgetPropertyAction) newer).widget_property == widget_property  &&
+               entry == null;
+    }
+
+    @Override
+    public void coalesce(final UndoableAction newer)
+    {
+        text = ((SetMacroizedWidgetPropertyAction) newer).text;
+    }
+
+    @Override
+    public void compact(final UndoJournal journal)
+    {
+        try
+        {
+            if (orig_text != null  &&  orig_text.length() > COMPACT_LENGTH)
+            {
+                orig_entry = journal.store(orig_text.getBytes(StandardCharsets.UTF_8));
+                orig_text = null;
+            }
+            if (text != null  &&  text.length() > COMPACT_LENGTH)
+            {
+                entry = journal.store(text.getBytes(StandardCharsets.UTF_8));
+                text = null;
+            }
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot compact " + this, ex);
+        }
+    }
+
+    @Override
+    public void release(final UndoJournal journal)
+    {
+        if (orig_entry != null)
+            journal.release(orig_entry);
+        if (entry != null)
+            journal.release(entry);
     }
 }
@@ -25,7 +25,7 @@ public class SetWidgetEnumPropertyAction extends UndoableAction
 {
     private final EnumWidgetProperty<?> widget_property;
     private final String orig_value;
-    private final Object value;
+    private Object value;
 
     /** @param widget_property {@link EnumWidgetProperty} to set
      *  @param value Integer ordinal or String specification
@@ -60,4 +60,18 @@ public class SetWidgetEnumPropertyAction extends UndoableAction
     {
         widget_property.setSpecification(orig_value);
     }
+
+    /** Can coalesce another update of the same property */
+    @Override
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        return newer instanceof SetWidgetEnumPropertyAction  &&
+               ((SetWidgetEnumPropertyAction) newer).widget_property == widget_property;
+    }
+
+    @Override
+    public void coalesce(final UndoableAction newer)
+    {
+        value = ((SetWidgetEnumPropertyAction) newer).value;
+    }
 }
@@ -12,22 +12,33 @@ import static org.csstudio.display.builder.model.properties.CommonWidgetProperti
 import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.propX;
 import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.propY;
 
+import static org.csstudio.display.builder.editor.Plugin.logger;
+
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+
 import org.csstudio.display.builder.editor.Messages;
 import org.csstudio.display.builder.editor.poly.PointsBinding;
 import org.csstudio.display.builder.model.WidgetProperty;
 import org.csstudio.display.builder.model.properties.Points;
+import org.csstudio.display.builder.util.undo.UndoJournal;
 import org.csstudio.display.builder.util.undo.UndoableAction;
 
 
 /** Action to update widget points
+ *
+ *  <p>Points are moved into the journal once the action is compacted.
+ *
  *  @author Kay Kasemir
  */
+@SuppressWarnings("nls")
 public class SetWidgetPointsAction extends UndoableAction
 {
     private final WidgetProperty<Points> property;
-    private final Points orig_points, points;
-    private final int orig_x, orig_y, orig_width, orig_height,
-                      x, y, width, height;
+    private Points orig_points, points;
+    private UndoJournal.Entry orig_entry = null, entry = null;
+    private final int orig_x, orig_y, orig_width, orig_height;
+    private int x, y, width, height;
 
     public SetWidgetPointsAction(final WidgetProperty<Points> property,
                                  final Points points)
@@ -63,7 +74,7 @@ public class SetWidgetPointsAction extends UndoableAction
     {
         // Prevent PointsBinding from scaling points as width/height is adjusted
         PointsBinding.setScaling(false);
-        property.setValue(points);
+        property.setValue(read(entry, points));
         property.getWidget().setPropertyValue(propX, x);
         property.getWidget().setPropertyValue(propY, y);
         property.getWidget().setPropertyValue(propWidth, width);
@@ -76,11 +87,105 @@ public class SetWidgetPointsAction extends UndoableAction
     {
         // Prevent PointsBinding from scaling points as width/height is adjusted
         PointsBinding.setScaling(false);
-        property.setValue(orig_points);
+        property.setValue(read(orig_entry, orig_points));
         property.getWidget().setPropertyValue(propX, orig_x);
         property.getWidget().setPropertyValue(propY, orig_y);
         property.getWidget().setPropertyValue(propWidth, orig_width);
         property.getWidget().setPropertyValue(propHeight, orig_height);
         PointsBinding.setScaling(true);
     }
+
+    /** @param entry Journal entry or <code>null</code>
+     *  @param points Points to use when there is no entry
+     *  @return Points
+     */
+    private Points read(final UndoJournal.Entry entry, final Points points)
+    {
+        if (entry == null)
+            return points;
+        final Points result = new Points();
+        try
+        {
+            final ByteBuffer buffer = ByteBuffer.wrap(entry.read());
+            while (buffer.remaining() >= 2*Double.BYTES)
+                result.add(buffer.getDouble(), buffer.getDouble());
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot restore points of " + property.getWidget(), ex);
+        }
+        return result;
+    }
+
+    private static UndoJournal.Entry store(final UndoJournal journal, final Points points) throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(points.size() * 2*Double.BYTES);
+        for (int i=0; i<points.size(); ++i)
+            buffer.putDouble(points.getX(i)).putDouble(points.getY(i));
+        return journal.store(buffer.array());
+    }
+
+    @Override
+    public long getSize()
+    {
+        return super.getSize() + size(orig_entry, orig_points) + size(entry, points);
+    }
+
+    private static long size(final UndoJournal.Entry entry, final Points points)
+    {
+        if (entry != null)
+            return entry.getSize();
+        return points == null ? 0 : 40 + points.size() * 2*Double.BYTES;
+    }
+
+    /** Can coalesce another update of the same points */
+    @Override
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        return newer instanceof SetWidgetPointsAction  &&
+               ((SetWidgetPointsAction) newer).property == property  &&
+               entry == null;
+    }
+
+    @Override
+    public void coalesce(final UndoableAction newer)
+    {
+        final SetWidgetPointsAction other = (SetWidgetPointsAction) newer;
+        points = other.points;
+        x = other.x;
+        y = other.y;
+        width = other.width;
+        height = other.height;
+    }
+
+    @Override
+    public void compact(final UndoJournal journal)
+    {
+        try
+        {
+            if (orig_points != null)
+            {
+                orig_entry = store(journal, orig_points);
+                orig_points = null;
+            }
+            if (points != null)
+            {
+                entry = store(journal, points);
+                points = null;
+            }
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot compact " + this, ex);
+        }
+    }
+
+    @Override
+    public void release(final UndoJournal journal)
+    {
+        if (orig_entry != null)
+            journal.release(orig_entry);
+        if (entry != null)
+            journal.release(entry);
+    }
 }
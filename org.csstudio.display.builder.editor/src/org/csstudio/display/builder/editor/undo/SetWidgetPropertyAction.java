@@ -19,7 +19,8 @@ import org.eclipse.osgi.util.NLS;
 public class SetWidgetPropertyAction<T extends Object> extends UndoableAction
 {
     private final WidgetProperty<T> widget_property;
-    private final T orig_value, value;
+    private final T orig_value;
+    private T value;
 
     public SetWidgetPropertyAction(final WidgetProperty<T> widget_property,
                                    final T value)
@@ -41,4 +42,19 @@ public class SetWidgetPropertyAction<T extends Object> extends UndoableAction
     {
         widget_property.setValue(orig_value);
     }
+
+    /** Can coalesce another update of the same property */
+    @Override
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        return newer instanceof SetWidgetPropertyAction  &&
+               ((SetWidgetPropertyAction<?>) newer).widget_property == widget_property;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void coalesce(final UndoableAction newer)
+    {
+        value = ((SetWidgetPropertyAction<T>) newer).value;
+    }
 }
@@ -22,7 +22,7 @@ public class UpdateWidgetLocationAction extends UndoableAction
     private final Widget widget;
     final ChildrenProperty orig_parent_children, parent_children;
     private final int orig_x, orig_y, orig_width, orig_height;
-    private final int x, y, width, height;
+    private int x, y, width, height;
 
     /** @param widget      Widget that already has desired parent, location, size
      *  @param orig_parent_children Original parent's child list (may be the same as now)
@@ -79,4 +79,28 @@ public class UpdateWidgetLocationAction extends UndoableAction
         widget.propWidth().setValue(orig_width);
         widget.propHeight().setValue(orig_height);
     }
+
+    /** Can coalesce another update of the same widget
+     *  that remains in the current parent
+     */
+    @Override
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        if (! (newer instanceof UpdateWidgetLocationAction))
+            return false;
+        final UpdateWidgetLocationAction other = (UpdateWidgetLocationAction) newer;
+        return other.widget == widget  &&
+               other.orig_parent_children == parent_children  &&
+               other.parent_children == parent_children;
+    }
+
+    @Override
+    public void coalesce(final UndoableAction newer)
+    {
+        final UpdateWidgetLocationAction other = (UpdateWidgetLocationAction) newer;
+        x = other.x;
+        y = other.y;
+        width = other.width;
+        height = other.height;
+    }
 }
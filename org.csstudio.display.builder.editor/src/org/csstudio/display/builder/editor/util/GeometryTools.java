@@ -12,13 +12,13 @@ import static org.csstudio.display.builder.editor.Plugin.logger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.RecursiveTask;
 import java.util.logging.Level;
 
-import org.csstudio.display.builder.model.ChildrenProperty;
 import org.csstudio.display.builder.model.DisplayModel;
 import org.csstudio.display.builder.model.Widget;
 import org.csstudio.display.builder.model.properties.InsetsWidgetProperty;
+import org.csstudio.display.builder.model.util.WidgetSpatialIndex;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
 
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
@@ -151,60 +151,20 @@ public class GeometryTools
         return new Rectangle2D(x, y, x2-x, y2-y);
     }
 
-    /** Parallel search for widgets within a region */
-    private static class WidgetSearch extends RecursiveTask<List<Widget>>
+    /** @param bounds Bounds { x, y, width, height } from {@link WidgetSpatialIndex}
+     *  @return {@link Rectangle2D}
+     */
+    public static Rectangle2D toRectangle(final int[] bounds)
     {
-        private static final long serialVersionUID = 1L;
-        private static final int THRESHOLD = 50; // XXX Find suitable threshold
-        private final List<Widget> widgets;
-        private final Rectangle2D region;
-
-        public WidgetSearch(final List<Widget> widgets, final Rectangle2D region)
-        {
-            this.widgets = widgets;
-            this.region = region;
-        }
-
-        @Override
-        protected List<Widget> compute()
-        {
-            if (widgets.size() > THRESHOLD)
-            {   // Spawn sub-task for first half
-                final int half = widgets.size() / 2;
-                final WidgetSearch sub = new WidgetSearch(widgets.subList(0, half), region);
-                sub.fork();
-                // Search second half of list in this thread
-                final List<Widget> found = searchWidgetList(widgets.subList(half, widgets.size()));
-                // Return combined result
-                found.addAll(sub.join());
-                return found;
-            }
-            else // Search complete list in this thread
-                return searchWidgetList(widgets);
-        }
-
-        private List<Widget> searchWidgetList(final List<Widget> widgets)
-        {
-            // System.out.println("Searching in " + Thread.currentThread().getName() + ": " + widgets);
-            final List<Widget> found = new ArrayList<>();
-            for (final Widget widget : widgets)
-            {
-                if (region.contains(getDisplayBounds(widget))) {
-                    found.add(widget);
-                } else {
-                    final ChildrenProperty children = ChildrenProperty.getChildren(widget);
-                    if (children != null)
-                    {
-                        final WidgetSearch sub = new WidgetSearch(children.getValue(), region);
-                        found.addAll(sub.compute());
-                    }
-                }
-            }
-            return found;
-        }
+        return new Rectangle2D(bounds[0], bounds[1], bounds[2], bounds[3]);
     }
 
     /** Find widgets inside a region
+     *
+     *  <p>Returns the outermost widgets that are inside the region.
+     *  Widgets in a container that's inside the region are represented by the container.
+     *  Widgets inside tabs are not considered.
+     *
      *  @param model Model to search
      *  @param region Region in which to locate widgets
      *  @return Widgets within the region
@@ -212,8 +172,30 @@ public class GeometryTools
     public static List<Widget> findWidgets(final DisplayModel model,
                                            final Rectangle2D region)
     {
-        final WidgetSearch search = new WidgetSearch(model.getChildren(), region);
-        return search.compute();
+        final WidgetSpatialIndex index = WidgetSpatialIndex.of(model);
+        final List<Widget> found = new ArrayList<>();
+        for (Widget widget : index.findIntersecting(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight()))
+            if (isOutermostInRegion(index, widget, region))
+                found.add(widget);
+        return found;
+    }
+
+    private static boolean isOutermostInRegion(final WidgetSpatialIndex index, final Widget widget, final Rectangle2D region)
+    {
+        final int[] bounds = index.getBounds(widget);
+        if (bounds == null  ||  ! region.contains(toRectangle(bounds)))
+            return false;
+        Widget parent = widget.getParent().orElse(null);
+        while (parent != null  &&  ! (parent instanceof DisplayModel))
+        {
+            if (parent instanceof TabsWidget)
+                return false;
+            final int[] parent_bounds = index.getBounds(parent);
+            if (parent_bounds != null  &&  region.contains(toRectangle(parent_bounds)))
+                return false;
+            parent = parent.getParent().orElse(null);
+        }
+        return true;
     }
 
     /** Move widgets to a new location
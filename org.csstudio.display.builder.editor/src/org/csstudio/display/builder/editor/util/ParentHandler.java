@@ -8,12 +8,12 @@
 package org.csstudio.display.builder.editor.util;
 
 import java.util.List;
-import java.util.concurrent.RecursiveTask;
 
 import org.csstudio.display.builder.editor.WidgetSelectionHandler;
 import org.csstudio.display.builder.model.ChildrenProperty;
 import org.csstudio.display.builder.model.DisplayModel;
 import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.util.WidgetSpatialIndex;
 import org.csstudio.display.builder.model.widgets.ArrayWidget;
 import org.csstudio.display.builder.model.widgets.GroupWidget;
 import org.csstudio.display.builder.model.widgets.TabsWidget;
@@ -33,8 +33,6 @@ import javafx.scene.shape.Rectangle;
 @SuppressWarnings("nls")
 public class ParentHandler
 {
-    public static final int PARALLEL_THRESHOLD = 10;
-
     private volatile DisplayModel model = null;
 
     private final WidgetSelectionHandler selection;
@@ -44,122 +42,88 @@ public class ParentHandler
     /** The 'children' property of the parent that holds the selected widgets */
     private volatile ChildrenProperty active_parent_children = null;
 
-    /** Parent that was found to surround a region on the screen
+    /** Search for a parent widget that surrounds a given region of the screen
      *
-     *  <p>Instead of holding the widget, it tracks the
+     *  <p>Instead of returning the widget, it returns the
      *  'children' property of the widget.
      *  For a GroupWidget or ArrayWidget, that's its single 'children' property.
      *  For a Tabwidget, that's the 'children' property of the
      *  _selected_ tab.
      *  In either case it's the 'children' property where
      *  the selected widgets would be added in a 'drop'.
+     *
+     *  <p>When containers are nested, the innermost one is returned.
+     *
+     *  @param model Display model
+     *  @param bounds Region of screen
+     *  @param ignore Widgets to ignore in the search, including their children
+     *  @return 'children' property or <code>null</code>
      */
-    private static class ParentSearchResult
+    static ChildrenProperty findParent(final DisplayModel model, final Rectangle2D bounds, final List<Widget> ignore)
     {
-        /** 'children' property or null */
-        volatile ChildrenProperty children = null;
-
-        /** Depth in display model hierarchy where parent resides */
-        volatile int depth = 0;
-
-        /** Update if parent is 'deeper' */
-        void update(final ChildrenProperty children, final int depth)
-        {
-            if (children != null  &&  depth >= this.depth)
-                this.children = children;
-        }
-
-        /** Update if other result has 'deeper' group */
-        void update(final ParentSearchResult other)
+        final WidgetSpatialIndex index = WidgetSpatialIndex.of(model);
+        ChildrenProperty result = null;
+        int result_depth = 0;
+        for (Widget widget : index.findIntersecting(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight()))
         {
-            update(other.children, other.depth);
+            final int[] widget_bounds = index.getBounds(widget);
+            if (widget_bounds == null  ||  ! GeometryTools.toRectangle(widget_bounds).contains(bounds))
+                continue;
+            final ChildrenProperty child_prop = getDropTarget(widget, ignore);
+            if (child_prop == null)
+                continue;
+            final int depth = getDepth(widget, ignore);
+            if (depth > result_depth)
+            {
+                result = child_prop;
+                result_depth = depth;
+            }
         }
+        return result;
     }
 
-    /** Brute-force, parallel search for a Parent widget that surrounds a given region of the screen. */
-    private class ParentWidgetSearch extends RecursiveTask<ParentSearchResult>
+    /** @param widget Potential parent
+     *  @param ignore Widgets to ignore in the search
+     *  @return 'children' property where widgets would be dropped or <code>null</code>
+     */
+    private static ChildrenProperty getDropTarget(final Widget widget, final List<Widget> ignore)
     {
-        private static final long serialVersionUID = -5074784016726334794L;
-        private final Rectangle2D bounds;
-        private final List<Widget> widgets, ignore;
-        private final int depth;
-
-        /** Create search for a parent
-         *  @param bounds Region of screen
-         *  @param model Display model
-         *  @param ignore Widgets to ignore in the search
-         */
-        ParentWidgetSearch(final Rectangle2D bounds, final DisplayModel model, List<Widget> ignore)
-        {
-            this(bounds, model.getChildren(), ignore, 1);
-        }
-
-        private ParentWidgetSearch(final Rectangle2D bounds, final List<Widget> widgets, final List<Widget> ignore, final int depth)
-        {
-            this.bounds = bounds;
-            this.widgets = widgets;
-            this.ignore = ignore;
-            this.depth = depth;
-        }
-
-        @Override
-        protected ParentSearchResult compute()
-        {
-            final int N = widgets.size();
-            if (N > PARALLEL_THRESHOLD)
-            {
-                // System.out.println("Splitting the search");
-                final int split = N / 2;
-                final ParentWidgetSearch sub = new ParentWidgetSearch(bounds, widgets.subList(0, split), ignore, depth);
-                sub.fork();
-                final ParentSearchResult result = findParent(widgets.subList(split,  N));
-                result.update(sub.join());
-                return result;
-            }
-            else
-                return findParent(widgets);
+        if (widget instanceof GroupWidget)
+            return ((GroupWidget) widget).runtimeChildren();
+        else if (widget instanceof TabsWidget)
+        {   // Check children of _selected_ Tab
+            final TabsWidget tabwid = (TabsWidget) widget;
+            final int selected = tabwid.propActiveTab().getValue();
+            return tabwid.propTabs().getValue().get(selected).children();
         }
-
-        private ParentSearchResult findParent(final List<Widget> children)
+        else if (widget instanceof ArrayWidget)
         {
-            // System.out.println("Searching for surrounding parent in " + children.size() + " widgets on " + Thread.currentThread().getName());
-            final ParentSearchResult result = new ParentSearchResult();
-            for (Widget widget : children)
-            {
-                if (ignore.contains(widget))
-                    continue;
-                final ChildrenProperty child_prop;
-                if (widget instanceof GroupWidget)
-                    child_prop = ((GroupWidget) widget).runtimeChildren();
-                else if (widget instanceof TabsWidget)
-                {   // Check children of _selected_ Tab
-                    final TabsWidget tabwid = (TabsWidget) widget;
-                    final int selected = tabwid.propActiveTab().getValue();
-                    child_prop = tabwid.propTabs().getValue().get(selected).children();
-                }
-                else if (widget instanceof ArrayWidget)
-                {
-                    List<Widget> widgets = ((ArrayWidget) widget).runtimeChildren().getValue();
-                    if (widgets.isEmpty() || (!ignore.isEmpty() && widgets.get(0).getType().equals(ignore.get(0).getType())))
-                        child_prop = ((ArrayWidget) widget).runtimeChildren();
-                    else
-                        continue;
-                }
-                else
-                    continue;
-                if (checkIfWidgetWithinBounds(widget))
-                    result.update(child_prop, depth);
-                result.update(new ParentWidgetSearch(bounds, child_prop.getValue(), ignore, depth + 1).compute());
-            }
-            return result;
+            List<Widget> widgets = ((ArrayWidget) widget).runtimeChildren().getValue();
+            if (widgets.isEmpty() || (!ignore.isEmpty() && widgets.get(0).getType().equals(ignore.get(0).getType())))
+                return ((ArrayWidget) widget).runtimeChildren();
         }
+        return null;
+    }
 
-        private boolean checkIfWidgetWithinBounds(final Widget widget)
+    /** @param widget Potential parent
+     *  @param ignore Widgets to ignore in the search
+     *  @return Depth in display model hierarchy, 0 if widget is to be ignored
+     *          because it or a parent is ignored, or it's in a hidden tab
+     */
+    private static int getDepth(Widget widget, final List<Widget> ignore)
+    {
+        if (! WidgetSpatialIndex.isShown(widget))
+            return 0;
+        int depth = 0;
+        while (widget != null  &&  ! (widget instanceof DisplayModel))
         {
-            final Rectangle2D widget_bounds = GeometryTools.getDisplayBounds(widget);
-            return widget_bounds.contains(bounds);
+            if (ignore.contains(widget))
+                return 0;
+            ++depth;
+            widget = widget.getParent().orElse(null);
         }
-    };
+        return depth;
+    }
 
     /** Construct parent handler
      *  @param parent Parent for rectangle that highlights active group
@@ -198,8 +162,7 @@ public class ParentHandler
     {
         final Rectangle2D bounds = new Rectangle2D(x, y, width, height);
         final List<Widget> selected_widgets = selection.getSelection();
-        final ParentSearchResult res = new ParentWidgetSearch(bounds, model, selected_widgets).compute();
-        final ChildrenProperty parent = res.children;
+        final ChildrenProperty parent = findParent(model, bounds, selected_widgets);
         if (parent == null)
             parent_highlight.setVisible(false);
         else
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,8 +31,11 @@ import org.csstudio.display.builder.model.WidgetFactoryUnitTest;
 import org.csstudio.display.builder.model.WidgetPropertyDescriptor;
 import org.csstudio.display.builder.model.properties.CommonWidgetProperties;
 import org.csstudio.display.builder.model.properties.NamedWidgetFont;
+import org.csstudio.display.builder.model.properties.ScriptInfo;
+import org.csstudio.display.builder.model.properties.ScriptPV;
 import org.csstudio.display.builder.model.properties.StringWidgetProperty;
 import org.csstudio.display.builder.model.properties.WidgetFontStyle;
+import org.csstudio.display.builder.model.rules.RuleInfo;
 import org.csstudio.display.builder.model.widgets.GroupWidget;
 import org.csstudio.display.builder.model.widgets.LabelWidget;
 import org.junit.BeforeClass;
@@ -260,4 +264,29 @@ public class PersistenceUnitTest
         readback = ModelReader.parseXML(xml);
         assertThat(readback.getChildren().get(0).getProperty("font").isUsingWidgetClass(), equalTo(true));
     }
+
+    @Test
+    public void testScriptMinPeriodPersistence() throws Exception
+    {
+        final DisplayModel model = new DisplayModel();
+        final LabelWidget label = new LabelWidget();
+        label.propScripts().setValue(Arrays.asList(
+            new ScriptInfo(ScriptInfo.EMBEDDED_PYTHON, "print 'Hi'", true, 100, Arrays.asList(new ScriptPV("a"), new ScriptPV("b"))),
+            new ScriptInfo("plain.py", true, new ScriptPV("c"))));
+        label.propRules().setValue(Arrays.asList(
+            new RuleInfo("Rule", "text", true, 250, Collections.emptyList(), Arrays.asList(new ScriptPV("d")))));
+        model.runtimeChildren().addChild(label);
+
+        final String xml = toXML(model);
+        System.out.println(xml);
+        assertThat(xml, containsString("min_period=\"100\""));
+        assertThat(xml, containsString("min_period=\"250\""));
+
+        final Widget readback = ModelReader.parseXML(xml).getChildren().get(0);
+        final List<ScriptInfo> scripts = readback.propScripts().getValue();
+        assertThat(scripts.get(0).getMinPeriod(), equalTo(100));
+        // Default: Execute on every trigger
+        assertThat(scripts.get(1).getMinPeriod(), equalTo(0));
+        assertThat(readback.propRules().getValue().get(0).getMinPeriod(), equalTo(250));
+    }
 }
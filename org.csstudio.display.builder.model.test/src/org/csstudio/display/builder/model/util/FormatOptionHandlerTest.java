@@ -9,12 +9,20 @@ package org.csstudio.display.builder.model.util;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.csstudio.display.builder.model.properties.FormatOption;
 import org.diirt.util.array.ArrayDouble;
@@ -319,6 +327,74 @@ public class FormatOptionHandlerTest
         assertThat(numbers, equalTo(new double[] { 1.0, 2.5, 3.0 }));
     }
 
+    @Test
+    public void testRounding() throws Exception
+    {
+        // Same as DecimalFormat, which uses HALF_EVEN
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(0.125), FormatOption.DECIMAL, 2, false), equalTo("0.12"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(0.375), FormatOption.DECIMAL, 2, false), equalTo("0.38"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(2.675), FormatOption.DECIMAL, 2, false), equalTo("2.67"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(-0.001), FormatOption.DECIMAL, 2, false), equalTo("-0.00"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(9.9999), FormatOption.EXPONENTIAL, 2, false), equalTo("1.00E1"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(0.0), FormatOption.EXPONENTIAL, 2, false), equalTo("0.00E0"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(-1.5e-7), FormatOption.EXPONENTIAL, 1, false), equalTo("-1.5E-7"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVDouble(-1.0), FormatOption.HEX, 4, false), equalTo("0xFFFFFFFF"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVInt(-1, ValueFactory.alarmNone(), ValueFactory.timeNow(), display), FormatOption.HEX, 16, false),
+                   equalTo("0xFFFFFFFFFFFFFFFF"));
+        assertThat(FormatOptionHandler.format(ValueFactory.newVInt(42, ValueFactory.alarmNone(), ValueFactory.timeNow(), display), FormatOption.DECIMAL, 2, false),
+                   equalTo("42.00"));
+    }
+
+    @Test
+    public void testUnchangedText() throws Exception
+    {
+        final VType value = ValueFactory.newVDouble(3.16, display);
+        final String text = FormatOptionHandler.format(value, FormatOption.DECIMAL, 2, true);
+        assertThat(text, equalTo("3.16 V"));
+
+        // Same text -> get the identical string
+        String again = FormatOptionHandler.format(ValueFactory.newVDouble(3.16001, display), FormatOption.DECIMAL, 2, true, text);
+        assertThat(again, sameInstance(text));
+
+        again = FormatOptionHandler.format(ValueFactory.newVDouble(3.17, display), FormatOption.DECIMAL, 2, true, text);
+        assertThat(again, not(sameInstance(text)));
+        assertThat(again, equalTo("3.17 V"));
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception
+    {
+        // Compute expected text on this thread
+        final int N = 1000;
+        final List<VType> values = new ArrayList<>();
+        final List<String> expected = new ArrayList<>();
+        for (int i=0; i<N; ++i)
+        {
+            final VType value = ValueFactory.newVDouble(i * 1.2345e-3 - 0.5, display);
+            values.add(value);
+            expected.add(FormatOptionHandler.format(value, FormatOption.values()[i % 4], i % 6, true));
+        }
+
+        // Format the same values in parallel
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        final List<Future<Boolean>> results = new ArrayList<>();
+        for (int t=0; t<8; ++t)
+        {
+            final Callable<Boolean> check = () ->
+            {
+                for (int repeat=0; repeat<20; ++repeat)
+                    for (int i=0; i<N; ++i)
+                        if (! FormatOptionHandler.format(values.get(i), FormatOption.values()[i % 4], i % 6, true).equals(expected.get(i)))
+                            return false;
+                return true;
+            };
+            results.add(pool.submit(check));
+        }
+        for (Future<Boolean> result : results)
+            assertThat(result.get(), equalTo(true));
+        pool.shutdown();
+    }
+
     @Test
     public void testStringArrayParsing() throws Exception
     {
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.model.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.properties.InsetsWidgetProperty;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
+import org.junit.Test;
+
+/** JUnit test of the {@link WidgetSpatialIndex}
+ *
+ *  <p>Compares index results with a brute-force search.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class WidgetSpatialIndexTest
+{
+    private static final int GROUPS = 100, WIDGETS_PER_GROUP = 199;
+
+    private final Random rand = new Random(42);
+
+    private LabelWidget createLabel()
+    {
+        final LabelWidget label = new LabelWidget();
+        label.propX().setValue(rand.nextInt(1000));
+        label.propY().setValue(rand.nextInt(1000));
+        label.propWidth().setValue(10 + rand.nextInt(100));
+        label.propHeight().setValue(10 + rand.nextInt(50));
+        return label;
+    }
+
+    /** @return Display with 20000 widgets */
+    private DisplayModel createModel()
+    {
+        final DisplayModel model = new DisplayModel();
+        for (int g=0; g<GROUPS; ++g)
+        {
+            final GroupWidget group = new GroupWidget();
+            group.propX().setValue(rand.nextInt(5000));
+            group.propY().setValue(rand.nextInt(5000));
+            group.propWidth().setValue(1100);
+            group.propHeight().setValue(1100);
+            for (int i=0; i<WIDGETS_PER_GROUP; ++i)
+                group.runtimeChildren().addChild(createLabel());
+            model.runtimeChildren().addChild(group);
+        }
+        final TabsWidget tabs = new TabsWidget();
+        tabs.propX().setValue(200);
+        tabs.propY().setValue(300);
+        for (TabItemProperty tab : tabs.propTabs().getValue())
+            for (int i=0; i<10; ++i)
+                tab.children().addChild(createLabel());
+        model.runtimeChildren().addChild(tabs);
+        return model;
+    }
+
+    private static List<Widget> getChildren(final Widget widget)
+    {
+        final List<Widget> children = new ArrayList<>();
+        if (widget instanceof TabsWidget)
+            for (TabItemProperty tab : ((TabsWidget) widget).propTabs().getValue())
+                children.addAll(tab.children().getValue());
+        else
+        {
+            final ChildrenProperty prop = ChildrenProperty.getChildren(widget);
+            if (prop != null)
+                children.addAll(prop.getValue());
+        }
+        return children;
+    }
+
+    private static void getAllWidgets(final Widget widget, final List<Widget> widgets)
+    {
+        for (Widget child : getChildren(widget))
+        {
+            widgets.add(child);
+            getAllWidgets(child, widgets);
+        }
+    }
+
+    /** Brute-force computation of bounds relative to display */
+    private static int[] getBounds(final Widget widget)
+    {
+        int x = widget.propX().getValue(), y = widget.propY().getValue();
+        Widget container = widget.getParent().orElse(null);
+        while (container != null)
+        {
+            if (! (container instanceof DisplayModel))
+            {
+                x += container.propX().getValue();
+                y += container.propY().getValue();
+            }
+            final int[] insets = InsetsWidgetProperty.getInsets(container);
+            if (insets != null)
+            {
+                x += insets[0];
+                y += insets[1];
+            }
+            container = container.getParent().orElse(null);
+        }
+        return new int[] { x, y, widget.propWidth().getValue(), widget.propHeight().getValue() };
+    }
+
+    /** Brute-force search */
+    private static Set<Widget> findIntersecting(final DisplayModel model, final int x, final int y, final int width, final int height)
+    {
+        final List<Widget> widgets = new ArrayList<>();
+        getAllWidgets(model, widgets);
+        final Set<Widget> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Widget widget : widgets)
+        {
+            final int[] b = getBounds(widget);
+            if (b[0] <= x + width  &&  b[0] + b[2] >= x  &&
+                b[1] <= y + height  &&  b[1] + b[3] >= y)
+                found.add(widget);
+        }
+        return found;
+    }
+
+    private void checkIndex(final DisplayModel model, final WidgetSpatialIndex index)
+    {
+        final List<Widget> widgets = new ArrayList<>();
+        getAllWidgets(model, widgets);
+        assertThat(index.size(), equalTo(widgets.size()));
+        for (Widget widget : widgets)
+            assertThat(index.getBounds(widget), equalTo(getBounds(widget)));
+
+        for (int i=0; i<50; ++i)
+        {
+            final int x = rand.nextInt(7000) - 500, y = rand.nextInt(7000) - 500;
+            final int width = rand.nextInt(800), height = rand.nextInt(800);
+            final Set<Widget> found = Collections.newSetFromMap(new IdentityHashMap<>());
+            found.addAll(index.findIntersecting(x, y, width, height));
+            assertThat(found, equalTo(findIntersecting(model, x, y, width, height)));
+        }
+    }
+
+    @Test
+    public void testIndex() throws Exception
+    {
+        final DisplayModel model = createModel();
+        long start = System.nanoTime();
+        final WidgetSpatialIndex index = WidgetSpatialIndex.of(model);
+        System.out.format("Indexed %d widgets in %.1f ms: %s\n", index.size(), (System.nanoTime() - start)/1e6, index);
+        assertThat(index.size(), equalTo(GROUPS * (WIDGETS_PER_GROUP + 1) + 1 + 20));
+        assertThat(WidgetSpatialIndex.of(model), equalTo(index));
+        checkIndex(model, index);
+
+        // Move and resize widgets
+        final List<Widget> widgets = new ArrayList<>();
+        getAllWidgets(model, widgets);
+        for (int i=0; i<500; ++i)
+        {
+            final Widget widget = widgets.get(rand.nextInt(widgets.size()));
+            widget.propX().setValue(widget.propX().getValue() + rand.nextInt(400) - 200);
+            widget.propY().setValue(widget.propY().getValue() + rand.nextInt(400) - 200);
+            if (! (widget instanceof GroupWidget))
+                widget.propWidth().setValue(10 + rand.nextInt(2000));
+        }
+        checkIndex(model, index);
+
+        // Change insets of a group, moving all its children
+        final GroupWidget group = (GroupWidget) model.getChildren().get(0);
+        group.runtimePropInsets().setValue(new int[] { 5, 17, 5, 5 });
+        checkIndex(model, index);
+
+        // Move widget from one group into another
+        final Widget moved = group.runtimeChildren().getValue().get(0);
+        group.runtimeChildren().removeChild(moved);
+        ((GroupWidget) model.getChildren().get(1)).runtimeChildren().addChild(moved);
+        checkIndex(model, index);
+
+        // Nested group
+        final GroupWidget nested = new GroupWidget();
+        nested.propX().setValue(50);
+        nested.runtimeChildren().addChild(createLabel());
+        group.runtimeChildren().addChild(nested);
+        checkIndex(model, index);
+        group.propX().setValue(group.propX().getValue() + 33);
+        checkIndex(model, index);
+
+        // Remove a group
+        final Widget removed = model.getChildren().get(2);
+        final Widget removed_child = getChildren(removed).get(0);
+        model.runtimeChildren().removeChild(removed);
+        checkIndex(model, index);
+        assertThat(index.getBounds(removed_child), nullValue());
+        // .. and changes to it are ignored
+        removed_child.propX().setValue(7);
+        checkIndex(model, index);
+
+        // Add a tab
+        final TabsWidget tabs = (TabsWidget) model.getChildren().get(model.getChildren().size()-1);
+        final TabItemProperty tab = tabs.propTabs().addElement();
+        tab.children().addChild(createLabel());
+        checkIndex(model, index);
+        tabs.propY().setValue(12);
+        checkIndex(model, index);
+        // Only widgets in the active tab are shown
+        tabs.propActiveTab().setValue(2);
+        assertThat(WidgetSpatialIndex.isShown(tab.children().getValue().get(0)), equalTo(true));
+        assertThat(WidgetSpatialIndex.isShown(tabs.propTabs().getValue().get(0).children().getValue().get(0)), equalTo(false));
+        tabs.propTabs().removeElement();
+        checkIndex(model, index);
+
+        index.dispose();
+        assertThat(index.size(), equalTo(0));
+        final WidgetSpatialIndex other = WidgetSpatialIndex.of(model);
+        assertThat(other, not(equalTo(index)));
+
+        // Removing the model's index disposes it
+        WidgetSpatialIndex.remove(model);
+        assertThat(other.size(), equalTo(0));
+        assertThat(WidgetSpatialIndex.of(model), not(equalTo(other)));
+        // .. and does not create one when there is none
+        final DisplayModel unindexed = new DisplayModel();
+        WidgetSpatialIndex.remove(unindexed);
+        final Object data = unindexed.getUserData("_spatial_index");
+        assertThat(data, nullValue());
+    }
+
+    @Test
+    public void testDragPerformance() throws Exception
+    {
+        final DisplayModel model = createModel();
+        final WidgetSpatialIndex index = WidgetSpatialIndex.of(model);
+
+        // Simulate dragging a widget, checking snap strips and region in each step
+        final Widget widget = model.getChildren().get(0);
+        final int steps = 1000;
+        final Map<String, Long> nanos = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i=0; i<steps; ++i)
+        {
+            widget.propX().setValue(widget.propX().getValue() + 1);
+            final int x = widget.propX().getValue(), y = widget.propY().getValue();
+            found += index.findIntersecting(x - 10, -100000, 20, 200000).size();
+            found += index.findIntersecting(-100000, y - 10, 200000, 20).size();
+            found += index.findIntersecting(x, y, 100, 100).size();
+        }
+        nanos.put("Index", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        int brute = 0;
+        for (int i=0; i<steps/10; ++i)
+        {
+            final int x = widget.propX().getValue(), y = widget.propY().getValue();
+            brute += findIntersecting(model, x - 10, -100000, 20, 200000).size();
+            brute += findIntersecting(model, -100000, y - 10, 200000, 20).size();
+            brute += findIntersecting(model, x, y, 100, 100).size();
+        }
+        nanos.put("Brute force", (System.nanoTime() - start) * 10);
+
+        for (String name : nanos.keySet())
+            System.out.format("%s: %.3f ms per drag step\n", name, nanos.get(name) / 1e6 / steps);
+        assertThat(found > 0, equalTo(true));
+        assertThat(brute > 0, equalTo(true));
+        index.dispose();
+    }
+}
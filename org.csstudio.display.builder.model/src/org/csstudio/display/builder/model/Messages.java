@@ -20,7 +20,9 @@ public class Messages extends NLS
     public static String Actions_N_Fmt;
     public static String ActiveTab;
     public static String ArrayWidget_Description;
+    public static String ArrayWidget_FirstElement;
     public static String ArrayWidget_Name;
+    public static String ArrayWidget_Virtual;
     public static String ArrowLength;
     public static String Arrows;
     public static String Arrows_None;
@@ -123,6 +125,7 @@ public class Messages extends NLS
     public static String Tab_Item;
     public static String TabsWidget_Description;
     public static String TabsWidget_Name;
+    public static String TabsWidget_SuspendHidden;
     public static String TabsWidget_TabNameFmt;
     public static String Target_Replace;
     public static String Target_Standalone;
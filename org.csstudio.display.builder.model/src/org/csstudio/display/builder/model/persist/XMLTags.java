@@ -28,6 +28,7 @@ public interface XMLTags
     public static final String GREEN = "green";
     public static final String HEIGHT = "height";
     public static final String MACROS = "macros";
+    public static final String MIN_PERIOD = "min_period";
     public static final String NAME = "name";
     public static final String PATH = "path";
     public static final String PV_NAME = "pv_name";
@@ -117,6 +117,8 @@ public class RulesWidgetProperty extends WidgetProperty<List<RuleInfo>>
             writer.writeAttribute(XMLTags.NAME, info.getName());
             writer.writeAttribute("prop_id", info.getPropID());
             writer.writeAttribute("out_exp", String.valueOf(info.getPropAsExprFlag()));
+            if (info.getMinPeriod() > 0)
+                writer.writeAttribute(XMLTags.MIN_PERIOD, Integer.toString(info.getMinPeriod()));
 
             for ( final ExpressionInfo<?> expr : info.getExpressions())
             {
@@ -231,8 +233,9 @@ public class RulesWidgetProperty extends WidgetProperty<List<RuleInfo>>
                 exprs = Collections.emptyList();
             }
 
+            final int min_period = ScriptsWidgetProperty.readMinPeriod(xml);
             final List<ScriptPV> pvs = readPVs(xml);
-            rules.add(new RuleInfo(name, prop_id, prop_as_expr, exprs, pvs));
+            rules.add(new RuleInfo(name, prop_id, prop_as_expr, min_period, exprs, pvs));
         }
         setValue(rules);
     }
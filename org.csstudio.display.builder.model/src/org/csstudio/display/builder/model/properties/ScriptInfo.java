@@ -28,6 +28,10 @@ import java.util.Objects;
  *  more of the 'triggering' inputs receive
  *  a new value.
  *
+ *  <p>A minimum period can be configured to coalesce
+ *  bursts of trigger updates: The script then executes at most
+ *  once per period, using the latest values of all inputs.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -56,6 +60,7 @@ public class ScriptInfo
 
     private final String path, text;
     private final boolean check_connections;
+    private final int min_period;
     private final List<ScriptPV> pvs;
 
     /**
@@ -113,10 +118,22 @@ public class ScriptInfo
      *  @param pvs PVs
      */
     public ScriptInfo(final String path, final String text, final boolean check_connections, final List<ScriptPV> pvs)
+    {
+        this(path, text, check_connections, 0, pvs);
+    }
+
+    /** @param path Script path. May be URL, contain macros, or use magic EMBEDDED_* name.
+     *  @param text Text or <code>null</code>
+     *  @param check_connections Check connections before executing the script, or always execute?
+     *  @param min_period Minimum period between script executions in milliseconds, 0 to execute on every trigger
+     *  @param pvs PVs
+     */
+    public ScriptInfo(final String path, final String text, final boolean check_connections, final int min_period, final List<ScriptPV> pvs)
     {
         this.path = Objects.requireNonNull(path);
         this.text = text;
         this.check_connections = check_connections;
+        this.min_period = Math.max(0, min_period);
         this.pvs = Collections.unmodifiableList(Objects.requireNonNull(pvs));
     }
 
@@ -145,6 +162,12 @@ public class ScriptInfo
         return check_connections;
     }
 
+    /** @return Minimum period between script executions in milliseconds, 0 if every trigger executes the script */
+    public int getMinPeriod()
+    {
+        return min_period;
+    }
+
     /** @return Input/Output PVs used by the script */
     public List<ScriptPV> getPVs()
     {
@@ -154,6 +177,7 @@ public class ScriptInfo
     @Override
     public String toString()
     {
-        return "ScriptInfo('" + path + "', " + (check_connections ? "" : "not checking connections, ") + pvs + ")";
+        return "ScriptInfo('" + path + "', " + (check_connections ? "" : "not checking connections, ") +
+               (min_period > 0 ? "min. period " + min_period + " ms, " : "") + pvs + ")";
     }
 }
@@ -78,6 +78,8 @@ public class ScriptsWidgetProperty extends WidgetProperty<List<ScriptInfo>>
             writer.writeAttribute(XMLTags.FILE, info.getPath());
             if (! info.getCheckConnections())
                 writer.writeAttribute(XMLTags.CHECK_CONNECTIONS, Boolean.FALSE.toString());
+            if (info.getMinPeriod() > 0)
+                writer.writeAttribute(XMLTags.MIN_PERIOD, Integer.toString(info.getMinPeriod()));
             final String text = info.getText();
             if (text != null)
             {
@@ -127,6 +129,8 @@ public class ScriptsWidgetProperty extends WidgetProperty<List<ScriptInfo>>
                     ? true
                     : Boolean.valueOf(tag);
 
+            final int min_period = readMinPeriod(xml);
+
             // Script content embedded in XML?
             Element text_xml = XMLUtil.getChildElement(xml, XMLTags.TEXT);
             if (text_xml == null)  // Fall back to legacy tag
@@ -136,11 +140,30 @@ public class ScriptsWidgetProperty extends WidgetProperty<List<ScriptInfo>>
                 : null;
 
             final List<ScriptPV> pvs = readPVs(xml);
-            scripts.add(new ScriptInfo(file, text, check_connections, pvs));
+            scripts.add(new ScriptInfo(file, text, check_connections, min_period, pvs));
         }
         setValue(scripts);
     }
 
+    /** @param xml Script or rule element
+     *  @return Minimum period in ms from optional attribute, 0 if not set
+     */
+    static int readMinPeriod(final Element xml)
+    {
+        final String tag = xml.getAttribute(XMLTags.MIN_PERIOD);
+        if (tag.isEmpty())
+            return 0;
+        try
+        {
+            return Math.max(0, Integer.parseInt(tag.trim()));
+        }
+        catch (NumberFormatException ex)
+        {
+            logger.log(Level.WARNING, "Invalid '" + XMLTags.MIN_PERIOD + "' " + tag);
+            return 0;
+        }
+    }
+
     private List<ScriptPV> readPVs(final Element xml)
     {
         final List<ScriptPV> pvs = new ArrayList<>();
@@ -144,6 +144,7 @@ public class RuleInfo
     private final String name;
     private final String prop_id;
     private final boolean prop_as_expr_flag;
+    private final int min_period;
 
     // TODO: no more creating expressions externally to rules. All the control of adding/changing expressions
     // needs to go live inside the rule so that we always make sure expressions get a new property object
@@ -155,10 +156,25 @@ public class RuleInfo
      */
     public RuleInfo(final String name, final String prop_id, final boolean prop_as_expr_flag,
             final List<ExpressionInfo<?>> exprs, final List<ScriptPV> pvs)
+    {
+        this(name, prop_id, prop_as_expr_flag, 0, exprs, pvs);
+    }
+
+    /** @param name Name of rule
+     *  @param prop_id property that this rule applies to
+     *  @param prop_as_expr_flag Set to true if expressions output expressions, false if output values
+     *  @param min_period Minimum period between rule evaluations in milliseconds, 0 to evaluate on every trigger
+     *  @param exprs Pairs of (boolean expression , output), where output is either a value or another expression
+     *  @param pvs PVs
+     */
+    public RuleInfo(final String name, final String prop_id, final boolean prop_as_expr_flag,
+            final int min_period,
+            final List<ExpressionInfo<?>> exprs, final List<ScriptPV> pvs)
     {
         this.name = name;
         this.prop_as_expr_flag = prop_as_expr_flag;
         this.prop_id = prop_id;
+        this.min_period = Math.max(0, min_period);
         this.expressions = Collections.unmodifiableList(Objects.requireNonNull(exprs));
         this.pvs = Collections.unmodifiableList(Objects.requireNonNull(pvs));
     }
@@ -225,6 +241,12 @@ public class RuleInfo
         return prop_as_expr_flag;
     }
 
+    /** @return Minimum period between rule evaluations in milliseconds, 0 if every trigger evaluates the rule */
+    public int getMinPeriod()
+    {
+        return min_period;
+    }
+
     public String getTextPy(final Widget attached_widget)
     {
         return RuleToScript.generatePy(attached_widget, this);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015-2016 Oak Ridge National Laboratory.
+ * Copyright (c) 2015-2018 Oak Ridge National Laboratory.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,10 +13,11 @@ import java.nio.charset.Charset;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import org.csstudio.display.builder.model.properties.FormatOption;
@@ -34,6 +35,17 @@ import org.diirt.vtype.VTable;
 import org.diirt.vtype.VType;
 
 /** Utility for formatting data as string.
+ *
+ *  <p>Numbers are formatted into a per-thread buffer.
+ *  Decimal, exponential, engineering, hex and sexagesimal
+ *  notation are computed directly for the common case,
+ *  with the same result as the <code>DecimalFormat</code> or
+ *  <code>String.format</code> that's used for the remaining
+ *  cases: Values very close to a rounding tie, or with more digits
+ *  than can be handled in a <code>long</code>.
+ *
+ *  <p>Safe to call from multiple threads.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -45,11 +57,51 @@ public class FormatOptionHandler
     /** Use 'E' for exponential notation, not 'x10' */
     private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance(LOCALE);
 
-    /** Cached formats for DECIMAL by precision */
-    private final static ConcurrentHashMap<Integer, NumberFormat> decimal_formats = new ConcurrentHashMap<>();
+    /** Initial size of per-thread buffer */
+    private static final int INITIAL_BUFFER_SIZE = 100;
 
-    /** Cached formats for EXPONENTIAL by precision */
-    private final static ConcurrentHashMap<Integer, NumberFormat> exponential_formats = new ConcurrentHashMap<>();
+    /** Per-thread buffer that grew beyond this size (large array) is not kept */
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    /** Per-thread buffer for formatting text */
+    private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    /** Cached formats for DECIMAL by precision.
+     *  Per thread because <code>DecimalFormat</code> is not thread-safe.
+     */
+    private final static ThreadLocal<Map<Integer, NumberFormat>> decimal_formats = ThreadLocal.withInitial(HashMap::new);
+
+    /** Cached formats for EXPONENTIAL by precision, per thread */
+    private final static ThreadLocal<Map<Integer, NumberFormat>> exponential_formats = ThreadLocal.withInitial(HashMap::new);
+
+    /** Powers of ten that are exact as double */
+    private static final double[] POW10 = new double[23];
+
+    /** Powers of ten as long */
+    private static final long[] LONG_POW10 = new long[19];
+
+    static
+    {
+        POW10[0] = 1.0;
+        for (int i=1; i<POW10.length; ++i)
+            POW10[i] = POW10[i-1] * 10.0;
+        LONG_POW10[0] = 1;
+        for (int i=1; i<LONG_POW10.length; ++i)
+            LONG_POW10[i] = LONG_POW10[i-1] * 10;
+    }
+
+    /** Largest precision handled without <code>DecimalFormat</code> */
+    private static final int MAX_FAST_PRECISION = 15;
+
+    /** Largest scaled value, i.e. value * 10^precision, handled without <code>DecimalFormat</code>.
+     *  Keeps the rounding error of the scaling well below {@link #TIE_WINDOW}
+     */
+    private static final double MAX_FAST_SCALED = 1e12;
+
+    /** Scaled values this close to a rounding tie use <code>DecimalFormat</code> */
+    private static final double TIE_WINDOW = 1e-3;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
     /** [85, 84, 70, 45, 56] */
     private static final Charset UTF8 = Charset.forName("UTF-8");
@@ -87,7 +139,27 @@ public class FormatOptionHandler
      *  @return Formatted value
      */
     public static String format(final VType value, final FormatOption option,
-                                int precision, final boolean show_units)
+                                final int precision, final boolean show_units)
+    {
+        return format(value, option, precision, show_units, null);
+    }
+
+    /** Format value as string
+     *
+     *  <p>When the formatted text matches the previous text,
+     *  that previous string is returned instead of creating a new one.
+     *  Callers can thus detect unchanged text via <code>==</code>.
+     *
+     *  @param value Value to format
+     *  @param option How to format the value
+     *  @param precision Precision to use. -1 will try to fetch precision from VType
+     *  @param show_units Include units?
+     *  @param previous Previously formatted text, may be <code>null</code>
+     *  @return Formatted value
+     */
+    public static String format(final VType value, final FormatOption option,
+                                int precision, final boolean show_units,
+                                final String previous)
     {
 
         precision = actualPrecision(value, precision);
@@ -97,10 +169,11 @@ public class FormatOptionHandler
         if (value instanceof VNumber)
         {
             final VNumber number = (VNumber) value;
-            final String text = formatNumber(number.getValue(), number, option, precision);
+            final StringBuilder buf = getBuffer();
+            formatNumber(buf, number.getValue(), option, precision);
             if (show_units  &&  !number.getUnits().isEmpty())
-                return text + " " + number.getUnits();
-            return text;
+                buf.append(' ').append(number.getUnits());
+            return getText(buf, previous);
         }
         else if (value instanceof VString)
             return ((VString)value).getValue();
@@ -114,17 +187,18 @@ public class FormatOptionHandler
             final ListNumber data = array.getData();
             if (data.size() <= 0)
                 return "[]";
-            final StringBuilder buf = new StringBuilder("[");
-            buf.append(formatNumber(data.getDouble(0), array, option, precision));
+            final StringBuilder buf = getBuffer();
+            buf.append('[');
+            formatNumber(buf, data.getDouble(0), option, precision);
             for (int i=1; i<data.size(); ++i)
             {
                 buf.append(", ");
-                buf.append(formatNumber(data.getDouble(i), array, option, precision));
+                formatNumber(buf, data.getDouble(i), option, precision);
             }
-            buf.append("]");
+            buf.append(']');
             if (show_units  &&  !array.getUnits().isEmpty())
-                buf.append(" ").append(array.getUnits());
-            return buf.toString();
+                buf.append(' ').append(array.getUnits());
+            return getText(buf, previous);
         }
         else if (value instanceof VEnumArray)
         {
@@ -152,9 +226,34 @@ public class FormatOptionHandler
         return "<" + value.getClass().getName() + ">";
     }
 
+    /** @return Empty per-thread buffer */
+    private static StringBuilder getBuffer()
+    {
+        StringBuilder buf = buffers.get();
+        if (buf.capacity() > MAX_BUFFER_SIZE)
+        {
+            buf = new StringBuilder(INITIAL_BUFFER_SIZE);
+            buffers.set(buf);
+        }
+        else
+            buf.setLength(0);
+        return buf;
+    }
+
+    /** @param buf Buffer with formatted text
+     *  @param previous Previously formatted text or <code>null</code>
+     *  @return 'previous' if it matches the buffer, otherwise new text
+     */
+    private static String getText(final StringBuilder buf, final String previous)
+    {
+        if (previous != null  &&  previous.contentEquals(buf))
+            return previous;
+        return buf.toString();
+    }
+
     private static NumberFormat getDecimalFormat(final int precision)
     {
-        return decimal_formats.computeIfAbsent(precision, FormatOptionHandler::createDecimalFormat);
+        return decimal_formats.get().computeIfAbsent(precision, FormatOptionHandler::createDecimalFormat);
     }
 
     private static NumberFormat createDecimalFormat(int precision)
@@ -168,7 +267,7 @@ public class FormatOptionHandler
 
     private static NumberFormat getExponentialFormat(final int precision)
     {
-        return exponential_formats.computeIfAbsent(precision, FormatOptionHandler::createExponentialFormat);
+        return exponential_formats.get().computeIfAbsent(precision, FormatOptionHandler::createExponentialFormat);
     }
 
     private static NumberFormat createExponentialFormat(final int precision)
@@ -184,59 +283,271 @@ public class FormatOptionHandler
         return new DecimalFormat(pattern.toString(), SYMBOLS);
     }
 
-    private static String formatNumber(final Number value, final Display display,
-                                       final FormatOption option, final int precision)
+    /** @param buf Buffer to which formatted number is appended
+     *  @param value Number to format. Integer types are formatted without converting to double
+     *  @param option How to format the value
+     *  @param precision Precision
+     */
+    private static void formatNumber(final StringBuilder buf, final Number value,
+                                     final FormatOption option, final int precision)
+    {
+        if (value instanceof Long  ||  value instanceof Integer  ||
+            value instanceof Short ||  value instanceof Byte)
+        {
+            final long number = value.longValue();
+            if (option == FormatOption.DEFAULT  ||  option == FormatOption.DECIMAL)
+            {   // Same as DecimalFormat: All digits of the long, then zeros
+                buf.append(number);
+                if (precision > 0)
+                {
+                    buf.append('.');
+                    for (int i=0; i<precision; ++i)
+                        buf.append('0');
+                }
+                return;
+            }
+            if (option == FormatOption.HEX)
+            {   // Same as Integer.toHexString(int) resp. Long.toHexString(long)
+                formatHex(buf, precision <= 8 ? (int) number & 0xFFFFFFFFL : number, precision);
+                return;
+            }
+            if (option == FormatOption.EXPONENTIAL)
+            {   // DecimalFormat rounds a tie differently for long and double,
+                // so only use double when exact and not close to a tie
+                if (Math.abs(number) > (1L << 53)  ||  ! appendExponential(buf, number, precision))
+                    buf.append(getExponentialFormat(precision).format(number));
+                return;
+            }
+            if (option == FormatOption.COMPACT)
+            {
+                final double criteria = Math.abs(value.doubleValue());
+                if (criteria > 0.0001  &&  criteria < 10000)
+                    formatNumber(buf, value, FormatOption.DECIMAL, precision);
+                else
+                    formatNumber(buf, value, FormatOption.EXPONENTIAL, precision);
+                return;
+            }
+        }
+        formatNumber(buf, value.doubleValue(), option, precision);
+    }
+
+    /** @param buf Buffer to which formatted number is appended
+     *  @param value Number to format
+     *  @param option How to format the value
+     *  @param precision Precision
+     */
+    private static void formatNumber(final StringBuilder buf, final double value,
+                                     final FormatOption option, final int precision)
     {
         // Handle invalid numbers
-        if (Double.isNaN(value.doubleValue()))
-            return "NaN";
-        if (Double.isInfinite(value.doubleValue()))
-            return Double.toString(value.doubleValue());
+        if (Double.isNaN(value))
+        {
+            buf.append("NaN");
+            return;
+        }
+        if (Double.isInfinite(value))
+        {
+            buf.append(value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
 
         if (option == FormatOption.EXPONENTIAL)
-            return getExponentialFormat(precision).format(value);
+        {
+            if (! appendExponential(buf, value, precision))
+                buf.append(getExponentialFormat(precision).format(value));
+            return;
+        }
         if (option == FormatOption.ENGINEERING)
         {   // DecimalFormat "##0." can create 'engineering' notation,
             // but then allows no control over the precision.
             // Using Nick Battam's idea from BOY simplepv.VTypeHelper
-            final double num = value.doubleValue();
-            if (num == 0.0)
-                return formatNumber(value, display, FormatOption.EXPONENTIAL, precision);
-            final double log10 = Math.log10(Math.abs(num));
+            if (value == 0.0)
+            {
+                formatNumber(buf, value, FormatOption.EXPONENTIAL, precision);
+                return;
+            }
+            final double log10 = Math.log10(Math.abs(value));
             final int power = 3 * (int) Math.floor(log10 / 3);
-            return String.format(LOCALE, "%." + precision + "fE%d", num / Math.pow(10, power), power);
+            final double mantissa = value / Math.pow(10, power);
+            if (appendDecimal(buf, mantissa, precision))
+                buf.append('E').append(power);
+            else
+                buf.append(String.format(LOCALE, "%." + precision + "fE%d", mantissa, power));
+            return;
         }
         if (option == FormatOption.HEX)
         {
-            final StringBuilder buf = new StringBuilder();
-            if (precision <= 8)
-                buf.append(Integer.toHexString(value.intValue()).toUpperCase());
-            else
-                buf.append(Long.toHexString(value.longValue()).toUpperCase());
-            for (int i=buf.length(); i<precision; ++i)
-                buf.insert(0, '0');
-            buf.insert(0, "0x");
-            return buf.toString();
+            formatHex(buf, precision <= 8 ? (int) value & 0xFFFFFFFFL : (long) value, precision);
+            return;
         }
         if (option == FormatOption.STRING)
-            return new String(new byte[] { value.byteValue() });
+        {
+            buf.append(new String(new byte[] { (byte) value }));
+            return;
+        }
         if (option == FormatOption.COMPACT)
         {
-            final double criteria = Math.abs(value.doubleValue());
+            final double criteria = Math.abs(value);
             if (criteria > 0.0001  &&  criteria < 10000)
-                return formatNumber(value, display, FormatOption.DECIMAL, precision);
+                formatNumber(buf, value, FormatOption.DECIMAL, precision);
             else
-                return formatNumber(value, display, FormatOption.EXPONENTIAL, precision);
+                formatNumber(buf, value, FormatOption.EXPONENTIAL, precision);
+            return;
         }
         if (option == FormatOption.SEXAGESIMAL)
-            return SexagesimalFormat.format(value.doubleValue(), precision);
+        {
+            SexagesimalFormat.format(buf, value, precision);
+            return;
+        }
         if (option == FormatOption.SEXAGESIMAL_HMS)
-            return SexagesimalFormat.format(value.doubleValue() * 12.0 / Math.PI, precision);
+        {
+            SexagesimalFormat.format(buf, value * 12.0 / Math.PI, precision);
+            return;
+        }
         if (option == FormatOption.SEXAGESIMAL_DMS)
-            return SexagesimalFormat.format(value.doubleValue() * 180.0 / Math.PI, precision);
+        {
+            SexagesimalFormat.format(buf, value * 180.0 / Math.PI, precision);
+            return;
+        }
 
         // DEFAULT, DECIMAL
-        return getDecimalFormat(precision).format(value);
+        if (! appendDecimal(buf, value, precision))
+            buf.append(getDecimalFormat(precision).format(value));
+    }
+
+    /** @param value Number
+     *  @return <code>true</code> if number is negative, including -0.0,
+     *          which <code>DecimalFormat</code> also shows with '-'
+     */
+    private static boolean isNegative(final double value)
+    {
+        return value < 0.0  ||  (value == 0.0  &&  1.0 / value < 0.0);
+    }
+
+    /** Round scaled value
+     *  @param scaled Non-negative value * 10^precision
+     *  @return Rounded value, or -1 if value is too large or too close to a tie
+     *          for a decision that's guaranteed to match <code>DecimalFormat</code>
+     */
+    private static long round(final double scaled)
+    {
+        // Also catches NaN
+        if (! (scaled < MAX_FAST_SCALED))
+            return -1;
+        final long whole = (long) scaled;
+        final double fraction = scaled - whole;
+        if (Math.abs(fraction - 0.5) < TIE_WINDOW)
+            return -1;
+        return fraction > 0.5 ? whole + 1 : whole;
+    }
+
+    /** @param value Non-negative value
+     *  @param power Power of ten
+     *  @return value * 10^power, or NaN if power is out of range
+     */
+    private static double scale(final double value, final int power)
+    {
+        if (power >= 0)
+            return power < POW10.length ? value * POW10[power] : Double.NaN;
+        // Dividing by exact power of ten is more accurate than multiplying by 10^-power
+        return -power < POW10.length ? value / POW10[-power] : Double.NaN;
+    }
+
+    /** Append fixed-point number
+     *  @param buf Buffer
+     *  @param scaled Non-negative number * 10^precision
+     *  @param precision Number of fractional digits
+     */
+    private static void appendFixed(final StringBuilder buf, final long scaled, final int precision)
+    {
+        final long factor = LONG_POW10[precision];
+        buf.append(scaled / factor);
+        if (precision > 0)
+        {
+            buf.append('.');
+            final long fraction = scaled % factor;
+            for (int digits = precision-1;  digits > 0  &&  fraction < LONG_POW10[digits];  --digits)
+                buf.append('0');
+            buf.append(fraction);
+        }
+    }
+
+    /** Append number in decimal notation
+     *  @param buf Buffer
+     *  @param value Number
+     *  @param precision Number of fractional digits
+     *  @return <code>true</code> if formatted, <code>false</code> to use <code>DecimalFormat</code>
+     */
+    private static boolean appendDecimal(final StringBuilder buf, final double value, final int precision)
+    {
+        if (precision > MAX_FAST_PRECISION)
+            return false;
+        final long scaled = round(Math.abs(value) * POW10[precision]);
+        if (scaled < 0)
+            return false;
+        if (isNegative(value))
+            buf.append('-');
+        appendFixed(buf, scaled, precision);
+        return true;
+    }
+
+    /** Append number in exponential notation
+     *  @param buf Buffer
+     *  @param value Number
+     *  @param precision Number of fractional digits
+     *  @return <code>true</code> if formatted, <code>false</code> to use <code>DecimalFormat</code>
+     */
+    private static boolean appendExponential(final StringBuilder buf, final double value, final int precision)
+    {
+        if (precision > MAX_FAST_PRECISION)
+            return false;
+        final double abs = Math.abs(value);
+        int exponent = 0;
+        long mantissa = 0;
+        if (abs > 0.0)
+        {
+            exponent = (int) Math.floor(Math.log10(abs));
+            double scaled = scale(abs, precision - exponent);
+            // Correct for rounding errors in log10
+            if (scaled < POW10[precision])
+            {
+                --exponent;
+                scaled = scale(abs, precision - exponent);
+            }
+            else if (scaled >= POW10[precision+1])
+            {
+                ++exponent;
+                scaled = scale(abs, precision - exponent);
+            }
+            mantissa = round(scaled);
+            if (mantissa < 0)
+                return false;
+            if (mantissa >= LONG_POW10[precision+1])
+            {   // Rounded up to next power of ten, 9.99 -> 10.0
+                mantissa /= 10;
+                ++exponent;
+            }
+        }
+        if (isNegative(value))
+            buf.append('-');
+        appendFixed(buf, mantissa, precision);
+        buf.append('E').append(exponent);
+        return true;
+    }
+
+    /** Append number in hex notation "0x00FF"
+     *  @param buf Buffer
+     *  @param value Number
+     *  @param precision Minimum number of hex digits
+     */
+    private static void formatHex(final StringBuilder buf, final long value, final int precision)
+    {
+        buf.append("0x");
+        final int digits = Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 3) / 4);
+        for (int i=digits; i<precision; ++i)
+            buf.append('0');
+        for (int i=digits-1; i>=0; --i)
+            buf.append(HEX_DIGITS[(int) (value >>> (4*i)) & 0xF]);
     }
 
     /** @param value {@link VEnum}
@@ -7,15 +7,20 @@
  *******************************************************************************/
 package org.csstudio.display.builder.model.util;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.csstudio.display.builder.util.metrics.Metrics;
+import org.csstudio.display.builder.util.metrics.ThreadPoolMetrics;
+
 /** Factory of named daemon threads
  *
  *  <p>Primarily, this allows using the Executors.*
@@ -30,6 +35,53 @@ public class NamedDaemonPool implements ThreadFactory
 
     private final String name;
 
+    /** Thread pool that reports {@link ThreadPoolMetrics} */
+    private static class MeteredThreadPool extends ThreadPoolExecutor
+    {
+        private final ThreadPoolMetrics metrics = new ThreadPoolMetrics(this);
+
+        MeteredThreadPool(final String name)
+        {
+            super(0, Integer.MAX_VALUE,
+                  10L, TimeUnit.SECONDS,
+                  new SynchronousQueue<Runnable>(),
+                  new NamedDaemonPool(name));
+            Metrics.add("ThreadPool", name, metrics);
+        }
+
+        @Override
+        public void execute(final Runnable command)
+        {
+            // Only wraps the command while metrics are enabled
+            super.execute(metrics.wrap(command));
+        }
+    }
+
+    /** Timer that reports {@link ThreadPoolMetrics} */
+    private static class MeteredTimer extends ScheduledThreadPoolExecutor
+    {
+        private final ThreadPoolMetrics metrics = new ThreadPoolMetrics(this);
+
+        MeteredTimer(final String name)
+        {
+            super(1, new NamedDaemonPool(name));
+            Metrics.add("ThreadPool", name, metrics);
+        }
+
+        @Override
+        protected <V> RunnableScheduledFuture<V> decorateTask(final Runnable runnable, final RunnableScheduledFuture<V> task)
+        {
+            // Only wraps the task while metrics are enabled
+            return metrics.wrap(task);
+        }
+
+        @Override
+        protected <V> RunnableScheduledFuture<V> decorateTask(final Callable<V> callable, final RunnableScheduledFuture<V> task)
+        {
+            return metrics.wrap(task);
+        }
+    }
+
     // Using one thread per CPU core should make best use of the CPU.
     // Having just one such ExecutorService, however, may not be optimal:
     // If the display 'runtime' uses all cores,
@@ -69,10 +121,9 @@ public class NamedDaemonPool implements ThreadFactory
         // This allows multiple embedded displays to all load in parallel.
         // Cache clears after 10 seconds.
         // Downside: No way to avoid a gazillion threads.
-        return new ThreadPoolExecutor(0, Integer.MAX_VALUE,
-                10L, TimeUnit.SECONDS,
-                new SynchronousQueue<Runnable>(),
-                new NamedDaemonPool(name));
+        //
+        // Pool reports metrics, including the latency of tasks.
+        return new MeteredThreadPool(name);
     }
 
     /** Create scheduled executor service for model related tasks
@@ -82,7 +133,8 @@ public class NamedDaemonPool implements ThreadFactory
      */
     public static ScheduledExecutorService createTimer(final String name)
     {
-        return Executors.newSingleThreadScheduledExecutor(new NamedDaemonPool(name));
+        // Timer reports metrics, including how late tasks start
+        return new MeteredTimer(name);
     }
 
     public NamedDaemonPool(final String name)
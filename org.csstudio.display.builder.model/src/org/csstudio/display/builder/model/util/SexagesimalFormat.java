@@ -35,7 +35,21 @@ public class SexagesimalFormat
      *  @param precision Digits used for minutes, seconds, fractional seconds
      *  @return "HH:MM:SS.SSS" type text
      */
-    public static String format(double value, int precision)
+    public static String format(final double value, final int precision)
+    {
+        final StringBuilder builder = new StringBuilder();
+        format(builder, value, precision);
+        return builder.toString();
+    }
+
+    /** Format number as sexagesimal hours:minutes:seconds with fractional seconds
+     *
+     *  @param builder Buffer to which "HH:MM:SS.SSS" type text is appended
+     *  @param value Number to format
+     *  @param precision Digits used for minutes, seconds, fractional seconds
+     *  @see #format(double, int)
+     */
+    static void format(final StringBuilder builder, double value, final int precision)
     {
         double prec_frac, frac;
 
@@ -52,8 +66,6 @@ public class SexagesimalFormat
         // Add half the maximum displayed precision to aid with rounding
         value = value + 0.5 * prec_frac;
 
-        final StringBuilder builder = new StringBuilder();
-
         // Insert a leading negative sign, if required
         if(value < 0.0)
         {
@@ -68,23 +80,50 @@ public class SexagesimalFormat
         value = (value - min) * 60.0;
         final int sec = (int) value;
 
-        if (precision == 0)
-            builder.append(String.format("%.0f", hrs));
-        else if (precision == 1)
-            builder.append(String.format("%.0f:%d", hrs, (min / 10)));
-        else if (precision == 2)
-            builder.append(String.format("%.0f:%02d", hrs, min));
-        else if (precision == 3)
-            builder.append(String.format("%.0f:%02d:%d", hrs, min, sec / 10));
-        else if (precision == 4)
-            builder.append(String.format("%.0f:%02d:%02d", hrs, min, sec));
-        else
+        appendWhole(builder, hrs, 0);
+        if (precision == 1)
+            builder.append(':').append(min / 10);
+        else if (precision >= 2)
         {
-            frac = Math.floor((value - sec) / (prec_frac * 3600.0));
-            builder.append(String.format("%.0f:%02d:%02d.%0" + (precision - 4) + ".0f", hrs, min, sec, frac));
+            builder.append(':');
+            appendWhole(builder, min, 2);
+            if (precision == 3)
+                builder.append(':').append(sec / 10);
+            else if (precision >= 4)
+            {
+                builder.append(':');
+                appendWhole(builder, sec, 2);
+                if (precision > 4)
+                {
+                    frac = Math.floor((value - sec) / (prec_frac * 3600.0));
+                    builder.append('.');
+                    appendWhole(builder, frac, precision - 4);
+                }
+            }
         }
+    }
 
-        return builder.toString();
+    /** Append whole number, same as String.format("%0{width}.0f", number)
+     *  @param builder Buffer
+     *  @param number Non-negative whole number
+     *  @param width Minimum number of digits, padded with leading zeros
+     */
+    private static void appendWhole(final StringBuilder builder, final double number, final int width)
+    {
+        if (number >= 1e18)
+        {
+            builder.append(String.format("%0" + Math.max(1, width) + ".0f", number));
+            return;
+        }
+        final long whole = (long) number;
+        long limit = 10;
+        for (int digits = 1;  digits < width;  ++digits)
+        {
+            if (whole < limit)
+                builder.append('0');
+            limit *= 10;
+        }
+        builder.append(whole);
     }
 
     private static double parseDouble(final String text) throws NumberFormatException
@@ -15,7 +15,10 @@ import org.diirt.vtype.VEnum;
 import org.diirt.vtype.VEnumArray;
 import org.diirt.vtype.VNumber;
 import org.diirt.vtype.VNumberArray;
+import org.diirt.vtype.VString;
+import org.diirt.vtype.VStringArray;
 import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
 
 /** Utility for displaying VType data.
  *  @author Kay Kasemir
@@ -67,4 +70,52 @@ public class VTypeUtil
         }
         return Double.valueOf(Double.NaN);
     }
+
+    /** Obtain array size
+     *  @param value VType
+     *  @return Number of array elements, 1 for scalar, 0 for <code>null</code> or unknown type
+     */
+    public static int getArraySize(final VType value)
+    {
+        if (value instanceof VNumberArray)
+            return ((VNumberArray)value).getData().size();
+        if (value instanceof VEnumArray)
+            return ((VEnumArray)value).getIndexes().size();
+        if (value instanceof VStringArray)
+            return ((VStringArray)value).getData().size();
+        if (value instanceof VNumber  ||  value instanceof VEnum  ||  value instanceof VString)
+            return 1;
+        return 0;
+    }
+
+    /** Obtain one element of an array
+     *
+     *  <p>Element uses the alarm, time and display info of the array.
+     *  Scalars are handled as one-element arrays.
+     *
+     *  @param value VType
+     *  @param index Element index
+     *  @return Element value, <code>null</code> if index is outside of the array
+     */
+    public static VType getArrayElement(final VType value, final int index)
+    {
+        if (index < 0  ||  index >= getArraySize(value))
+            return null;
+        if (value instanceof VNumberArray)
+        {
+            final VNumberArray array = (VNumberArray) value;
+            return ValueFactory.newVDouble(array.getData().getDouble(index), array, array, array);
+        }
+        if (value instanceof VEnumArray)
+        {
+            final VEnumArray array = (VEnumArray) value;
+            return ValueFactory.newVEnum(array.getIndexes().getInt(index), array.getLabels(), array, array);
+        }
+        if (value instanceof VStringArray)
+        {
+            final VStringArray array = (VStringArray) value;
+            return ValueFactory.newVString(array.getData().get(index), array, array);
+        }
+        return value;
+    }
 }
@@ -0,0 +1,488 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.model.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.WidgetPropertyListener;
+import org.csstudio.display.builder.model.properties.InsetsWidgetProperty;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
+
+/** Spatial index of widget bounds within a display
+ *
+ *  <p>Tracks the bounds of all widgets relative to the display model,
+ *  i.e. including the offsets of their containers,
+ *  in a grid of cells.
+ *  Geometric queries only need to check the widgets in the affected
+ *  cells instead of scanning all widgets in the display.
+ *
+ *  <p>The index is updated from property listeners
+ *  when widgets are moved, resized, added or removed.
+ *  Widgets in all tabs of a {@link TabsWidget} are indexed,
+ *  {@link #isShown(Widget)} can be used to check if they
+ *  are in the active tab.
+ *
+ *  <p>The editor uses one index per model, see {@link #of(DisplayModel)}.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class WidgetSpatialIndex
+{
+    /** Key for model's user data that holds the index */
+    private static final String USER_DATA_INDEX = "_spatial_index";
+
+    /** Size of a grid cell */
+    public static final int CELL_SIZE = 128;
+
+    /** Widgets that would span more cells are kept in a separate list */
+    private static final int MAX_CELLS = 256;
+
+    /** Indexed information for a widget */
+    private static class Entry
+    {
+        final Widget widget;
+        /** Bounds relative to display */
+        int x, y, width, height;
+        /** Range of grid cells, unless in the 'large' list */
+        int cx0, cy0, cx1, cy1;
+        /** In the 'large' list? Located at all? */
+        boolean large = false, gridded = false;
+        /** Children properties to which listeners were added */
+        final List<ChildrenProperty> children = new ArrayList<>(0);
+        /** Query stamp to avoid duplicates */
+        int stamp = 0;
+
+        Entry(final Widget widget)
+        {
+            this.widget = widget;
+        }
+    }
+
+    private final DisplayModel model;
+
+    /** SYNC on this for all of the following */
+    private final Map<Widget, Entry> entries = new IdentityHashMap<>();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final List<Entry> large = new ArrayList<>();
+    private int min_cx = Integer.MAX_VALUE, max_cx = Integer.MIN_VALUE,
+                min_cy = Integer.MAX_VALUE, max_cy = Integer.MIN_VALUE;
+    private int stamp = 0;
+
+    private final WidgetPropertyListener<Integer> position_listener = (prop, old, value) -> update(prop.getWidget(), true);
+    private final WidgetPropertyListener<Integer> size_listener = (prop, old, value) -> update(prop.getWidget(), false);
+    private final WidgetPropertyListener<int[]> insets_listener = (prop, old, value) -> update(prop.getWidget(), true);
+    private final WidgetPropertyListener<List<Widget>> children_listener = this::childrenChanged;
+    private final WidgetPropertyListener<List<TabItemProperty>> tabs_listener = (prop, old, value) -> tabsChanged((TabsWidget) prop.getWidget());
+
+    /** Get index for a model, creating it if necessary
+     *  @param model {@link DisplayModel}
+     *  @return {@link WidgetSpatialIndex} for that model
+     */
+    public static WidgetSpatialIndex of(final DisplayModel model)
+    {
+        synchronized (WidgetSpatialIndex.class)
+        {
+            WidgetSpatialIndex index = model.getUserData(USER_DATA_INDEX);
+            if (index == null)
+            {
+                index = new WidgetSpatialIndex(model);
+                model.setUserData(USER_DATA_INDEX, index);
+            }
+            return index;
+        }
+    }
+
+    /** Dispose index of a model, if there is one
+     *  @param model {@link DisplayModel}
+     */
+    public static void remove(final DisplayModel model)
+    {
+        final WidgetSpatialIndex index;
+        synchronized (WidgetSpatialIndex.class)
+        {
+            index = model.getUserData(USER_DATA_INDEX);
+        }
+        if (index != null)
+            index.dispose();
+    }
+
+    /** Create index
+     *
+     *  <p>To share the index, use {@link #of(DisplayModel)}.
+     *
+     *  @param model {@link DisplayModel} to index
+     */
+    public WidgetSpatialIndex(final DisplayModel model)
+    {
+        this.model = model;
+        synchronized (this)
+        {
+            model.runtimeChildren().addPropertyListener(children_listener);
+            for (Widget child : model.runtimeChildren().getValue())
+                add(child);
+        }
+    }
+
+    /** Remove listeners from the model */
+    public void dispose()
+    {
+        synchronized (this)
+        {
+            for (Entry entry : new ArrayList<>(entries.values()))
+                detach(entry);
+            model.runtimeChildren().removePropertyListener(children_listener);
+            entries.clear();
+            cells.clear();
+            large.clear();
+        }
+        synchronized (WidgetSpatialIndex.class)
+        {
+            if (model.getUserData(USER_DATA_INDEX) == this)
+                model.clearUserData(USER_DATA_INDEX);
+        }
+    }
+
+    /** @return Number of indexed widgets */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /** @param widget Widget
+     *  @return Bounds { x, y, width, height } relative to display,
+     *          or <code>null</code> if widget is not indexed
+     */
+    public synchronized int[] getBounds(final Widget widget)
+    {
+        final Entry entry = entries.get(widget);
+        if (entry == null)
+            return null;
+        return new int[] { entry.x, entry.y, entry.width, entry.height };
+    }
+
+    /** Locate widgets that intersect a region
+     *
+     *  <p>Includes widgets that only touch the region,
+     *  for example a widget that ends where the region starts.
+     *
+     *  @param x Region relative to display
+     *  @param y
+     *  @param width
+     *  @param height
+     *  @return Widgets whose bounds intersect or touch the region, in no particular order
+     */
+    public synchronized List<Widget> findIntersecting(final double x, final double y, final double width, final double height)
+    {
+        final List<Widget> found = new ArrayList<>();
+        if (entries.isEmpty())
+            return found;
+        ++stamp;
+        final double x1 = x + width, y1 = y + height;
+        final int cx0 = Math.max(min_cx, cell(x)), cx1 = Math.min(max_cx, cell(x1));
+        final int cy0 = Math.max(min_cy, cell(y)), cy1 = Math.min(max_cy, cell(y1));
+        for (int cx=cx0; cx<=cx1; ++cx)
+            for (int cy=cy0; cy<=cy1; ++cy)
+            {
+                final List<Entry> cell = cells.get(key(cx, cy));
+                if (cell != null)
+                    for (Entry entry : cell)
+                        check(entry, x, y, x1, y1, found);
+            }
+        for (Entry entry : large)
+            check(entry, x, y, x1, y1, found);
+        return found;
+    }
+
+    private void check(final Entry entry, final double x0, final double y0, final double x1, final double y1, final List<Widget> found)
+    {
+        if (entry.stamp == stamp)
+            return;
+        entry.stamp = stamp;
+        if (entry.x <= x1  &&  entry.x + entry.width >= x0  &&
+            entry.y <= y1  &&  entry.y + entry.height >= y0)
+            found.add(entry.widget);
+    }
+
+    /** Check if widget is shown in the editor
+     *
+     *  @param widget Widget
+     *  @return <code>false</code> if widget is inside a tab that's not selected
+     */
+    public static boolean isShown(Widget widget)
+    {
+        Widget parent = widget.getParent().orElse(null);
+        while (parent != null)
+        {
+            if (parent instanceof TabsWidget)
+            {
+                final TabsWidget tabs = (TabsWidget) parent;
+                final List<TabItemProperty> items = tabs.propTabs().getValue();
+                final int active = tabs.propActiveTab().getValue();
+                if (active < 0  ||  active >= items.size()  ||
+                    ! items.get(active).children().getValue().contains(widget))
+                    return false;
+            }
+            widget = parent;
+            parent = widget.getParent().orElse(null);
+        }
+        return true;
+    }
+
+    private static int cell(final double coord)
+    {
+        return (int) Math.floor(coord / CELL_SIZE);
+    }
+
+    private static long key(final int cx, final int cy)
+    {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /** @param widget Widget
+     *  @return Children of container widget, including all tabs
+     */
+    private static List<ChildrenProperty> getChildren(final Widget widget)
+    {
+        if (widget instanceof TabsWidget)
+        {
+            final List<TabItemProperty> tabs = ((TabsWidget) widget).propTabs().getValue();
+            final List<ChildrenProperty> result = new ArrayList<>(tabs.size());
+            for (TabItemProperty tab : tabs)
+                result.add(tab.children());
+            return result;
+        }
+        final ChildrenProperty children = ChildrenProperty.getChildren(widget);
+        if (children == null)
+            return Collections.emptyList();
+        return Collections.singletonList(children);
+    }
+
+    /** @param container Container widget or display model
+     *  @return Offset of widgets within that container
+     */
+    private int[] getOffset(final Widget container)
+    {
+        int dx = 0, dy = 0;
+        if (container != null  &&  ! (container instanceof DisplayModel))
+        {
+            final Entry entry = entries.get(container);
+            if (entry != null)
+            {
+                dx = entry.x;
+                dy = entry.y;
+            }
+            else
+            {   // Not indexed (yet), compute from parents
+                final int[] offset = getOffset(container.getParent().orElse(null));
+                dx = offset[0] + container.propX().getValue();
+                dy = offset[1] + container.propY().getValue();
+            }
+        }
+        if (container != null)
+        {
+            final int[] insets = InsetsWidgetProperty.getInsets(container);
+            if (insets != null)
+            {
+                dx += insets[0];
+                dy += insets[1];
+            }
+        }
+        return new int[] { dx, dy };
+    }
+
+    /** Add widget and its children to index
+     *  @param widget Widget to add
+     */
+    private void add(final Widget widget)
+    {
+        Entry entry = entries.get(widget);
+        if (entry == null)
+        {
+            entry = new Entry(widget);
+            entries.put(widget, entry);
+            widget.propX().addPropertyListener(position_listener);
+            widget.propY().addPropertyListener(position_listener);
+            widget.propWidth().addPropertyListener(size_listener);
+            widget.propHeight().addPropertyListener(size_listener);
+            widget.checkProperty(InsetsWidgetProperty.runtimePropInsets)
+                  .ifPresent(insets -> insets.addPropertyListener(insets_listener));
+            if (widget instanceof TabsWidget)
+                ((TabsWidget) widget).propTabs().addPropertyListener(tabs_listener);
+        }
+        locate(entry);
+        for (ChildrenProperty children : getChildren(widget))
+        {
+            attachChildren(entry, children);
+            for (Widget child : children.getValue())
+                add(child);
+        }
+    }
+
+    private void attachChildren(final Entry entry, final ChildrenProperty children)
+    {
+        if (entry.children.contains(children))
+            return;
+        entry.children.add(children);
+        children.addPropertyListener(children_listener);
+    }
+
+    /** Remove widget and its children from index
+     *  @param widget Widget to remove
+     */
+    private void remove(final Widget widget)
+    {
+        final Entry entry = entries.get(widget);
+        if (entry != null)
+            detach(entry);
+    }
+
+    private void detach(final Entry entry)
+    {
+        final Widget widget = entry.widget;
+        if (entries.remove(widget) == null)
+            return;
+        widget.propX().removePropertyListener(position_listener);
+        widget.propY().removePropertyListener(position_listener);
+        widget.propWidth().removePropertyListener(size_listener);
+        widget.propHeight().removePropertyListener(size_listener);
+        widget.checkProperty(InsetsWidgetProperty.runtimePropInsets)
+              .ifPresent(insets -> insets.removePropertyListener(insets_listener));
+        if (widget instanceof TabsWidget)
+            ((TabsWidget) widget).propTabs().removePropertyListener(tabs_listener);
+        unlocate(entry);
+        for (ChildrenProperty children : entry.children)
+        {
+            children.removePropertyListener(children_listener);
+            for (Widget child : children.getValue())
+                remove(child);
+        }
+        entry.children.clear();
+    }
+
+    /** Update position of widget
+     *  @param widget Widget that moved or changed size
+     *  @param with_children Also update the children?
+     */
+    private synchronized void update(final Widget widget, final boolean with_children)
+    {
+        final Entry entry = entries.get(widget);
+        if (entry == null)
+            return;
+        locate(entry);
+        if (with_children)
+            for (ChildrenProperty children : entry.children)
+                for (Widget child : children.getValue())
+                    update(child, true);
+    }
+
+    private synchronized void childrenChanged(final WidgetProperty<List<Widget>> property,
+                                              final List<Widget> removed, final List<Widget> added)
+    {
+        if (removed != null)
+            for (Widget child : removed)
+                remove(child);
+        if (added != null)
+            for (Widget child : added)
+                add(child);
+    }
+
+    private synchronized void tabsChanged(final TabsWidget tabs)
+    {
+        // Tabs were added or removed: Re-index the tabs widget
+        remove(tabs);
+        add(tabs);
+    }
+
+    /** Compute bounds of widget and add to grid
+     *  @param entry Entry for widget
+     */
+    private void locate(final Entry entry)
+    {
+        final Widget widget = entry.widget;
+        final int[] offset = getOffset(widget.getParent().orElse(null));
+        final int x = offset[0] + widget.propX().getValue();
+        final int y = offset[1] + widget.propY().getValue();
+        final int width = Math.max(0, widget.propWidth().getValue());
+        final int height = Math.max(0, widget.propHeight().getValue());
+        final int cx0 = cell(x), cx1 = cell(x + width), cy0 = cell(y), cy1 = cell(y + height);
+        final boolean is_large = (long)(cx1 - cx0 + 1) * (cy1 - cy0 + 1) > MAX_CELLS;
+        if (entry.gridded  &&  entry.large == is_large  &&
+            (is_large  ||  (entry.cx0 == cx0  &&  entry.cx1 == cx1  &&  entry.cy0 == cy0  &&  entry.cy1 == cy1)))
+        {   // Still in the same cells
+            entry.x = x;
+            entry.y = y;
+            entry.width = width;
+            entry.height = height;
+            return;
+        }
+        unlocate(entry);
+        entry.x = x;
+        entry.y = y;
+        entry.width = width;
+        entry.height = height;
+        entry.cx0 = cx0;
+        entry.cx1 = cx1;
+        entry.cy0 = cy0;
+        entry.cy1 = cy1;
+        entry.large = is_large;
+        entry.gridded = true;
+        if (is_large)
+            large.add(entry);
+        else
+            for (int cx=cx0; cx<=cx1; ++cx)
+                for (int cy=cy0; cy<=cy1; ++cy)
+                    cells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>(4)).add(entry);
+        min_cx = Math.min(min_cx, cx0);
+        max_cx = Math.max(max_cx, cx1);
+        min_cy = Math.min(min_cy, cy0);
+        max_cy = Math.max(max_cy, cy1);
+    }
+
+    /** Remove entry from grid
+     *  @param entry Entry for widget
+     */
+    private void unlocate(final Entry entry)
+    {
+        if (! entry.gridded)
+            return;
+        if (entry.large)
+            large.remove(entry);
+        else
+            for (int cx=entry.cx0; cx<=entry.cx1; ++cx)
+                for (int cy=entry.cy0; cy<=entry.cy1; ++cy)
+                {
+                    final Long key = key(cx, cy);
+                    final List<Entry> cell = cells.get(key);
+                    if (cell != null)
+                    {
+                        cell.remove(entry);
+                        if (cell.isEmpty())
+                            cells.remove(key);
+                    }
+                }
+        entry.gridded = false;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "WidgetSpatialIndex for " + model + ": " + entries.size() + " widgets in " +
+               cells.size() + " cells, " + large.size() + " large widgets";
+    }
+}
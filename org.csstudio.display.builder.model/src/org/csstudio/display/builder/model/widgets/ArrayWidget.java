@@ -9,6 +9,8 @@ package org.csstudio.display.builder.model.widgets;
 
 import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.propBackgroundColor;
 import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.propForegroundColor;
+import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.newBooleanPropertyDescriptor;
+import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.newIntegerPropertyDescriptor;
 import static org.csstudio.display.builder.model.properties.CommonWidgetProperties.propMacros;
 import static org.csstudio.display.builder.model.properties.InsetsWidgetProperty.runtimePropInsets;
 
@@ -23,6 +25,8 @@ import org.csstudio.display.builder.model.Widget;
 import org.csstudio.display.builder.model.WidgetCategory;
 import org.csstudio.display.builder.model.WidgetDescriptor;
 import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.WidgetPropertyCategory;
+import org.csstudio.display.builder.model.WidgetPropertyDescriptor;
 import org.csstudio.display.builder.model.macros.Macros;
 import org.csstudio.display.builder.model.persist.ModelWriter;
 import org.csstudio.display.builder.model.persist.NamedWidgetColors;
@@ -33,6 +37,11 @@ import org.csstudio.display.builder.model.properties.WidgetColor;
  * An Array Widget contains copies of a child widget. Each copy is assigned the
  * value of one element of a PV.
  *
+ * <p>By default, each array element is handled by a separate PV.
+ * With 'virtual' elements, the copies only exist for the visible
+ * element slots and receive their values directly from the array,
+ * starting at the 'first_element'.
+ *
  * @author Amanda Carpenter
  */
 @SuppressWarnings("nls")
@@ -53,6 +62,14 @@ public class ArrayWidget extends PVWidget
         }
     };
 
+    /** 'virtual' property: Feed element widgets directly from array instead of per-element PVs */
+    public static final WidgetPropertyDescriptor<Boolean> propVirtual =
+        newBooleanPropertyDescriptor(WidgetPropertyCategory.BEHAVIOR, "virtual", Messages.ArrayWidget_Virtual);
+
+    /** Runtime 'first_element' property: Array index shown in first element widget */
+    public static final WidgetPropertyDescriptor<Integer> runtimePropFirstElement =
+        newIntegerPropertyDescriptor(WidgetPropertyCategory.RUNTIME, "first_element", Messages.ArrayWidget_FirstElement);
+
     /** {@link ChildrenProperty} wrapper that adjusts writing to XML*/
     public static class ArrayWidgetChildrenProperty extends ChildrenProperty
     {
@@ -74,6 +91,8 @@ public class ArrayWidget extends PVWidget
     private volatile WidgetProperty<WidgetColor> foreground;
     private volatile WidgetProperty<WidgetColor> background;
     private volatile WidgetProperty<int[]> insets;
+    private volatile WidgetProperty<Boolean> virtual;
+    private volatile WidgetProperty<Integer> first_element;
 
     public ArrayWidget()
     {
@@ -91,6 +110,8 @@ public class ArrayWidget extends PVWidget
         properties.add(background = propBackgroundColor.createProperty(this,
                 WidgetColorService.getColor(NamedWidgetColors.BACKGROUND)));
         properties.add(insets = runtimePropInsets.createProperty(this, new int[] { 0, 0 }));
+        properties.add(virtual = propVirtual.createProperty(this, false));
+        properties.add(first_element = runtimePropFirstElement.createProperty(this, 0));
     }
 
     /**
@@ -135,4 +156,16 @@ public class ArrayWidget extends PVWidget
     {
         return insets;
     }
+
+    /** @return 'virtual' property */
+    public WidgetProperty<Boolean> propVirtual()
+    {
+        return virtual;
+    }
+
+    /** @return Runtime 'first_element' property */
+    public WidgetProperty<Integer> runtimePropFirstElement()
+    {
+        return first_element;
+    }
 }
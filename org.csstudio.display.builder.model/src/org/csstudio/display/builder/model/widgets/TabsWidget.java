@@ -110,6 +110,9 @@ public class TabsWidget extends VisibleWidget
         CommonWidgetProperties.newIntegerPropertyDescriptor(WidgetPropertyCategory.DISPLAY, "active_tab", Messages.ActiveTab,
                                                             0, Integer.MAX_VALUE);
 
+    static final WidgetPropertyDescriptor<Boolean> propSuspendHidden =
+        CommonWidgetProperties.newBooleanPropertyDescriptor(WidgetPropertyCategory.BEHAVIOR, "suspend_hidden_tabs", Messages.TabsWidget_SuspendHidden);
+
     /** Custom WidgetConfigurator to load legacy file */
     private static class TabsWidgetConfigurator extends WidgetConfigurator
     {
@@ -181,6 +184,7 @@ public class TabsWidget extends VisibleWidget
     private volatile WidgetProperty<Direction> direction;
     private volatile WidgetProperty<Integer> tab_height;
     private volatile WidgetProperty<int[]> insets;
+    private volatile WidgetProperty<Boolean> suspend_hidden;
 
     public TabsWidget()
     {
@@ -199,6 +203,7 @@ public class TabsWidget extends VisibleWidget
                                                                              new TabItemProperty(this, 1))));
         properties.add(direction = propDirection.createProperty(this, Direction.HORIZONTAL));
         properties.add(tab_height = propTabHeight.createProperty(this, 30));
+        properties.add(suspend_hidden = propSuspendHidden.createProperty(this, false));
         properties.add(insets = runtimePropInsets.createProperty(this, new int[] { 0, 0 }));
 
         // Initial size
@@ -271,6 +276,12 @@ public class TabsWidget extends VisibleWidget
         return tab_height;
     }
 
+    /** @return 'suspend_hidden_tabs' property */
+    public WidgetProperty<Boolean> propSuspendHidden()
+    {
+        return suspend_hidden;
+    }
+
     /** @return 'insets' property */
     public WidgetProperty<int[]> runtimePropInsets()
     {
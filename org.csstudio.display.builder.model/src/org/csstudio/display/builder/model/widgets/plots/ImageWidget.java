@@ -267,6 +267,25 @@ public class ImageWidget extends PVWidget
     public static final WidgetPropertyDescriptor<Double> propHeightValue =
         CommonWidgetProperties.newDoublePropertyDescriptor(WidgetPropertyCategory.RUNTIME, "height_value", Messages.WidgetProperties_Height);
 
+    private static final WidgetPropertyDescriptor<Boolean> propComputeStatistics =
+        CommonWidgetProperties.newBooleanPropertyDescriptor(WidgetPropertyCategory.BEHAVIOR, "compute_statistics", "Compute Statistics");
+
+    /** Runtime info about statistics within ROI: VTable with "Count", "Sum", "Mean", "Min", "Max", "xi", "yi" */
+    private static final WidgetPropertyDescriptor<VType> runtimePropStatistics =
+        CommonWidgetProperties.newRuntimeValue("statistics", "Statistics");
+
+    /** Runtime histogram of values within ROI: VNumberArray, bins from "Min" to "Max" */
+    private static final WidgetPropertyDescriptor<VType> runtimePropHistogram =
+        CommonWidgetProperties.newRuntimeValue("histogram", "Histogram");
+
+    /** Runtime average of each column within ROI: VNumberArray */
+    private static final WidgetPropertyDescriptor<VType> runtimePropHorizontalProfile =
+        CommonWidgetProperties.newRuntimeValue("horizontal_profile", "Horizontal Profile");
+
+    /** Runtime average of each row within ROI: VNumberArray */
+    private static final WidgetPropertyDescriptor<VType> runtimePropVerticalProfile =
+        CommonWidgetProperties.newRuntimeValue("vertical_profile", "Vertical Profile");
+
     private final static StructuredWidgetProperty.Descriptor propROI =
             new Descriptor(WidgetPropertyCategory.DISPLAY, "roi", "Region of Interest");
 
@@ -287,7 +306,12 @@ public class ImageWidget extends PVWidget
                                 propXValue.createProperty(widget, Double.NaN),
                                 propYValue.createProperty(widget, Double.NaN),
                                 propWidthValue.createProperty(widget, Double.NaN),
-                                propHeightValue.createProperty(widget, Double.NaN) ));
+                                propHeightValue.createProperty(widget, Double.NaN),
+                                propComputeStatistics.createProperty(widget, false),
+                                runtimePropStatistics.createProperty(widget, null),
+                                runtimePropHistogram.createProperty(widget, null),
+                                runtimePropHorizontalProfile.createProperty(widget, null),
+                                runtimePropVerticalProfile.createProperty(widget, null) ));
         }
 
         public WidgetProperty<String> name()           { return getElement(0); }
@@ -303,6 +327,11 @@ public class ImageWidget extends PVWidget
         public WidgetProperty<Double> y_value()        { return getElement(10); }
         public WidgetProperty<Double> width_value()    { return getElement(11); }
         public WidgetProperty<Double> height_value()   { return getElement(12); }
+        public WidgetProperty<Boolean> compute_statistics() { return getElement(13); }
+        public WidgetProperty<VType> statistics()      { return getElement(14); }
+        public WidgetProperty<VType> histogram()       { return getElement(15); }
+        public WidgetProperty<VType> horizontal_profile() { return getElement(16); }
+        public WidgetProperty<VType> vertical_profile() { return getElement(17); }
     };
 
     /** 'roi' array */
@@ -16,6 +16,8 @@ import org.csstudio.display.builder.representation.javafx.ModalityHack;
 import org.csstudio.display.builder.representation.javafx.WidgetInfoDialog;
 import org.csstudio.display.builder.runtime.WidgetRuntime;
 import org.csstudio.display.builder.runtime.pv.RuntimePV;
+import org.csstudio.display.builder.runtime.script.internal.ScriptMonitor;
+import org.csstudio.display.builder.runtime.script.internal.ScriptStatistics;
 import org.eclipse.jface.action.Action;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Event;
@@ -44,7 +46,12 @@ public class WidgetInfoAction extends Action
         final List<WidgetInfoDialog.NameStateValue> pvs = new ArrayList<>();
         for (RuntimePV pv : runtime.getPVs())
             pvs.add(new WidgetInfoDialog.NameStateValue(pv.getName(), pv.isReadonly() ? "read-only" : "writable", pv.read()));
-        final WidgetInfoDialog dialog = new WidgetInfoDialog(widget, pvs);
+        final List<WidgetInfoDialog.ScriptStatistic> scripts = new ArrayList<>();
+        for (ScriptStatistics stats : ScriptMonitor.getInstance().getStatistics(widget))
+            scripts.add(new WidgetInfoDialog.ScriptStatistic(stats.getName(), stats.getInvocations(), stats.getErrors(),
+                                                             stats.getAverageWaitMillis(), stats.getAverageExecMillis(),
+                                                             stats.getMaxExecMillis()));
+        final WidgetInfoDialog dialog = new WidgetInfoDialog(widget, pvs, scripts);
         if (event.display != null)
         {
             final Point mouse = event.display.getCursorLocation();
@@ -74,6 +74,7 @@ import org.csstudio.display.builder.model.widgets.ThumbWheelWidget;
 import org.csstudio.display.builder.model.widgets.WebBrowserWidget;
 import org.csstudio.display.builder.model.widgets.plots.ImageWidget;
 import org.csstudio.display.builder.model.widgets.plots.XYPlotWidget;
+import org.csstudio.display.builder.representation.Preferences;
 import org.csstudio.display.builder.representation.ToolkitRepresentation;
 import org.csstudio.display.builder.representation.WidgetRepresentation;
 import org.csstudio.display.builder.representation.WidgetRepresentationFactory;
@@ -739,6 +740,10 @@ public class JFXRepresentation extends ToolkitRepresentation<Parent, Node>
         root.getProperties().put(ACTIVE_MODEL, model);
         super.representModel(root, model);
 
+        // At runtime, show widgets that never change as images
+        if (! isEditMode()  &&  Preferences.isStaticWidgetFlatteningEnabled())
+            StaticWidgetLayer.createLayers(model);
+
         // In edit mode, indicate overall bounds of the top-level model
         if (model.isTopDisplayModel())
         {
@@ -792,6 +797,9 @@ public class JFXRepresentation extends ToolkitRepresentation<Parent, Node>
             }
         }
 
+        // Restore the original nodes so they can be disposed
+        StaticWidgetLayer.disposeLayers(model);
+
         final Parent root = super.disposeRepresentation(model);
         root.getProperties().remove(ACTIVE_MODEL);
         return root;
@@ -123,14 +123,20 @@ public class Messages extends NLS
     public static String WidgetFontPopOver_Sizes;
     public static String WidgetFontPopOver_Styles;
     public static String WidgetInfoDialog_Category;
+    public static String WidgetInfoDialog_AvgExec;
+    public static String WidgetInfoDialog_AvgWait;
     public static String WidgetInfoDialog_Disconnected;
+    public static String WidgetInfoDialog_Errors;
     public static String WidgetInfoDialog_Info_Fmt;
+    public static String WidgetInfoDialog_Invocations;
+    public static String WidgetInfoDialog_MaxExec;
     public static String WidgetInfoDialog_Name;
     public static String WidgetInfoDialog_Property;
     public static String WidgetInfoDialog_State;
     public static String WidgetInfoDialog_TabMacros;
     public static String WidgetInfoDialog_TabProperties;
     public static String WidgetInfoDialog_TabPVs;
+    public static String WidgetInfoDialog_TabScripts;
     public static String WidgetInfoDialog_Title;
     public static String WidgetInfoDialog_Value;
     public static String Zoom_All;
@@ -82,6 +82,7 @@ public class ScriptsDialog extends Dialog<List<ScriptInfo>>
         public StringProperty file = new SimpleStringProperty();
         public String text;
         public boolean check_connections;
+        public int min_period;
         public List<PVTableItem> pvs;
 
         public ScriptItem()
@@ -90,10 +91,16 @@ public class ScriptsDialog extends Dialog<List<ScriptInfo>>
         }
 
         public ScriptItem(final String file, final String text, final boolean check_connections, final List<PVTableItem> pvs)
+        {
+            this(file, text, check_connections, 0, pvs);
+        }
+
+        public ScriptItem(final String file, final String text, final boolean check_connections, final int min_period, final List<PVTableItem> pvs)
         {
             this.file.set(file);
             this.text = text;
             this.check_connections = check_connections;
+            this.min_period = min_period;
             this.pvs = pvs;
         }
 
@@ -101,7 +108,7 @@ public class ScriptsDialog extends Dialog<List<ScriptInfo>>
         {
             final List<PVTableItem> pvs = new ArrayList<>();
             info.getPVs().forEach(pv -> pvs.add(PVTableItem.forPV(pv)));
-            return new ScriptItem(info.getPath(), info.getText(), info.getCheckConnections(), pvs);
+            return new ScriptItem(info.getPath(), info.getText(), info.getCheckConnections(), info.getMinPeriod(), pvs);
         }
 
         public ScriptInfo getScriptInfo()
@@ -122,9 +129,9 @@ public class ScriptsDialog extends Dialog<List<ScriptInfo>>
             // embedded text.
             // #249
             if (ScriptInfo.isEmbedded(file.get()))
-                return new ScriptInfo(file.get(), text, check_connections, spvs);
+                return new ScriptInfo(file.get(), text, check_connections, min_period, spvs);
             else
-                return new ScriptInfo(file.get(), null, check_connections, spvs);
+                return new ScriptInfo(file.get(), null, check_connections, min_period, spvs);
         }
 
         public StringProperty fileProperty()
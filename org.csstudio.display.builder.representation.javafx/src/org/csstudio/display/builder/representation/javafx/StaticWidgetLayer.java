@@ -0,0 +1,508 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.javafx;
+
+import static org.csstudio.display.builder.representation.ToolkitRepresentation.logger;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.properties.CommonWidgetProperties;
+import org.csstudio.display.builder.model.widgets.ArcWidget;
+import org.csstudio.display.builder.model.widgets.EllipseWidget;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.PictureWidget;
+import org.csstudio.display.builder.model.widgets.PolygonWidget;
+import org.csstudio.display.builder.model.widgets.PolylineWidget;
+import org.csstudio.display.builder.model.widgets.RectangleWidget;
+import org.csstudio.display.builder.representation.javafx.widgets.JFXBaseRepresentation;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.event.EventHandler;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+import javafx.scene.transform.TransformChangedEvent;
+import javafx.scene.transform.Translate;
+import javafx.stage.Window;
+
+/** Layer that shows adjacent static widgets as one image
+ *
+ *  <p>Labels, rectangles, pictures, .. without rules, scripts,
+ *  actions, tool tip or PV do not change at runtime,
+ *  yet each of their nodes needs to be laid out, culled and picked.
+ *  A run of such widgets that are adjacent within their parent
+ *  is moved into a detached {@link Group}, which is rendered into
+ *  an image that is then shown by a single {@link ImageView}.
+ *  A group widget whose child widgets are all static
+ *  is flattened as a whole.
+ *
+ *  <p>The image is rendered at the scale of the parent in the scene
+ *  times the output scale of the window, if known,
+ *  and rendered again when that scale changes, i.e. on zoom,
+ *  or when a widget in the layer is updated, for example
+ *  after a picture has been loaded.
+ *  Only the transforms and scale factors of the parent and its ancestors
+ *  are tracked, so scrolling does not cause any checks.
+ *  When the image would be larger than {@link #MAX_IMAGE_SIZE},
+ *  the original nodes are shown until the scale is reduced.
+ *
+ *  <p>Only accessed on the UI thread.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class StaticWidgetLayer
+{
+    /** Types of widgets that are static unless they have rules, scripts, .. */
+    private static final Set<String> STATIC_TYPES = new HashSet<>(Arrays.asList(
+        LabelWidget.WIDGET_DESCRIPTOR.getType(),
+        RectangleWidget.WIDGET_DESCRIPTOR.getType(),
+        EllipseWidget.WIDGET_DESCRIPTOR.getType(),
+        PolylineWidget.WIDGET_DESCRIPTOR.getType(),
+        PolygonWidget.WIDGET_DESCRIPTOR.getType(),
+        ArcWidget.WIDGET_DESCRIPTOR.getType(),
+        PictureWidget.WIDGET_DESCRIPTOR.getType(),
+        GroupWidget.WIDGET_DESCRIPTOR.getType()));
+
+    /** Minimum number of adjacent static widgets to combine into a layer */
+    private static final int MIN_WIDGETS = 2;
+
+    /** Display model user data for the List of layers */
+    private static final String USER_DATA_LAYERS = "_static_layers";
+
+    /** Maximum width and height of the image.
+     *  Larger images would exceed the texture size supported by some graphics cards,
+     *  and use a lot of memory.
+     */
+    static final int MAX_IMAGE_SIZE = 4096;
+
+    /** Window.getOutputScaleX/Y and outputScaleX/YProperty,
+     *  only available in later JavaFX versions
+     */
+    private static final Method[] OUTPUT_SCALE, OUTPUT_SCALE_PROPERTY;
+
+    static
+    {
+        Method[] scale, property;
+        try
+        {
+            scale = new Method[] { Window.class.getMethod("getOutputScaleX"), Window.class.getMethod("getOutputScaleY") };
+            property = new Method[] { Window.class.getMethod("outputScaleXProperty"), Window.class.getMethod("outputScaleYProperty") };
+        }
+        catch (Exception ex)
+        {   // JavaFX 8 renders and snapshots at a scale of 1
+            scale = property = new Method[0];
+        }
+        OUTPUT_SCALE = scale;
+        OUTPUT_SCALE_PROPERTY = property;
+    }
+
+    /** Parent of the layer, Group or Pane */
+    private final Parent parent;
+
+    /** Detached group that holds the nodes of the static widgets */
+    private final Group group = new Group();
+
+    /** Image of the group, shown in the parent */
+    private final ImageView view = new ImageView();
+
+    /** Check for zoom */
+    private final InvalidationListener scale_listener = p -> checkScale();
+    private final EventHandler<TransformChangedEvent> transform_listener = event -> checkScale();
+
+    /** Track the ancestors and their transforms again, then check for zoom */
+    private final InvalidationListener ancestors_listener = p ->
+    {
+        untrack();
+        track();
+        checkScale();
+    };
+
+    /** Parent and its ancestors whose transforms and scale are tracked */
+    private final List<Node> ancestors = new ArrayList<>();
+
+    /** Tracked transforms of the ancestors */
+    private final List<Transform> transforms = new ArrayList<>();
+
+    /** Tracked scene and window of the parent */
+    private Scene scene = null;
+    private Window window = null;
+
+    /** Scale at which the image was rendered */
+    private double rendered_scale = 0.0;
+
+    /** Has render() been scheduled? */
+    private boolean render_pending = false;
+
+    /** Check if a widget is static
+     *
+     *  @param widget Widget
+     *  @return <code>true</code> if widget will not change at runtime
+     *          and doesn't react to the mouse
+     */
+    public static boolean isStatic(final Widget widget)
+    {
+        if (! STATIC_TYPES.contains(widget.getType()))
+            return false;
+        if (! widget.propRules().getValue().isEmpty()  ||
+            ! widget.propScripts().getValue().isEmpty()  ||
+            ! widget.propActions().getValue().getActions().isEmpty())
+            return false;
+        if (widget.checkProperty(CommonWidgetProperties.propPVName).isPresent())
+            return false;
+        final String tooltip = widget.checkProperty(CommonWidgetProperties.propTooltip)
+                                     .map(prop -> prop.getValue())
+                                     .orElse("");
+        if (! tooltip.isEmpty())
+            return false;
+        if (widget instanceof GroupWidget)
+            for (Widget child : ((GroupWidget) widget).runtimeChildren().getValue())
+                if (! isStatic(child))
+                    return false;
+        return true;
+    }
+
+    /** Create layers for the static widgets of a display
+     *
+     *  <p>To be called once the model has been represented.
+     *
+     *  @param model Display model
+     *  @see #disposeLayers(DisplayModel)
+     */
+    public static void createLayers(final DisplayModel model)
+    {
+        final List<StaticWidgetLayer> layers = new ArrayList<>();
+        createLayers(model, model.runtimeChildren().getValue(), layers);
+        if (layers.isEmpty())
+            return;
+        model.setUserData(USER_DATA_LAYERS, layers);
+        logger.log(Level.FINE, () -> model + " uses " + layers.size() + " layers for static widgets");
+    }
+
+    /** @param container Container widget
+     *  @param children Child widgets of the container
+     *  @param layers Layers that have been created
+     */
+    private static void createLayers(final Widget container, final List<Widget> children,
+                                     final List<StaticWidgetLayer> layers)
+    {
+        final Parent parent = container.getUserData(Widget.USER_DATA_TOOLKIT_PARENT);
+        if (parent == null)
+            return;
+        final ObservableList<Node> siblings = JFXRepresentation.getChildren(parent);
+
+        // Locate runs of static widgets whose nodes are adjacent in the parent
+        final List<Widget> run = new ArrayList<>();
+        final List<Node> nodes = new ArrayList<>();
+        int last_index = -1;
+        for (Widget child : children)
+        {
+            final JFXBaseRepresentation<?, ?> representation = child.getUserData(Widget.USER_DATA_REPRESENTATION);
+            final Node node = representation == null ? null : JFXBaseRepresentation.getJFXNode(child);
+            if (node != null  &&  isStatic(child))
+            {
+                // Is node next to the previous one?
+                if (! run.isEmpty()  &&
+                    (last_index + 1 >= siblings.size()  ||  siblings.get(last_index + 1) != node))
+                    createLayer(parent, run, nodes, layers);
+                // Creating a layer changes the siblings, so locate start of new run
+                last_index = run.isEmpty() ? siblings.indexOf(node) : last_index + 1;
+                if (last_index < 0)
+                    continue;
+                run.add(child);
+                nodes.add(node);
+            }
+            else
+            {
+                createLayer(parent, run, nodes, layers);
+                if (child instanceof GroupWidget)
+                    createLayers(child, ((GroupWidget) child).runtimeChildren().getValue(), layers);
+            }
+        }
+        createLayer(parent, run, nodes, layers);
+    }
+
+    /** @param parent Parent
+     *  @param run Static widgets, will be cleared
+     *  @param nodes Their adjacent nodes, will be cleared
+     *  @param layers Layers, will be updated
+     */
+    private static void createLayer(final Parent parent,
+                                    final List<Widget> run, final List<Node> nodes,
+                                    final List<StaticWidgetLayer> layers)
+    {
+        if (run.size() >= MIN_WIDGETS)
+        {
+            final StaticWidgetLayer layer = new StaticWidgetLayer(parent, nodes);
+            for (Widget widget : run)
+                layer.attach(widget);
+            layers.add(layer);
+        }
+        run.clear();
+        nodes.clear();
+    }
+
+    /** Dispose layers of a display, restoring the original nodes
+     *
+     *  <p>To be called before the model representation is disposed.
+     *
+     *  @param model Display model
+     */
+    public static void disposeLayers(final DisplayModel model)
+    {
+        final List<StaticWidgetLayer> layers = model.clearUserData(USER_DATA_LAYERS);
+        if (layers != null)
+            for (StaticWidgetLayer layer : layers)
+                layer.dispose();
+    }
+
+    /** Create layer and render its image
+     *
+     *  @param parent Parent, Group or Pane
+     *  @param nodes Adjacent child nodes of the parent, in their order within the parent
+     */
+    public StaticWidgetLayer(final Parent parent, final List<Node> nodes)
+    {
+        this.parent = parent;
+        final ObservableList<Node> siblings = JFXRepresentation.getChildren(parent);
+        final int index = siblings.indexOf(nodes.get(0));
+        siblings.remove(index, index + nodes.size());
+        group.getChildren().setAll(nodes);
+        view.setMouseTransparent(true);
+        siblings.add(index, view);
+        track();
+        render();
+    }
+
+    /** Track changes to the scale of the parent and the output scale */
+    private void track()
+    {
+        for (Node node = parent;  node != null;  node = node.getParent())
+        {
+            ancestors.add(node);
+            node.parentProperty().addListener(ancestors_listener);
+            node.getTransforms().addListener(ancestors_listener);
+            node.scaleXProperty().addListener(scale_listener);
+            node.scaleYProperty().addListener(scale_listener);
+            for (Transform transform : node.getTransforms())
+                if (! (transform instanceof Translate))
+                {
+                    transform.addEventHandler(TransformChangedEvent.TRANSFORM_CHANGED, transform_listener);
+                    transforms.add(transform);
+                }
+        }
+        parent.sceneProperty().addListener(ancestors_listener);
+        scene = parent.getScene();
+        if (scene == null)
+            return;
+        scene.windowProperty().addListener(ancestors_listener);
+        window = scene.getWindow();
+        if (window != null)
+            for (Method property : OUTPUT_SCALE_PROPERTY)
+                getOutputScaleProperty(property).ifPresent(prop -> prop.addListener(scale_listener));
+    }
+
+    /** Stop tracking changes to the scale */
+    private void untrack()
+    {
+        for (Node node : ancestors)
+        {
+            node.parentProperty().removeListener(ancestors_listener);
+            node.getTransforms().removeListener(ancestors_listener);
+            node.scaleXProperty().removeListener(scale_listener);
+            node.scaleYProperty().removeListener(scale_listener);
+        }
+        ancestors.clear();
+        for (Transform transform : transforms)
+            transform.removeEventHandler(TransformChangedEvent.TRANSFORM_CHANGED, transform_listener);
+        transforms.clear();
+        parent.sceneProperty().removeListener(ancestors_listener);
+        if (scene != null)
+            scene.windowProperty().removeListener(ancestors_listener);
+        if (window != null)
+            for (Method property : OUTPUT_SCALE_PROPERTY)
+                getOutputScaleProperty(property).ifPresent(prop -> prop.removeListener(scale_listener));
+        scene = null;
+        window = null;
+    }
+
+    /** @param property Method for output scale property of the tracked window
+     *  @return Output scale property
+     */
+    private Optional<Observable> getOutputScaleProperty(final Method property)
+    {
+        try
+        {
+            return Optional.of((Observable) property.invoke(window));
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot track output scale", ex);
+            return Optional.empty();
+        }
+    }
+
+    /** Have representation of widget and its child widgets request updates from this layer
+     *  @param widget Widget
+     */
+    private void attach(final Widget widget)
+    {
+        final JFXBaseRepresentation<?, ?> representation = widget.getUserData(Widget.USER_DATA_REPRESENTATION);
+        if (representation != null)
+            representation.setStaticLayer(this);
+        if (widget instanceof GroupWidget)
+            for (Widget child : ((GroupWidget) widget).runtimeChildren().getValue())
+                attach(child);
+    }
+
+    /** @return Image view that represents the widgets in the parent */
+    public ImageView getImageView()
+    {
+        return view;
+    }
+
+    /** @return Scale of the parent in the scene times the output scale */
+    private double getScale()
+    {
+        final Transform transform = parent.getLocalToSceneTransform();
+        double scale = Math.hypot(transform.getMxx(), transform.getMyx());
+        if (scale <= 0.0)
+            scale = 1.0;
+        // Tracked window
+        if (window == null)
+            return scale;
+        // Use the larger of X and Y output scale
+        double output_scale = 1.0;
+        for (Method get_scale : OUTPUT_SCALE)
+        {
+            try
+            {
+                output_scale = Math.max(output_scale, (Double) get_scale.invoke(window));
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.WARNING, "Cannot get output scale", ex);
+            }
+        }
+        return scale * output_scale;
+    }
+
+    /** Render again if scale changed */
+    private void checkScale()
+    {
+        if (Math.abs(getScale() - rendered_scale) > 1e-6)
+            requestRender();
+    }
+
+    /** Request rendering the image
+     *
+     *  <p>Multiple requests are combined into one
+     *  rendering on a later UI tick,
+     *  after all widget representations
+     *  in the current UI tick have been updated.
+     */
+    public void requestRender()
+    {
+        if (render_pending)
+            return;
+        render_pending = true;
+        Platform.runLater(this::render);
+    }
+
+    /** Render image of the nodes in the group */
+    private void render()
+    {
+        render_pending = false;
+        final ObservableList<Node> siblings = JFXRepresentation.getChildren(parent);
+        int index = siblings.indexOf(view);
+        if (index >= 0)
+        {   // Temporarily place group in the parent to obtain the parent's CSS
+            siblings.set(index, group);
+        }
+        else
+        {   // Group is already shown because image was too large?
+            index = siblings.indexOf(group);
+            if (index < 0)
+                return; // Disposed
+        }
+
+        group.applyCss();
+        group.layout();
+        final double scale = getScale();
+        rendered_scale = scale;
+        final Bounds bounds = group.getBoundsInParent();
+        WritableImage image = null;
+        double x0 = 0, y0 = 0, x1 = 0, y1 = 0;
+        if (! bounds.isEmpty())
+        {
+            // Align image with the screen pixels
+            x0 = Math.floor(bounds.getMinX() * scale);
+            y0 = Math.floor(bounds.getMinY() * scale);
+            x1 = Math.ceil(bounds.getMaxX() * scale);
+            y1 = Math.ceil(bounds.getMaxY() * scale);
+            final double width = x1 - x0, height = y1 - y0;
+            if (width > MAX_IMAGE_SIZE  ||  height > MAX_IMAGE_SIZE)
+            {   // Show the group with the original nodes
+                logger.log(Level.FINE, () -> "Static widget layer of " + width + " x " + height + " pixels is not flattened");
+                view.setImage(null);
+                return;
+            }
+            final SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            parameters.setTransform(Transform.scale(scale, scale));
+            parameters.setViewport(new Rectangle2D(x0, y0, x1 - x0, y1 - y0));
+            image = group.snapshot(parameters, null);
+        }
+        siblings.set(index, view);
+
+        view.setImage(image);
+        view.setLayoutX(x0 / scale);
+        view.setLayoutY(y0 / scale);
+        view.setFitWidth((x1 - x0) / scale);
+        view.setFitHeight((y1 - y0) / scale);
+    }
+
+    /** Restore the original nodes in the parent */
+    public void dispose()
+    {
+        untrack();
+        final List<Node> nodes = new ArrayList<>(group.getChildren());
+        group.getChildren().clear();
+        final ObservableList<Node> siblings = JFXRepresentation.getChildren(parent);
+        int index = siblings.indexOf(view);
+        if (index < 0)
+            index = siblings.indexOf(group);
+        if (index >= 0)
+        {
+            siblings.remove(index);
+            siblings.addAll(index, nodes);
+        }
+        view.setImage(null);
+    }
+}
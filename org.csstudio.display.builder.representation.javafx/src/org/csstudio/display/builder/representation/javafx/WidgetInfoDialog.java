@@ -9,6 +9,7 @@ package org.csstudio.display.builder.representation.javafx;
 
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Objects;
 
 import org.csstudio.display.builder.model.DisplayModel;
@@ -82,11 +83,43 @@ public class WidgetInfoDialog extends Dialog<Boolean>
         }
     }
 
+    public static class ScriptStatistic
+    {
+        public final String name;
+        public final long invocations;
+        public final long errors;
+        public final double avg_wait_ms;
+        public final double avg_exec_ms;
+        public final double max_exec_ms;
+
+        public ScriptStatistic(final String name, final long invocations, final long errors,
+                               final double avg_wait_ms, final double avg_exec_ms, final double max_exec_ms)
+        {
+            this.name = name;
+            this.invocations = invocations;
+            this.errors = errors;
+            this.avg_wait_ms = avg_wait_ms;
+            this.avg_exec_ms = avg_exec_ms;
+            this.max_exec_ms = max_exec_ms;
+        }
+    }
+
     /** Create dialog
      *  @param widget {@link Widget}
      *  @param pvs {@link RuntimePV}s, may be empty
      */
     public WidgetInfoDialog(final Widget widget, final Collection<NameStateValue> pvs)
+    {
+        this(widget, pvs, Collections.emptyList());
+    }
+
+    /** Create dialog
+     *  @param widget {@link Widget}
+     *  @param pvs {@link RuntimePV}s, may be empty
+     *  @param scripts Execution statistics of scripts and rules, may be empty
+     */
+    public WidgetInfoDialog(final Widget widget, final Collection<NameStateValue> pvs,
+                            final Collection<ScriptStatistic> scripts)
     {
         setTitle(Messages.WidgetInfoDialog_Title);
         setHeaderText(NLS.bind(Messages.WidgetInfoDialog_Info_Fmt, new Object[] { widget.getName(), widget.getType() }));
@@ -105,6 +138,8 @@ public class WidgetInfoDialog extends Dialog<Boolean>
             }
         }
         final TabPane tabs = new TabPane(createProperties(widget), createPVs(pvs), createMacros(widget.getEffectiveMacros()));
+        if (scripts.size() > 0)
+            tabs.getTabs().add(createScripts(scripts));
         tabs.getTabs().forEach(tab -> tab.setClosable(false));
         // If there are PVs, default to the "PVs" tab
         if (pvs.size() > 0)
@@ -190,6 +225,39 @@ public class WidgetInfoDialog extends Dialog<Boolean>
         return new Tab(Messages.WidgetInfoDialog_TabPVs, table);
     }
 
+    private Tab createScripts(final Collection<ScriptStatistic> scripts)
+    {
+        final TableColumn<ScriptStatistic, String> name = new TableColumn<>(Messages.WidgetInfoDialog_Name);
+        name.setCellFactory(col -> new ReadOnlyTextCell<>());
+        name.setCellValueFactory(param -> new ReadOnlyStringWrapper(param.getValue().name));
+
+        final TableColumn<ScriptStatistic, String> runs = new TableColumn<>(Messages.WidgetInfoDialog_Invocations);
+        runs.setCellValueFactory(param -> new ReadOnlyStringWrapper(Long.toString(param.getValue().invocations)));
+
+        final TableColumn<ScriptStatistic, String> errors = new TableColumn<>(Messages.WidgetInfoDialog_Errors);
+        errors.setCellValueFactory(param -> new ReadOnlyStringWrapper(Long.toString(param.getValue().errors)));
+
+        final TableColumn<ScriptStatistic, String> wait = new TableColumn<>(Messages.WidgetInfoDialog_AvgWait);
+        wait.setCellValueFactory(param -> new ReadOnlyStringWrapper(String.format("%.3f", param.getValue().avg_wait_ms)));
+
+        final TableColumn<ScriptStatistic, String> exec = new TableColumn<>(Messages.WidgetInfoDialog_AvgExec);
+        exec.setCellValueFactory(param -> new ReadOnlyStringWrapper(String.format("%.3f", param.getValue().avg_exec_ms)));
+
+        final TableColumn<ScriptStatistic, String> max = new TableColumn<>(Messages.WidgetInfoDialog_MaxExec);
+        max.setCellValueFactory(param -> new ReadOnlyStringWrapper(String.format("%.3f", param.getValue().max_exec_ms)));
+
+        final TableView<ScriptStatistic> table = new TableView<>(FXCollections.observableArrayList(scripts));
+        table.getColumns().add(name);
+        table.getColumns().add(runs);
+        table.getColumns().add(errors);
+        table.getColumns().add(wait);
+        table.getColumns().add(exec);
+        table.getColumns().add(max);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        return new Tab(Messages.WidgetInfoDialog_TabScripts, table);
+    }
+
     private Tab createProperties(final Widget widget)
     {
         // Use text field to allow copying the name (for use in scripts)
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.javafx.sandbox;
+
+import java.util.Random;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+
+/** Compare byte monitors drawn with nodes vs. canvas
+ *
+ *  <p>Shows 500 byte monitors with 32 bits and labels,
+ *  changing all values on each frame.
+ *  Prints the number of scene graph nodes and the average frame time.
+ *
+ *  <p>Run with argument "nodes" to use one Ellipse and Label per bit
+ *  like the original ByteMonitorRepresentation,
+ *  otherwise draws each byte monitor onto one canvas.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ByteMonitorCanvasDemo extends Application
+{
+    private static final int WIDGETS = 500, BITS = 32, LED = 12, LABEL = 30;
+    private static final Color ON = Color.LIGHTGREEN, OFF = Color.DARKGREEN;
+    private static final Font FONT = new Font(8);
+
+    private static boolean use_nodes = false;
+
+    private final Random random = new Random();
+    private final int[] values = new int[WIDGETS];
+
+    private Ellipse[][] leds;
+    private Canvas[] canvases;
+
+    public static void main(final String[] args)
+    {
+        use_nodes = args.length > 0  &&  args[0].equals("nodes");
+        launch(args);
+    }
+
+    @Override
+    public void start(final Stage stage)
+    {
+        final Pane pane = new Pane();
+        if (use_nodes)
+            leds = new Ellipse[WIDGETS][];
+        else
+            canvases = new Canvas[WIDGETS];
+        final int columns = 1200 / (BITS*LED + 10);
+        for (int w=0; w<WIDGETS; ++w)
+        {
+            final Pane monitor = use_nodes ? createNodes(w) : createCanvas(w);
+            monitor.relocate((w % columns) * (BITS*LED + 10), (w / columns) * (LED + LABEL + 5));
+            pane.getChildren().add(monitor);
+        }
+
+        final Scene scene = new Scene(pane, 1200, 900);
+        stage.setScene(scene);
+        stage.setTitle(use_nodes ? "Byte Monitors: Nodes" : "Byte Monitors: Canvas");
+        stage.show();
+
+        System.out.println("Nodes: " + countNodes(pane));
+
+        new AnimationTimer()
+        {
+            private long last = 0, frames = 0, total = 0;
+
+            @Override
+            public void handle(final long now)
+            {
+                if (last > 0)
+                {
+                    total += now - last;
+                    if (++frames % 100 == 0)
+                        System.out.format("Average frame time: %.1f ms\n", total / 1e6 / frames);
+                }
+                last = now;
+                for (int w=0; w<WIDGETS; ++w)
+                {
+                    values[w] = random.nextInt();
+                    if (use_nodes)
+                        updateNodes(w);
+                    else
+                        drawCanvas(w);
+                }
+            }
+        }.start();
+    }
+
+    private Pane createNodes(final int w)
+    {
+        final Pane pane = new Pane();
+        leds[w] = new Ellipse[BITS];
+        for (int i=0; i<BITS; ++i)
+        {
+            final Ellipse led = new Ellipse(i*LED + LED/2, LED/2, LED/2, LED/2);
+            led.setStyle("-fx-stroke-width: 2.345; -fx-stroke-type: inside; -fx-stroke: rgba(50, 50, 50, 0.7);");
+            led.setManaged(false);
+            leds[w][i] = led;
+            final Label label = new Label("Bit " + i);
+            label.setFont(FONT);
+            label.setManaged(false);
+            label.setRotate(-90);
+            label.setAlignment(Pos.CENTER_RIGHT);
+            label.relocate(i*LED - LABEL/2 + LED/2, LED + LABEL/2 - LED/2);
+            label.resize(LABEL, LED);
+            pane.getChildren().addAll(led, label);
+        }
+        return pane;
+    }
+
+    private void updateNodes(final int w)
+    {
+        for (int i=0; i<BITS; ++i)
+            leds[w][i].setFill((values[w] & (1 << i)) != 0 ? ON : OFF);
+    }
+
+    private Pane createCanvas(final int w)
+    {
+        canvases[w] = new Canvas(BITS*LED, LED + LABEL);
+        return new Pane(canvases[w]);
+    }
+
+    private void drawCanvas(final int w)
+    {
+        final GraphicsContext gc = canvases[w].getGraphicsContext2D();
+        gc.clearRect(0, 0, BITS*LED, LED + LABEL);
+        gc.setLineWidth(2.345);
+        gc.setStroke(Color.rgb(50, 50, 50, 0.7));
+        gc.setFont(FONT);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        for (int i=0; i<BITS; ++i)
+        {
+            gc.setFill((values[w] & (1 << i)) != 0 ? ON : OFF);
+            gc.fillOval(i*LED, 0, LED, LED);
+            gc.strokeOval(i*LED + 1.17, 1.17, LED - 2.345, LED - 2.345);
+            gc.save();
+            gc.setFill(Color.BLACK);
+            gc.translate(i*LED, LED + LABEL);
+            gc.rotate(-90);
+            gc.fillText("Bit " + i, LABEL, LED/2);
+            gc.restore();
+        }
+    }
+
+    private int countNodes(final Node node)
+    {
+        int count = 1;
+        if (node instanceof Parent)
+            for (Node child : ((Parent) node).getChildrenUnmodifiable())
+                count += countNodes(child);
+        return count;
+    }
+}
@@ -115,6 +115,7 @@ public class ArcRepresentation extends JFXBaseRepresentation<Arc, ArcWidget>
     public void updateChanges()
     {
         // Not using default handling of X/Y super.updateChanges();
+        updateStaticLayer();
         if (dirty_position.checkAndClear())
         {
             if (model_widget.propVisible().getValue())
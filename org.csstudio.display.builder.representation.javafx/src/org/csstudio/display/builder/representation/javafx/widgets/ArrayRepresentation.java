@@ -25,12 +25,14 @@ import org.csstudio.display.builder.model.WidgetPropertyCategory;
 import org.csstudio.display.builder.model.WidgetPropertyListener;
 import org.csstudio.display.builder.model.properties.CommonWidgetProperties;
 import org.csstudio.display.builder.model.properties.WidgetColor;
+import org.csstudio.display.builder.model.util.VTypeUtil;
 import org.csstudio.display.builder.model.widgets.ArrayWidget;
 import org.csstudio.display.builder.model.widgets.GroupWidget;
 import org.csstudio.display.builder.representation.javafx.JFXUtil;
 
 import javafx.geometry.Insets;
 import javafx.scene.Parent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.Border;
@@ -92,6 +94,9 @@ public class ArrayRepresentation extends JFXBaseRepresentation<Pane, ArrayWidget
 
         childrenChanged(null, null, model_widget.runtimeChildren().getValue());
         adjustNumberByLength();
+
+        if (! toolkit.isEditMode()  &&  model_widget.propVirtual().getValue())
+            jfx_node.setOnScroll(this::scrollElements);
     }
 
     @Override
@@ -139,6 +144,23 @@ public class ArrayRepresentation extends JFXBaseRepresentation<Pane, ArrayWidget
         }
     }
 
+    /** With 'virtual' elements, scroll wheel moves through the array
+     *  @param event {@link ScrollEvent}
+     */
+    private void scrollElements(final ScrollEvent event)
+    {
+        final double delta = event.getDeltaY() != 0 ? event.getDeltaY() : event.getDeltaX();
+        if (delta == 0)
+            return;
+        final int size = VTypeUtil.getArraySize(model_widget.runtimePropValue().getValue());
+        final int last = Math.max(0, size - children.size());
+        final int first = model_widget.runtimePropFirstElement().getValue();
+        final int update = Math.max(0, Math.min(last, delta < 0 ? first + 1 : first - 1));
+        if (update != first)
+            model_widget.runtimePropFirstElement().setValue(update);
+        event.consume();
+    }
+
     private void colorChanged(final WidgetProperty<WidgetColor> property, final WidgetColor old_value, final WidgetColor new_value)
     {
         dirty_look.mark();
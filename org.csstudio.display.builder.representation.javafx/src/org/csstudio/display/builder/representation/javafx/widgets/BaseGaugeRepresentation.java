@@ -23,6 +23,7 @@ import org.csstudio.display.builder.model.persist.WidgetColorService;
 import org.csstudio.display.builder.model.util.FormatOptionHandler;
 import org.csstudio.display.builder.model.util.VTypeUtil;
 import org.csstudio.display.builder.model.widgets.BaseGaugeWidget;
+import org.csstudio.display.builder.representation.Preferences;
 import org.csstudio.display.builder.representation.javafx.JFXUtil;
 import org.csstudio.javafx.Styles;
 import org.diirt.vtype.Display;
@@ -58,6 +59,8 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
     private volatile double     max           = 100.0;
     private volatile double     min           = 0.0;
     private final AtomicBoolean updatingValue = new AtomicBoolean(false);
+    private final ValueUpdateFilter valueFilter = new ValueUpdateFilter();
+    private final boolean canvasSkin = Preferences.isCanvasGaugeSkinEnabled();
 
     private final UntypedWidgetPropertyListener contentChangedListener  = this::contentChanged;
     private final UntypedWidgetPropertyListener geometryChangedListener = this::geometryChanged;
@@ -77,6 +80,10 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
 
         super.updateChanges();
 
+        if ( jfx_node.getSkin() instanceof GaugeCanvasSkin ) {
+            ( (GaugeCanvasSkin) jfx_node.getSkin() ).scheduleRefresh();
+        }
+
         Object value;
 
         if ( dirtyGeometry.checkAndClear() ) {
@@ -250,6 +257,10 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
 
         jfx_node.setSkinType(skinType);
 
+        if ( canvasSkin ) {
+            jfx_node.setSkin(new GaugeCanvasSkin(jfx_node, getCanvasSkinType()));
+        }
+
         jfx_node.setPrefWidth(model_widget.propWidth().getValue());
         jfx_node.setPrefHeight(model_widget.propHeight().getValue());
 
@@ -293,6 +304,10 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
 
         Gauge gauge = GaugeBuilder.create().skinType(getSkin()).build();
 
+        if ( canvasSkin ) {
+            gauge.setSkin(new GaugeCanvasSkin(gauge, getCanvasSkinType()));
+        }
+
         gauge.setPrefHeight(model_widget.propHeight().getValue());
         gauge.setPrefWidth(model_widget.propWidth().getValue());
         //--------------------------------------------------------
@@ -393,6 +408,13 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
 
     protected abstract Gauge.SkinType getSkin();
 
+    /**
+     * @return How the value is shown when the canvas based skin is enabled.
+     */
+    protected GaugeCanvasSkin.Type getCanvasSkinType ( ) {
+        return GaugeCanvasSkin.Type.NEEDLE;
+    }
+
     /**
      * @return The unit string to be displayed.
      */
@@ -460,6 +482,7 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
             dirtyValue.checkAndClear();
         } else {
             model_widget.runtimePropValue().addPropertyListener(valueChangedListener);
+            configureValueFilter();
             valueChanged(null, null, null);
         }
 
@@ -601,38 +624,80 @@ public abstract class BaseGaugeRepresentation<W extends BaseGaugeWidget> extends
 
     }
 
+    /**
+     * @return The number of pixels along the gauge's scale, used to skip
+     *         value updates that would not visibly move the needle.
+     */
+    protected double getValuePixels ( ) {
+        //  Upper bound for the length of a radial scale.
+        return Math.PI * Math.max(model_widget.propWidth().getValue(), model_widget.propHeight().getValue());
+    }
+
+    /**
+     * Configure the value filter for the current limits, size and precision.
+     */
+    protected final void configureValueFilter ( ) {
+        valueFilter.configure(
+            min,
+            max,
+            getValuePixels(),
+            FormatOptionHandler.actualPrecision(model_widget.runtimePropValue().getValue(), model_widget.propPrecision().getValue())
+        );
+    }
+
     protected final void valueChanged ( final WidgetProperty<? extends VType> property, final VType old_value, final VType new_value ) {
 
-        if ( model_widget.propLimitsFromPV().getValue() ) {
-            updateLimits(model_widget.propLimitsFromPV().getValue());
-            dirtyLimits.mark();
-        }
+        final VType vtype = model_widget.runtimePropValue().getValue();
 
-        if ( model_widget.propPrecision().getValue() == -1 ) {
-            dirtyContent.mark();
+        //  Called without property to refresh the gauge.
+        if ( property == null ) {
+            valueFilter.reset();
         }
 
-        if ( model_widget.propUnitFromPV().getValue() ) {
-            dirtyUnit.mark();
+        //  Limits, precision and units only need to be updated
+        //  when the display information of the PV changes.
+        if ( valueFilter.isDisplayChanged(ValueUtil.displayOf(vtype)) ) {
+
+            if ( model_widget.propLimitsFromPV().getValue() && updateLimits(true) ) {
+                dirtyLimits.mark();
+            }
+
+            if ( model_widget.propPrecision().getValue() == -1 ) {
+                dirtyContent.mark();
+            }
+
+            if ( model_widget.propUnitFromPV().getValue() ) {
+                dirtyUnit.mark();
+            }
+
+            configureValueFilter();
+
         }
 
-        dirtyValue.mark();
-        toolkit.scheduleUpdate(this);
+        //  Skip values that would neither move the needle
+        //  by a pixel nor change the value text.
+        if ( valueFilter.isVisibleChange(VTypeUtil.getValueNumber(vtype).doubleValue()) ) {
+            dirtyValue.mark();
+            toolkit.scheduleUpdate(this);
+        }
 
     }
 
     private void contentChanged ( final WidgetProperty<?> property, final Object old_value, final Object new_value ) {
+        configureValueFilter();
         dirtyContent.mark();
         toolkit.scheduleUpdate(this);
     }
 
     private void geometryChanged ( final WidgetProperty<?> property, final Object old_value, final Object new_value ) {
+        configureValueFilter();
         dirtyGeometry.mark();
         toolkit.scheduleUpdate(this);
     }
 
     private void limitsChanged ( final WidgetProperty<?> property, final Object old_value, final Object new_value ) {
         if ( updateLimits(model_widget.propLimitsFromPV().getValue()) ) {
+            configureValueFilter();
             dirtyLimits.mark();
             toolkit.scheduleUpdate(this);
         }
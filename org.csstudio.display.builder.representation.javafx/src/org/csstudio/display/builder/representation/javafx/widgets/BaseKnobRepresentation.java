@@ -54,6 +54,7 @@ public abstract class BaseKnobRepresentation<C extends Knob, W extends KnobWidge
     private final DirtyFlag     dirtyStyle    = new DirtyFlag();
     private final DirtyFlag     dirtyUnit     = new DirtyFlag();
     private final DirtyFlag     dirtyValue    = new DirtyFlag();
+    private final ValueUpdateFilter valueFilter = new ValueUpdateFilter();
     private volatile double     high          = Double.NaN;
     private volatile double     hihi          = Double.NaN;
     private volatile double     lolo          = Double.NaN;
@@ -598,17 +599,22 @@ public abstract class BaseKnobRepresentation<C extends Knob, W extends KnobWidge
 
     private void valueChanged ( final WidgetProperty<? extends VType> property, final VType old_value, final VType new_value ) {
 
-        if ( model_widget.propLimitsFromPV().getValue() ) {
-            updateLimits(model_widget.propLimitsFromPV().getValue());
-            dirtyLimits.mark();
-        }
+        //  Limits, precision and units only need to be updated
+        //  when the display information of the PV changes.
+        if ( valueFilter.isDisplayChanged(ValueUtil.displayOf(model_widget.runtimePropValue().getValue())) ) {
 
-        if ( model_widget.propPrecision().getValue() == -1 ) {
-            dirtyContent.mark();
-        }
+            if ( model_widget.propLimitsFromPV().getValue() && updateLimits(true) ) {
+                dirtyLimits.mark();
+            }
+
+            if ( model_widget.propPrecision().getValue() == -1 ) {
+                dirtyContent.mark();
+            }
+
+            if ( model_widget.propUnitFromPV().getValue() ) {
+                dirtyUnit.mark();
+            }
 
-        if ( model_widget.propUnitFromPV().getValue() ) {
-            dirtyUnit.mark();
         }
 
         dirtyValue.mark();
@@ -21,26 +21,37 @@ import org.csstudio.display.builder.representation.javafx.JFXUtil;
 import org.diirt.vtype.VType;
 
 import javafx.application.Platform;
-import javafx.geometry.Pos;
-import javafx.scene.control.Label;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.CycleMethod;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Paint;
 import javafx.scene.paint.Stop;
-import javafx.scene.shape.Ellipse;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
 import javafx.scene.text.Font;
-import javafx.scene.transform.Rotate;
+import javafx.scene.text.TextAlignment;
 
 /** Creates JavaFX item for model widget
+ *
+ *  <p>All LEDs and labels are drawn onto one {@link Canvas}
+ *  instead of using a shape and label node for each bit,
+ *  which keeps the scene graph small for displays with many byte monitors.
+ *  The canvas is only re-drawn when the bit pattern or the configuration changes.
+ *
  *  @author Amanda Carpenter
  */
 @SuppressWarnings("nls")
 public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, ByteMonitorWidget>
 {
+    /** Gap between round LED and its label */
+    private static final double GAP = 4;
+
+    /** LED border, same as "led" style in opibuilder.css */
+    private static final double BORDER_WIDTH = 2.345;
+    private static final Color BORDER_COLOR = Color.rgb(50, 50, 50, 0.7);
+
     private final DirtyFlag dirty_config = new DirtyFlag();
     private final DirtyFlag dirty_content = new DirtyFlag();
     private final UntypedWidgetPropertyListener lookChangedListener = this::lookChanged;
@@ -60,18 +71,25 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
     private volatile boolean horizontal = true;
     private volatile boolean square_led = false;
 
-    private volatile Shape[] leds = null;
+    /** Canvas for all LEDs and labels */
+    private Canvas canvas;
+
+    /** Label for each LED, <code>null</code> for LEDs without label. Only accessed on UI thread */
+    private String[] labels = new String[0];
+    private Font text_font;
+    private Color text_color;
 
 
     @Override
     protected Pane createJFXNode() throws Exception
     {
         colors = createColors();
-        final Pane pane = new Pane();
         numBits = model_widget.propNumBits().getValue();
         square_led = model_widget.propSquare().getValue();
         horizontal = model_widget.propHorizontal().getValue();
-        addLEDs(pane);
+        canvas = new Canvas();
+        canvas.setManaged(false);
+        final Pane pane = new Pane(canvas);
         pane.setManaged(false);
         return pane;
     }
@@ -93,22 +111,38 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
         }
     }
 
-    private void addLEDs(final Pane pane)
+    /** Update canvas size and labels from model */
+    private void configureCanvas(final double w, final double h)
     {
-        addLEDs(pane, model_widget.propWidth().getValue(),
-                model_widget.propHeight().getValue(), horizontal);
+        text_color = JFXUtil.convert(model_widget.propForegroundColor().getValue());
+        text_font = JFXUtil.convert(model_widget.propFont().getValue());
+        final int save_bits = numBits;
+        final String[] labels = new String[save_bits];
+        for (int i = 0; i < save_bits; i++)
+        {
+            final int lbl_index = bitReverse ? i : save_bits - i - 1;
+            if (lbl_index < model_widget.propLabels().size())
+                labels[i] = model_widget.propLabels().getElement(lbl_index).getValue();
+        }
+        this.labels = labels;
+        canvas.setWidth(w);
+        canvas.setHeight(h);
     }
 
-    private void addLEDs(final Pane pane, final double w, final double h, final boolean horizontal)
+    /** Draw all LEDs and labels onto the canvas */
+    private void drawLEDs()
     {
-        final Color text_color = JFXUtil.convert(model_widget.propForegroundColor().getValue());
-        final Font text_font = JFXUtil.convert(model_widget.propFont().getValue());
-        final int save_bits = numBits;
+        final double w = canvas.getWidth(), h = canvas.getHeight();
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, w, h);
+
+        final String[] save_labels = labels;
+        final int save_bits = save_labels.length;
         final boolean save_sq = square_led;
         final Color [] save_colorVals = value_colors;
-        final Shape [] leds = new Shape[save_bits];
-        final Label [] labels = new Label[save_bits];
-        final double gap = 4;
+        final Paint edit_color = toolkit.isEditMode() ? editColor() : null;
+        if (save_bits <= 0)
+            return;
         double led_w, led_h, dx, dy, rad;
         if (horizontal)
         {
@@ -126,82 +160,80 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
             led_h = dy;
             rad = led_h/2;
         }
+
+        // Border is 'inside' the shape
+        final double inset = BORDER_WIDTH/2;
+        gc.setLineWidth(BORDER_WIDTH);
+        gc.setStroke(BORDER_COLOR);
+        gc.setFont(text_font);
+        gc.setFill(text_color);
+        gc.setTextBaseline(VPos.CENTER);
         double x = 0.0, y = 0.0;
         for (int i = 0; i < save_bits; i++)
         {
-            final Label label;
-            final int lbl_index = bitReverse ? i : save_bits - i - 1;
-            if (lbl_index < model_widget.propLabels().size())
-            {
-                label = new Label(model_widget.propLabels().getElement(lbl_index).getValue());
-                label.getStyleClass().add("led_label");
-                label.setFont(text_font);
-                label.setTextFill(text_color);
-                label.setManaged(false);
-            }
-            else
-                label = null;
-
-            final Shape led;
+            final Paint fill = edit_color != null
+                             ? edit_color
+                             : (save_colorVals != null && i < save_colorVals.length ? save_colorVals[i] : null);
             if (save_sq)
             {
-                final Rectangle rect = new Rectangle();
-                rect.setX(x);
-                rect.setY(y);
-                rect.setWidth(led_w);
-                rect.setHeight(led_h);
-                led = rect;
-                if (label != null)
+                if (fill != null)
                 {
-                    label.relocate(x, y);
-                    label.resize(led_w, led_h);
-                    label.setAlignment(Pos.CENTER);
-                    if (horizontal)
-                        label.setRotate(-90);
+                    gc.setFill(fill);
+                    gc.fillRect(x, y, led_w, led_h);
                 }
+                gc.strokeRect(x + inset, y + inset, led_w - BORDER_WIDTH, led_h - BORDER_WIDTH);
             }
             else
             {
-                final Ellipse ell = new Ellipse();
-                ell.setCenterX(x + rad);
-                ell.setCenterY(y + rad);
-                ell.setRadiusX(rad);
-                ell.setRadiusY(rad);
-                led = ell;
-                if (label != null)
+                if (fill != null)
                 {
+                    gc.setFill(fill);
+                    gc.fillOval(x, y, 2*rad, 2*rad);
+                }
+                gc.strokeOval(x + inset, y + inset, 2*rad - BORDER_WIDTH, 2*rad - BORDER_WIDTH);
+            }
+
+            final String label = save_labels[i];
+            if (label != null  &&  ! label.isEmpty())
+            {
+                gc.save();
+                gc.setFill(text_color);
+                if (save_sq)
+                {   // Label centered on LED, rotated for horizontal orientation
+                    gc.beginPath();
+                    gc.rect(x, y, led_w, led_h);
+                    gc.clip();
+                    gc.translate(x + led_w/2, y + led_h/2);
                     if (horizontal)
-                    {
-                        label.getTransforms().setAll(new Rotate(-90.0));
-                        // label.setBackground(new Background(new BackgroundFill(Color.BISQUE, CornerRadii.EMPTY, Insets.EMPTY)));
-                        label.relocate(x, y+led_h);
-                        label.resize(led_h - 2*rad - gap, led_w);
-                        label.setAlignment(Pos.CENTER_RIGHT);
-                    }
-                    else
-                    {
-                        label.relocate(x+2*rad+gap, y);
-                        label.resize(led_w-2*rad-gap, led_h);
-                    }
+                        gc.rotate(-90);
+                    gc.setTextAlign(TextAlignment.CENTER);
+                    gc.fillText(label, 0, 0);
+                }
+                else if (horizontal)
+                {   // Label below LED, reading 'up' towards the LED
+                    final double label_w = led_h - 2*rad - GAP;
+                    gc.translate(x, y + led_h);
+                    gc.rotate(-90);
+                    gc.beginPath();
+                    gc.rect(0, 0, label_w, led_w);
+                    gc.clip();
+                    gc.setTextAlign(TextAlignment.RIGHT);
+                    gc.fillText(label, label_w, led_w/2);
                 }
+                else
+                {   // Label to the right of the LED
+                    final double label_x = x + 2*rad + GAP;
+                    gc.beginPath();
+                    gc.rect(label_x, y, led_w - 2*rad - GAP, led_h);
+                    gc.clip();
+                    gc.setTextAlign(TextAlignment.LEFT);
+                    gc.fillText(label, label_x, y + led_h/2);
+                }
+                gc.restore();
             }
-            led.getStyleClass().add("led");
-            led.setManaged(false);
-            if (save_colorVals != null && i < save_colorVals.length)
-                led.setFill(toolkit.isEditMode() ? editColor() : save_colorVals[i]);
-
-            leds[i] = led;
-            labels[i] = label;
-            if (label != null)
-                label.layout();
             x += dx;
             y += dy;
         }
-        this.leds = leds;
-        pane.getChildren().setAll(leds);
-        for (Label label : labels)
-            if (label != null)
-                pane.getChildren().add(label);
     }
 
     protected Color[] createColors()
@@ -321,6 +353,8 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
         square_led = model_widget.propSquare().getValue();
         // note: copied to array to safeguard against mid-operation changes
         dirty_config.mark();
+        // Force update even if bit pattern didn't change
+        value_colors = null;
         contentChanged(model_widget.runtimePropValue(), null, model_widget.runtimePropValue().getValue());
     }
 
@@ -348,6 +382,8 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
     {
         startBit = model_widget.propStartBit().getValue();
         colors = createColors();
+        // Force update even if bit pattern didn't change
+        value_colors = null;
         contentChanged(model_widget.runtimePropValue(), null, model_widget.runtimePropValue().getValue());
     }
 
@@ -361,6 +397,9 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
             value_indices[i] = value_indices[i] <= 0 ? 0 : 1;
             new_colorVals[i] = save_colors[value_indices[i]];
         }
+        // Skip redraw when bits didn't change
+        if (Arrays.equals(new_colorVals, value_colors))
+            return;
         value_colors = new_colorVals;
 
         dirty_content.mark();
@@ -384,23 +423,18 @@ public class ByteMonitorRepresentation extends RegionBaseRepresentation<Pane, By
     public void updateChanges()
     {
         super.updateChanges();
+        boolean redraw = false;
         if (dirty_config.checkAndClear())
         {
             final int w = model_widget.propWidth().getValue();
             final int h = model_widget.propHeight().getValue();
             jfx_node.resize(w, h);
-            addLEDs(jfx_node, w, h, horizontal);
+            configureCanvas(w, h);
+            redraw = true;
         }
         if (dirty_content.checkAndClear())
-        {
-            final Shape[] save_leds = leds;
-            final Color[] save_values = value_colors;
-            if (save_leds == null  ||  save_values == null)
-                return;
-
-            final int N = Math.min(save_leds.length, save_values.length);
-            for (int i = 0; i < N; i++)
-                leds[i].setFill(toolkit.isEditMode() ? editColor() : save_values[i]);
-        }
+            redraw = true;
+        if (redraw)
+            drawLEDs();
     }
-}
\ No newline at end of file
+}
@@ -95,6 +95,7 @@ public class EllipseRepresentation extends JFXBaseRepresentation<Ellipse, Ellips
     public void updateChanges()
     {
         // Not using default handling of X/Y super.updateChanges();
+        updateStaticLayer();
         if (dirty_position.checkAndClear())
         {
             if (model_widget.propVisible().getValue())
@@ -0,0 +1,585 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.javafx.widgets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import eu.hansolo.medusa.Gauge;
+import eu.hansolo.medusa.Section;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.SkinBase;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/** Lightweight skin for a Medusa {@link Gauge}
+ *
+ *  <p>Draws the scale onto one canvas and the value onto another,
+ *  instead of using the many nodes and styled regions of the Medusa skins.
+ *  The scale is only redrawn when the configuration of the gauge changes.
+ *  A new value only redraws the needle or bar and the value text.
+ *
+ *  <p>Shows limits, sections, major and minor ticks with labels,
+ *  title, unit and value.
+ *  Medusa decorations like LCDs, knob types or bar effects are not drawn.
+ *
+ *  <p>Changes to the gauge are picked up on {@link #scheduleRefresh()},
+ *  which coalesces all changes of one UI update into one redraw.
+ *  Changes to the value of the gauge schedule a refresh on their own.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class GaugeCanvasSkin extends SkinBase<Gauge>
+{
+    /** How the value is shown */
+    public enum Type
+    {
+        /** Needle on a radial scale */
+        NEEDLE,
+        /** Bar along a radial scale */
+        BAR,
+        /** Bar along a linear scale in the orientation of the gauge */
+        LINEAR
+    }
+
+    /** Radial scales run clockwise from lower left to lower right [degrees] */
+    private static final double START_ANGLE = 225.0, ANGLE_RANGE = 270.0;
+
+    /** Limit for the number of ticks, in case of bad tick spacing */
+    private static final int MAX_TICKS = 500;
+
+    private final Type type;
+
+    /** Background, sections, ticks, labels, title, unit */
+    private final Canvas scale = new Canvas();
+
+    /** Needle or bar, value text */
+    private final Canvas value = new Canvas();
+
+    private final InvalidationListener value_listener = prop -> scheduleRefresh();
+
+    /** Is a refresh scheduled? Only accessed on UI thread */
+    private boolean refresh_pending = false;
+
+    /** Configuration of the gauge when the scale was drawn, <code>null</code> to redraw */
+    private List<Object> drawn_config = null;
+
+    /** Value that was drawn, valid if <code>value_drawn</code> */
+    private double drawn_value = 0.0;
+    private boolean value_drawn = false;
+
+    /** @param gauge Gauge to draw
+     *  @param type How to show the value
+     */
+    public GaugeCanvasSkin(final Gauge gauge, final Type type)
+    {
+        super(gauge);
+        this.type = type;
+        scale.setManaged(false);
+        value.setManaged(false);
+        getChildren().setAll(scale, value);
+        gauge.valueProperty().addListener(value_listener);
+    }
+
+    /** @return How the value is shown */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /** Redraw what has changed once the current UI update is done
+     *
+     *  <p>Must be called on the UI thread.
+     */
+    public void scheduleRefresh()
+    {
+        if (refresh_pending)
+            return;
+        refresh_pending = true;
+        Platform.runLater(() ->
+        {
+            refresh_pending = false;
+            refresh();
+        });
+    }
+
+    @Override
+    protected void layoutChildren(final double x, final double y, final double width, final double height)
+    {
+        scale.relocate(x, y);
+        value.relocate(x, y);
+        if (scale.getWidth() != width  ||  scale.getHeight() != height)
+        {
+            scale.setWidth(width);
+            scale.setHeight(height);
+            value.setWidth(width);
+            value.setHeight(height);
+        }
+        refresh();
+    }
+
+    @Override
+    public void dispose()
+    {
+        final Gauge gauge = getSkinnable();
+        if (gauge != null)
+            gauge.valueProperty().removeListener(value_listener);
+        super.dispose();
+    }
+
+    /** Redraw scale if configuration changed, value if value or configuration changed */
+    private void refresh()
+    {
+        final Gauge gauge = getSkinnable();
+        if (gauge == null)
+            return;
+        final List<Object> config = getConfiguration(gauge);
+        if (! config.equals(drawn_config))
+        {
+            drawn_config = config;
+            if (type == Type.LINEAR)
+                drawLinearScale(gauge);
+            else
+                drawRadialScale(gauge);
+            value_drawn = false;
+        }
+        final double current = gauge.getValue();
+        if (value_drawn  &&  Double.compare(current, drawn_value) == 0)
+            return;
+        if (type == Type.LINEAR)
+            drawLinearValue(gauge, current);
+        else
+            drawRadialValue(gauge, current);
+        drawn_value = current;
+        value_drawn = true;
+    }
+
+    /** @param gauge Gauge
+     *  @return Everything that affects the drawing, except for the value
+     */
+    private List<Object> getConfiguration(final Gauge gauge)
+    {
+        return Arrays.asList(scale.getWidth(), scale.getHeight(),
+                             gauge.getMinValue(), gauge.getMaxValue(),
+                             gauge.getSectionsVisible(), new ArrayList<>(gauge.getSections()),
+                             gauge.getBackgroundPaint(), gauge.getBarBackgroundColor(), gauge.getBarColor(),
+                             gauge.getNeedleColor(), gauge.getKnobColor(),
+                             gauge.getTickMarkColor(), gauge.getTickLabelColor(),
+                             gauge.getTitleColor(), gauge.getUnitColor(), gauge.getValueColor(),
+                             gauge.getTitle(), gauge.getUnit(),
+                             gauge.getDecimals(), gauge.getTickLabelDecimals(),
+                             gauge.getMajorTickSpace(), gauge.getMinorTickSpace(),
+                             gauge.isValueVisible(), gauge.isStartFromZero(), gauge.getOrientation());
+    }
+
+    /** @param gauge Gauge
+     *  @param number Value
+     *  @return Position of value on scale, 0..1
+     */
+    private static double getFraction(final Gauge gauge, final double number)
+    {
+        final double min = gauge.getMinValue(), max = gauge.getMaxValue();
+        if (! (max > min)  ||  Double.isNaN(number))
+            return 0.0;
+        return (Math.max(min, Math.min(max, number)) - min) / (max - min);
+    }
+
+    /** @param gauge Gauge
+     *  @return Position where a bar starts, 0..1
+     */
+    private static double getBarStart(final Gauge gauge)
+    {
+        if (gauge.isStartFromZero()  &&  gauge.getMinValue() < 0.0  &&  gauge.getMaxValue() > 0.0)
+            return getFraction(gauge, 0.0);
+        return 0.0;
+    }
+
+    /** @param decimals Number of decimals
+     *  @param number Number to format
+     *  @return Formatted number
+     */
+    private static String format(final int decimals, final double number)
+    {
+        return String.format("%." + Math.max(0, Math.min(decimals, 15)) + "f", number);
+    }
+
+    /** @param gc GC where to draw text
+     *  @param size Font size
+     *  @param paint Text paint
+     *  @param align Text alignment
+     */
+    private static void setText(final GraphicsContext gc, final double size, final Paint paint, final TextAlignment align)
+    {
+        gc.setFont(Font.font(Math.max(1.0, size)));
+        gc.setFill(paint);
+        gc.setTextAlign(align);
+        gc.setTextBaseline(VPos.CENTER);
+    }
+
+    /** Invoke handler for each tick
+     *  @param gauge Gauge
+     *  @param space Tick spacing
+     *  @param handler Called with value and position 0..1 of each tick
+     */
+    private static void forEachTick(final Gauge gauge, final double space, final TickHandler handler)
+    {
+        final double min = gauge.getMinValue(), max = gauge.getMaxValue();
+        if (! (space > 0.0)  ||  ! (max > min))
+            return;
+        final double start = Math.ceil(min / space) * space;
+        final double count = Math.floor((max - start) / space) + 1;
+        if (count > MAX_TICKS)
+            return;
+        for (int i=0; i<count; ++i)
+        {
+            final double tick = start + i * space;
+            handler.handle(tick, (tick - min) / (max - min));
+        }
+    }
+
+    @FunctionalInterface
+    private static interface TickHandler
+    {
+        void handle(double tick, double fraction);
+    }
+
+    /** @param gc GC
+     *  @param width Width of canvas
+     *  @param height Height of canvas
+     *  @param background Background paint, may be <code>null</code>
+     */
+    private static void clear(final GraphicsContext gc, final double width, final double height, final Paint background)
+    {
+        gc.clearRect(0, 0, width, height);
+        if (background != null)
+        {
+            gc.setFill(background);
+            gc.fillRect(0, 0, width, height);
+        }
+    }
+
+    // Radial scale
+
+    /** @param fraction Position on scale 0..1
+     *  @return Angle [degrees, counter-clockwise from 3 o'clock]
+     */
+    private static double getAngle(final double fraction)
+    {
+        return START_ANGLE - fraction * ANGLE_RANGE;
+    }
+
+    /** @return Radius of the radial scale */
+    private double getRadius()
+    {
+        return Math.min(scale.getWidth(), scale.getHeight()) / 2 * 0.95;
+    }
+
+    /** Stroke arc along the radial scale
+     *  @param gc GC
+     *  @param radius Radius of the arc
+     *  @param from Start position 0..1
+     *  @param to End position 0..1
+     */
+    private void strokeArc(final GraphicsContext gc, final double radius, final double from, final double to)
+    {
+        final double cx = scale.getWidth() / 2, cy = scale.getHeight() / 2;
+        gc.strokeArc(cx - radius, cy - radius, 2 * radius, 2 * radius,
+                     getAngle(Math.min(from, to)), -Math.abs(to - from) * ANGLE_RANGE, ArcType.OPEN);
+    }
+
+    /** Stroke line along a radius of the radial scale
+     *  @param gc GC
+     *  @param fraction Position on scale 0..1
+     *  @param inner Inner radius
+     *  @param outer Outer radius
+     */
+    private void strokeRadius(final GraphicsContext gc, final double fraction, final double inner, final double outer)
+    {
+        final double cx = scale.getWidth() / 2, cy = scale.getHeight() / 2;
+        final double angle = Math.toRadians(getAngle(fraction));
+        final double cos = Math.cos(angle), sin = Math.sin(angle);
+        gc.strokeLine(cx + inner * cos, cy - inner * sin, cx + outer * cos, cy - outer * sin);
+    }
+
+    private void drawRadialScale(final Gauge gauge)
+    {
+        final double width = scale.getWidth(), height = scale.getHeight();
+        final double cx = width / 2, cy = height / 2, r = getRadius();
+        final GraphicsContext gc = scale.getGraphicsContext2D();
+        clear(gc, width, height, gauge.getBackgroundPaint());
+        if (! (r > 0.0))
+            return;
+
+        gc.setLineCap(StrokeLineCap.BUTT);
+        if (type == Type.BAR)
+        {
+            // Background of the bar, outer ring for sections
+            if (gauge.getBarBackgroundColor() != null)
+            {
+                gc.setStroke(gauge.getBarBackgroundColor());
+                gc.setLineWidth(r * 0.18);
+                strokeArc(gc, r * 0.8, 0.0, 1.0);
+            }
+            if (gauge.getSectionsVisible())
+                for (Section section : gauge.getSections())
+                {
+                    gc.setStroke(section.getColor());
+                    gc.setLineWidth(r * 0.05);
+                    strokeArc(gc, r * 0.97, getFraction(gauge, section.getStart()), getFraction(gauge, section.getStop()));
+                }
+            // Labels for start and end of scale
+            setText(gc, r * 0.12, gauge.getTickLabelColor(), TextAlignment.CENTER);
+            final double label_y = cy + r * 0.85;
+            gc.fillText(format(gauge.getTickLabelDecimals(), gauge.getMinValue()), cx - r * 0.55, label_y);
+            gc.fillText(format(gauge.getTickLabelDecimals(), gauge.getMaxValue()), cx + r * 0.55, label_y);
+        }
+        else
+        {
+            if (gauge.getSectionsVisible())
+                for (Section section : gauge.getSections())
+                {
+                    gc.setStroke(section.getColor());
+                    gc.setLineWidth(r * 0.06);
+                    strokeArc(gc, r * 0.9, getFraction(gauge, section.getStart()), getFraction(gauge, section.getStop()));
+                }
+            gc.setStroke(gauge.getTickMarkColor());
+            gc.setLineWidth(1.0);
+            forEachTick(gauge, gauge.getMinorTickSpace(), (tick, fraction) -> strokeRadius(gc, fraction, r * 0.88, r * 0.93));
+            gc.setLineWidth(2.0);
+            forEachTick(gauge, gauge.getMajorTickSpace(), (tick, fraction) -> strokeRadius(gc, fraction, r * 0.84, r * 0.96));
+
+            setText(gc, r * 0.1, gauge.getTickLabelColor(), TextAlignment.CENTER);
+            final int decimals = gauge.getTickLabelDecimals();
+            forEachTick(gauge, gauge.getMajorTickSpace(), (tick, fraction) ->
+            {
+                final double angle = Math.toRadians(getAngle(fraction));
+                gc.fillText(format(decimals, tick), cx + r * 0.7 * Math.cos(angle), cy - r * 0.7 * Math.sin(angle));
+            });
+        }
+
+        final String title = gauge.getTitle();
+        if (title != null  &&  ! title.isEmpty())
+        {
+            setText(gc, r * 0.12, gauge.getTitleColor(), TextAlignment.CENTER);
+            gc.fillText(title, cx, cy - r * 0.3);
+        }
+        final String unit = gauge.getUnit();
+        if (unit != null  &&  ! unit.isEmpty())
+        {
+            setText(gc, r * 0.1, gauge.getUnitColor(), TextAlignment.CENTER);
+            gc.fillText(unit, cx, cy + r * (type == Type.BAR ? 0.3 : 0.62));
+        }
+    }
+
+    private void drawRadialValue(final Gauge gauge, final double current)
+    {
+        final double width = value.getWidth(), height = value.getHeight();
+        final double cx = width / 2, cy = height / 2, r = getRadius();
+        final GraphicsContext gc = value.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        if (! (r > 0.0)  ||  Double.isNaN(current))
+            return;
+
+        final double fraction = getFraction(gauge, current);
+        if (type == Type.BAR)
+        {
+            gc.setLineCap(StrokeLineCap.BUTT);
+            gc.setStroke(gauge.getBarColor());
+            gc.setLineWidth(r * 0.18);
+            strokeArc(gc, r * 0.8, getBarStart(gauge), fraction);
+        }
+        else
+        {
+            gc.setLineCap(StrokeLineCap.ROUND);
+            gc.setStroke(gauge.getNeedleColor());
+            gc.setLineWidth(Math.max(2.0, r * 0.03));
+            strokeRadius(gc, fraction, 0.0, r * 0.85);
+            gc.setFill(gauge.getKnobColor());
+            gc.fillOval(cx - r * 0.06, cy - r * 0.06, r * 0.12, r * 0.12);
+        }
+
+        if (gauge.isValueVisible())
+        {
+            if (type == Type.BAR)
+            {
+                setText(gc, r * 0.3, gauge.getValueColor(), TextAlignment.CENTER);
+                gc.fillText(format(gauge.getDecimals(), current), cx, cy);
+            }
+            else
+            {
+                setText(gc, r * 0.14, gauge.getValueColor(), TextAlignment.CENTER);
+                gc.fillText(format(gauge.getDecimals(), current), cx, cy + r * 0.42);
+            }
+        }
+    }
+
+    // Linear scale
+
+    private boolean isHorizontal(final Gauge gauge)
+    {
+        return gauge.getOrientation() == Orientation.HORIZONTAL;
+    }
+
+    /** @param gauge Gauge
+     *  @return { start, end of scale along the gauge, start of bar across the gauge, bar thickness }
+     */
+    private double[] getLinearLayout(final Gauge gauge)
+    {
+        final double width = scale.getWidth(), height = scale.getHeight();
+        if (isHorizontal(gauge))
+            return new double[] { width * 0.05, width * 0.95, height * 0.3, height * 0.25 };
+        return new double[] { height * 0.92, height * 0.15, width * 0.2, width * 0.25 };
+    }
+
+    /** Stroke line across the linear scale
+     *  @param gc GC
+     *  @param horizontal Is the scale horizontal?
+     *  @param along Position along the scale
+     *  @param from Start position across the scale
+     *  @param to End position across the scale
+     */
+    private static void strokeAcross(final GraphicsContext gc, final boolean horizontal,
+                                     final double along, final double from, final double to)
+    {
+        if (horizontal)
+            gc.strokeLine(along, from, along, to);
+        else
+            gc.strokeLine(from, along, to, along);
+    }
+
+    /** Fill rectangle on the linear scale
+     *  @param gc GC
+     *  @param horizontal Is the scale horizontal?
+     *  @param along0 Start position along the scale
+     *  @param along1 End position along the scale
+     *  @param across Start position across the scale
+     *  @param thickness Size across the scale
+     */
+    private static void fillAlong(final GraphicsContext gc, final boolean horizontal,
+                                  final double along0, final double along1,
+                                  final double across, final double thickness)
+    {
+        final double start = Math.min(along0, along1), length = Math.abs(along1 - along0);
+        if (horizontal)
+            gc.fillRect(start, across, length, thickness);
+        else
+            gc.fillRect(across, start, thickness, length);
+    }
+
+    private void drawLinearScale(final Gauge gauge)
+    {
+        final double width = scale.getWidth(), height = scale.getHeight();
+        final GraphicsContext gc = scale.getGraphicsContext2D();
+        clear(gc, width, height, gauge.getBackgroundPaint());
+        if (! (width > 0.0  &&  height > 0.0))
+            return;
+
+        final boolean horizontal = isHorizontal(gauge);
+        final double[] layout = getLinearLayout(gauge);
+        final double start = layout[0], end = layout[1], across = layout[2], thickness = layout[3];
+        final double size = horizontal ? height : width;
+
+        if (gauge.getBarBackgroundColor() != null)
+        {
+            gc.setFill(gauge.getBarBackgroundColor());
+            fillAlong(gc, horizontal, start, end, across, thickness);
+        }
+        if (gauge.getSectionsVisible())
+            for (Section section : gauge.getSections())
+            {
+                gc.setFill(section.getColor());
+                fillAlong(gc, horizontal,
+                          start + getFraction(gauge, section.getStart()) * (end - start),
+                          start + getFraction(gauge, section.getStop()) * (end - start),
+                          across - size * 0.06, size * 0.05);
+            }
+
+        final double tick_start = across + thickness;
+        gc.setStroke(gauge.getTickMarkColor());
+        gc.setLineCap(StrokeLineCap.BUTT);
+        gc.setLineWidth(1.0);
+        forEachTick(gauge, gauge.getMinorTickSpace(), (tick, fraction) ->
+            strokeAcross(gc, horizontal, start + fraction * (end - start), tick_start, tick_start + size * 0.05));
+        gc.setLineWidth(2.0);
+        forEachTick(gauge, gauge.getMajorTickSpace(), (tick, fraction) ->
+            strokeAcross(gc, horizontal, start + fraction * (end - start), tick_start, tick_start + size * 0.1));
+
+        final double label_pos = tick_start + size * 0.12;
+        final int decimals = gauge.getTickLabelDecimals();
+        if (horizontal)
+        {
+            setText(gc, size * 0.12, gauge.getTickLabelColor(), TextAlignment.CENTER);
+            forEachTick(gauge, gauge.getMajorTickSpace(), (tick, fraction) ->
+                gc.fillText(format(decimals, tick), start + fraction * (end - start), label_pos + size * 0.06));
+        }
+        else
+        {
+            setText(gc, Math.min(size * 0.12, height * 0.05), gauge.getTickLabelColor(), TextAlignment.LEFT);
+            forEachTick(gauge, gauge.getMajorTickSpace(), (tick, fraction) ->
+                gc.fillText(format(decimals, tick), label_pos, start + fraction * (end - start)));
+        }
+
+        final double text_size = Math.min(width, height) * 0.12;
+        final String title = gauge.getTitle();
+        if (title != null  &&  ! title.isEmpty())
+        {
+            setText(gc, text_size, gauge.getTitleColor(), horizontal ? TextAlignment.LEFT : TextAlignment.CENTER);
+            if (horizontal)
+                gc.fillText(title, start, height * 0.12);
+            else
+                gc.fillText(title, width / 2, height * 0.04);
+        }
+        final String unit = gauge.getUnit();
+        if (unit != null  &&  ! unit.isEmpty())
+        {
+            setText(gc, text_size, gauge.getUnitColor(), TextAlignment.RIGHT);
+            if (horizontal)
+                gc.fillText(unit, end, height * 0.9);
+            else
+                gc.fillText(unit, width * 0.95, height * 0.97);
+        }
+    }
+
+    private void drawLinearValue(final Gauge gauge, final double current)
+    {
+        final double width = value.getWidth(), height = value.getHeight();
+        final GraphicsContext gc = value.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        if (! (width > 0.0  &&  height > 0.0)  ||  Double.isNaN(current))
+            return;
+
+        final boolean horizontal = isHorizontal(gauge);
+        final double[] layout = getLinearLayout(gauge);
+        final double start = layout[0], end = layout[1];
+        gc.setFill(gauge.getBarColor());
+        fillAlong(gc, horizontal,
+                  start + getBarStart(gauge) * (end - start),
+                  start + getFraction(gauge, current) * (end - start),
+                  layout[2], layout[3]);
+
+        if (gauge.isValueVisible())
+        {
+            final double text_size = Math.min(width, height) * 0.12;
+            setText(gc, text_size, gauge.getValueColor(), horizontal ? TextAlignment.RIGHT : TextAlignment.CENTER);
+            if (horizontal)
+                gc.fillText(format(gauge.getDecimals(), current), end, height * 0.12);
+            else
+                gc.fillText(format(gauge.getDecimals(), current), width / 2, height * 0.09);
+        }
+    }
+}
@@ -120,6 +120,11 @@ public class GaugeRepresentation extends BaseGaugeRepresentation<GaugeWidget> {
         return Gauge.SkinType.valueOf(model_widget.propSkin().getValue().name());
     }
 
+    @Override
+    protected GaugeCanvasSkin.Type getCanvasSkinType ( ) {
+        return GaugeCanvasSkin.Type.BAR;
+    }
+
     @Override
     protected void registerListeners ( ) {
 
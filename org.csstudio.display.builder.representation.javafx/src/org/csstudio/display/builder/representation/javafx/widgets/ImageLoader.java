@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.javafx.widgets;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.csstudio.display.builder.model.util.ModelResourceUtil;
+import org.csstudio.javafx.ImageCache;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import se.europeanspallationsource.xaos.components.SVG;
+
+/** Load images and SVG files via the {@link ImageCache}
+ *
+ *  <p>Parses files on a worker thread of the cache.
+ *  SVG files are rasterized once on the UI thread,
+ *  so all widgets that use the same file share one image.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+class ImageLoader
+{
+    /** Get image from cache, loading it if necessary
+     *
+     *  <p>Waits for the image to load,
+     *  should be called from a background thread.
+     *
+     *  @param path Resolved path of image or SVG file
+     *  @return Image
+     *  @throws Exception on error
+     */
+    static Image load(final String path) throws Exception
+    {
+        if (Platform.isFxApplicationThread())
+        {   // Waiting on the UI thread for a loader that
+            // needs the UI thread to rasterize would deadlock
+            Image image = ImageCache.get(path);
+            if (image == null)
+            {
+                image = read(path);
+                ImageCache.put(path, image);
+            }
+            return image;
+        }
+        return ImageCache.getOrLoad(path, () -> read(path));
+    }
+
+    /** @param path Resolved path of image or SVG file
+     *  @return Image
+     *  @throws Exception on error
+     */
+    private static Image read(final String path) throws Exception
+    {
+        if (! path.toLowerCase().endsWith(".svg"))
+            return new Image(ModelResourceUtil.openResourceStream(path));
+
+        final SVG svg = SVG.load(ModelResourceUtil.openResourceStream(path));
+        final Bounds bounds = svg.getLayoutBounds();
+        final WritableImage image = new WritableImage((int) Math.round(bounds.getWidth()),
+                                                      (int) Math.round(bounds.getHeight()));
+        if (Platform.isFxApplicationThread())
+        {
+            snapshot(svg, image);
+            return image;
+        }
+
+        // Wait for the snapshot so that the cached image is complete
+        final CompletableFuture<Image> done = new CompletableFuture<>();
+        Platform.runLater(() ->
+        {
+            try
+            {
+                snapshot(svg, image);
+                done.complete(image);
+            }
+            catch (Throwable ex)
+            {
+                done.completeExceptionally(ex);
+            }
+        });
+        try
+        {
+            return done.get();
+        }
+        catch (ExecutionException ex)
+        {
+            throw new Exception("Cannot rasterize " + path, ex.getCause());
+        }
+    }
+
+    private static void snapshot(final SVG svg, final WritableImage image)
+    {
+        final SnapshotParameters sp = new SnapshotParameters();
+        sp.setFill(Color.TRANSPARENT);
+        svg.snapshot(sp, image);
+    }
+}
@@ -25,6 +25,7 @@ import org.csstudio.display.builder.model.widgets.TabsWidget;
 import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
 import org.csstudio.display.builder.representation.WidgetRepresentation;
 import org.csstudio.display.builder.representation.javafx.JFXRepresentation;
+import org.csstudio.display.builder.representation.javafx.StaticWidgetLayer;
 
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
@@ -47,6 +48,11 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
 
     private volatile WidgetProperty<Boolean> visible;
 
+    /** Layer that shows the jfx_node as part of an image, or <code>null</code>
+     *  <p>Only accessed on the JFX thread
+     */
+    private StaticWidgetLayer static_layer = null;
+
     private final DirtyFlag dirty_position = new DirtyFlag();
     private final UntypedWidgetPropertyListener positionChangedListener = this::positionChanged;
 
@@ -183,6 +189,12 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
         return representation.jfx_node;
     }
 
+    /** @param layer Layer that shows this widget as part of an image, or <code>null</code> */
+    public void setStaticLayer(final StaticWidgetLayer layer)
+    {
+        static_layer = layer;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void dispose()
@@ -193,6 +205,11 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
         if (parent != null)
             JFXRepresentation.getChildren(jfx_node.getParent()).remove(jfx_node);
         jfx_node = null;
+        if (static_layer != null)
+        {
+            static_layer.requestRender();
+            static_layer = null;
+        }
     }
 
     /** Get parent that would be used for child-widgets.
@@ -272,10 +289,24 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
         toolkit.scheduleUpdate(this);
     }
 
+    /** Request update of the {@link StaticWidgetLayer} that shows the jfx_node
+     *
+     *  <p>Called by <code>updateChanges</code>.
+     *  Derived classes that don't call the base class
+     *  <code>updateChanges</code> need to call this.
+     *  The layer will render its image once all updates are done.
+     */
+    protected void updateStaticLayer()
+    {
+        if (static_layer != null)
+            static_layer.requestRender();
+    }
+
     /** {@inheritDoc} */
     @Override
     public void updateChanges()
     {
+        updateStaticLayer();
         if (dirty_position.checkAndClear())
         {
             jfx_node.relocate(model_widget.propX().getValue(),
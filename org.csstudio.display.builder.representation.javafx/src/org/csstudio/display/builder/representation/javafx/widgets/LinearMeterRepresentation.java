@@ -155,6 +155,16 @@ public class LinearMeterRepresentation extends BaseMeterRepresentation<LinearMet
         return Gauge.SkinType.LINEAR;
     }
 
+    @Override
+    protected GaugeCanvasSkin.Type getCanvasSkinType ( ) {
+        return GaugeCanvasSkin.Type.LINEAR;
+    }
+
+    @Override
+    protected double getValuePixels ( ) {
+        return Math.max(model_widget.propWidth().getValue(), model_widget.propHeight().getValue());
+    }
+
     @Override
     protected void registerListeners ( ) {
 
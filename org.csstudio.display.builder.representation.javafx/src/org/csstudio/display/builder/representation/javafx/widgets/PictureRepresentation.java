@@ -24,11 +24,8 @@ import org.csstudio.javafx.ImageCache;
 
 import javafx.geometry.Bounds;
 import javafx.geometry.Dimension2D;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
-import javafx.scene.paint.Color;
 import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Translate;
 import se.europeanspallationsource.xaos.components.SVG;
@@ -155,48 +152,14 @@ public class PictureRepresentation extends JFXBaseRepresentation<ImageView, Pict
         {
             if (toolkit.isEditMode())
                 ImageCache.remove(img_path);
-            img_loaded = ImageCache.get(img_path);
-            if (img_loaded == null)
+            try
             {
-                if (img_path.toLowerCase().endsWith(".svg"))
-                {
-                    try
-                    {
-                        // Open the image from the stream created from the resource file
-                        final SVG svg = SVG.load(ModelResourceUtil.openResourceStream(img_path));
-                        final Bounds bounds = svg.getLayoutBounds();
-
-                        img_loaded = new WritableImage((int) Math.round(bounds.getWidth()), (int) Math.round(bounds.getHeight()));
-
-                        toolkit.execute(() ->
-                        {
-                            final SnapshotParameters sp = new SnapshotParameters();
-                            sp.setFill(Color.TRANSPARENT);
-                            svg.snapshot(sp, (WritableImage) img_loaded);
-                        });
-                    }
-                    catch (Exception ex)
-                    {
-                        logger.log(Level.WARNING, "Failure loading SVG image file:" + img_path, ex);
-                        load_failed = true;
-                    }
-                }
-                else
-                {
-                    try
-                    {
-                        // Open the image from the stream created from the resource file
-                        img_loaded = new Image(ModelResourceUtil.openResourceStream(img_path));
-                    }
-                    catch (Exception ex)
-                    {
-                        logger.log(Level.WARNING, "Failure loading image file:" + img_path, ex);
-                        load_failed = true;
-                    }
-                }
-
-                if (!load_failed)
-                    ImageCache.put(img_path, img_loaded);
+                img_loaded = ImageLoader.load(img_path);
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.WARNING, "Failure loading image file:" + img_path, ex);
+                load_failed = true;
             }
         }
 
@@ -74,6 +74,7 @@ public class PolygonRepresentation extends JFXBaseRepresentation<Polygon, Polygo
     public void updateChanges()
     {
         // Not using default handling of X/Y super.updateChanges();
+        updateStaticLayer();
         if (dirty_display.checkAndClear())
         {
             if (model_widget.propVisible().getValue())
@@ -119,6 +119,7 @@ public class PolylineRepresentation extends JFXBaseRepresentation<Group, Polylin
     public void updateChanges()
     {
         // Not using default handling of X/Y super.updateChanges();
+        updateStaticLayer();
         if (dirty_display.checkAndClear())
         {
             if (model_widget.propVisible().getValue())
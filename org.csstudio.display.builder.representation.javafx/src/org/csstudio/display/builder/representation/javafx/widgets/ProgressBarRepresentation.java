@@ -34,7 +34,10 @@ public class ProgressBarRepresentation extends RegionBaseRepresentation<Progress
     private final UntypedWidgetPropertyListener lookChangedListener = this::lookChanged;
     private final WidgetPropertyListener<Boolean> orientationChangedListener = this::orientationChanged;
     private final UntypedWidgetPropertyListener valueChangedListener = this::valueChanged;
+    private volatile double min = 0.0;
+    private volatile double max = 100.0;
     private volatile double percentage = 0.0;
+    private final ValueUpdateFilter value_filter = new ValueUpdateFilter();
 
     @Override
     public ProgressBar createJFXNode() throws Exception
@@ -97,14 +100,51 @@ public class ProgressBarRepresentation extends RegionBaseRepresentation<Progress
 
     private void lookChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
+        configureValueFilter();
         dirty_look.mark();
         toolkit.scheduleUpdate(this);
     }
 
+    /** Configure filter for current limits and length of the bar */
+    private void configureValueFilter()
+    {
+        final int length = model_widget.propHorizontal().getValue()
+                         ? model_widget.propWidth().getValue()
+                         : model_widget.propHeight().getValue();
+        value_filter.configure(min, max, length, -1);
+    }
+
     private void valueChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
         final VType vtype = model_widget.runtimePropValue().getValue();
 
+        // Limits only need to be updated when a limit property
+        // or the display information of the PV changes
+        if (value_filter.isDisplayChanged(ValueUtil.displayOf(vtype))  ||
+            property != model_widget.runtimePropValue())
+            updateLimits(vtype);
+
+        // Skip values that would not move the bar by a pixel
+        final double value = VTypeUtil.getValueNumber(vtype).doubleValue();
+        if (! value_filter.isVisibleChange(value))
+            return;
+
+        // Determine percentage of value within the min..max range
+        final double percentage = (value - min) / (max - min);
+        // Limit to 0.0 .. 1.0
+        if (percentage < 0.0)
+            this.percentage = 0.0;
+        else if (percentage > 1.0)
+            this.percentage = 1.0;
+        else
+            this.percentage = percentage;
+        dirty_value.mark();
+        toolkit.scheduleUpdate(this);
+    }
+
+    /** @param vtype Value with display information */
+    private void updateLimits(final VType vtype)
+    {
         final boolean limits_from_pv = model_widget.propLimitsFromPV().getValue();
         double min_val = model_widget.propMinimum().getValue();
         double max_val = model_widget.propMaximum().getValue();
@@ -125,18 +165,9 @@ public class ProgressBarRepresentation extends RegionBaseRepresentation<Progress
             max_val = 100.0;
         }
 
-        // Determine percentage of value within the min..max range
-        final double value = VTypeUtil.getValueNumber(vtype).doubleValue();
-        final double percentage = (value - min_val) / (max_val - min_val);
-        // Limit to 0.0 .. 1.0
-        if (percentage < 0.0)
-            this.percentage = 0.0;
-        else if (percentage > 1.0)
-            this.percentage = 1.0;
-        else
-            this.percentage = percentage;
-        dirty_value.mark();
-        toolkit.scheduleUpdate(this);
+        min = min_val;
+        max = max_val;
+        configureValueFilter();
     }
 
     @Override
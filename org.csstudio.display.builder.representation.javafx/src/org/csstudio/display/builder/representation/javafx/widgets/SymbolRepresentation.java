@@ -50,17 +50,14 @@ import org.diirt.vtype.VType;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.geometry.Bounds;
 import javafx.geometry.Dimension2D;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Group;
 import javafx.scene.Node;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.CornerRadii;
@@ -73,7 +70,6 @@ import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeType;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import se.europeanspallationsource.xaos.components.SVG;
 
 
 /**
@@ -749,60 +745,18 @@ public class SymbolRepresentation extends RegionBaseRepresentation<StackPane, Sy
                     ImageCache.remove(imageFileName);
                 }
 
-                image = ImageCache.get(imageFileName);
+                try {
 
-                if ( image != null ) {
+                    // Cached, or loaded once for all symbols using the same
+                    // file, with SVG rasterized at its natural size.
+                    image = ImageLoader.load(imageFileName);
                     originalWidth = image.getWidth();
                     originalHeight = image.getHeight();
-                } else {
-
-                    boolean loadFailed = true;
-
-                    if ( imageFileName.toLowerCase().endsWith(".svg") ) {
-                        try {
-
-                            // Open the image from the stream created from the
-                            // resource file.
-                            SVG svg = SVG.load(ModelResourceUtil.openResourceStream(imageFileName));
-                            Bounds bounds = svg.getLayoutBounds();
-
-                            image = new WritableImage((int) Math.round(bounds.getWidth()), (int) Math.round(bounds.getHeight()));
-                            originalWidth = image.getWidth();
-                            originalHeight = image.getHeight();
-                            loadFailed = false;
-
-                            toolkit.execute( ( ) -> {
-
-                                SnapshotParameters sp = new SnapshotParameters();
-
-                                sp.setFill(Color.TRANSPARENT);
-                                svg.snapshot(sp, (WritableImage) image);
-
-                            });
-
-                        } catch ( Exception ex ) {
-                            logger.log(Level.WARNING, "Failure loading SVG image file: ({0}) {1} [{2}].", new Object[] { fileName, imageFileName, ex.getMessage() });
-                        }
-                    } else {
-                        try {
-
-                            // Open the image from the stream created from the
-                            // resource file.
-                            image = new Image(ModelResourceUtil.openResourceStream(imageFileName));
-                            originalWidth = image.getWidth();
-                            originalHeight = image.getHeight();
-                            loadFailed = false;
-
-                        } catch ( Exception ex ) {
-                            logger.log(Level.WARNING, "Failure loading image: ({0}) {1} [{2}].", new Object[] { fileName, imageFileName, ex.getMessage() });
-                        }
-                    }
-
-                    if ( !loadFailed ) {
-                        ImageCache.put(imageFileName, image);
-                    }
 
+                } catch ( Exception ex ) {
+                    logger.log(Level.WARNING, "Failure loading image: ({0}) {1} [{2}].", new Object[] { fileName, imageFileName, ex.getMessage() });
                 }
+
             }
 
         }
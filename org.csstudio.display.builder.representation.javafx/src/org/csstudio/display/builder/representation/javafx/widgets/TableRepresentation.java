@@ -23,6 +23,7 @@ import org.csstudio.display.builder.model.widgets.TableWidget.ColumnProperty;
 import org.csstudio.display.builder.representation.javafx.JFXUtil;
 import org.csstudio.javafx.StringTable;
 import org.csstudio.javafx.StringTableListener;
+import org.csstudio.javafx.TableHelper;
 import org.diirt.vtype.VTable;
 
 import javafx.scene.paint.Color;
@@ -266,8 +267,12 @@ public class TableRepresentation extends RegionBaseRepresentation<StringTable, T
         {
             // new_value == model_widget.runtimeValue().getValue() might be
             // a List<List<String>> or a VTable.
-            // getValue() fetches either one as deep-copied List<List<String>>
-            data = model_widget.getValue();
+            // getValue() fetches either one as deep-copied List<List<String>>.
+            // Re-use rows that did not change, so the table skips them
+            // and the UI thread only handles the changed rows
+            final List<List<String>> new_data = model_widget.getValue();
+            TableHelper.reuseUnchangedRows(data, new_data);
+            data = new_data;
             if (new_value instanceof VTable)
             {   // Use table's column headers
                 final VTable table = (VTable) new_value;
@@ -97,6 +97,10 @@ public class TabsRepresentation extends JFXBaseRepresentation<TabPane, TabsWidge
         changing_active_tab.set(false);
     };
 
+    // Perform deferred updates of widgets on newly selected tab
+    private final WidgetPropertyListener<Integer> reveal_active_tab = (p, old, value) ->
+        toolkit.checkDeferredUpdates();
+
     // Update model when UI selects a tab
     private final ChangeListener<? super Number> selectedIndexListener = (t, o, selected) ->
     {
@@ -142,6 +146,7 @@ public class TabsRepresentation extends JFXBaseRepresentation<TabPane, TabsWidge
         
         // Update UI when model selects a tab
         model_widget.propActiveTab().addPropertyListener(track_active_model_tab);
+        model_widget.propActiveTab().addPropertyListener(reveal_active_tab);
 
         // Update model when UI selects a tab
         jfx_node.getSelectionModel().selectedIndexProperty().addListener(selectedIndexListener);
@@ -163,6 +168,7 @@ public class TabsRepresentation extends JFXBaseRepresentation<TabPane, TabsWidge
         model_widget.propDirection().removePropertyListener(layoutChangedListener);
         model_widget.propTabHeight().removePropertyListener(layoutChangedListener);
         model_widget.propActiveTab().addPropertyListener(track_active_model_tab);
+        model_widget.propActiveTab().removePropertyListener(reveal_active_tab);
 
         jfx_node.getSelectionModel().selectedIndexProperty().removeListener(selectedIndexListener);
 
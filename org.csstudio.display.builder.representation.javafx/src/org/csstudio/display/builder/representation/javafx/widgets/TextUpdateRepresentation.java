@@ -157,7 +157,8 @@ public class TextUpdateRepresentation extends RegionBaseRepresentation<Control,
         return FormatOptionHandler.format(value,
                                           model_widget.propFormat().getValue(),
                                           model_widget.propPrecision().getValue(),
-                                          model_widget.propShowUnits().getValue());
+                                          model_widget.propShowUnits().getValue(),
+                                          value_text);
     }
 
     private void pvnameChanged(final WidgetProperty<String> property, final String old_value, final String new_value)
@@ -174,7 +175,9 @@ public class TextUpdateRepresentation extends RegionBaseRepresentation<Control,
     private void contentChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
         final String new_text = computeText(model_widget.runtimePropValue().getValue());
-        // Skip update if it's the same text
+        // Skip update if it's the same text.
+        // Formatter returns the identical string for unchanged numbers,
+        // so equals() returns right away in that case
         if (value_text.equals(new_text))
             return;
         value_text = new_text;
@@ -17,8 +17,8 @@ import org.diirt.vtype.Display;
 import org.diirt.vtype.VType;
 import org.diirt.vtype.ValueUtil;
 
-import javafx.geometry.HPos;
-import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.layout.Border;
 import javafx.scene.layout.BorderStroke;
 import javafx.scene.layout.BorderStrokeStyle;
@@ -30,14 +30,6 @@ import javafx.scene.paint.CycleMethod;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.RadialGradient;
 import javafx.scene.paint.Stop;
-import javafx.scene.shape.ArcTo;
-import javafx.scene.shape.Ellipse;
-import javafx.scene.shape.HLineTo;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.VLineTo;
 
 /** Creates JavaFX item for model widget
  *  @author Amanda Carpenter
@@ -51,6 +43,7 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
     private volatile double max = 0.0;
     private volatile double min = 0.0;
     private volatile double val = 0.0;
+    private final ValueUpdateFilter value_filter = new ValueUpdateFilter();
 
 
     @Override
@@ -68,17 +61,21 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
 
     }
 
+    /** Thermometer drawn onto one canvas
+     *
+     *  <p>Tube, fill and bulb used to be separate shapes,
+     *  which all needed to be updated and rendered for each new value.
+     */
     private class Thermo extends Region
     {
-        private final Ellipse ellipse = new Ellipse();
-        private final Rectangle fill = new Rectangle();
+        private final Canvas canvas = new Canvas();
 
-        private final MoveTo move = new MoveTo();
-        private final VLineTo left = new VLineTo();
-        private final ArcTo arc = new ArcTo();
-        private final LineTo rightcorner = new LineTo();
-        private final Path border = new Path(move, new VLineTo(3), rightcorner, new HLineTo(3), new LineTo(0, 3), left,
-                arc);
+        private final LinearGradient tube = new LinearGradient(.3, 0, .7, 0, true, CycleMethod.NO_CYCLE,
+                new Stop(0, Color.LIGHTGRAY),
+                new Stop(.3, Color.WHITESMOKE),
+                new Stop(1, Color.LIGHTGRAY));
+        private LinearGradient fill;
+        private RadialGradient bulb;
 
         private double max = 0;
         private double min = 100;
@@ -93,20 +90,8 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
         {
             setFill(color);
 
-            fill.setArcHeight(6);
-            fill.setArcWidth(6);
-            fill.setManaged(false);
-            border.setFill(new LinearGradient(.3, 0, .7, 0, true, CycleMethod.NO_CYCLE,
-                    new Stop(0, Color.LIGHTGRAY),
-                    new Stop(.3, Color.WHITESMOKE),
-                    new Stop(1, Color.LIGHTGRAY)));
-            border.setStroke(Color.BLACK);
-            arc.setLargeArcFlag(true);
-            rightcorner.setY(0);
-
-            getChildren().add(border);
-            getChildren().add(fill);
-            getChildren().add(ellipse);
+            canvas.setManaged(false);
+            getChildren().add(canvas);
             setBorder(new Border(
                     new BorderStroke(Color.BLACK, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, BorderWidths.DEFAULT)));
         }
@@ -121,27 +106,12 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
         {
             final double width = computePrefWidth(0);
             final double height = computePrefHeight(0);
-            final double w = clamp(width / 2, 0, 20);
-            final double d = clamp(width, w, Math.min(height, 2 * w));
-            final double h = height - d;
-
-            fill.setWidth(Math.max(w - 4, 0));
-            ellipse.setRadiusX(Math.max(d / 2 - 2, 0));
-            ellipse.setRadiusY(Math.max(d / 2 - 2, 0));
-
-            move.setX(w);
-            move.setY(h);
-            rightcorner.setX(Math.max(w - 3, 0));
-            left.setY(h);
-            arc.setRadiusX(d / 2);
-            arc.setRadiusY(d / 2);
-            arc.setX(w);
-            arc.setY(h);
-
-            adjustFill(width, height, d);
-
-            layoutInArea(ellipse, 0, -3, width, height, 0, HPos.CENTER, VPos.BOTTOM);
-            layoutInArea(border, 0, 0, width, height, 0, HPos.CENTER, VPos.BOTTOM);
+            if (canvas.getWidth() != width  ||  canvas.getHeight() != height)
+            {
+                canvas.setWidth(width);
+                canvas.setHeight(height);
+            }
+            draw();
         }
 
         @Override
@@ -158,14 +128,14 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
 
         public void setFill(Color color)
         {
-            ellipse.setFill(
-                    new RadialGradient(0, 0, 0.3, 0.1, 0.4, true, CycleMethod.NO_CYCLE,
-                            new Stop(0, color.interpolate(Color.WHITESMOKE, 0.8)),
-                            new Stop(1, color)));
-            fill.setFill(new LinearGradient(0, 0, .8, 0, true, CycleMethod.NO_CYCLE,
+            bulb = new RadialGradient(0, 0, 0.3, 0.1, 0.4, true, CycleMethod.NO_CYCLE,
+                    new Stop(0, color.interpolate(Color.WHITESMOKE, 0.8)),
+                    new Stop(1, color));
+            fill = new LinearGradient(0, 0, .8, 0, true, CycleMethod.NO_CYCLE,
                     new Stop(0, color),
                     new Stop(.3, color.interpolate(Color.WHITESMOKE, 0.7)),
-                    new Stop(1, color)));
+                    new Stop(1, color));
+            draw();
         }
 
         public void setLimits(double min, double max, double val)
@@ -173,18 +143,54 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
             this.min = min;
             this.max = max;
             this.value = val;
-            adjustFill();
+            draw();
         }
 
-        private void adjustFill()
+        private void draw()
         {
-            adjustFill(computePrefWidth(0), computePrefHeight(0), ellipse.getRadiusX() * 2);
-        }
+            final double width = canvas.getWidth();
+            final double height = canvas.getHeight();
+            final GraphicsContext gc = canvas.getGraphicsContext2D();
+            gc.clearRect(0, 0, width, height);
 
-        private void adjustFill(double width, double height, double d)
-        {
-            fill.setHeight(d / 2 + (height - d) * (value - min) / (max - min));
-            layoutInArea(fill, 0.0, -d / 2, width, height, 0, HPos.CENTER, VPos.BOTTOM);
+            // Tube of width w, centered, with bulb of diameter d at the bottom
+            final double w = clamp(width / 2, 0, 20);
+            final double d = clamp(width, w, Math.min(height, 2 * w));
+            final double r = d / 2;
+            final double left = (width - w) / 2, right = left + w;
+            final double cx = width / 2, cy = height - r;
+
+            // Tube joins the bulb where its sides intersect the circle
+            final double join = Math.sqrt(Math.max(r * r - w * w / 4, 0));
+            final double angle = Math.toDegrees(Math.atan2(join, w / 2));
+            gc.beginPath();
+            gc.moveTo(right, cy - join);
+            gc.lineTo(right, 3);
+            gc.lineTo(right - 3, 0);
+            gc.lineTo(left + 3, 0);
+            gc.lineTo(left, 3);
+            gc.lineTo(left, cy - join);
+            gc.arc(cx, cy, r, r, 180 - angle, 180 + 2 * angle);
+            gc.closePath();
+            gc.setFill(tube);
+            gc.fill();
+            gc.setStroke(Color.BLACK);
+            gc.setLineWidth(1);
+            gc.stroke();
+
+            // Fill rises from the center of the bulb
+            final double fraction = max > min ? clamp((value - min) / (max - min), 0, 1) : 0;
+            if (! Double.isNaN(fraction))
+            {
+                final double fill_width = Math.max(w - 4, 0);
+                final double fill_height = r + (height - d) * fraction;
+                gc.setFill(fill);
+                gc.fillRoundRect(cx - fill_width / 2, cy - fill_height, fill_width, fill_height, 6, 6);
+            }
+
+            final double bulb_radius = Math.max(r - 2, 0);
+            gc.setFill(bulb);
+            gc.fillOval(cx - bulb_radius, height - 3 - 2 * bulb_radius, 2 * bulb_radius, 2 * bulb_radius);
         }
     }
 
@@ -217,14 +223,39 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
 
     private void lookChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
+        configureValueFilter();
         dirty_look.mark();
         toolkit.scheduleUpdate(this);
     }
 
+    /** Configure filter for current limits and height */
+    private void configureValueFilter()
+    {
+        value_filter.configure(min, max, model_widget.propHeight().getValue(), -1);
+    }
+
     private void valueChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
         final VType vtype = model_widget.runtimePropValue().getValue();
 
+        // Limits only need to be updated when a limit property
+        // or the display information of the PV changes
+        if (value_filter.isDisplayChanged(ValueUtil.displayOf(vtype))  ||
+            property != model_widget.runtimePropValue())
+            updateLimits(vtype);
+
+        // Skip values that would not move the fill by a pixel
+        final double value = VTypeUtil.getValueNumber(vtype).doubleValue();
+        if (! value_filter.isVisibleChange(value))
+            return;
+        val = value;
+        dirty_value.mark();
+        toolkit.scheduleUpdate(this);
+    }
+
+    /** @param vtype Value with display information */
+    private void updateLimits(final VType vtype)
+    {
         final boolean limits_from_pv = model_widget.propLimitsFromPV().getValue();
         double min_val = model_widget.propMinimum().getValue();
         double max_val = model_widget.propMaximum().getValue();
@@ -245,13 +276,9 @@ public class ThermometerRepresentation extends RegionBaseRepresentation<Region,
             max_val = 100.0;
         }
 
-        // Determine percentage of value within the min..max range
-        final double value = VTypeUtil.getValueNumber(vtype).doubleValue();
         min = min_val;
         max = max_val;
-        val = value;
-        dirty_value.mark();
-        toolkit.scheduleUpdate(this);
+        configureValueFilter();
     }
 
     @Override
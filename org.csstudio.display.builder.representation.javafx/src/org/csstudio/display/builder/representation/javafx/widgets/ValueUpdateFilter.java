@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.javafx.widgets;
+
+import java.util.Objects;
+
+import org.diirt.vtype.Display;
+
+/** Filter for value updates of gauge-type widgets
+ *
+ *  <p>Gauges, meters, knobs and thermometers show a value
+ *  as a position along a scale that is only so many pixels long,
+ *  plus maybe a text with a limited number of decimals.
+ *  Values that differ by less than one pixel and result
+ *  in the same text do not need to be shown.
+ *
+ *  <p>Limits, units and format of the display information
+ *  rarely change, so zones etc. only need to be re-computed
+ *  when the display information changes, not for each value.
+ *
+ *  <p>Thread safe. Values are typically checked by a PV thread
+ *  while the configuration is updated by the model.
+ *
+ *  @author Kay Kasemir
+ */
+public class ValueUpdateFilter
+{
+    /** Scaled values beyond this have no fractional digits to round */
+    private static final double MAX_EXACT = 0x1p53;
+
+    private Display last_display = null;
+
+    private double min = 0.0, max = 100.0, pixels = 100.0;
+    private int decimals = -1;
+
+    /** Last shown pixel, or <code>Long.MIN_VALUE</code> to show next value */
+    private long last_pixel = Long.MIN_VALUE;
+
+    /** Last shown value scaled and rounded to decimals, or <code>NaN</code> to show next value */
+    private double last_text = Double.NaN;
+
+    /** @param display Display information of latest value, may be <code>null</code>
+     *  @return <code>true</code> if display information differs from the previous call
+     */
+    public synchronized boolean isDisplayChanged(final Display display)
+    {
+        if (display == last_display)
+            return false;
+        final boolean changed = display == null  ||  last_display == null  ||
+                                ! isSameDisplay(display, last_display);
+        last_display = display;
+        return changed;
+    }
+
+    private static boolean isSameDisplay(final Display a, final Display b)
+    {
+        return isSame(a.getLowerDisplayLimit(), b.getLowerDisplayLimit())  &&
+               isSame(a.getUpperDisplayLimit(), b.getUpperDisplayLimit())  &&
+               isSame(a.getLowerCtrlLimit(), b.getLowerCtrlLimit())  &&
+               isSame(a.getUpperCtrlLimit(), b.getUpperCtrlLimit())  &&
+               isSame(a.getLowerAlarmLimit(), b.getLowerAlarmLimit())  &&
+               isSame(a.getUpperAlarmLimit(), b.getUpperAlarmLimit())  &&
+               isSame(a.getLowerWarningLimit(), b.getLowerWarningLimit())  &&
+               isSame(a.getUpperWarningLimit(), b.getUpperWarningLimit())  &&
+               Objects.equals(a.getUnits(), b.getUnits())  &&
+               Objects.equals(a.getFormat(), b.getFormat());
+    }
+
+    private static boolean isSame(final Double a, final Double b)
+    {
+        return Objects.equals(a, b);
+    }
+
+    /** Configure the resolution of the widget
+     *
+     *  <p>The next value will always be shown.
+     *
+     *  @param min Value at start of scale
+     *  @param max Value at end of scale
+     *  @param pixels Number of pixels along the scale
+     *  @param decimals Number of decimals in value text, -1 if value is not shown as text
+     */
+    public synchronized void configure(final double min, final double max, final double pixels, final int decimals)
+    {
+        this.min = min;
+        this.max = max;
+        this.pixels = pixels;
+        this.decimals = decimals;
+        reset();
+    }
+
+    /** Show the next value, even if it does not differ from the last one */
+    public synchronized void reset()
+    {
+        last_pixel = Long.MIN_VALUE;
+        last_text = Double.NaN;
+    }
+
+    /** @param value Value to show
+     *  @return <code>true</code> if value is visibly different from the last value
+     *          and needs to be shown
+     */
+    public synchronized boolean isVisibleChange(final double value)
+    {
+        if (! Double.isFinite(value)  ||  ! (max > min))
+        {   // Always show NaN etc.
+            reset();
+            return true;
+        }
+
+        final double clamped = Math.max(min, Math.min(max, value));
+        final long pixel = Math.round((clamped - min) / (max - min) * pixels);
+        final double text;
+        if (decimals >= 0)
+        {
+            final double scaled = value * Math.pow(10, Math.min(decimals, 15));
+            // Huge values are compared as is. Rounding to long would saturate
+            text = Math.abs(scaled) < MAX_EXACT ? Math.rint(scaled) : value;
+        }
+        else
+            text = 0.0;
+        if (pixel == last_pixel  &&  text == last_text)
+            return false;
+        last_pixel = pixel;
+        last_text = text;
+        return true;
+    }
+}
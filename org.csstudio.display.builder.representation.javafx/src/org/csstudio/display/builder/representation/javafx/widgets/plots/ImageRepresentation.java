@@ -36,6 +36,7 @@ import org.csstudio.javafx.rtplot.ColorMappingFunction;
 import org.csstudio.javafx.rtplot.Interpolation;
 import org.csstudio.javafx.rtplot.NamedColorMappings;
 import org.csstudio.javafx.rtplot.RTImagePlot;
+import org.csstudio.javafx.rtplot.ROIStatistics;
 import org.csstudio.javafx.rtplot.RTImagePlotListener;
 import org.csstudio.javafx.rtplot.RegionOfInterest;
 import org.diirt.util.array.ArrayDouble;
@@ -77,6 +78,9 @@ public class ImageRepresentation extends RegionBaseRepresentation<Pane, ImageWid
     private final static List<String> cursor_info_names = Arrays.asList("X", "Y", "Value", "xi", "yi");
     private final static List<Class<?>> cursor_info_types = Arrays.asList(Double.TYPE, Double.TYPE, Double.TYPE, Integer.TYPE, Integer.TYPE);
 
+    private final static List<String> statistics_names = Arrays.asList("Count", "Sum", "Mean", "Min", "Max", "xi", "yi");
+    private final static List<Class<?>> statistics_types = Arrays.asList(Integer.TYPE, Double.TYPE, Double.TYPE, Double.TYPE, Double.TYPE, Double.TYPE, Double.TYPE);
+
     private final RTImagePlotListener plot_listener = new RTImagePlotListener()
     {
         @Override
@@ -110,6 +114,31 @@ public class ImageRepresentation extends RegionBaseRepresentation<Pane, ImageWid
             changing_roi =  false;
         }
 
+        @Override
+        public void changedROIStatistics(final int index, final String name, final ROIStatistics statistics)
+        {
+            final ROIWidgetProperty widget_roi = model_widget.propROIs().getValue().get(index);
+            widget_roi.statistics().setValue(
+                ValueFactory.newVTable(statistics_types,
+                                       statistics_names,
+                                       Arrays.asList(new ArrayInt(statistics.getCount()),
+                                                     new ArrayDouble(statistics.getSum()),
+                                                     new ArrayDouble(statistics.getMean()),
+                                                     new ArrayDouble(statistics.getMin()),
+                                                     new ArrayDouble(statistics.getMax()),
+                                                     new ArrayDouble(statistics.getCentroidX()),
+                                                     new ArrayDouble(statistics.getCentroidY()))));
+            widget_roi.histogram().setValue(
+                ValueFactory.newVNumberArray(new ArrayInt(statistics.getHistogram()),
+                                             ValueFactory.alarmNone(), ValueFactory.timeNow(), ValueFactory.displayNone()));
+            widget_roi.horizontal_profile().setValue(
+                ValueFactory.newVNumberArray(new ArrayDouble(statistics.getHorizontalProfile()),
+                                             ValueFactory.alarmNone(), ValueFactory.timeNow(), ValueFactory.displayNone()));
+            widget_roi.vertical_profile().setValue(
+                ValueFactory.newVNumberArray(new ArrayDouble(statistics.getVerticalProfile()),
+                                             ValueFactory.alarmNone(), ValueFactory.timeNow(), ValueFactory.displayNone()));
+        }
+
         @Override
         public void changedXAxis(double low, double high)
         {
@@ -187,6 +216,10 @@ public class ImageRepresentation extends RegionBaseRepresentation<Pane, ImageWid
             image_plot.requestUpdate();
         });
 
+        // Compute statistics as roi.compute_statistics() changes
+        plot_roi.setAnalyzed(model_roi.compute_statistics().getValue());
+        model_roi.compute_statistics().addPropertyListener((prop, old, analyze) -> plot_roi.setAnalyzed(analyze));
+
         // For now _not_ listening to runtime changes of roi.interactive() or roi.file() ...
 
         // Listen to roi.x_value(), .. and update plot_roi
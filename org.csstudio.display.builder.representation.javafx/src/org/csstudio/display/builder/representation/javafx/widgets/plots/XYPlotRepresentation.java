@@ -39,6 +39,7 @@ import org.csstudio.javafx.rtplot.RTValuePlot;
 import org.csstudio.javafx.rtplot.Trace;
 import org.csstudio.javafx.rtplot.TraceType;
 import org.csstudio.javafx.rtplot.YAxis;
+import org.csstudio.javafx.rtplot.data.DoubleArrayPlotDataProvider;
 import org.csstudio.javafx.rtplot.internal.NumericAxis;
 import org.csstudio.javafx.rtplot.util.RTPlotUpdateThrottle;
 import org.diirt.util.array.ArrayDouble;
@@ -173,6 +174,40 @@ public class XYPlotRepresentation extends RegionBaseRepresentation<Pane, XYPlotW
         }
     };
 
+    /** Waveform data of a trace, converted for the plot */
+    private static class Column
+    {
+        static final Column NONE = new Column(null);
+
+        /** Data received from PV, may be <code>null</code> */
+        final ListNumber list;
+
+        /** Data for the plot */
+        final double[] array;
+
+        Column(final ListNumber list)
+        {
+            this.list = list;
+            this.array = XYVTypeDataProvider.toArray(list);
+        }
+    }
+
+    /** @param list Latest waveform data, may be <code>null</code>
+     *  @param previous Column for the previous data of the trace
+     *  @return Column for the latest data
+     */
+    private Column getColumn(final ListNumber list, final Column previous)
+    {
+        // Unchanged?
+        if (list == previous.list)
+            return previous;
+        // Re-use X data of other traces that use the same PV
+        for (TraceHandler other : trace_handlers)
+            if (other.x_column.list == list)
+                return other.x_column;
+        return new Column(list);
+    }
+
     /** Handler for one trace of the plot
      *
      *  <p>Updates the plot when the configuration of a trace
@@ -184,6 +219,9 @@ public class XYPlotRepresentation extends RegionBaseRepresentation<Pane, XYPlotW
         private final UntypedWidgetPropertyListener trace_listener = this::traceChanged,
                                                     value_listener = this::valueChanged;
         private final Trace<Double> trace;
+        /** Latest data of the trace, converted from the X, Y and error waveforms */
+        private volatile Column x_column = Column.NONE, y_column = Column.NONE, error_column = Column.NONE;
+        private volatile DoubleArrayPlotDataProvider data = new XYVTypeDataProvider();
         // Throttle this trace's x, y, error value changes
         private final RTPlotUpdateThrottle throttle = new RTPlotUpdateThrottle(Preferences.getPlotUpdateDelayMillisec(), TimeUnit.MILLISECONDS, this::computeTrace);
 
@@ -191,7 +229,7 @@ public class XYPlotRepresentation extends RegionBaseRepresentation<Pane, XYPlotW
         {
             this.model_trace = model_trace;
 
-            trace = plot.addTrace(model_trace.traceName().getValue(), "", new XYVTypeDataProvider(),
+            trace = plot.addTrace(model_trace.traceName().getValue(), "", data,
                                   JFXUtil.convert(model_trace.traceColor().getValue()),
                                   map(model_trace.traceType().getValue()),
                                   model_trace.traceWidth().getValue(),
@@ -335,8 +373,17 @@ public class XYPlotRepresentation extends RegionBaseRepresentation<Pane, XYPlotW
                 return buf.toString();
             });
 
-            // Wrap as PlotDataProvider
-            final XYVTypeDataProvider latest = new XYVTypeDataProvider(x_data, y_data, error);
+            // Only convert the waveforms that changed,
+            // re-using unchanged data and X data shared with other traces
+            x_column = getColumn(x_data, x_column);
+            y_column = getColumn(y_data, y_column);
+            error_column = getColumn(error, error_column);
+            final DoubleArrayPlotDataProvider latest = data.withXData(x_column.array)
+                                                           .withYData(y_column.array)
+                                                           .withErrorData(error_column.array);
+            if (latest == data)
+                return;
+            data = latest;
             trace.updateData(latest);
             plot.requestUpdate();
         }
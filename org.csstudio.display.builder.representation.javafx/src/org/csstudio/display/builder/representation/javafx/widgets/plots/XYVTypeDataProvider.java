@@ -7,14 +7,9 @@
  *******************************************************************************/
 package org.csstudio.display.builder.representation.javafx.widgets.plots;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-
-import org.csstudio.javafx.rtplot.data.InstrumentedReadWriteLock;
-import org.csstudio.javafx.rtplot.data.PlotDataItem;
-import org.csstudio.javafx.rtplot.data.PlotDataProvider;
-import org.csstudio.javafx.rtplot.data.SimpleDataItem;
+import org.csstudio.javafx.rtplot.data.DoubleArrayPlotDataProvider;
 import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.array.CollectionNumbers;
 import org.diirt.util.array.ListNumber;
 
 /** Data provider for RTPlot
@@ -33,60 +28,26 @@ import org.diirt.util.array.ListNumber;
  *  <li>One element per sample: Error bar for each sample
  *  </ul>
  *
+ *  <p>Waveforms that wrap a <code>double[]</code> are used as is,
+ *  other waveforms are converted once into a <code>double[]</code>.
+ *  The plot then reads the arrays without creating a sample object
+ *  for each array element.
+ *
  *  @author Kay Kasemir
  */
-public class XYVTypeDataProvider implements PlotDataProvider<Double>
+public class XYVTypeDataProvider extends DoubleArrayPlotDataProvider
 {
     public static final ListNumber EMPTY = new ArrayDouble(new double[0], true);
 
-    /** Sharing the _read_ half of just one lock.
-     *  Never using the _write_ half, since this class is immutable
-     */
-    private static final ReadWriteLock lock = new InstrumentedReadWriteLock();
-
-
-    private final PlotDataItem<Double>[] items;
-
     /** Set the plot's data
      *  @param x_data X data, may be <code>null</code>
      *  @param y_data Y data, may be <code>null</code>,
      *                but at least one of x or y data must be non-<code>null</code>
      *  @param error_data Error data
      */
-    @SuppressWarnings("unchecked")
-    public XYVTypeDataProvider(ListNumber x_data, ListNumber y_data, ListNumber error_data)
+    public XYVTypeDataProvider(final ListNumber x_data, final ListNumber y_data, final ListNumber error_data)
     {
-        // In principle, error_data should have 1 element or same size as X and Y..
-        if (error_data == null)
-            error_data = EMPTY;
-
-        // Could create each PlotDataItem lazily in get(),
-        // but create array of PlotDataItems right now because
-        // plot will likely iterate over the data elements at least once to plot value,
-        // maybe again to plot outline, find value at cursor etc.
-        final int size;
-        if (x_data == null)
-            size = y_data.size();
-        else if (y_data == null)
-            size = x_data.size();
-        else
-            size = Math.min(x_data.size(), y_data.size());
-
-        items = new PlotDataItem[size];
-        for (int index=0; index < size; ++index)
-        {
-            final double x = x_data == null ? index : x_data.getDouble(index);
-            final double y = y_data == null ? index : y_data.getDouble(index);
-
-            if (error_data.size() <= 0) // No error data
-                items[index] = new SimpleDataItem<Double>(x, y, Double.NaN, Double.NaN, Double.NaN, null);
-            else
-            {   // Use corresponding array element, or [0] for scalar error info
-                // (silently treating size(error) < size(Y) as a mix of error array and scalar)
-                final double error = (error_data.size() > index) ? error_data.getDouble(index) : error_data.getDouble(0);
-                items[index] = new SimpleDataItem<Double>(x, y, Double.NaN, y - error, y + error, null);
-            }
-        }
+        super(toArray(x_data), toArray(y_data), toArray(error_data));
     }
 
     public XYVTypeDataProvider()
@@ -94,27 +55,22 @@ public class XYVTypeDataProvider implements PlotDataProvider<Double>
         this(EMPTY, EMPTY, EMPTY);
     }
 
-    @Override
-    public Lock getLock()
-    {
-        return lock.readLock();
-    }
-
-    @Override
-    public int size()
-    {
-        return items.length;
-    }
-
-    @Override
-    public PlotDataItem<Double> get(final int index)
+    /** @param data Waveform data, may be <code>null</code>
+     *  @return <code>double[]</code> wrapped by the data or copy of the data,
+     *          <code>null</code> for <code>null</code> data
+     */
+    public static double[] toArray(final ListNumber data)
     {
-        return items[index];
-    }
+        if (data == null)
+            return null;
+        // Primitive array, or null if data only uses a section of an array
+        final Object wrapped = CollectionNumbers.wrappedArray(data);
+        if (wrapped instanceof double[])
+            return (double[]) wrapped;
 
-    @Override
-    public String toString()
-    {
-        return "XYVTypeDataProvider, " + items.length + " items, lock: " + lock.toString();
+        final double[] result = new double[data.size()];
+        for (int i=0; i<result.length; ++i)
+            result[i] = data.getDouble(i);
+        return result;
     }
 }
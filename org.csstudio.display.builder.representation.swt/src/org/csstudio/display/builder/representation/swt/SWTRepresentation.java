@@ -7,9 +7,14 @@
  *******************************************************************************/
 package org.csstudio.display.builder.representation.swt;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -39,6 +44,14 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 
 /** Represent model items in SWT toolkit
+ *
+ *  <p>Commands submitted from other threads, including the batches
+ *  of the representation update throttle, are queued and executed
+ *  by a single <code>asyncExec</code>.
+ *  While executing them, representations can suspend the redraw
+ *  of the composites that hold their controls,
+ *  so each composite redraws once after the complete batch.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -47,10 +60,32 @@ public class SWTRepresentation extends ToolkitRepresentation<Composite, Control>
     private static final String ACTIVE_MODEL = "_active_model";
     private final Display display;
 
+    private final SWTResources resources;
+
+    /** Commands to execute on the UI thread */
+    private final Queue<Runnable> queued = new ConcurrentLinkedQueue<>();
+
+    /** Has an <code>asyncExec</code> been submitted to execute the queued commands? */
+    private final AtomicBoolean execute_scheduled = new AtomicBoolean();
+
+    /** Composites with suspended redraw while executing queued commands,
+     *  <code>null</code> when not executing queued commands.
+     *
+     *  <p>Only accessed on UI thread
+     */
+    private Set<Composite> suspended = null;
+
     public SWTRepresentation(final Display display)
     {
         super(false); // Only supporting runtime, not edit mode
         this.display = display;
+        resources = new SWTResources(display);
+    }
+
+    /** @return Shared colors and fonts */
+    public SWTResources getResources()
+    {
+        return resources;
     }
 
     @Override
@@ -119,10 +154,71 @@ public class SWTRepresentation extends ToolkitRepresentation<Composite, Control>
         if (display.getThread() == Thread.currentThread())
             command.run();
         else
-            display.asyncExec(command);
+        {
+            queued.add(command);
+            // Coalesce: One asyncExec handles all commands queued until it runs
+            if (execute_scheduled.compareAndSet(false, true))
+                display.asyncExec(this::executeQueued);
+        }
+    }
+
+    /** Execute queued commands on UI thread */
+    private void executeQueued()
+    {
+        execute_scheduled.set(false);
+        // Nested call from a command's event loop uses the outer 'suspended'
+        final boolean outer = suspended == null;
+        if (outer)
+            suspended = new HashSet<>();
+        try
+        {
+            Runnable command;
+            while ((command = queued.poll()) != null)
+            {
+                try
+                {
+                    command.run();
+                }
+                catch (final Throwable ex)
+                {
+                    logger.log(Level.WARNING, "UI command failed", ex);
+                }
+            }
+        }
+        finally
+        {
+            if (outer)
+            {
+                for (Composite parent : suspended)
+                    if (! parent.isDisposed())
+                        parent.setRedraw(true);
+                suspended = null;
+            }
+        }
+    }
+
+    /** Suspend redraw of a control's parent until the current batch of commands has been executed
+     *
+     *  <p>To be called on the UI thread by representations
+     *  before they change a control.
+     *  Has no effect outside of queued commands.
+     *
+     *  @param control Control that is about to change
+     */
+    public void suspendRedraw(final Control control)
+    {
+        if (suspended == null)
+            return;
+        final Composite parent = control.getParent();
+        if (parent != null  &&  suspended.add(parent))
+            parent.setRedraw(false);
     }
 
-    /** Convert model color into JFX color
+    /** Convert model color into SWT color
+     *
+     *  <p>Caller must dispose the color.
+     *  {@link #getResources()} provides shared colors.
+     *
      *  @param color {@link WidgetColor}
      *  @return {@link Color}
      */
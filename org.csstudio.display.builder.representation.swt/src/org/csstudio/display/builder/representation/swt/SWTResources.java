@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.swt;
+
+import static org.csstudio.display.builder.representation.ToolkitRepresentation.logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import org.csstudio.display.builder.model.properties.WidgetColor;
+import org.csstudio.display.builder.model.properties.WidgetFont;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Resource;
+import org.eclipse.swt.widgets.Display;
+
+/** Reference-counted SWT {@link Color}s and {@link Font}s
+ *
+ *  <p>Representations that use the same color or font share
+ *  one SWT resource, which is disposed when the last user releases it.
+ *  Representations that update to a color or font which is already in use
+ *  thus neither allocate nor dispose SWT resources.
+ *
+ *  <p>Must only be called on the UI thread.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class SWTResources
+{
+    /** Resources of one type, by key */
+    private static class Pool<K, R extends Resource>
+    {
+        /** Resource and its reference count */
+        private static class Entry<T>
+        {
+            final T resource;
+            int references = 0;
+
+            Entry(final T resource)
+            {
+                this.resource = resource;
+            }
+        }
+
+        private final Function<K, R> create;
+        private final Map<K, Entry<R>> entries = new HashMap<>();
+        private final Map<R, K> keys = new IdentityHashMap<>();
+
+        Pool(final Function<K, R> create)
+        {
+            this.create = create;
+        }
+
+        R get(final K key)
+        {
+            Entry<R> entry = entries.get(key);
+            if (entry == null)
+            {
+                entry = new Entry<>(create.apply(key));
+                entries.put(key, entry);
+                keys.put(entry.resource, key);
+            }
+            ++entry.references;
+            return entry.resource;
+        }
+
+        boolean release(final R resource)
+        {
+            final K key = keys.get(resource);
+            if (key == null)
+                return false;
+            final Entry<R> entry = entries.get(key);
+            if (--entry.references <= 0)
+            {
+                entries.remove(key);
+                keys.remove(resource);
+                resource.dispose();
+            }
+            return true;
+        }
+
+        int size()
+        {
+            return entries.size();
+        }
+
+        void dispose()
+        {
+            final List<R> resources = new ArrayList<>(keys.keySet());
+            entries.clear();
+            keys.clear();
+            for (R resource : resources)
+                resource.dispose();
+        }
+    }
+
+    private final Display display;
+    private final Pool<RGB, Color> colors;
+    private final Pool<WidgetFont, Font> fonts;
+    private double font_calibration = Double.NaN;
+
+    /** @param display Display, resources are disposed with the display */
+    public SWTResources(final Display display)
+    {
+        this.display = display;
+        colors = new Pool<>(rgb -> new Color(display, rgb));
+        fonts = new Pool<>(this::createFont);
+        display.disposeExec(this::dispose);
+    }
+
+    private Font createFont(final WidgetFont font)
+    {
+        if (Double.isNaN(font_calibration))
+        {
+            try
+            {
+                font_calibration = new SWTFontCalibation().getCalibrationFactor();
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.WARNING, "Cannot calibrate SWT fonts", ex);
+                font_calibration = 1.0;
+            }
+        }
+        final int style;
+        switch (font.getStyle())
+        {
+        case BOLD:
+            style = SWT.BOLD;
+            break;
+        case ITALIC:
+            style = SWT.ITALIC;
+            break;
+        case BOLD_ITALIC:
+            style = SWT.BOLD | SWT.ITALIC;
+            break;
+        default:
+            style = SWT.NORMAL;
+        }
+        return new Font(display, font.getFamily(), (int) (font.getSize() * font_calibration + 0.5), style);
+    }
+
+    /** Obtain color
+     *
+     *  <p>Caller must {@link #release(Color)} the color when no longer used.
+     *
+     *  @param color {@link WidgetColor}
+     *  @return Shared {@link Color}
+     */
+    public Color getColor(final WidgetColor color)
+    {
+        return colors.get(new RGB(color.getRed(), color.getGreen(), color.getBlue()));
+    }
+
+    /** Obtain font
+     *
+     *  <p>Caller must {@link #release(Font)} the font when no longer used.
+     *
+     *  @param font {@link WidgetFont}
+     *  @return Shared {@link Font}
+     */
+    public Font getFont(final WidgetFont font)
+    {
+        return fonts.get(font);
+    }
+
+    /** @param color Color obtained via {@link #getColor(WidgetColor)}, may be <code>null</code> */
+    public void release(final Color color)
+    {
+        if (color != null  &&  ! colors.release(color))
+            logger.log(Level.WARNING, "Cannot release unknown " + color);
+    }
+
+    /** @param font Font obtained via {@link #getFont(WidgetFont)}, may be <code>null</code> */
+    public void release(final Font font)
+    {
+        if (font != null  &&  ! fonts.release(font))
+            logger.log(Level.WARNING, "Cannot release unknown " + font);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SWTResources: " + colors.size() + " colors, " + fonts.size() + " fonts";
+    }
+
+    /** Dispose all resources */
+    private void dispose()
+    {
+        colors.dispose();
+        fonts.dispose();
+    }
+}
@@ -11,7 +11,6 @@ import org.csstudio.display.builder.model.DirtyFlag;
 import org.csstudio.display.builder.model.WidgetProperty;
 import org.csstudio.display.builder.model.util.VTypeUtil;
 import org.csstudio.display.builder.model.widgets.LEDWidget;
-import org.csstudio.display.builder.representation.swt.SWTRepresentation;
 import org.diirt.vtype.VType;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.PaintEvent;
@@ -31,6 +30,9 @@ public class LEDRepresentation extends SWTBaseRepresentation<Canvas, LEDWidget>
     private volatile Color[] colors = new Color[0];
     private volatile Color value_color;
 
+    /** Color of the last redraw, only accessed on UI thread */
+    private Color painted_color = null;
+
     @Override
     protected Canvas createSWTControl(final Composite parent) throws Exception
     {
@@ -43,7 +45,7 @@ public class LEDRepresentation extends SWTBaseRepresentation<Canvas, LEDWidget>
         canvas.addDisposeListener((e) ->
         {
             for (final Color color : colors)
-                color.dispose();
+                getResources().release(color);
         });
         return canvas;
     }
@@ -52,8 +54,8 @@ public class LEDRepresentation extends SWTBaseRepresentation<Canvas, LEDWidget>
     {
         colors = new Color[]
         {
-            ((SWTRepresentation)toolkit).convert(model_widget.propOffColor().getValue()),
-            ((SWTRepresentation)toolkit).convert(model_widget.propOnColor().getValue())
+            getResources().getColor(model_widget.propOffColor().getValue()),
+            getResources().getColor(model_widget.propOnColor().getValue())
         };
         value_color = colors[0];
     }
@@ -90,7 +92,10 @@ public class LEDRepresentation extends SWTBaseRepresentation<Canvas, LEDWidget>
     public void updateChanges()
     {
         super.updateChanges();
-        if (dirty_content.checkAndClear())
+        if (dirty_content.checkAndClear()  &&  value_color != painted_color)
+        {
+            painted_color = value_color;
             control.redraw();
+        }
     }
 }
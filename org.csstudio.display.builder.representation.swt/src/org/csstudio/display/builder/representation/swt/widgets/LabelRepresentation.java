@@ -19,6 +19,7 @@ import org.eclipse.swt.widgets.Label;
  */
 public class LabelRepresentation extends SWTBaseRepresentation<Label, LabelWidget>
 {
+    private final DirtyFlag dirty_style = new DirtyFlag();
     private final DirtyFlag dirty_content = new DirtyFlag();
 
     @Override
@@ -31,9 +32,19 @@ public class LabelRepresentation extends SWTBaseRepresentation<Label, LabelWidge
     protected void registerListeners()
     {
         super.registerListeners();
+        model_widget.propForegroundColor().addUntypedPropertyListener(this::styleChanged);
+        model_widget.propBackgroundColor().addUntypedPropertyListener(this::styleChanged);
+        model_widget.propTransparent().addUntypedPropertyListener(this::styleChanged);
+        model_widget.propFont().addUntypedPropertyListener(this::styleChanged);
         model_widget.propText().addUntypedPropertyListener(this::contentChanged);
     }
 
+    private void styleChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
+    {
+        dirty_style.mark();
+        toolkit.scheduleUpdate(this);
+    }
+
     private void contentChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
         dirty_content.mark();
@@ -44,7 +55,22 @@ public class LabelRepresentation extends SWTBaseRepresentation<Label, LabelWidge
     public void updateChanges()
     {
         super.updateChanges();
+        if (dirty_style.checkAndClear())
+        {
+            setForeground(model_widget.propForegroundColor().getValue());
+            setBackground(model_widget.propTransparent().getValue()
+                          ? null
+                          : model_widget.propBackgroundColor().getValue());
+            setFont(model_widget.propFont().getValue());
+        }
         if (dirty_content.checkAndClear())
-            control.setText(model_widget.propText().getValue());
+        {
+            final String text = model_widget.propText().getValue();
+            if (! text.equals(control.getText()))
+            {
+                suspendRedraw();
+                control.setText(text);
+            }
+        }
     }
 }
@@ -10,10 +10,17 @@ package org.csstudio.display.builder.representation.swt.widgets;
 import org.csstudio.display.builder.model.DirtyFlag;
 import org.csstudio.display.builder.model.Widget;
 import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.properties.WidgetColor;
+import org.csstudio.display.builder.model.properties.WidgetFont;
 import org.csstudio.display.builder.representation.WidgetRepresentation;
+import org.csstudio.display.builder.representation.swt.SWTRepresentation;
+import org.csstudio.display.builder.representation.swt.SWTResources;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.MouseAdapter;
 import org.eclipse.swt.events.MouseEvent;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 
@@ -28,6 +35,12 @@ abstract public class SWTBaseRepresentation<W extends Control, MW extends Widget
 
     private final DirtyFlag dirty_position = new DirtyFlag();
 
+    /** Colors and font set via {@link #setForeground(WidgetColor)} etc.,
+     *  obtained from {@link SWTResources}
+     */
+    private Color foreground = null, background = null;
+    private Font font = null;
+
     /** {@inheritDoc} */
     @Override
     final public Composite createComponents(final Composite parent) throws Exception
@@ -60,6 +73,78 @@ abstract public class SWTBaseRepresentation<W extends Control, MW extends Widget
     public void dispose()
     {
         control.dispose();
+        final SWTResources resources = getResources();
+        resources.release(foreground);
+        resources.release(background);
+        resources.release(font);
+        foreground = background = null;
+        font = null;
+    }
+
+    /** @return Shared colors and fonts */
+    protected SWTResources getResources()
+    {
+        return ((SWTRepresentation) toolkit).getResources();
+    }
+
+    /** Suspend redraw of the control's parent for the current batch of updates
+     *
+     *  <p>To be called before changing the control
+     */
+    protected void suspendRedraw()
+    {
+        ((SWTRepresentation) toolkit).suspendRedraw(control);
+    }
+
+    /** Set foreground color of the control, unless it's unchanged
+     *  @param color Color, <code>null</code> for default
+     */
+    protected void setForeground(final WidgetColor color)
+    {
+        final Color swt_color = color == null ? null : getResources().getColor(color);
+        if (swt_color != foreground)
+        {
+            suspendRedraw();
+            control.setForeground(swt_color);
+            getResources().release(foreground);
+            foreground = swt_color;
+        }
+        else // Already using that color
+            getResources().release(swt_color);
+    }
+
+    /** Set background color of the control, unless it's unchanged
+     *  @param color Color, <code>null</code> for default
+     */
+    protected void setBackground(final WidgetColor color)
+    {
+        final Color swt_color = color == null ? null : getResources().getColor(color);
+        if (swt_color != background)
+        {
+            suspendRedraw();
+            control.setBackground(swt_color);
+            getResources().release(background);
+            background = swt_color;
+        }
+        else
+            getResources().release(swt_color);
+    }
+
+    /** Set font of the control, unless it's unchanged
+     *  @param widget_font Font
+     */
+    protected void setFont(final WidgetFont widget_font)
+    {
+        final Font swt_font = getResources().getFont(widget_font);
+        if (swt_font != font)
+        {
+            suspendRedraw();
+            control.setFont(swt_font);
+            getResources().release(font);
+            font = swt_font;
+        }
+        else
+            getResources().release(swt_font);
     }
 
     /** Get parent that would be used for child-widgets.
@@ -101,9 +186,16 @@ abstract public class SWTBaseRepresentation<W extends Control, MW extends Widget
     public void updateChanges()
     {
         if (dirty_position.checkAndClear())
-            control.setBounds(model_widget.propX().getValue(),
-                              model_widget.propY().getValue(),
-                              model_widget.propWidth().getValue(),
-                              model_widget.propHeight().getValue());
+        {
+            final Rectangle bounds = new Rectangle(model_widget.propX().getValue(),
+                                                   model_widget.propY().getValue(),
+                                                   model_widget.propWidth().getValue(),
+                                                   model_widget.propHeight().getValue());
+            if (! bounds.equals(control.getBounds()))
+            {
+                suspendRedraw();
+                control.setBounds(bounds);
+            }
+        }
     }
 }
@@ -22,6 +22,7 @@ import org.eclipse.swt.widgets.Label;
 @SuppressWarnings("nls")
 public class TextUpdateRepresentation extends SWTBaseRepresentation<Label, TextUpdateWidget>
 {
+    private final DirtyFlag dirty_style = new DirtyFlag();
     private final DirtyFlag dirty_content = new DirtyFlag();
     private volatile String value_text = "<?>";
 
@@ -35,9 +36,19 @@ public class TextUpdateRepresentation extends SWTBaseRepresentation<Label, TextU
     protected void registerListeners()
     {
         super.registerListeners();
+        model_widget.propForegroundColor().addUntypedPropertyListener(this::styleChanged);
+        model_widget.propBackgroundColor().addUntypedPropertyListener(this::styleChanged);
+        model_widget.propTransparent().addUntypedPropertyListener(this::styleChanged);
+        model_widget.propFont().addUntypedPropertyListener(this::styleChanged);
         model_widget.runtimePropValue().addPropertyListener(this::contentChanged);
     }
 
+    private void styleChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
+    {
+        dirty_style.mark();
+        toolkit.scheduleUpdate(this);
+    }
+
     private void contentChanged(final WidgetProperty<VType> property, final VType old_value, final VType new_value)
     {
         value_text = VTypeUtil.getValueString(new_value, true);
@@ -49,7 +60,22 @@ public class TextUpdateRepresentation extends SWTBaseRepresentation<Label, TextU
     public void updateChanges()
     {
         super.updateChanges();
+        if (dirty_style.checkAndClear())
+        {
+            setForeground(model_widget.propForegroundColor().getValue());
+            setBackground(model_widget.propTransparent().getValue()
+                          ? null
+                          : model_widget.propBackgroundColor().getValue());
+            setFont(model_widget.propFont().getValue());
+        }
         if (dirty_content.checkAndClear())
-            control.setText(value_text);
+        {
+            final String text = value_text;
+            if (! text.equals(control.getText()))
+            {
+                suspendRedraw();
+                control.setText(text);
+            }
+        }
     }
 }
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.test;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.widgets.ByteMonitorWidget;
+import org.csstudio.display.builder.representation.javafx.JFXRepresentation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/** JUnit test of the scene graph size of byte monitors
+ *
+ *  <p>Byte monitors draw all LEDs and labels onto one canvas,
+ *  so the number of nodes does not grow with the number of bits.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ByteMonitorNodeCountTest
+{
+    private static final int WIDGETS = 500, BITS = 32;
+
+    @BeforeClass
+    public static void initializeToolkit()
+    {
+        // Starts the JFX toolkit
+        new JFXPanel();
+    }
+
+    /** @param test Test code to run on UI thread
+     *  @throws Throwable on error
+     */
+    private static void runOnUIThread(final Callable<?> test) throws Throwable
+    {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.runLater(() ->
+        {
+            try
+            {
+                test.call();
+                done.complete(null);
+            }
+            catch (Throwable ex)
+            {
+                done.completeExceptionally(ex);
+            }
+        });
+        try
+        {
+            done.get();
+        }
+        catch (ExecutionException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    private static DisplayModel createModel(final int widgets)
+    {
+        final DisplayModel model = new DisplayModel();
+        for (int w=0; w<widgets; ++w)
+        {
+            final ByteMonitorWidget widget = new ByteMonitorWidget();
+            widget.propX().setValue((w % 3) * (BITS*12 + 10));
+            widget.propY().setValue((w / 3) * 50);
+            widget.propWidth().setValue(BITS*12);
+            widget.propHeight().setValue(12);
+            widget.propNumBits().setValue(BITS);
+            for (int i=0; i<BITS; ++i)
+                widget.propLabels().addElement().setValue("Bit " + i);
+            model.runtimeChildren().addChild(widget);
+        }
+        return model;
+    }
+
+    /** @param widgets Number of byte monitors to represent
+     *  @return Number of nodes in the scene graph of the represented model
+     *  @throws Exception on error
+     */
+    private static int countRepresentedNodes(final int widgets) throws Exception
+    {
+        final JFXRepresentation toolkit = new JFXRepresentation(false);
+        toolkit.createModelRoot();
+        final Parent parent = toolkit.getModelParent();
+        final DisplayModel model = createModel(widgets);
+        toolkit.representModel(parent, model);
+        final int count = countNodes(parent);
+        toolkit.disposeRepresentation(model);
+        return count;
+    }
+
+    private static int countNodes(final Node node)
+    {
+        int count = 1;
+        if (node instanceof Parent)
+            for (Node child : ((Parent) node).getChildrenUnmodifiable())
+                count += countNodes(child);
+        return count;
+    }
+
+    @Test
+    public void testNodeCount() throws Throwable
+    {
+        runOnUIThread(() ->
+        {
+            final int empty = countRepresentedNodes(0);
+            final int nodes = countRepresentedNodes(WIDGETS) - empty;
+            System.out.println(WIDGETS + " byte monitors with " + BITS + " bits use " + nodes + " nodes");
+            // Representing each bit by a shape and a label
+            // would have used 1 + 2*BITS nodes per widget
+            assertTrue(nodes >= WIDGETS);
+            assertTrue(nodes <= 2 * WIDGETS);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.csstudio.display.builder.representation.javafx.widgets.GaugeCanvasSkin;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import eu.hansolo.medusa.Gauge;
+import eu.hansolo.medusa.GaugeBuilder;
+import eu.hansolo.medusa.Section;
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+/** JUnit test of the {@link GaugeCanvasSkin}
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class GaugeCanvasSkinTest
+{
+    @BeforeClass
+    public static void initializeToolkit()
+    {
+        // Starts the JFX toolkit
+        new JFXPanel();
+    }
+
+    /** @param test Test code to run on UI thread
+     *  @throws Throwable on error
+     */
+    private static void runOnUIThread(final Callable<?> test) throws Throwable
+    {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.runLater(() ->
+        {
+            try
+            {
+                test.call();
+                done.complete(null);
+            }
+            catch (Throwable ex)
+            {
+                done.completeExceptionally(ex);
+            }
+        });
+        try
+        {
+            done.get();
+        }
+        catch (ExecutionException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    /** @return Gauge with sections, placed in a scene */
+    private static Gauge createGauge()
+    {
+        final Gauge gauge = GaugeBuilder.create().skinType(Gauge.SkinType.GAUGE).build();
+        gauge.setMinValue(0.0);
+        gauge.setMaxValue(100.0);
+        gauge.setMajorTickSpace(10.0);
+        gauge.setMinorTickSpace(2.0);
+        gauge.setSections(new Section(0.0, 10.0, Color.RED),
+                          new Section(90.0, 100.0, Color.RED));
+        gauge.setSectionsVisible(true);
+        gauge.setAnimated(false);
+        gauge.setPrefSize(200, 200);
+        gauge.resize(200, 200);
+        new Scene(new Pane(gauge));
+        return gauge;
+    }
+
+    private static int countNodes(final Node node)
+    {
+        int count = 1;
+        if (node instanceof Parent)
+            for (Node child : ((Parent) node).getChildrenUnmodifiable())
+                count += countNodes(child);
+        return count;
+    }
+
+    /** @param gauge Gauge to lay out and draw
+     *  @return Image of gauge
+     */
+    private static Image draw(final Gauge gauge)
+    {
+        gauge.applyCss();
+        gauge.requestLayout();
+        gauge.layout();
+        return gauge.snapshot(null, null);
+    }
+
+    private static boolean isSame(final Image a, final Image b)
+    {
+        if (a.getWidth() != b.getWidth()  ||  a.getHeight() != b.getHeight())
+            return false;
+        final PixelReader pa = a.getPixelReader(), pb = b.getPixelReader();
+        for (int y=0; y<(int) a.getHeight(); ++y)
+            for (int x=0; x<(int) a.getWidth(); ++x)
+                if (pa.getArgb(x, y) != pb.getArgb(x, y))
+                    return false;
+        return true;
+    }
+
+    @Test
+    public void testNodeCount() throws Throwable
+    {
+        runOnUIThread(() ->
+        {
+            final Gauge gauge = createGauge();
+            draw(gauge);
+            final int medusa = countNodes(gauge);
+
+            gauge.setSkin(new GaugeCanvasSkin(gauge, GaugeCanvasSkin.Type.NEEDLE));
+            draw(gauge);
+            final int canvas = countNodes(gauge);
+
+            System.out.println("Medusa gauge skin uses " + medusa + " nodes, canvas skin uses " + canvas);
+            // Gauge with one canvas for the scale and one for the value
+            assertThat(canvas, equalTo(3));
+            assertTrue(medusa > canvas);
+            return null;
+        });
+    }
+
+    @Test
+    public void testValueUpdate() throws Throwable
+    {
+        for (GaugeCanvasSkin.Type type : GaugeCanvasSkin.Type.values())
+            runOnUIThread(() ->
+            {
+                final Gauge gauge = createGauge();
+                gauge.setSkin(new GaugeCanvasSkin(gauge, type));
+                gauge.setValue(20.0);
+                final Image low = draw(gauge);
+                assertTrue(isSame(low, draw(gauge)));
+
+                // New value changes the drawing ..
+                gauge.setValue(80.0);
+                final Image high = draw(gauge);
+                assertTrue(type + " did not redraw the value", ! isSame(low, high));
+
+                // .. and returning to the original value restores it
+                gauge.setValue(20.0);
+                assertTrue(type + " did not restore the value", isSame(low, draw(gauge)));
+                return null;
+            });
+    }
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.javafx.ImageCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/** JUnit test of the {@link ImageCache}
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ImageCacheTest
+{
+    /** Images used in test are 100x100 pixels of 4 bytes */
+    private static final long IMAGE_BYTES = 4L * 100 * 100;
+
+    @BeforeClass
+    public static void initializeToolkit()
+    {
+        // Starts the JFX toolkit
+        new JFXPanel();
+    }
+
+    @Before
+    public void clearCache()
+    {
+        ImageCache.clear();
+        ImageCache.resetStatistics();
+    }
+
+    @After
+    public void restoreCache()
+    {
+        ImageCache.clear();
+        ImageCache.resetStatistics();
+        ImageCache.setMaxBytes(ImageCache.DEFAULT_MAX_BYTES);
+    }
+
+    private static Image createImage()
+    {
+        return new WritableImage(100, 100);
+    }
+
+    @Test
+    public void testEviction()
+    {
+        ImageCache.setMaxBytes(3 * IMAGE_BYTES);
+
+        final Image a = createImage(), b = createImage(), c = createImage(), d = createImage();
+        ImageCache.put("a", a);
+        ImageCache.put("b", b);
+        ImageCache.put("c", c);
+        assertThat(ImageCache.size(), equalTo(3));
+        assertThat(ImageCache.getBytes(), equalTo(3 * IMAGE_BYTES));
+        assertThat(ImageCache.getEvictions(), equalTo(0L));
+
+        // Using 'a' makes 'b' the least recently used image,
+        // which is evicted when 'd' exceeds the budget
+        assertThat(ImageCache.get("a"), sameInstance(a));
+        ImageCache.put("d", d);
+        assertThat(ImageCache.size(), equalTo(3));
+        assertThat(ImageCache.getBytes(), equalTo(3 * IMAGE_BYTES));
+        assertThat(ImageCache.getEvictions(), equalTo(1L));
+        assertThat(ImageCache.get("b"), nullValue());
+        assertThat(ImageCache.get("a"), sameInstance(a));
+        assertThat(ImageCache.get("c"), sameInstance(c));
+        assertThat(ImageCache.get("d"), sameInstance(d));
+
+        // Replacing an image does not count its old bytes twice
+        ImageCache.put("d", createImage());
+        assertThat(ImageCache.size(), equalTo(3));
+        assertThat(ImageCache.getBytes(), equalTo(3 * IMAGE_BYTES));
+        assertThat(ImageCache.getEvictions(), equalTo(1L));
+
+        // Lowering the budget evicts least recently used images: 'a', then 'c'
+        ImageCache.setMaxBytes(IMAGE_BYTES);
+        assertThat(ImageCache.size(), equalTo(1));
+        assertThat(ImageCache.getBytes(), equalTo(IMAGE_BYTES));
+        assertThat(ImageCache.getEvictions(), equalTo(3L));
+        assertThat(ImageCache.get("a"), nullValue());
+        assertThat(ImageCache.get("c"), nullValue());
+
+        // Image that exceeds the whole budget is not cached,
+        // and does not evict the other images
+        ImageCache.put("large", new WritableImage(200, 200));
+        assertThat(ImageCache.get("large"), nullValue());
+        assertThat(ImageCache.size(), equalTo(1));
+        assertThat(ImageCache.getEvictions(), equalTo(3L));
+
+        System.out.println(ImageCache.getStatistics());
+    }
+
+    @Test
+    public void testConcurrentLoads() throws Exception
+    {
+        final CountDownLatch loading = new CountDownLatch(1), proceed = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final Image image = createImage();
+
+        final CompletableFuture<Image> first = ImageCache.load("img", () ->
+        {
+            loads.incrementAndGet();
+            loading.countDown();
+            proceed.await();
+            return image;
+        });
+        assertThat(loading.await(10, TimeUnit.SECONDS), equalTo(true));
+
+        // While the first load is in progress,
+        // a second request for the same image shares it
+        final CompletableFuture<Image> second = ImageCache.load("img", () ->
+        {
+            loads.incrementAndGet();
+            return createImage();
+        });
+        assertThat(second, sameInstance(first));
+        assertThat(first.isDone(), equalTo(false));
+
+        proceed.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS), sameInstance(image));
+        assertThat(second.get(10, TimeUnit.SECONDS), sameInstance(image));
+        assertThat(loads.get(), equalTo(1));
+
+        // Once loaded, the image is served from the cache
+        assertThat(ImageCache.getOrLoad("img", () ->
+        {
+            loads.incrementAndGet();
+            return createImage();
+        }), sameInstance(image));
+        assertThat(loads.get(), equalTo(1));
+        assertThat(ImageCache.size(), equalTo(1));
+    }
+
+    @Test
+    public void testFailedLoad() throws Exception
+    {
+        try
+        {
+            ImageCache.getOrLoad("bad", () ->
+            {
+                throw new Exception("Cannot load");
+            });
+            fail("Expected exception");
+        }
+        catch (Exception ex)
+        {
+            assertThat(ex.getMessage(), equalTo("Cannot load"));
+        }
+        assertThat(ImageCache.size(), equalTo(0));
+
+        // Failed load is not remembered, next request tries again
+        final Image image = createImage();
+        assertThat(ImageCache.getOrLoad("bad", () -> image), sameInstance(image));
+        assertThat(ImageCache.get("bad"), sameInstance(image));
+    }
+
+    @Test
+    public void testStatistics() throws Exception
+    {
+        assertThat(ImageCache.get("img"), nullValue());
+        assertThat(ImageCache.getHits(), equalTo(0L));
+        assertThat(ImageCache.getMisses(), equalTo(1L));
+
+        ImageCache.put("img", createImage());
+        ImageCache.get("img");
+        ImageCache.get("img");
+        assertThat(ImageCache.getHits(), equalTo(2L));
+        assertThat(ImageCache.getMisses(), equalTo(1L));
+
+        // Loading checks the cache first
+        ImageCache.getOrLoad("img", () -> createImage());
+        ImageCache.getOrLoad("other", () -> createImage());
+        assertThat(ImageCache.getHits(), equalTo(3L));
+        assertThat(ImageCache.getMisses(), equalTo(2L));
+        assertThat(ImageCache.getEvictions(), equalTo(0L));
+
+        System.out.println(ImageCache.getStatistics());
+
+        ImageCache.resetStatistics();
+        assertThat(ImageCache.getHits(), equalTo(0L));
+        assertThat(ImageCache.getMisses(), equalTo(0L));
+        assertThat(ImageCache.getEvictions(), equalTo(0L));
+        // Resetting the statistics does not clear the cache
+        assertThat(ImageCache.size(), equalTo(2));
+    }
+}
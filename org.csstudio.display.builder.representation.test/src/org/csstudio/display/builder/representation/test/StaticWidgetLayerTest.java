@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.widgets.ActionButtonWidget;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.RectangleWidget;
+import org.csstudio.display.builder.representation.javafx.StaticWidgetLayer;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.transform.Scale;
+
+/** JUnit test of the {@link StaticWidgetLayer}
+ *
+ *  <p>Compares the pixels of the flattened layer
+ *  with the rendering of the original nodes.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class StaticWidgetLayerTest
+{
+    /** Maximum difference of each color component.
+     *  Anti-aliased edges may differ by rounding
+     *  when the image is blended onto the background.
+     */
+    private static final int TOLERANCE = 4;
+
+    @BeforeClass
+    public static void initializeToolkit()
+    {
+        // Starts the JFX toolkit
+        new JFXPanel();
+    }
+
+    /** Run test on UI thread
+     *  @param test Test code
+     *  @throws Throwable on error
+     */
+    private static void runOnUIThread(final Runnable test) throws Throwable
+    {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.runLater(() ->
+        {
+            try
+            {
+                test.run();
+                done.complete(null);
+            }
+            catch (Throwable ex)
+            {
+                done.completeExceptionally(ex);
+            }
+        });
+        try
+        {
+            done.get();
+        }
+        catch (ExecutionException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    /** @return Pane with nodes similar to those of static widgets, at odd positions */
+    private static Pane createNodes()
+    {
+        final Pane pane = new Pane();
+
+        final Rectangle rect = new Rectangle(80.5, 30.25);
+        rect.relocate(10.5, 12.25);
+        rect.setFill(Color.CORNFLOWERBLUE);
+        rect.setStroke(Color.BLACK);
+        rect.setStrokeWidth(2.345);
+
+        final Ellipse ellipse = new Ellipse(120.3, 40.7, 25.1, 15.6);
+        ellipse.setFill(Color.rgb(255, 0, 0, 0.5));
+        ellipse.setStroke(Color.DARKRED);
+
+        final Label label = new Label("Static Label");
+        label.setFont(Font.font(14));
+        label.relocate(20, 60);
+        label.setPrefSize(120, 25);
+        label.setStyle("-fx-background-color: lightyellow; -fx-border-color: gray;");
+
+        final Polyline line = new Polyline(5.0, 100.0, 60.5, 130.2, 110.0, 95.7, 150.3, 140.1);
+        line.setStroke(Color.GREEN);
+        line.setStrokeWidth(3);
+
+        pane.getChildren().addAll(rect, ellipse, label, line);
+        return pane;
+    }
+
+    private static Image snapshot(final Scene scene)
+    {
+        return scene.snapshot(null);
+    }
+
+    private static void assertSameImage(final Image expected, final Image actual)
+    {
+        assertThat(actual.getWidth(), equalTo(expected.getWidth()));
+        assertThat(actual.getHeight(), equalTo(expected.getHeight()));
+        final PixelReader exp = expected.getPixelReader(), act = actual.getPixelReader();
+        final int width = (int) expected.getWidth(), height = (int) expected.getHeight();
+        for (int y=0; y<height; ++y)
+            for (int x=0; x<width; ++x)
+            {
+                final int e = exp.getArgb(x, y), a = act.getArgb(x, y);
+                for (int shift=0; shift<32; shift+=8)
+                {
+                    final int diff = Math.abs(((e >> shift) & 0xFF) - ((a >> shift) & 0xFF));
+                    assertTrue(String.format("Pixel %d, %d differs: %08X vs. %08X", x, y, e, a),
+                               diff <= TOLERANCE);
+                }
+            }
+    }
+
+    @Test
+    public void testPixels() throws Throwable
+    {
+        runOnUIThread(() ->
+        {
+            final Pane pane = createNodes();
+            final Scene scene = new Scene(pane, 200, 160);
+            final Image expected = snapshot(scene);
+
+            final List<Node> nodes = new ArrayList<>(pane.getChildren());
+            final StaticWidgetLayer layer = new StaticWidgetLayer(pane, nodes);
+            assertThat(pane.getChildren().size(), equalTo(1));
+            assertThat(pane.getChildren().get(0), equalTo(layer.getImageView()));
+            assertSameImage(expected, snapshot(scene));
+
+            layer.dispose();
+            assertThat(pane.getChildren(), equalTo(nodes));
+            assertSameImage(expected, snapshot(scene));
+        });
+    }
+
+    @Test
+    public void testPartialRun() throws Throwable
+    {
+        runOnUIThread(() ->
+        {
+            // Button before and after the static nodes remains in place
+            final Pane pane = createNodes();
+            final List<Node> nodes = new ArrayList<>(pane.getChildren());
+            final Button before = new Button("Before"), after = new Button("After");
+            before.relocate(150, 5);
+            after.relocate(150, 120);
+            pane.getChildren().add(0, before);
+            pane.getChildren().add(after);
+            final Scene scene = new Scene(pane, 220, 160);
+            final Image expected = snapshot(scene);
+
+            final StaticWidgetLayer layer = new StaticWidgetLayer(pane, nodes);
+            assertThat(pane.getChildren().size(), equalTo(3));
+            assertThat(pane.getChildren().get(0), equalTo(before));
+            assertThat(pane.getChildren().get(1), equalTo(layer.getImageView()));
+            assertThat(pane.getChildren().get(2), equalTo(after));
+            assertSameImage(expected, snapshot(scene));
+        });
+    }
+
+    @Test
+    public void testZoom() throws Throwable
+    {
+        final Pane root = new Pane();
+        final Pane pane = createNodes();
+        final List<Node> nodes = new ArrayList<>(pane.getChildren());
+        final List<StaticWidgetLayer> layer = new ArrayList<>();
+        final List<Scene> scene = new ArrayList<>();
+        runOnUIThread(() ->
+        {
+            root.getChildren().add(pane);
+            scene.add(new Scene(root, 400, 320));
+            layer.add(new StaticWidgetLayer(pane, nodes));
+            // Zoom in, which schedules rendering the image again
+            pane.getTransforms().setAll(new Scale(2.0, 2.0));
+        });
+
+        runOnUIThread(() ->
+        {
+            // Image now has twice the resolution
+            final Image image = layer.get(0).getImageView().getImage();
+            assertThat(image.getWidth(), equalTo(2.0 * layer.get(0).getImageView().getFitWidth()));
+
+            // Compare with zoomed original nodes
+            final Pane orig_root = new Pane();
+            final Pane orig = createNodes();
+            orig.getTransforms().setAll(new Scale(2.0, 2.0));
+            orig_root.getChildren().add(orig);
+            final Image expected = snapshot(new Scene(orig_root, 400, 320));
+            assertSameImage(expected, snapshot(scene.get(0)));
+        });
+    }
+
+    @Test
+    public void testLargeImage() throws Throwable
+    {
+        final Pane root = new Pane();
+        final Pane pane = createNodes();
+        final List<Node> nodes = new ArrayList<>(pane.getChildren());
+        final List<StaticWidgetLayer> layer = new ArrayList<>();
+        // Embedded displays update the factors of their Scale
+        final Scale zoom = new Scale();
+        runOnUIThread(() ->
+        {
+            root.getChildren().add(pane);
+            new Scene(root, 400, 320);
+            pane.getTransforms().add(zoom);
+            layer.add(new StaticWidgetLayer(pane, nodes));
+            assertThat(pane.getChildren().get(0), equalTo(layer.get(0).getImageView()));
+            // Zoom in so far that the image would be too large
+            zoom.setX(40.0);
+            zoom.setY(40.0);
+        });
+
+        runOnUIThread(() ->
+        {
+            // Original nodes are shown
+            assertThat(pane.getChildren().size(), equalTo(1));
+            assertThat(pane.getChildren().contains(layer.get(0).getImageView()), equalTo(false));
+            assertThat(((Parent) pane.getChildren().get(0)).getChildrenUnmodifiable(), equalTo(nodes));
+            // Zoom out again
+            zoom.setX(2.0);
+            zoom.setY(2.0);
+        });
+
+        runOnUIThread(() ->
+        {
+            // Image is shown again
+            assertThat(pane.getChildren().get(0), equalTo(layer.get(0).getImageView()));
+            final Image image = layer.get(0).getImageView().getImage();
+            assertThat(image.getWidth(), equalTo(2.0 * layer.get(0).getImageView().getFitWidth()));
+
+            layer.get(0).dispose();
+            assertThat(pane.getChildren(), equalTo(nodes));
+        });
+    }
+
+    @Test
+    public void testStaticWidgets()
+    {
+        final LabelWidget label = new LabelWidget();
+        assertThat(StaticWidgetLayer.isStatic(label), equalTo(true));
+        label.propTooltip().setValue("Info");
+        assertThat(StaticWidgetLayer.isStatic(label), equalTo(false));
+
+        final GroupWidget group = new GroupWidget();
+        group.runtimeChildren().addChild(new RectangleWidget());
+        assertThat(StaticWidgetLayer.isStatic(group), equalTo(true));
+        group.runtimeChildren().addChild(new ActionButtonWidget());
+        assertThat(StaticWidgetLayer.isStatic(group), equalTo(false));
+
+        assertThat(StaticWidgetLayer.isStatic(new DisplayModel()), equalTo(false));
+    }
+}
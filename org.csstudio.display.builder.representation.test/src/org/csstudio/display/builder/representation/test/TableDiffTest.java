@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.csstudio.javafx.StringTable;
+import org.csstudio.javafx.TableHelper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+
+/** JUnit test of the table data updates
+ *
+ *  <p>Checks that only changed rows of the data
+ *  are passed on to the cells of the table.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class TableDiffTest
+{
+    private static final int ROWS = 10000, COLS = 20;
+
+    /** Row that remembers if its cells were read */
+    private static class CheckedRow extends AbstractList<String>
+    {
+        private final List<String> cells;
+        volatile boolean read = false;
+
+        CheckedRow(final List<String> cells)
+        {
+            this.cells = cells;
+        }
+
+        @Override
+        public String get(final int index)
+        {
+            read = true;
+            return cells.get(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return cells.size();
+        }
+    }
+
+    @BeforeClass
+    public static void initializeToolkit()
+    {
+        // Starts the JFX toolkit
+        new JFXPanel();
+    }
+
+    /** @param test Test code to run on UI thread
+     *  @throws Throwable on error
+     */
+    private static void runOnUIThread(final Runnable test) throws Throwable
+    {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.runLater(() ->
+        {
+            try
+            {
+                test.run();
+                done.complete(null);
+            }
+            catch (Throwable ex)
+            {
+                done.completeExceptionally(ex);
+            }
+        });
+        try
+        {
+            done.get();
+        }
+        catch (ExecutionException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    private static List<String> createHeaders()
+    {
+        final List<String> headers = new ArrayList<>(COLS);
+        for (int c=0; c<COLS; ++c)
+            headers.add("Col " + c);
+        return headers;
+    }
+
+    /** @return New data, same text but new instances for each call */
+    private static List<List<String>> createData()
+    {
+        final List<List<String>> data = new ArrayList<>(ROWS);
+        for (int r=0; r<ROWS; ++r)
+        {
+            final List<String> row = new ArrayList<>(COLS);
+            for (int c=0; c<COLS; ++c)
+                row.add(r + "/" + c);
+            data.add(new CheckedRow(row));
+        }
+        return data;
+    }
+
+    private static int countReadRows(final List<List<String>> data)
+    {
+        int read = 0;
+        for (List<String> row : data)
+            if (row instanceof CheckedRow  &&  ((CheckedRow) row).read)
+                ++read;
+        return read;
+    }
+
+    private static void clearRead(final List<List<String>> data)
+    {
+        for (List<String> row : data)
+            if (row instanceof CheckedRow)
+                ((CheckedRow) row).read = false;
+    }
+
+    @Test
+    public void testReuseUnchangedRows() throws Exception
+    {
+        final List<List<String>> previous = createData();
+
+        // Same text, but new String instances, and one changed cell
+        List<List<String>> update = createData();
+        final List<String> changed = new ArrayList<>(update.get(4711));
+        changed.set(7, "Changed");
+        update.set(4711, changed);
+        final long start = System.nanoTime();
+        int changes = TableHelper.reuseUnchangedRows(previous, update);
+        final long nanos = System.nanoTime() - start;
+        System.out.format("Compared %d x %d cells in %.1f ms\n", ROWS, COLS, nanos / 1e6);
+        assertThat(changes, equalTo(1));
+        for (int r=0; r<ROWS; ++r)
+            if (r == 4711)
+                assertThat(update.get(r), sameInstance(changed));
+            else
+                assertThat(update.get(r), sameInstance(previous.get(r)));
+
+        // Added rows are changes
+        update = createData();
+        update.add(new ArrayList<>(update.get(0)));
+        assertThat(TableHelper.reuseUnchangedRows(previous, update), equalTo(1));
+
+        // Without previous data, all rows change
+        assertThat(TableHelper.reuseUnchangedRows(null, createData()), equalTo(ROWS));
+    }
+
+    @Test
+    public void testUnchangedRowsAreSkipped() throws Throwable
+    {
+        runOnUIThread(() ->
+        {
+            final StringTable table = new StringTable(false);
+            table.setHeaders(createHeaders());
+
+            // Initial data updates all rows
+            final List<List<String>> data = createData();
+            assertThat(table.setData(data), equalTo(ROWS));
+            assertThat(countReadRows(data), equalTo(ROWS));
+
+            // Update with one changed row only reads that row
+            clearRead(data);
+            final List<List<String>> update = createData();
+            final List<String> cells = new ArrayList<>(update.get(4711));
+            cells.set(7, "Changed");
+            final CheckedRow changed = new CheckedRow(cells);
+            update.set(4711, changed);
+            TableHelper.reuseUnchangedRows(data, update);
+            clearRead(data);
+            clearRead(update);
+            assertThat(table.setData(update), equalTo(1));
+            assertThat(countReadRows(update), equalTo(1));
+            assertThat(changed.read, equalTo(true));
+            assertThat(table.getCell(4711, 7), equalTo("Changed"));
+            assertThat(table.getCell(4712, 7), equalTo("4712/7"));
+
+            // After a change to a cell that's not from setData(),
+            // all rows are updated again
+            table.updateCell(10, 3, "Edited");
+            assertThat(table.getCell(10, 3), equalTo("Edited"));
+            clearRead(update);
+            assertThat(table.setData(update), equalTo(ROWS));
+            assertThat(table.getCell(10, 3), equalTo("10/3"));
+
+            // Removing rows does not read any
+            clearRead(update);
+            final List<List<String>> shorter = new ArrayList<>(update.subList(0, ROWS/2));
+            assertThat(table.setData(shorter), equalTo(0));
+            assertThat(countReadRows(update), equalTo(0));
+            assertThat(table.getData().size(), equalTo(ROWS/2));
+        });
+    }
+}
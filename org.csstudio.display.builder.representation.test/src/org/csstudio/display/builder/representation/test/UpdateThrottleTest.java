@@ -15,7 +15,11 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.csstudio.display.builder.model.DisplayModel;
 import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
 import org.csstudio.display.builder.representation.RepresentationUpdateThrottle;
 import org.csstudio.display.builder.representation.WidgetRepresentation;
 import org.junit.Test;
@@ -38,6 +42,7 @@ public class UpdateThrottleTest
         private final String name;
         private final AtomicInteger updates;
         public volatile boolean trigger_on_update = false;
+        public volatile boolean hidden = false;
 
         public TestWidgetRepresentation(final String name, final AtomicInteger updates)
         {
@@ -68,6 +73,12 @@ public class UpdateThrottleTest
             }
         }
 
+        @Override
+        public boolean isHidden(final HiddenCache cache)
+        {
+            return hidden;
+        }
+
         @Override
         public void dispose()
         {
@@ -75,6 +86,97 @@ public class UpdateThrottleTest
         }
     }
 
+    @Test
+    public void testHiddenUpdatesAreDeferred() throws Throwable
+    {
+        final AtomicInteger updates_a = new AtomicInteger();
+        final AtomicInteger updates_b = new AtomicInteger();
+        final TestWidgetRepresentation widget_a = new TestWidgetRepresentation("A", updates_a);
+        final TestWidgetRepresentation widget_b = new TestWidgetRepresentation("B", updates_b);
+
+        // Widget B is hidden, for example on an unselected tab
+        widget_b.hidden = true;
+        throttle.scheduleUpdate(widget_a);
+        throttle.scheduleUpdate(widget_b);
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates_a.get(), equalTo(1));
+        assertThat(updates_b.get(), equalTo(0));
+
+        // More updates for hidden widget are coalesced
+        throttle.scheduleUpdate(widget_b);
+        throttle.scheduleUpdate(widget_b);
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates_b.get(), equalTo(0));
+
+        // Nothing happens while still hidden
+        throttle.checkDeferredUpdates();
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates_b.get(), equalTo(0));
+
+        // Once revealed, widget B updates once
+        widget_b.hidden = false;
+        throttle.checkDeferredUpdates();
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates_a.get(), equalTo(1));
+        assertThat(updates_b.get(), equalTo(1));
+
+        throttle.shutdown();
+    }
+
+    @Test
+    public void testDisposedRepresentationIsDropped() throws Throwable
+    {
+        final AtomicInteger updates = new AtomicInteger();
+        final TestWidgetRepresentation widget = new TestWidgetRepresentation("Disposed", updates);
+
+        widget.hidden = true;
+        throttle.scheduleUpdate(widget);
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates.get(), equalTo(0));
+
+        // Once removed, a revealed representation is no longer updated
+        throttle.removeRepresentation(widget);
+        widget.hidden = false;
+        throttle.checkDeferredUpdates();
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates.get(), equalTo(0));
+
+        throttle.shutdown();
+    }
+
+    @Test
+    public void testHiddenByContainer() throws Throwable
+    {
+        final DisplayModel model = new DisplayModel();
+        final TabsWidget tabs = new TabsWidget();
+        model.runtimeChildren().addChild(tabs);
+        final LabelWidget on_first = new LabelWidget();
+        tabs.propTabs().getValue().get(0).children().addChild(on_first);
+        final GroupWidget group = new GroupWidget();
+        tabs.propTabs().getValue().get(1).children().addChild(group);
+        final LabelWidget on_second = new LabelWidget();
+        group.runtimeChildren().addChild(on_second);
+
+        tabs.propActiveTab().setValue(0);
+        WidgetRepresentation.HiddenCache cache = new WidgetRepresentation.HiddenCache();
+        for (int i=0; i<2; ++i)
+        {   // Same result without cache, computing the cache, then using it
+            assertThat(WidgetRepresentation.isHiddenByContainer(tabs, cache), equalTo(false));
+            assertThat(WidgetRepresentation.isHiddenByContainer(on_first, cache), equalTo(false));
+            assertThat(WidgetRepresentation.isHiddenByContainer(on_second, cache), equalTo(true));
+            assertThat(WidgetRepresentation.isHiddenByContainer(group), equalTo(true));
+        }
+
+        // Cache needs to be re-created when the tab selection changes
+        tabs.propActiveTab().setValue(1);
+        cache = new WidgetRepresentation.HiddenCache();
+        assertThat(WidgetRepresentation.isHiddenByContainer(on_first, cache), equalTo(true));
+        assertThat(WidgetRepresentation.isHiddenByContainer(on_second, cache), equalTo(false));
+        assertThat(WidgetRepresentation.isHiddenByContainer(on_second), equalTo(false));
+
+        throttle.shutdown();
+    }
+
     @Test
     public void demonstrateUpdateThrottle() throws Throwable
     {
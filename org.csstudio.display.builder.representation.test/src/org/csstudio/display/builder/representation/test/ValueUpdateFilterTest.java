@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.text.DecimalFormat;
+
+import org.csstudio.display.builder.representation.javafx.widgets.ValueUpdateFilter;
+import org.diirt.vtype.Display;
+import org.diirt.vtype.ValueFactory;
+import org.junit.Test;
+
+/** JUnit test of the {@link ValueUpdateFilter}
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ValueUpdateFilterTest
+{
+    @Test
+    public void testPixels()
+    {
+        final ValueUpdateFilter filter = new ValueUpdateFilter();
+        // 0..100 shown on 200 pixels, no text
+        filter.configure(0.0, 100.0, 200.0, -1);
+        assertThat(filter.isVisibleChange(50.0), equalTo(true));
+        // 0.1 is 0.2 pixels
+        assertThat(filter.isVisibleChange(50.1), equalTo(false));
+        assertThat(filter.isVisibleChange(49.9), equalTo(false));
+        // 1.0 is 2 pixels
+        assertThat(filter.isVisibleChange(51.0), equalTo(true));
+        assertThat(filter.isVisibleChange(51.0), equalTo(false));
+
+        // Values beyond the scale all show as the end of the scale
+        assertThat(filter.isVisibleChange(200.0), equalTo(true));
+        assertThat(filter.isVisibleChange(300.0), equalTo(false));
+
+        // NaN is always shown, as is the following value
+        assertThat(filter.isVisibleChange(Double.NaN), equalTo(true));
+        assertThat(filter.isVisibleChange(300.0), equalTo(true));
+
+        // Reset forces update
+        filter.reset();
+        assertThat(filter.isVisibleChange(300.0), equalTo(true));
+    }
+
+    @Test
+    public void testText()
+    {
+        final ValueUpdateFilter filter = new ValueUpdateFilter();
+        // Value shown with 2 decimals
+        filter.configure(0.0, 100.0, 200.0, 2);
+        assertThat(filter.isVisibleChange(50.0), equalTo(true));
+        // Needle doesn't move, but text changes
+        assertThat(filter.isVisibleChange(50.01), equalTo(true));
+        assertThat(filter.isVisibleChange(50.011), equalTo(false));
+        // Text also changes for values beyond the scale
+        assertThat(filter.isVisibleChange(200.0), equalTo(true));
+        assertThat(filter.isVisibleChange(300.0), equalTo(true));
+        assertThat(filter.isVisibleChange(300.001), equalTo(false));
+
+        // Configuration forces update
+        filter.configure(0.0, 100.0, 200.0, 3);
+        assertThat(filter.isVisibleChange(300.001), equalTo(true));
+        assertThat(filter.isVisibleChange(300.002), equalTo(true));
+
+        // Huge values beyond the range of a long still differ in their text
+        filter.configure(0.0, 100.0, 200.0, 2);
+        assertThat(filter.isVisibleChange(1e300), equalTo(true));
+        assertThat(filter.isVisibleChange(2e300), equalTo(true));
+        assertThat(filter.isVisibleChange(2e300), equalTo(false));
+        assertThat(filter.isVisibleChange(-1e300), equalTo(true));
+        assertThat(filter.isVisibleChange(-2e300), equalTo(true));
+        assertThat(filter.isVisibleChange(1e18), equalTo(true));
+        assertThat(filter.isVisibleChange(1e18 + 4096), equalTo(true));
+    }
+
+    @Test
+    public void testDisplay()
+    {
+        final ValueUpdateFilter filter = new ValueUpdateFilter();
+        final Display display = ValueFactory.newDisplay(0.0, 1.0, 2.0, "V", new DecimalFormat("0.00"), 8.0, 9.0, 10.0, 0.0, 10.0);
+        final Display same = ValueFactory.newDisplay(0.0, 1.0, 2.0, "V", new DecimalFormat("0.00"), 8.0, 9.0, 10.0, 0.0, 10.0);
+        final Display other_units = ValueFactory.newDisplay(0.0, 1.0, 2.0, "mV", new DecimalFormat("0.00"), 8.0, 9.0, 10.0, 0.0, 10.0);
+        final Display other_limit = ValueFactory.newDisplay(0.0, 1.0, 2.0, "mV", new DecimalFormat("0.00"), 8.0, 9.5, 10.0, 0.0, 10.0);
+
+        assertThat(filter.isDisplayChanged(null), equalTo(false));
+        assertThat(filter.isDisplayChanged(display), equalTo(true));
+        assertThat(filter.isDisplayChanged(display), equalTo(false));
+        assertThat(filter.isDisplayChanged(same), equalTo(false));
+        assertThat(filter.isDisplayChanged(other_units), equalTo(true));
+        assertThat(filter.isDisplayChanged(other_limit), equalTo(true));
+        assertThat(filter.isDisplayChanged(null), equalTo(true));
+    }
+}
@@ -56,6 +56,15 @@ public class Preferences
         return milli;
     }
 
+    public static int getUpdateBudgetMillisec()
+    {
+        int milli = 0;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs != null)
+            milli = prefs.getInt(ID, "update_budget", milli, null);
+        return milli;
+    }
+
     public static int getPlotUpdateDelayMillisec()
     {
         int milli = 100;
@@ -74,4 +83,21 @@ public class Preferences
         return milli;
     }
 
+    public static boolean isStaticWidgetFlatteningEnabled()
+    {
+        boolean flatten = false;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs != null)
+            flatten = prefs.getBoolean(ID, "flatten_static_widgets", flatten, null);
+        return flatten;
+    }
+
+    public static boolean isCanvasGaugeSkinEnabled()
+    {
+        boolean canvas = false;
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs != null)
+            canvas = prefs.getBoolean(ID, "canvas_gauges", canvas, null);
+        return canvas;
+    }
 }
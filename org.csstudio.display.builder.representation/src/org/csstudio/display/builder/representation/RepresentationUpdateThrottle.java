@@ -10,7 +10,10 @@ package org.csstudio.display.builder.representation;
 import static org.csstudio.display.builder.representation.ToolkitRepresentation.logger;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
@@ -18,6 +21,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
+import javax.management.ObjectName;
+
+import org.csstudio.display.builder.util.metrics.Meter;
+import org.csstudio.display.builder.util.metrics.Metrics;
+
 /** Handle throttled updates on UI thread.
  *
  *  <p>First request to schedule an update results in
@@ -33,6 +41,13 @@ import java.util.logging.Level;
  *  <p>Once there are no more updates, the thread waits until
  *  woken up again by the next requested update.
  *
+ *  <p>Representations that are hidden, for example on an unselected tab,
+ *  are deferred until they are revealed.
+ *  Visible representations are updated within a time budget,
+ *  remaining ones are handled in the next batch.
+ *
+ *  <p>Reports {@link UpdateThrottleMetricsMXBean} while {@link Metrics} are enabled.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -53,6 +68,9 @@ public class RepresentationUpdateThrottle
     /** Pause between updates to prevent flooding the UI thread */
     private static final long update_delay = Preferences.getUpdateDelayMillisec();
 
+    /** Time budget for one batch of updates on the UI thread [ns], 0 for no limit */
+    private static final long update_budget = TimeUnit.MILLISECONDS.toNanos(Preferences.getUpdateBudgetMillisec());
+
     /** Executor for UI thread */
     private final Executor gui_executor;
 
@@ -73,6 +91,91 @@ public class RepresentationUpdateThrottle
      */
     private final Set<WidgetRepresentation<?, ?, ?>> updateable = new LinkedHashSet<>();
 
+    /** Hidden representations that requested an update.
+     *
+     *  <p>Updated once revealed.
+     *
+     *  SYNC on updateable
+     */
+    private final Set<WidgetRepresentation<?, ?, ?>> deferred = new LinkedHashSet<>();
+
+    /** Metrics, only updated while {@link Metrics} are enabled */
+    private class ThrottleMetrics implements UpdateThrottleMetricsMXBean
+    {
+        /** Number of representations per batch */
+        final Meter batch = new Meter();
+
+        /** Duration of the UI runnable [ns] */
+        final Meter ui_duration = new Meter();
+
+        /** Time spent waiting for the UI runnable to complete [ns] */
+        final Meter latch_wait = new Meter();
+
+        @Override
+        public int getQueueDepth()
+        {
+            synchronized (updateable)
+            {
+                return updateable.size();
+            }
+        }
+
+        @Override
+        public int getDeferred()
+        {
+            synchronized (updateable)
+            {
+                return deferred.size();
+            }
+        }
+
+        @Override
+        public double getBatchesPerSecond()
+        {
+            return batch.getRate();
+        }
+
+        @Override
+        public double getAverageBatchSize()
+        {
+            return batch.getAverage();
+        }
+
+        @Override
+        public long getMaxBatchSize()
+        {
+            return batch.getMax();
+        }
+
+        @Override
+        public double getAverageUIDuration()
+        {
+            return ui_duration.getAverage() / 1e6;
+        }
+
+        @Override
+        public double getMaxUIDuration()
+        {
+            return ui_duration.getMax() / 1e6;
+        }
+
+        @Override
+        public double getAverageLatchWait()
+        {
+            return latch_wait.getAverage() / 1e6;
+        }
+
+        @Override
+        public double getMaxLatchWait()
+        {
+            return latch_wait.getMax() / 1e6;
+        }
+    }
+
+    private final ThrottleMetrics metrics = new ThrottleMetrics();
+
+    private final ObjectName metrics_name;
+
     /** @param gui_executor Executor for UI thread */
     public RepresentationUpdateThrottle(final Executor gui_executor)
     {
@@ -83,6 +186,7 @@ public class RepresentationUpdateThrottle
         throttle_thread.setName(name);
         throttle_thread.setDaemon(true);
         throttle_thread.start();
+        metrics_name = Metrics.add("UpdateThrottle", name, metrics);
     }
 
     /** Called by toolkit representation to request an update.
@@ -100,6 +204,47 @@ public class RepresentationUpdateThrottle
         }
     }
 
+    /** Called by toolkit representation when widgets may have been revealed,
+     *  for example because a different tab was selected.
+     *
+     *  <p>Deferred updates of representations that are no longer hidden
+     *  will be performed.
+     */
+    public void checkDeferredUpdates()
+    {
+        synchronized (updateable)
+        {
+            final Iterator<WidgetRepresentation<?, ?, ?>> iter = deferred.iterator();
+            final WidgetRepresentation.HiddenCache cache = new WidgetRepresentation.HiddenCache();
+            while (iter.hasNext())
+            {
+                final WidgetRepresentation<?, ?, ?> representation = iter.next();
+                if (! representation.isHidden(cache))
+                {
+                    iter.remove();
+                    updateable.add(representation);
+                }
+            }
+            if (! updateable.isEmpty())
+                updateable.notifyAll();
+        }
+    }
+
+    /** Called by toolkit representation when a representation is disposed.
+     *
+     *  <p>Pending and deferred updates of that representation are dropped.
+     *
+     *  @param representation Toolkit representation that has been disposed
+     */
+    public void removeRepresentation(final WidgetRepresentation<?, ?, ?> representation)
+    {
+        synchronized (updateable)
+        {
+            updateable.remove(representation);
+            deferred.remove(representation);
+        }
+    }
+
     /** @param enable Enable updates, or pause? */
     public void enable(final boolean enable)
     {
@@ -134,7 +279,7 @@ public class RepresentationUpdateThrottle
                 if (! enabled)
                     continue;
                 // Obtain safe copy, clear what had been accumulated
-                final WidgetRepresentation<?, ?, ?>[] representations;
+                final WidgetRepresentation<?, ?, ?>[] accumulated;
                 synchronized (updateable)
                 {
                     // Creating a direct copy, i.e. another new LinkedHashSet<>(updateable),
@@ -142,21 +287,33 @@ public class RepresentationUpdateThrottle
                     // Could use type-safe
                     //    new ArrayList<WidgetRepresentation<Pane, Node>>(updateable)
                     // but that calls toArray() internally, so doing that directly
-                    representations = updateable.toArray(new WidgetRepresentation[updateable.size()]);
+                    accumulated = updateable.toArray(new WidgetRepresentation[updateable.size()]);
                     updateable.clear();
                 }
 
+                // Defer hidden representations
+                final WidgetRepresentation<?, ?, ?>[] representations = removeHidden(accumulated);
+                if (representations.length <= 0)
+                    continue;
+
                 // Perform requested updates on UI thread
                 // Using CountDownLatch because that allows while (await, run).
                 // Future would require catching TimeoutException or cancel() on shutdown.
                 final CountDownLatch done = new CountDownLatch(1);
                 final long update_start = System.currentTimeMillis();
+                final boolean metered = Metrics.isEnabled();
+                final long wait_start = metered ? System.nanoTime() : 0;
                 updateInUI(representations, done);
 
                 // Wait for those updates to finish
                 while (! done.await(100, TimeUnit.MILLISECONDS))
                     if (! run)
                         return; // Never mind, shutdown
+                if (metered)
+                {
+                    metrics.batch.add(representations.length);
+                    metrics.latch_wait.add(System.nanoTime() - wait_start);
+                }
 
                 // Update performance info
                 final long ms = System.currentTimeMillis() - update_start;
@@ -187,6 +344,54 @@ public class RepresentationUpdateThrottle
         }
     }
 
+    /** @param accumulated Representations that requested an update
+     *  @return Those that are not hidden. Hidden ones are added to <code>deferred</code>
+     */
+    private WidgetRepresentation<?, ?, ?>[] removeHidden(final WidgetRepresentation<?, ?, ?>[] accumulated)
+    {
+        int visible = 0;
+        int hidden = 0;
+        final WidgetRepresentation<?, ?, ?>[] representations = new WidgetRepresentation[accumulated.length];
+        // Check and defer under the same lock as checkDeferredUpdates(),
+        // so a representation revealed in between is not left in 'deferred'
+        synchronized (updateable)
+        {
+            final WidgetRepresentation.HiddenCache cache = new WidgetRepresentation.HiddenCache();
+            for (WidgetRepresentation<?, ?, ?> representation : accumulated)
+            {
+                if (representation.isHidden(cache))
+                {
+                    deferred.add(representation);
+                    ++hidden;
+                }
+                else
+                    representations[visible++] = representation;
+            }
+        }
+        if (hidden > 0)
+            logger.log(Level.FINER, "Deferring {0} hidden representations", hidden);
+        if (visible == representations.length)
+            return representations;
+        final WidgetRepresentation<?, ?, ?>[] result = new WidgetRepresentation[visible];
+        System.arraycopy(representations, 0, result, 0, visible);
+        return result;
+    }
+
+    /** @param representations Representations that were not updated within the time budget,
+     *                         to be updated before others that requested an update since
+     */
+    private void requeue(final List<WidgetRepresentation<?, ?, ?>> representations)
+    {
+        synchronized (updateable)
+        {
+            final List<WidgetRepresentation<?, ?, ?>> newer = new ArrayList<>(updateable);
+            updateable.clear();
+            updateable.addAll(representations);
+            updateable.addAll(newer);
+            updateable.notifyAll();
+        }
+    }
+
     /** Perform updates in UI thread.
      *  @param representations Representations that need to be updated
      *  @param done Must be signaled when representations have been updated
@@ -196,10 +401,21 @@ public class RepresentationUpdateThrottle
     {
         gui_executor.execute(() ->
         {
-            for (final WidgetRepresentation<?, ?, ?> representation : representations)
+            final long start = System.nanoTime();
+            for (int i=0; i<representations.length; ++i)
             {
                 if (! run)
                     break;
+                if (update_budget > 0  &&  i > 0  &&  System.nanoTime() - start > update_budget)
+                {
+                    final List<WidgetRepresentation<?, ?, ?>> remaining = new ArrayList<>(representations.length - i);
+                    for (int r=i; r<representations.length; ++r)
+                        remaining.add(representations[r]);
+                    logger.log(Level.FINER, "Update budget exceeded, postponing {0} updates", remaining.size());
+                    requeue(remaining);
+                    break;
+                }
+                final WidgetRepresentation<?, ?, ?> representation = representations[i];
                 try
                 {
                     // Skip updates when representation has been disposed
@@ -211,6 +427,8 @@ public class RepresentationUpdateThrottle
                     logger.log(Level.SEVERE, "Representation update failed", ex);
                 }
             }
+            if (Metrics.isEnabled())
+                metrics.ui_duration.add(System.nanoTime() - start);
             done.countDown();
         });
     }
@@ -218,9 +436,11 @@ public class RepresentationUpdateThrottle
     /** Shutdown the throttle thread and wait for it to exit */
     public void shutdown()
     {
+        Metrics.remove(metrics_name);
         run = false;
         synchronized (updateable)
         {
+            deferred.clear();
             updateable.notifyAll();
         }
         try
@@ -359,6 +359,8 @@ abstract public class ToolkitRepresentation<TWP extends Object, TW> implements E
         {
             logger.log(Level.FINE, "Disposing {0} for {1}", new Object[] { representation, widget });
             representation.destroy();
+            // After destroy(), the throttle no longer defers the representation
+            throttle.removeRepresentation(representation);
         }
         // else: Widget has no representation because not implemented for this toolkit
     }
@@ -374,6 +376,15 @@ abstract public class ToolkitRepresentation<TWP extends Object, TW> implements E
         throttle.scheduleUpdate(representation);
     }
 
+    /** Called by container representations when child widgets may have been revealed,
+     *  for example when a different tab was selected,
+     *  to perform updates that were deferred while they were hidden.
+     */
+    public void checkDeferredUpdates()
+    {
+        throttle.checkDeferredUpdates();
+    }
+
     /** @param enable Enable updates, or pause? */
     public void enable(final boolean enable)
     {
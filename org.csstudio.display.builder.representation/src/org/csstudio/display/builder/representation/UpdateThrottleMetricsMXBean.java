@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.representation;
+
+/** JMX metrics of a {@link RepresentationUpdateThrottle}
+ *
+ *  <p>Durations in milliseconds.
+ *
+ *  @author Kay Kasemir
+ */
+public interface UpdateThrottleMetricsMXBean
+{
+    /** @return Number of representations waiting for an update */
+    public int getQueueDepth();
+
+    /** @return Number of hidden representations with deferred updates */
+    public int getDeferred();
+
+    /** @return Batches of updates per second */
+    public double getBatchesPerSecond();
+
+    /** @return Average number of representations updated in one batch */
+    public double getAverageBatchSize();
+
+    /** @return Maximum number of representations updated in one batch */
+    public long getMaxBatchSize();
+
+    /** @return Average duration of one batch on the UI thread */
+    public double getAverageUIDuration();
+
+    /** @return Maximum duration of one batch on the UI thread */
+    public double getMaxUIDuration();
+
+    /** @return Average time that the throttle waited for a batch, including delays in scheduling it on the UI thread */
+    public double getAverageLatchWait();
+
+    /** @return Maximum time that the throttle waited for a batch */
+    public double getMaxLatchWait();
+}
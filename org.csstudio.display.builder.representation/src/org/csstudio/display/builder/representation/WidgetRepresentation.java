@@ -7,7 +7,17 @@
  *******************************************************************************/
 package org.csstudio.display.builder.representation;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.csstudio.display.builder.model.DisplayModel;
 import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
 
 /** Toolkit representation for a model widget
  *
@@ -73,6 +83,124 @@ abstract public class WidgetRepresentation<TWP, TW, MW extends Widget>
      */
     abstract public void updateChanges();
 
+    /** Results of {@link WidgetRepresentation#isHiddenByContainer(Widget, HiddenCache)}
+     *  for checking several widgets.
+     *
+     *  <p>Widgets that share containers are only checked once
+     *  per container, and the children of an active tab
+     *  are looked up in a set instead of the list of children.
+     *
+     *  <p>Only valid while the tab selections do not change.
+     */
+    public static class HiddenCache
+    {
+        private final Map<Widget, Boolean> hidden = new IdentityHashMap<>();
+        private final Map<TabsWidget, Set<Widget>> active_children = new IdentityHashMap<>();
+    }
+
+    /** Is the representation currently hidden by a container?
+     *
+     *  <p>A widget on a tab that is not selected,
+     *  directly or via an embedded display,
+     *  cannot be seen.
+     *  Its updates may be deferred until it is revealed.
+     *
+     *  @return <code>true</code> if representation is hidden
+     */
+    public boolean isHidden()
+    {
+        return isHidden(null);
+    }
+
+    /** Is the representation currently hidden by a container?
+     *
+     *  @param cache {@link HiddenCache} shared when checking several representations, may be <code>null</code>
+     *  @return <code>true</code> if representation is hidden
+     *  @see #isHidden()
+     */
+    public boolean isHidden(final HiddenCache cache)
+    {
+        final MW widget = model_widget;
+        return widget != null  &&  isHiddenByContainer(widget, cache);
+    }
+
+    /** @param widget Widget
+     *  @return <code>true</code> if widget is inside an unselected tab
+     */
+    public static boolean isHiddenByContainer(final Widget widget)
+    {
+        return isHiddenByContainer(widget, null);
+    }
+
+    /** @param widget Widget
+     *  @param cache {@link HiddenCache} shared when checking several widgets, may be <code>null</code>
+     *  @return <code>true</code> if widget is inside an unselected tab
+     */
+    public static boolean isHiddenByContainer(final Widget widget, final HiddenCache cache)
+    {
+        if (cache != null)
+        {
+            final Boolean known = cache.hidden.get(widget);
+            if (known != null)
+                return known;
+        }
+        final boolean hidden;
+        final Optional<Widget> parent = widget.getParent();
+        if (parent.isPresent())
+        {
+            if (parent.get() instanceof TabsWidget  &&
+                ! isOnActiveTab((TabsWidget) parent.get(), widget, cache))
+                hidden = true;
+            else
+                hidden = isHiddenByContainer(parent.get(), cache);
+        }
+        else
+        {   // Top of model, check if this is an embedded display
+            final Widget embedder = widget instanceof DisplayModel
+                                  ? widget.getUserData(DisplayModel.USER_DATA_EMBEDDING_WIDGET)
+                                  : null;
+            hidden = embedder != null  &&  isHiddenByContainer(embedder, cache);
+        }
+        if (cache != null)
+            cache.hidden.put(widget, hidden);
+        return hidden;
+    }
+
+    private static boolean isOnActiveTab(final TabsWidget tabs, final Widget child, final HiddenCache cache)
+    {
+        if (cache != null)
+        {
+            Set<Widget> children = cache.active_children.get(tabs);
+            if (children == null)
+            {
+                children = Collections.newSetFromMap(new IdentityHashMap<>());
+                final List<Widget> active = getActiveTabChildren(tabs);
+                if (active == null)
+                    children = null;
+                else
+                {
+                    children.addAll(active);
+                    cache.active_children.put(tabs, children);
+                }
+            }
+            return children == null  ||  children.contains(child);
+        }
+        final List<Widget> active = getActiveTabChildren(tabs);
+        return active == null  ||  active.contains(child);
+    }
+
+    /** @param tabs Tabs widget
+     *  @return Children of the active tab, <code>null</code> if no valid tab is active
+     */
+    private static List<Widget> getActiveTabChildren(final TabsWidget tabs)
+    {
+        final List<TabItemProperty> items = tabs.propTabs().getValue();
+        final int active = tabs.propActiveTab().getValue();
+        if (active < 0  ||  active >= items.size())
+            return null;
+        return items.get(active).children().getValue();
+    }
+
     /** Remove toolkit items.
      *
      *  <p>Called when model widget has been removed.
@@ -32,7 +32,11 @@ import org.python.core.PySystemState;
     PVFactoryTest.class,
     PythonGatewaySupportTest.class,
     PythonScriptTest.class,
+    ScriptMinPeriodTest.class,
+    ScriptStatisticsTest.class,
+    TabsSuspendHiddenTest.class,
     TextPatchTest.class,
+    VirtualArrayTest.class,
 } )
 @SuppressWarnings( { "ClassMayBeInterface", "ClassWithoutLogger" } )
 public class RuntimeTestsSuite {
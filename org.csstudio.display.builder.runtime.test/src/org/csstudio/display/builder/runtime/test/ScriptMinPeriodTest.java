@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.properties.ScriptInfo;
+import org.csstudio.display.builder.model.properties.ScriptPV;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.runtime.RuntimeUtil;
+import org.csstudio.display.builder.runtime.pv.PVFactory;
+import org.csstudio.display.builder.runtime.pv.RuntimePV;
+import org.csstudio.vtype.pv.PVPool;
+import org.csstudio.vtype.pv.local.LocalPVFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** JUnit test of the minimum period between script executions
+ *
+ *  <p>Script appends the value of its PV to the label text,
+ *  so the text lists the value seen by each execution.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ScriptMinPeriodTest
+{
+    private static final String SCRIPT =
+        "PVUtil = org.csstudio.display.builder.runtime.script.PVUtil;\n" +
+        "widget.setPropertyValue(\"text\", widget.getPropertyValue(\"text\") + \" \" + PVUtil.getDouble(pvs[0]));\n";
+
+    @BeforeClass
+    public static void setup()
+    {
+        PVPool.addPVFactory(new LocalPVFactory());
+    }
+
+    /** @param pv_name PV that triggers the script
+     *  @param min_period Minimum period between script executions [ms]
+     *  @return Label widget with script
+     */
+    private static LabelWidget createLabel(final String pv_name, final int min_period)
+    {
+        final DisplayModel model = new DisplayModel();
+        model.setUserData(DisplayModel.USER_DATA_INPUT_FILE, "script_min_period_test.bob");
+        final LabelWidget label = new LabelWidget();
+        label.propText().setValue("");
+        label.propScripts().setValue(Arrays.asList(
+            new ScriptInfo(ScriptInfo.EMBEDDED_JAVASCRIPT, SCRIPT, true, min_period,
+                           Arrays.asList(new ScriptPV(pv_name)))));
+        model.runtimeChildren().addChild(label);
+        return label;
+    }
+
+    /** @param label Label
+     *  @return Values seen by the script executions
+     */
+    private static List<Double> getRuns(final LabelWidget label)
+    {
+        final List<Double> runs = new ArrayList<>();
+        final String text = label.propText().getValue().trim();
+        if (! text.isEmpty())
+            for (String value : text.split(" "))
+                runs.add(Double.parseDouble(value));
+        return runs;
+    }
+
+    /** @param label Label
+     *  @param count Expected number of script executions
+     *  @param millisec Timeout
+     *  @return Values seen by the script executions
+     *  @throws Exception on error or timeout
+     */
+    private static List<Double> awaitRuns(final LabelWidget label, final int count, final long millisec) throws Exception
+    {
+        final long end = System.currentTimeMillis() + millisec;
+        List<Double> runs = getRuns(label);
+        while (runs.size() < count)
+        {
+            if (System.currentTimeMillis() > end)
+                throw new Exception("Expected " + count + " script executions, got " + runs);
+            TimeUnit.MILLISECONDS.sleep(10);
+            runs = getRuns(label);
+        }
+        return runs;
+    }
+
+    @Test
+    public void testBurstIsCoalesced() throws Exception
+    {
+        final int min_period = 1000;
+        final String pv_name = "loc://script_min_period(0)";
+        final RuntimePV pv = PVFactory.getPV(pv_name);
+        final LabelWidget label = createLabel(pv_name, min_period);
+        RuntimeUtil.startRuntime(label);
+        try
+        {
+            // Connecting runs the script right away
+            awaitRuns(label, 1, min_period / 2);
+
+            // Wait for the period to pass, then send a burst of updates
+            TimeUnit.MILLISECONDS.sleep(2 * min_period);
+            final long start = System.currentTimeMillis();
+            for (int i=1; i<=10; ++i)
+                pv.write(i);
+
+            // First update of the burst runs the script right away
+            awaitRuns(label, 2, min_period / 2);
+            assertTrue(System.currentTimeMillis() - start < min_period);
+
+            // One trailing execution sees the last value
+            List<Double> runs = awaitRuns(label, 3, 2 * min_period);
+            assertTrue(System.currentTimeMillis() - start >= min_period);
+            assertThat(runs.get(2), equalTo(10.0));
+
+            // .. and no further executions
+            TimeUnit.MILLISECONDS.sleep(2 * min_period);
+            runs = getRuns(label);
+            System.out.println("Executions with minimum period: " + runs);
+            assertThat(runs.size(), equalTo(3));
+        }
+        finally
+        {
+            RuntimeUtil.stopRuntime(label);
+            PVFactory.releasePV(pv);
+        }
+    }
+
+    @Test
+    public void testNoMinPeriod() throws Exception
+    {
+        final String pv_name = "loc://script_no_min_period(0)";
+        final RuntimePV pv = PVFactory.getPV(pv_name);
+        final LabelWidget label = createLabel(pv_name, 0);
+        RuntimeUtil.startRuntime(label);
+        try
+        {
+            awaitRuns(label, 1, 2000);
+
+            // Each update runs the script right away
+            for (int i=1; i<=10; ++i)
+            {
+                pv.write(i);
+                final List<Double> runs = awaitRuns(label, 1 + i, 500);
+                assertThat(runs.get(i), equalTo((double) i));
+            }
+            System.out.println("Executions without minimum period: " + getRuns(label));
+        }
+        finally
+        {
+            RuntimeUtil.stopRuntime(label);
+            PVFactory.releasePV(pv);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.runtime.script.internal.ScriptStatistics;
+import org.junit.Test;
+
+/** JUnit test of the {@link ScriptStatistics}
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ScriptStatisticsTest
+{
+    private static long ms(final long millisec)
+    {
+        return TimeUnit.MILLISECONDS.toNanos(millisec);
+    }
+
+    @Test
+    public void testStatistics() throws Exception
+    {
+        final Widget widget = new Widget("base");
+        final ScriptStatistics stats = new ScriptStatistics(widget, "test.py");
+
+        stats.record(ms(1), ms(0), false);
+        stats.record(ms(3), ms(4), false);
+        stats.record(ms(2), ms(8), true);
+        stats.record(ms(0), ms(10000), false);
+        System.out.println(stats);
+
+        assertThat(stats.getInvocations(), equalTo(4L));
+        assertThat(stats.getErrors(), equalTo(1L));
+        assertThat(stats.getAverageWaitMillis(), equalTo(1.5));
+        assertThat(stats.getMaxWaitMillis(), equalTo(3.0));
+        assertThat(stats.getAverageExecMillis(), equalTo(10012.0 / 4));
+        assertThat(stats.getMaxExecMillis(), equalTo(10000.0));
+
+        // 0ms -> "<1ms", 4ms -> "<5ms", 8ms -> "<10ms", 10s -> above last limit
+        final long[] histogram = stats.getHistogram();
+        assertThat(histogram.length, equalTo(ScriptStatistics.HISTOGRAM_LIMITS.length + 1));
+        assertThat(histogram[0], equalTo(1L));
+        assertThat(histogram[2], equalTo(1L));
+        assertThat(histogram[3], equalTo(1L));
+        assertThat(histogram[histogram.length-1], equalTo(1L));
+
+        final String csv = stats.toCSV();
+        System.out.println(ScriptStatistics.getCSVHeader());
+        System.out.println(csv);
+        assertThat(csv, containsString("\"test.py\",4,1,"));
+        assertThat(csv.split(",").length, equalTo(ScriptStatistics.getCSVHeader().split(",").length));
+
+        stats.reset();
+        assertThat(stats.getInvocations(), equalTo(0L));
+        assertThat(stats.getAverageExecMillis(), equalTo(0.0));
+        assertThat(stats.getHistogram()[0], equalTo(0L));
+    }
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.widgets.TabsWidget;
+import org.csstudio.display.builder.model.widgets.TextUpdateWidget;
+import org.csstudio.display.builder.runtime.Preferences;
+import org.csstudio.display.builder.runtime.RuntimeUtil;
+import org.csstudio.display.builder.runtime.WidgetRuntime;
+import org.csstudio.vtype.pv.PV;
+import org.csstudio.vtype.pv.PVPool;
+import org.csstudio.vtype.pv.RefCountMap;
+import org.csstudio.vtype.pv.local.LocalPVFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** JUnit test of suspending the runtime of hidden tabs
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class TabsSuspendHiddenTest
+{
+    private static final String PV0 = "tabs_suspend_hidden_0",
+                                PV1 = "tabs_suspend_hidden_1";
+
+    @BeforeClass
+    public static void setup()
+    {
+        PVPool.addPVFactory(new LocalPVFactory());
+    }
+
+    /** @param name Part of PV name
+     *  @return Number of references to that PV in the pool
+     */
+    private static int getReferences(final String name)
+    {
+        int refs = 0;
+        for (final RefCountMap.ReferencedEntry<PV> ref : PVPool.getPVReferences())
+            if (ref.getEntry().getName().contains(name))
+                refs += ref.getReferences();
+        return refs;
+    }
+
+    /** @param widget Widget
+     *  @return <code>true</code> if widget's runtime is connected to its PV
+     */
+    private static boolean isRunning(final TextUpdateWidget widget)
+    {
+        final WidgetRuntime<TextUpdateWidget> runtime = RuntimeUtil.getRuntime(widget);
+        return runtime != null  &&  runtime.getPrimaryPV().isPresent();
+    }
+
+    /** @param name Part of PV name
+     *  @param refs Expected number of references
+     *  @param millisec Timeout
+     *  @throws Exception on error or timeout
+     */
+    private static void awaitReferences(final String name, final int refs, final long millisec) throws Exception
+    {
+        final long end = System.currentTimeMillis() + millisec;
+        while (getReferences(name) != refs)
+        {
+            if (System.currentTimeMillis() > end)
+                throw new Exception("Expected " + refs + " references to " + name + ", got " + getReferences(name));
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static TextUpdateWidget createTextUpdate(final String pv_name)
+    {
+        final TextUpdateWidget widget = new TextUpdateWidget();
+        widget.propPVName().setValue("loc://" + pv_name + "(0)");
+        return widget;
+    }
+
+    @Test
+    public void testSuspendHiddenTabs() throws Exception
+    {
+        final long grace_period = Preferences.getHiddenTabGracePeriod();
+        System.out.println("Grace period: " + grace_period + " ms");
+
+        final TextUpdateWidget text0 = createTextUpdate(PV0),
+                               text1 = createTextUpdate(PV1);
+        final TabsWidget tabs = new TabsWidget();
+        tabs.propSuspendHidden().setValue(true);
+        tabs.propTabs().getValue().get(0).children().addChild(text0);
+        tabs.propTabs().getValue().get(1).children().addChild(text1);
+        final DisplayModel model = new DisplayModel();
+        model.runtimeChildren().addChild(tabs);
+
+        RuntimeUtil.startRuntime(tabs);
+        try
+        {
+            // Only the active tab is connected
+            assertThat(getReferences(PV0), equalTo(1));
+            assertThat(getReferences(PV1), equalTo(0));
+            assertThat(isRunning(text0), equalTo(true));
+            assertThat(isRunning(text1), equalTo(false));
+
+            // Selecting other tab starts it right away,
+            // while the hidden tab stays connected for the grace period
+            tabs.propActiveTab().setValue(1);
+            awaitReferences(PV1, 1, grace_period / 2);
+            assertThat(isRunning(text1), equalTo(true));
+            assertThat(getReferences(PV0), equalTo(1));
+
+            // After the grace period, the hidden tab is released
+            awaitReferences(PV0, 0, 2 * grace_period);
+            assertThat(isRunning(text0), equalTo(false));
+            assertThat(getReferences(PV1), equalTo(1));
+
+            // Selecting it again re-connects
+            tabs.propActiveTab().setValue(0);
+            awaitReferences(PV0, 1, grace_period / 2);
+            assertThat(isRunning(text0), equalTo(true));
+
+            // Selecting a tab again within the grace period
+            // cancels the pending suspension:
+            // Switch to tab 1 and back before tab 0 would be suspended
+            awaitReferences(PV1, 0, 2 * grace_period);
+            tabs.propActiveTab().setValue(1);
+            awaitReferences(PV1, 1, grace_period / 2);
+            TimeUnit.MILLISECONDS.sleep(grace_period / 2);
+            tabs.propActiveTab().setValue(0);
+
+            // Beyond the original grace period of the first switch,
+            // tab 0 was never suspended, and tab 1 is still in its grace period
+            TimeUnit.MILLISECONDS.sleep(3 * grace_period / 4);
+            assertThat(getReferences(PV0), equalTo(1));
+            assertThat(isRunning(text0), equalTo(true));
+            assertThat(getReferences(PV1), equalTo(1));
+
+            // .. until the grace period of the second switch has passed
+            awaitReferences(PV1, 0, grace_period);
+            assertThat(isRunning(text1), equalTo(false));
+            assertThat(getReferences(PV0), equalTo(1));
+        }
+        finally
+        {
+            RuntimeUtil.stopRuntime(tabs);
+        }
+
+        // Stopping the tabs releases all PVs
+        assertThat(getReferences(PV0), equalTo(0));
+        assertThat(getReferences(PV1), equalTo(0));
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.csstudio.display.builder.model.util.VTypeUtil;
+import org.csstudio.display.builder.model.widgets.ArrayWidget;
+import org.csstudio.display.builder.model.widgets.TextUpdateWidget;
+import org.csstudio.display.builder.runtime.RuntimeUtil;
+import org.csstudio.display.builder.runtime.pv.ArrayPVDispatcher;
+import org.csstudio.display.builder.runtime.pv.PVFactory;
+import org.csstudio.display.builder.runtime.pv.RuntimePV;
+import org.csstudio.vtype.pv.PVPool;
+import org.csstudio.vtype.pv.local.LocalPVFactory;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.vtype.VDouble;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** JUnit demo of 'virtual' array elements
+ *
+ *  <p>Compares the per-element PVs of the {@link ArrayPVDispatcher}
+ *  with fetching only the visible elements from the array value.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class VirtualArrayTest
+{
+    private static final int SIZE = 10000;
+
+    /** Number of element widgets that fit into a typical array widget */
+    private static final int VISIBLE = 20;
+
+    @BeforeClass
+    public static void setup()
+    {
+        PVPool.addPVFactory(new LocalPVFactory());
+    }
+
+    private static long usedMemory()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    public void testArrayElements() throws Exception
+    {
+        final VType array = ValueFactory.newVNumberArray(new ArrayDouble(1.0, 2.0, 3.0),
+                                                         ValueFactory.alarmNone(), ValueFactory.timeNow(), ValueFactory.displayNone());
+        assertThat(VTypeUtil.getArraySize(array), equalTo(3));
+
+        final VType element = VTypeUtil.getArrayElement(array, 1);
+        assertThat(element, instanceOf(VDouble.class));
+        assertThat(((VDouble)element).getValue(), equalTo(2.0));
+
+        assertThat(VTypeUtil.getArrayElement(array, 3), nullValue());
+        assertThat(VTypeUtil.getArrayElement(array, -1), nullValue());
+
+        // Scalar is handled as 1-element array
+        final VType scalar = ValueFactory.newVDouble(42.0);
+        assertThat(VTypeUtil.getArraySize(scalar), equalTo(1));
+        assertThat(VTypeUtil.getArrayElement(scalar, 0), equalTo(scalar));
+        assertThat(VTypeUtil.getArrayElement(scalar, 1), nullValue());
+    }
+
+    /** @param element Element widget
+     *  @return Value of the element widget, NaN if none
+     */
+    private static double getElementValue(final TextUpdateWidget element)
+    {
+        final VType value = element.runtimePropValue().getValue();
+        if (value == null)
+            return Double.NaN;
+        return VTypeUtil.getValueNumber(value).doubleValue();
+    }
+
+    /** @param elements Element widgets
+     *  @param first Expected value of first element, following elements incrementing by 1
+     *  @param timeout_secs Seconds to wait for the expected values
+     *  @throws Exception on timeout
+     */
+    private static void awaitElementValues(final List<TextUpdateWidget> elements, final double first,
+                                           final int timeout_secs) throws Exception
+    {
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout_secs);
+        while (true)
+        {
+            boolean match = true;
+            for (int i=0; i<elements.size(); ++i)
+                if (getElementValue(elements.get(i)) != first + i)
+                    match = false;
+            if (match)
+                return;
+            if (System.currentTimeMillis() > end)
+                throw new Exception("Element values do not start at " + first);
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    @Test
+    public void testVirtualRuntime() throws Exception
+    {
+        final double[] data = new double[SIZE];
+        for (int i=0; i<SIZE; ++i)
+            data[i] = i;
+
+        final String pv_name = "loc://virtual_array_runtime_test(0.0, 0.0)";
+        final RuntimePV array_pv = PVFactory.getPV(pv_name);
+        array_pv.write(data);
+
+        final ArrayWidget array = new ArrayWidget();
+        array.propVirtual().setValue(true);
+        array.propPVName().setValue(pv_name);
+        final List<TextUpdateWidget> elements = new ArrayList<>();
+        for (int i=0; i<VISIBLE; ++i)
+        {
+            final TextUpdateWidget element = new TextUpdateWidget();
+            elements.add(element);
+            array.runtimeChildren().addChild(element);
+        }
+
+        RuntimeUtil.startRuntime(array);
+        try
+        {
+            // Element widgets show the start of the array
+            awaitElementValues(elements, 0.0, 5);
+
+            // Scrolling shows elements further down the array
+            array.runtimePropFirstElement().setValue(5000);
+            awaitElementValues(elements, 5000.0, 5);
+
+            // Updated array value is shown at the current position
+            for (int i=0; i<SIZE; ++i)
+                data[i] = 2*SIZE + i;
+            array_pv.write(data);
+            awaitElementValues(elements, 2*SIZE + 5000.0, 5);
+
+            // Elements past the end of the array have no value
+            array.runtimePropFirstElement().setValue(SIZE - 2);
+            assertThat(getElementValue(elements.get(0)), equalTo(3*SIZE - 2.0));
+            assertThat(getElementValue(elements.get(1)), equalTo(3*SIZE - 1.0));
+            assertThat(elements.get(2).runtimePropValue().getValue(), nullValue());
+        }
+        finally
+        {
+            RuntimeUtil.stopRuntime(array);
+        }
+
+        // Once stopped, scrolling no longer updates the elements
+        array.runtimePropFirstElement().setValue(0);
+        assertThat(getElementValue(elements.get(0)), equalTo(3*SIZE - 2.0));
+
+        PVFactory.releasePV(array_pv);
+    }
+
+    @Test
+    public void compareElementPVsToVirtual() throws Exception
+    {
+        final double[] data = new double[SIZE];
+        for (int i=0; i<SIZE; ++i)
+            data[i] = i;
+
+        final RuntimePV array_pv = PVFactory.getPV("loc://virtual_array_test(0.0, 0.0)");
+        array_pv.write(data);
+
+        // Per-element PVs
+        long mem = usedMemory();
+        long start = System.nanoTime();
+        final AtomicReference<List<RuntimePV>> element_pvs = new AtomicReference<>();
+        final CountDownLatch got_element_pvs = new CountDownLatch(1);
+        final ArrayPVDispatcher dispatcher = new ArrayPVDispatcher(array_pv, "virtual_array_test_elem_", pvs ->
+        {
+            element_pvs.set(pvs);
+            got_element_pvs.countDown();
+        });
+        got_element_pvs.await();
+        final long pv_nanos = System.nanoTime() - start;
+        final long pv_mem = usedMemory() - mem;
+        assertThat(element_pvs.get().size(), equalTo(SIZE));
+        System.out.format("Element PVs for %d elements: %.1f ms, ~%d kB\n",
+                          SIZE, pv_nanos / 1e6, pv_mem / 1024);
+        dispatcher.close();
+
+        // Virtual: Only fetch the visible elements from the array value
+        mem = usedMemory();
+        start = System.nanoTime();
+        final VType array = array_pv.read();
+        final List<VType> visible = new ArrayList<>(VISIBLE);
+        final int first = SIZE - VISIBLE;
+        for (int i=0; i<VISIBLE; ++i)
+            visible.add(VTypeUtil.getArrayElement(array, first + i));
+        final long virtual_nanos = System.nanoTime() - start;
+        final long virtual_mem = usedMemory() - mem;
+        System.out.format("Virtual elements for %d elements, %d visible: %.1f ms, ~%d kB\n",
+                          SIZE, VISIBLE, virtual_nanos / 1e6, virtual_mem / 1024);
+        assertThat(VTypeUtil.getValueNumber(visible.get(0)).doubleValue(), equalTo((double) first));
+        assertThat(VTypeUtil.getValueNumber(visible.get(VISIBLE-1)).doubleValue(), equalTo(SIZE - 1.0));
+
+        PVFactory.releasePV(array_pv);
+    }
+}
@@ -28,6 +28,9 @@ public class Preferences
     public static final String PV_FACTORY = "pv_factory";
     public static final String PV_NAME_PATCHES = "pv_name_patches";
     public static final String USE_BOY = "use_boy";
+    public static final String SLOW_SCRIPT_THRESHOLD = "slow_script_threshold";
+    public static final String HIDDEN_TAB_GRACE_PERIOD = "hidden_tab_grace_period";
+    public static final String METRICS = "metrics";
 
     /** @return Python path */
     public static String getPythonPath()
@@ -93,6 +96,42 @@ public class Preferences
         return use_boy;
     }
 
+    /** @return Execution time above which scripts are logged as slow [ms], 0 to disable */
+    public static long getSlowScriptThreshold()
+    {
+        final String setting = get(SLOW_SCRIPT_THRESHOLD, "500");
+        try
+        {
+            return Long.parseLong(setting.trim());
+        }
+        catch (NumberFormatException ex)
+        {
+            logger.log(Level.SEVERE, "Invalid setting for " + SLOW_SCRIPT_THRESHOLD + ": " + setting);
+            return 500;
+        }
+    }
+
+    /** @return Time that a hidden tab stays connected before its runtime is suspended [ms] */
+    public static long getHiddenTabGracePeriod()
+    {
+        final String setting = get(HIDDEN_TAB_GRACE_PERIOD, "5000");
+        try
+        {
+            return Long.parseLong(setting.trim());
+        }
+        catch (NumberFormatException ex)
+        {
+            logger.log(Level.SEVERE, "Invalid setting for " + HIDDEN_TAB_GRACE_PERIOD + ": " + setting);
+            return 5000;
+        }
+    }
+
+    /** @return <code>true</code> if runtime metrics should be enabled on startup */
+    public static boolean isMetricsEnabled()
+    {
+        return Boolean.parseBoolean(get(METRICS, "false"));
+    }
+
     private static String get(final String setting, final String default_value)
     {
         String value = default_value;
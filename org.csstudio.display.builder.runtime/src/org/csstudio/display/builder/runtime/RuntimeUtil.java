@@ -22,6 +22,7 @@ import org.csstudio.display.builder.model.util.NamedDaemonPool;
 import org.csstudio.display.builder.representation.ToolkitListener;
 import org.csstudio.display.builder.representation.ToolkitRepresentation;
 import org.csstudio.display.builder.runtime.script.internal.ScriptSupport;
+import org.csstudio.display.builder.util.metrics.Metrics;
 
 /** Runtime Helper
  *
@@ -35,6 +36,12 @@ import org.csstudio.display.builder.runtime.script.internal.ScriptSupport;
 @SuppressWarnings("nls")
 public class RuntimeUtil
 {
+    static
+    {
+        if (Preferences.isMetricsEnabled())
+            Metrics.setEnabled(true);
+    }
+
     private static final ExecutorService executor = NamedDaemonPool.createThreadPool("DisplayRuntime");
 
     private static final ToolkitListener toolkit_listener = new ToolkitListener()
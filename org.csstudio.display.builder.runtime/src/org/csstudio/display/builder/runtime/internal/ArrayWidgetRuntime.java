@@ -15,17 +15,28 @@ import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
+import org.csstudio.display.builder.model.UntypedWidgetPropertyListener;
 import org.csstudio.display.builder.model.Widget;
 import org.csstudio.display.builder.model.WidgetProperty;
 import org.csstudio.display.builder.model.WidgetPropertyListener;
+import org.csstudio.display.builder.model.util.VTypeUtil;
 import org.csstudio.display.builder.model.widgets.ArrayWidget;
 import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.PVWidget;
 import org.csstudio.display.builder.runtime.RuntimeUtil;
 import org.csstudio.display.builder.runtime.WidgetRuntime;
 import org.csstudio.display.builder.runtime.pv.ArrayPVDispatcher;
 import org.csstudio.display.builder.runtime.pv.RuntimePV;
+import org.diirt.vtype.VType;
 
 /** Runtime for array widget
+ *
+ *  <p>By default, an {@link ArrayPVDispatcher} creates one PV per array element,
+ *  and each element widget is started with its own runtime.
+ *
+ *  <p>With 'virtual' elements, there are no per-element PVs nor runtimes.
+ *  The value of each element widget is set from the array,
+ *  starting at the 'first_element'.
  *
  *  @author Amanda Carpenter
  */
@@ -35,6 +46,7 @@ public class ArrayWidgetRuntime extends WidgetRuntime<ArrayWidget>
     private ArrayPVDispatcher dispatcher;
     private CopyOnWriteArrayList<String> pvnames = new CopyOnWriteArrayList<String>();
     private String pvid;
+    private volatile boolean virtual = false;
 
     private final ArrayPVDispatcher.Listener assign_pv_names = new ArrayPVDispatcher.Listener()
     {
@@ -75,6 +87,8 @@ public class ArrayWidgetRuntime extends WidgetRuntime<ArrayWidget>
         }
     };
 
+    private final UntypedWidgetPropertyListener update_elements = (prop, old_value, new_value) -> updateElements();
+
     @Override
     public void initialize(final ArrayWidget widget)
     {
@@ -86,6 +100,15 @@ public class ArrayWidgetRuntime extends WidgetRuntime<ArrayWidget>
     public void start() throws Exception
     {
         super.start();
+        virtual = widget.propVirtual().getValue();
+        if (virtual)
+        {
+            widget.runtimePropValue().addUntypedPropertyListener(update_elements);
+            widget.runtimePropFirstElement().addUntypedPropertyListener(update_elements);
+            widget.runtimeChildren().addUntypedPropertyListener(update_elements);
+            updateElements();
+            return;
+        }
         RuntimePV pv = getPrimaryPV().orElse(null);
         if (pv != null)
             dispatcher = new ArrayPVDispatcher(pv, pvid, assign_pv_names);
@@ -97,6 +120,14 @@ public class ArrayWidgetRuntime extends WidgetRuntime<ArrayWidget>
     @Override
     public void stop()
     {
+        if (virtual)
+        {
+            widget.runtimeChildren().removePropertyListener(update_elements);
+            widget.runtimePropFirstElement().removePropertyListener(update_elements);
+            widget.runtimePropValue().removePropertyListener(update_elements);
+            super.stop();
+            return;
+        }
         widget.runtimeChildren().removePropertyListener(children_listener);
         for (final Widget child : widget.runtimeChildren().getValue())
             RuntimeUtil.stopRuntime(child);
@@ -105,6 +136,27 @@ public class ArrayWidgetRuntime extends WidgetRuntime<ArrayWidget>
         super.stop();
     }
 
+    /** Set value of each element widget from the array */
+    private void updateElements()
+    {
+        final VType array = widget.runtimePropValue().getValue();
+        final int first = widget.runtimePropFirstElement().getValue();
+        final List<Widget> children = widget.runtimeChildren().getValue();
+        for (int i=0; i<children.size(); ++i)
+            setElementValue(children.get(i), VTypeUtil.getArrayElement(array, first + i));
+    }
+
+    private void setElementValue(final Widget widget, final VType value)
+    {
+        if (widget instanceof PVWidget)
+            ((PVWidget) widget).runtimePropValue().setValue(value);
+        else if (widget instanceof GroupWidget)
+        {   // For group widget, set value of every group member
+            for (Widget child : ((GroupWidget) widget).runtimeChildren().getValue())
+                setElementValue(child, value);
+        }
+    }
+
     private void setPVNames(int i, List<Widget> added)
     {
         for (Widget widget : added)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015-2016 Oak Ridge National Laboratory.
+ * Copyright (c) 2015-2018 Oak Ridge National Laboratory.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -7,8 +7,18 @@
  *******************************************************************************/
 package org.csstudio.display.builder.runtime.internal;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.display.builder.model.WidgetPropertyListener;
+import org.csstudio.display.builder.model.util.ModelThreadPool;
 import org.csstudio.display.builder.model.widgets.TabsWidget;
 import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
+import org.csstudio.display.builder.runtime.Preferences;
 import org.csstudio.display.builder.runtime.RuntimeUtil;
 import org.csstudio.display.builder.runtime.WidgetRuntime;
 
@@ -16,23 +26,122 @@ import org.csstudio.display.builder.runtime.WidgetRuntime;
  *
  *  <p>Starts/stop the widgets in the tabs.
  *
+ *  <p>When the widget is configured to suspend hidden tabs,
+ *  only the widgets in the active tab are started.
+ *  When a tab is no longer selected, its widgets are stopped
+ *  after a grace period, disconnecting their PVs and scripts.
+ *  Selecting it again restarts them, which re-connects
+ *  and thus fetches current values.
+ *
  *  @author Kay Kasemir
  */
 public class TabsWidgetRuntime extends WidgetRuntime<TabsWidget>
 {
+    /** Tabs whose widgets are running. SYNC on this */
+    private final Set<TabItemProperty> running = new HashSet<>();
+
+    /** Is this runtime started? SYNC on running */
+    private boolean started = false;
+
+    private volatile boolean suspend_hidden = false;
+
+    private volatile long grace_period;
+
+    private volatile ScheduledFuture<?> suspend_timer = null;
+
+    private final WidgetPropertyListener<Integer> active_tab_listener = (prop, old_index, index) ->
+        RuntimeUtil.getExecutor().execute(this::activeTabChanged);
+
     @Override
     public void start() throws Exception
     {
         super.start();
-        for (TabItemProperty tab : widget.propTabs().getValue())
-            RuntimeUtil.startChildRuntimes(tab.children());
+        synchronized (running)
+        {
+            started = true;
+        }
+        suspend_hidden = widget.propSuspendHidden().getValue();
+        if (suspend_hidden)
+        {
+            grace_period = Preferences.getHiddenTabGracePeriod();
+            startTab(getActiveTab());
+            widget.propActiveTab().addPropertyListener(active_tab_listener);
+        }
+        else
+            for (TabItemProperty tab : widget.propTabs().getValue())
+                startTab(tab);
+    }
+
+    /** @return Currently selected tab or <code>null</code> */
+    private TabItemProperty getActiveTab()
+    {
+        final List<TabItemProperty> tabs = widget.propTabs().getValue();
+        final int index = widget.propActiveTab().getValue();
+        if (index < 0  ||  index >= tabs.size())
+            return null;
+        return tabs.get(index);
+    }
+
+    /** @param tab Tab to start unless already running */
+    private void startTab(final TabItemProperty tab)
+    {
+        if (tab == null)
+            return;
+        synchronized (running)
+        {
+            if (started  &&  running.add(tab))
+                RuntimeUtil.startChildRuntimes(tab.children());
+        }
+    }
+
+    /** Start newly selected tab, schedule suspension of the others */
+    private void activeTabChanged()
+    {
+        startTab(getActiveTab());
+
+        final ScheduledFuture<?> previous = suspend_timer;
+        if (previous != null)
+            previous.cancel(false);
+        suspend_timer = ModelThreadPool.getTimer().schedule(() -> RuntimeUtil.getExecutor().execute(this::suspendHiddenTabs),
+                                                            grace_period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stop all running tabs except for the active one */
+    private void suspendHiddenTabs()
+    {
+        final TabItemProperty active = getActiveTab();
+        synchronized (running)
+        {
+            final Iterator<TabItemProperty> iter = running.iterator();
+            while (iter.hasNext())
+            {
+                final TabItemProperty tab = iter.next();
+                if (tab == active)
+                    continue;
+                iter.remove();
+                RuntimeUtil.stopChildRuntimes(tab.children());
+            }
+        }
     }
 
     @Override
     public void stop()
     {
-        for (TabItemProperty tab : widget.propTabs().getValue())
-            RuntimeUtil.stopChildRuntimes(tab.children());
+        if (suspend_hidden)
+        {
+            widget.propActiveTab().removePropertyListener(active_tab_listener);
+            final ScheduledFuture<?> timer = suspend_timer;
+            if (timer != null)
+                timer.cancel(false);
+            suspend_timer = null;
+        }
+        synchronized (running)
+        {
+            started = false;
+            for (TabItemProperty tab : running)
+                RuntimeUtil.stopChildRuntimes(tab.children());
+            running.clear();
+        }
         super.stop();
     }
 }
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.pv;
+
+/** JMX metrics of a {@link RuntimePV}
+ *  @author Kay Kasemir
+ */
+public interface RuntimePVMetricsMXBean
+{
+    /** @return PV name */
+    public String getName();
+
+    /** @return Value updates per second */
+    public double getUpdatesPerSecond();
+
+    /** @return Number of listeners */
+    public int getListenerCount();
+
+    /** @return Seconds since the last value update, -1 if there was none */
+    public double getLastValueAge();
+}
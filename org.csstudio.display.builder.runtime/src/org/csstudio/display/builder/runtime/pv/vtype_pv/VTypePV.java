@@ -10,13 +10,23 @@ package org.csstudio.display.builder.runtime.pv.vtype_pv;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import javax.management.ObjectName;
+
 import org.csstudio.display.builder.runtime.pv.RuntimePV;
 import org.csstudio.display.builder.runtime.pv.RuntimePVListener;
+import org.csstudio.display.builder.runtime.pv.RuntimePVMetricsMXBean;
+import org.csstudio.display.builder.util.metrics.Meter;
+import org.csstudio.display.builder.util.metrics.Metrics;
 import org.csstudio.vtype.pv.PV;
 import org.csstudio.vtype.pv.PVListener;
 import org.diirt.vtype.VType;
 
 /** Implements {@link RuntimePV} for {@link PV}
+ *
+ *  <p>While {@link Metrics} are enabled,
+ *  the PV reports {@link RuntimePVMetricsMXBean}
+ *  once it receives a value.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -25,6 +35,44 @@ public class VTypePV implements RuntimePV, PVListener
     private final PV pv;
     private final List<RuntimePVListener> listeners = new CopyOnWriteArrayList<>();
 
+    /** Metrics, created when first needed */
+    private class PVMetrics implements RuntimePVMetricsMXBean
+    {
+        final Meter updates = new Meter();
+        volatile long last_update = 0;
+
+        @Override
+        public String getName()
+        {
+            return VTypePV.this.getName();
+        }
+
+        @Override
+        public double getUpdatesPerSecond()
+        {
+            return updates.getRate();
+        }
+
+        @Override
+        public int getListenerCount()
+        {
+            return listeners.size();
+        }
+
+        @Override
+        public double getLastValueAge()
+        {
+            final long last = last_update;
+            if (last == 0)
+                return -1;
+            return (System.nanoTime() - last) / 1e9;
+        }
+    }
+
+    /** SYNC on this */
+    private PVMetrics metrics = null;
+    private ObjectName metrics_name = null;
+
     VTypePV(final PV pv)
     {
         this.pv = pv;
@@ -88,6 +136,8 @@ public class VTypePV implements RuntimePV, PVListener
     @Override
     public void valueChanged(final PV pv, final VType value)
     {
+        if (Metrics.isEnabled())
+            updateMetrics();
         for (RuntimePVListener listener : listeners)
             listener.valueChanged(this, value);
     }
@@ -99,6 +149,17 @@ public class VTypePV implements RuntimePV, PVListener
             listener.disconnected(this);
     }
 
+    private synchronized void updateMetrics()
+    {
+        if (metrics == null)
+        {
+            metrics = new PVMetrics();
+            metrics_name = Metrics.add("PV", getName(), metrics);
+        }
+        metrics.updates.mark();
+        metrics.last_update = System.nanoTime();
+    }
+
     PV getPV()
     {
         return pv;
@@ -107,6 +168,11 @@ public class VTypePV implements RuntimePV, PVListener
     void close()
     {
         pv.removeListener(this);
+        synchronized (this)
+        {
+            Metrics.remove(metrics_name);
+            metrics_name = null;
+        }
     }
 
     @Override
@@ -69,10 +69,13 @@ class JavaScriptSupport extends BaseScriptSupport
         if (! markAsScheduled(script))
             return null;
 
+        final long submitted = System.nanoTime();
         return support.submit(() ->
         {
             // Script may be queued again
             removeScheduleMarker(script);
+            final long started = System.nanoTime();
+            boolean failed = false;
             try
             {
                 bindings.put("widget", widget);
@@ -81,8 +84,10 @@ class JavaScriptSupport extends BaseScriptSupport
             }
             catch (final Throwable ex)
             {
+                failed = true;
                 logger.log(Level.WARNING, "Execution of '" + script + "' failed", ex);
             }
+            ScriptMonitor.getInstance().executed(script, submitted, started, failed);
             return null;
         });
     }
@@ -220,11 +220,14 @@ class JythonScriptSupport extends BaseScriptSupport implements AutoCloseable
             return null;
 
         // System.out.println("Submit on " + Thread.currentThread().getName());
+        final long submitted = System.nanoTime();
         return support.submit(() ->
         {
             // System.out.println("Executing " + script + " on " + Thread.currentThread().getName());
             // Script may be queued again
             removeScheduleMarker(script);
+            final long started = System.nanoTime();
+            boolean failed = false;
             try
             {
                 // Executor is single-threaded.
@@ -245,6 +248,7 @@ class JythonScriptSupport extends BaseScriptSupport implements AutoCloseable
             }
             catch (final Throwable ex)
             {
+                failed = true;
                 final StringBuilder buf = new StringBuilder();
                 buf.append("Script execution failed\n");
                 try
@@ -265,6 +269,7 @@ class JythonScriptSupport extends BaseScriptSupport implements AutoCloseable
                 python.set("pvs", null);
                 python.set("widget", null);
             }
+            ScriptMonitor.getInstance().executed(script, submitted, started, failed);
             // System.out.println("Finished " + script);
             return null;
         });
@@ -55,10 +55,13 @@ public class PythonScriptSupport extends BaseScriptSupport
         if (! markAsScheduled(script))
             return null;
 
+        final long submitted = System.nanoTime();
         return support.submit(() ->
         {
             // Script may be queued again
             removeScheduleMarker(script);
+            final long started = System.nanoTime();
+            boolean failed = false;
             try
             {
                 Map<String, Object> map = new HashMap<String, Object>();
@@ -79,8 +82,10 @@ public class PythonScriptSupport extends BaseScriptSupport
             }
             catch (final Throwable ex)
             {
+                failed = true;
                 logger.log(Level.WARNING, "Execution of '" + script + "' failed for " + widget, ex);
             }
+            ScriptMonitor.getInstance().executed(script, submitted, started, failed);
             return null;
         });
     }
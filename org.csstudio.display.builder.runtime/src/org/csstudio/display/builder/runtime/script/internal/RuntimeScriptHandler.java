@@ -12,6 +12,8 @@ import static org.csstudio.display.builder.runtime.RuntimePlugin.logger;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
@@ -24,6 +26,7 @@ import org.csstudio.display.builder.model.properties.ScriptPV;
 import org.csstudio.display.builder.model.rules.RuleInfo;
 import org.csstudio.display.builder.model.rules.RuleToScript;
 import org.csstudio.display.builder.model.util.ModelResourceUtil;
+import org.csstudio.display.builder.model.util.ModelThreadPool;
 import org.csstudio.display.builder.runtime.RuntimeUtil;
 import org.csstudio.display.builder.runtime.WidgetRuntime;
 import org.csstudio.display.builder.runtime.pv.PVFactory;
@@ -36,6 +39,11 @@ import org.diirt.vtype.VType;
  *  <p>Compiles script, connects to PVs,
  *  invokes script when trigger PVs change.
  *
+ *  <p>With a minimum period, the first trigger executes the script
+ *  right away. Further triggers within the period are coalesced into
+ *  one trailing execution at the end of the period,
+ *  which then uses the latest PV values.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -46,6 +54,18 @@ public class RuntimeScriptHandler implements RuntimePVListener
     private final Script script;
     private final boolean check_connections;
 
+    /** Minimum period between script submissions [ms], 0 to submit on every trigger */
+    private final long min_period;
+
+    /** Time of last submission [ms] */
+    private volatile long last_submission = 0;
+
+    /** Pending trailing submission, or <code>null</code> */
+    private volatile ScheduledFuture<?> pending = null;
+
+    /** Is a trailing submission pending? */
+    private final AtomicBoolean is_pending = new AtomicBoolean();
+
     /** 'pvs' is aligned with 'infos', i.e. pvs[i] goes with infos.get(i) */
     private final RuntimePV[] pvs;
 
@@ -128,7 +148,8 @@ public class RuntimeScriptHandler implements RuntimePVListener
      */
     public RuntimeScriptHandler(final Widget widget, final ScriptInfo script_info) throws Exception
     {
-        this(widget, compileScript(widget, widget.getMacrosOrProperties(), script_info), script_info.getCheckConnections(), script_info.getPVs());
+        this(widget, compileScript(widget, widget.getMacrosOrProperties(), script_info), null,
+             script_info.getCheckConnections(), script_info.getMinPeriod(), script_info.getPVs());
     }
 
     /** @param widget Widget on which the rule is invoked
@@ -137,21 +158,27 @@ public class RuntimeScriptHandler implements RuntimePVListener
      */
     public RuntimeScriptHandler(final Widget widget, final RuleInfo rule_info) throws Exception
     {
-        this(widget, compileScript(widget, rule_info), true, rule_info.getPVs());
+        this(widget, compileScript(widget, rule_info), "Rule " + rule_info.getName(),
+             true, rule_info.getMinPeriod(), rule_info.getPVs());
     }
 
     /** @param widget Widget on which the script is invoked
      *  @param script Script to execute
+     *  @param name Name used for execution statistics, <code>null</code> to use script name
      *  @param check_connections Check connections before executing script?
+     *  @param min_period Minimum period between script executions [ms], 0 for none
      *  @param infos PV infos
      *  @throws Exception on error
      */
-    private RuntimeScriptHandler(final Widget widget, final Script script, final boolean check_connections, final List<ScriptPV> infos) throws Exception
+    private RuntimeScriptHandler(final Widget widget, final Script script, final String name, final boolean check_connections,
+                                 final int min_period, final List<ScriptPV> infos) throws Exception
     {
         this.widget = widget;
         this.infos = infos;
         this.script = script;
         this.check_connections = check_connections;
+        this.min_period = min_period;
+        ScriptMonitor.getInstance().register(script, widget, name == null ? script.toString() : name);
         pvs = new RuntimePV[infos.size()];
         subscribed = new AtomicBoolean[infos.size()];
         createPVs();
@@ -179,12 +206,44 @@ public class RuntimeScriptHandler implements RuntimePVListener
         // invoke script right away while all PVs are still
         // disconnected
         if (! check_connections)
+            submitScript();
+    }
+
+    /** Submit script for execution, subject to the minimum period */
+    private void submitScript()
+    {
+        if (min_period <= 0)
+        {
             script.submit(widget, pvs);
+            return;
+        }
+        // Already scheduled to run at end of period?
+        // That execution will use the latest PV values.
+        if (! is_pending.compareAndSet(false, true))
+            return;
+        final long delay = last_submission + min_period - System.currentTimeMillis();
+        if (delay <= 0)
+            submitPending();
+        else
+            pending = ModelThreadPool.getTimer().schedule(this::submitPending, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /** Submit the pending execution */
+    private void submitPending()
+    {
+        pending = null;
+        last_submission = System.currentTimeMillis();
+        is_pending.set(false);
+        script.submit(widget, pvs);
     }
 
     /** Must be invoked to dispose PVs */
     public void shutdown()
     {
+        ScriptMonitor.getInstance().unregister(script);
+        final ScheduledFuture<?> trailing = pending;
+        if (trailing != null)
+            trailing.cancel(false);
         final WidgetRuntime<Widget> runtime = WidgetRuntime.ofWidget(widget);
         for (int i=0; i<pvs.length; ++i)
         {
@@ -237,7 +296,7 @@ public class RuntimeScriptHandler implements RuntimePVListener
         }
 
         // Request execution of script
-        script.submit(widget, pvs);
+        submitScript();
     }
 
     /** @param pv PV
@@ -261,6 +320,6 @@ public class RuntimeScriptHandler implements RuntimePVListener
         // Invoke script even if (trigger) PV is disconnected
         final int i = getPVIndex(pv);
         if (infos.get(i).isTrigger())
-            script.submit(widget, pvs);
+            submitScript();
     }
 }
\ No newline at end of file
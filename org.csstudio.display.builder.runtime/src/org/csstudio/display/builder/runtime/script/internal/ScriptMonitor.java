@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.script.internal;
+
+import static org.csstudio.display.builder.runtime.RuntimePlugin.logger;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import javax.management.ObjectName;
+
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.runtime.Preferences;
+
+/** Monitor for script and rule execution
+ *
+ *  <p>Keeps {@link ScriptStatistics} for each script
+ *  of a running display, logs slow scripts,
+ *  and provides the statistics via JMX.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ScriptMonitor implements ScriptMonitorMBean
+{
+    /** JMX name */
+    public static final String OBJECT_NAME = "org.csstudio.display.builder.runtime:type=ScriptMonitor";
+
+    /** Number of scripts listed in {@link #getTopScripts()} */
+    private static final int TOP_COUNT = 20;
+
+    private static final ScriptMonitor instance = new ScriptMonitor();
+
+    private final ConcurrentHashMap<Script, ScriptStatistics> statistics = new ConcurrentHashMap<>();
+
+    private volatile long slow_threshold_ns = TimeUnit.MILLISECONDS.toNanos(Preferences.getSlowScriptThreshold());
+
+    /** @return Singleton instance */
+    public static ScriptMonitor getInstance()
+    {
+        return instance;
+    }
+
+    private ScriptMonitor()
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot register " + OBJECT_NAME, ex);
+        }
+    }
+
+    /** Start monitoring a script
+     *  @param script Script or rule
+     *  @param widget Widget that executes the script
+     *  @param name Name of the script or rule
+     */
+    public void register(final Script script, final Widget widget, final String name)
+    {
+        statistics.put(script, new ScriptStatistics(widget, name));
+    }
+
+    /** Stop monitoring a script
+     *  @param script Script or rule
+     */
+    public void unregister(final Script script)
+    {
+        statistics.remove(script);
+    }
+
+    /** Record execution of a script
+     *
+     *  <p>Called by the script support after executing a script.
+     *  Scripts that have not been registered are ignored.
+     *
+     *  @param script Script that was executed
+     *  @param submitted {@link System#nanoTime()} when script was submitted
+     *  @param started {@link System#nanoTime()} when script started to execute
+     *  @param error Did the script fail?
+     */
+    public void executed(final Script script, final long submitted, final long started, final boolean error)
+    {
+        final ScriptStatistics stats = statistics.get(script);
+        if (stats == null)
+            return;
+        final long exec = System.nanoTime() - started;
+        stats.record(started - submitted, exec, error);
+
+        final long threshold = slow_threshold_ns;
+        if (threshold > 0  &&  exec > threshold)
+            logger.log(Level.WARNING,
+                       "Slow script {0} took {1} ms, widget {2} in display {3}",
+                       new Object[] { stats.getName(), TimeUnit.NANOSECONDS.toMillis(exec),
+                                      stats.getWidget(), stats.getDisplayPath() });
+    }
+
+    /** @param widget Widget
+     *  @return Statistics of all scripts and rules of that widget
+     */
+    public List<ScriptStatistics> getStatistics(final Widget widget)
+    {
+        return statistics.values()
+                         .stream()
+                         .filter(stats -> stats.getWidget() == widget)
+                         .collect(Collectors.toList());
+    }
+
+    /** @return Statistics of all monitored scripts, highest total execution time first */
+    public List<ScriptStatistics> getStatistics()
+    {
+        final List<ScriptStatistics> result = new ArrayList<>(statistics.values());
+        result.sort(Comparator.comparingDouble(ScriptStatistics::getTotalExecMillis).reversed());
+        return result;
+    }
+
+    @Override
+    public int getScriptCount()
+    {
+        return statistics.size();
+    }
+
+    @Override
+    public long getInvocationCount()
+    {
+        return statistics.values().stream().mapToLong(ScriptStatistics::getInvocations).sum();
+    }
+
+    @Override
+    public long getErrorCount()
+    {
+        return statistics.values().stream().mapToLong(ScriptStatistics::getErrors).sum();
+    }
+
+    @Override
+    public long getSlowThreshold()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(slow_threshold_ns);
+    }
+
+    @Override
+    public void setSlowThreshold(final long millisec)
+    {
+        slow_threshold_ns = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisec));
+    }
+
+    @Override
+    public String[] getTopScripts()
+    {
+        return getStatistics().stream()
+                              .limit(TOP_COUNT)
+                              .map(stats -> stats.toString() + " in " + stats.getDisplayPath())
+                              .toArray(String[]::new);
+    }
+
+    @Override
+    public String dumpCSV(final String filename) throws Exception
+    {
+        final List<ScriptStatistics> all = getStatistics();
+        try
+        (
+            final PrintWriter out = new PrintWriter(filename);
+        )
+        {
+            out.println(ScriptStatistics.getCSVHeader());
+            for (ScriptStatistics stats : all)
+                out.println(stats.toCSV());
+        }
+        return "Wrote statistics for " + all.size() + " scripts to " + filename;
+    }
+
+    @Override
+    public void reset()
+    {
+        statistics.values().forEach(ScriptStatistics::reset);
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.script.internal;
+
+/** JMX interface of the {@link ScriptMonitor}
+ *  @author Kay Kasemir
+ */
+public interface ScriptMonitorMBean
+{
+    /** @return Number of scripts and rules that are monitored */
+    public int getScriptCount();
+
+    /** @return Total number of script executions */
+    public long getInvocationCount();
+
+    /** @return Total number of failed script executions */
+    public long getErrorCount();
+
+    /** @return Execution time above which a script is logged as slow [ms] */
+    public long getSlowThreshold();
+
+    /** @param millisec Execution time above which a script is logged as slow [ms], 0 to disable */
+    public void setSlowThreshold(long millisec);
+
+    /** @return Scripts with the highest total execution time, most expensive first */
+    public String[] getTopScripts();
+
+    /** Write statistics of all scripts to CSV file
+     *  @param filename Name of CSV file
+     *  @return Info about what was written
+     *  @throws Exception on error
+     */
+    public String dumpCSV(String filename) throws Exception;
+
+    /** Reset statistics of all scripts */
+    public void reset();
+}
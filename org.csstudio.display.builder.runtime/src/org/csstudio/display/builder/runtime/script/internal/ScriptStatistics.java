@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.script.internal;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Widget;
+
+/** Execution statistics for one script or rule
+ *
+ *  <p>Updated by the script support after each execution,
+ *  read by the {@link ScriptMonitor}.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ScriptStatistics
+{
+    /** Upper limits of the execution time histogram buckets [ms].
+     *  Last bucket holds everything above the last limit.
+     */
+    public static final long[] HISTOGRAM_LIMITS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+
+    private final Widget widget;
+    private final String name;
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong total_wait = new AtomicLong();
+    private final AtomicLong max_wait = new AtomicLong();
+    private final AtomicLong total_exec = new AtomicLong();
+    private final AtomicLong max_exec = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_LIMITS.length + 1);
+
+    /** @param widget Widget that executes the script
+     *  @param name Name of the script or rule
+     */
+    public ScriptStatistics(final Widget widget, final String name)
+    {
+        this.widget = widget;
+        this.name = name;
+    }
+
+    /** @return Widget that executes the script */
+    public Widget getWidget()
+    {
+        return widget;
+    }
+
+    /** @return Name of the script or rule */
+    public String getName()
+    {
+        return name;
+    }
+
+    /** @return Path of the display that holds the widget, or "" */
+    public String getDisplayPath()
+    {
+        try
+        {
+            final String path = widget.getDisplayModel().getUserData(DisplayModel.USER_DATA_INPUT_FILE);
+            return path == null ? "" : path;
+        }
+        catch (Exception ex)
+        {   // Widget not (or no longer) in a display
+            return "";
+        }
+    }
+
+    /** Record one execution
+     *  @param wait_ns Time that script was queued [ns]
+     *  @param exec_ns Time that script executed [ns]
+     *  @param error Did the script fail?
+     */
+    public void record(final long wait_ns, final long exec_ns, final boolean error)
+    {
+        invocations.incrementAndGet();
+        if (error)
+            errors.incrementAndGet();
+        total_wait.addAndGet(wait_ns);
+        max_wait.accumulateAndGet(wait_ns, Math::max);
+        total_exec.addAndGet(exec_ns);
+        max_exec.accumulateAndGet(exec_ns, Math::max);
+        histogram.incrementAndGet(getBucket(TimeUnit.NANOSECONDS.toMillis(exec_ns)));
+    }
+
+    /** @param ms Execution time [ms]
+     *  @return Index of histogram bucket
+     */
+    static int getBucket(final long ms)
+    {
+        int i = 0;
+        while (i < HISTOGRAM_LIMITS.length  &&  ms >= HISTOGRAM_LIMITS[i])
+            ++i;
+        return i;
+    }
+
+    /** Reset all counters */
+    public void reset()
+    {
+        invocations.set(0);
+        errors.set(0);
+        total_wait.set(0);
+        max_wait.set(0);
+        total_exec.set(0);
+        max_exec.set(0);
+        for (int i=0; i<histogram.length(); ++i)
+            histogram.set(i, 0);
+    }
+
+    /** @return Number of executions */
+    public long getInvocations()
+    {
+        return invocations.get();
+    }
+
+    /** @return Number of failed executions */
+    public long getErrors()
+    {
+        return errors.get();
+    }
+
+    /** @return Average time that script was queued [ms] */
+    public double getAverageWaitMillis()
+    {
+        final long count = invocations.get();
+        return count > 0 ? total_wait.get() / 1e6 / count : 0.0;
+    }
+
+    /** @return Maximum time that script was queued [ms] */
+    public double getMaxWaitMillis()
+    {
+        return max_wait.get() / 1e6;
+    }
+
+    /** @return Average execution time [ms] */
+    public double getAverageExecMillis()
+    {
+        final long count = invocations.get();
+        return count > 0 ? total_exec.get() / 1e6 / count : 0.0;
+    }
+
+    /** @return Maximum execution time [ms] */
+    public double getMaxExecMillis()
+    {
+        return max_exec.get() / 1e6;
+    }
+
+    /** @return Total execution time [ms] */
+    public double getTotalExecMillis()
+    {
+        return total_exec.get() / 1e6;
+    }
+
+    /** @return Counts for the execution time histogram, see {@link #HISTOGRAM_LIMITS} */
+    public long[] getHistogram()
+    {
+        final long[] counts = new long[histogram.length()];
+        for (int i=0; i<counts.length; ++i)
+            counts[i] = histogram.get(i);
+        return counts;
+    }
+
+    /** @return CSV header that matches {@link #toCSV()} */
+    public static String getCSVHeader()
+    {
+        final StringBuilder buf = new StringBuilder();
+        buf.append("Display,Widget,Script,Invocations,Errors,Avg Wait [ms],Max Wait [ms],Avg Exec [ms],Max Exec [ms],Total Exec [ms]");
+        for (long limit : HISTOGRAM_LIMITS)
+            buf.append(",<").append(limit).append("ms");
+        buf.append(",>=").append(HISTOGRAM_LIMITS[HISTOGRAM_LIMITS.length-1]).append("ms");
+        return buf.toString();
+    }
+
+    /** @return Statistics as CSV line */
+    public String toCSV()
+    {
+        final StringBuilder buf = new StringBuilder();
+        buf.append(quote(getDisplayPath())).append(',')
+           .append(quote(widget.getName())).append(',')
+           .append(quote(name)).append(',')
+           .append(getInvocations()).append(',')
+           .append(getErrors()).append(',')
+           .append(String.format(Locale.ROOT, "%.3f,%.3f,%.3f,%.3f,%.3f",
+                                 getAverageWaitMillis(), getMaxWaitMillis(),
+                                 getAverageExecMillis(), getMaxExecMillis(),
+                                 getTotalExecMillis()));
+        for (long count : getHistogram())
+            buf.append(',').append(count);
+        return buf.toString();
+    }
+
+    private static String quote(final String text)
+    {
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s of %s: %d runs, %d errors, avg. %.3f ms, max. %.3f ms",
+                             name, widget, getInvocations(), getErrors(),
+                             getAverageExecMillis(), getMaxExecMillis());
+    }
+}
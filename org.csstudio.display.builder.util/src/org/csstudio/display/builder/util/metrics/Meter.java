@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.util.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Meter for events and their values
+ *
+ *  <p>Tracks the rate of events, for example PV updates per second,
+ *  and statistics of a value associated with each event,
+ *  for example the duration of a task.
+ *
+ *  <p>Adding events is thread-safe and doesn't block.
+ *  The statistics are computed for the interval between readouts,
+ *  but at least for one second,
+ *  so a JMX client that polls every few seconds sees
+ *  the statistics since its last poll.
+ *
+ *  @author Kay Kasemir
+ */
+public class Meter
+{
+    private static final long MIN_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /** Statistics of the last interval
+     *  SYNC on this
+     */
+    private long interval_start = System.nanoTime();
+    private double rate = 0.0, sum_rate = 0.0, average = 0.0;
+    private long maximum = 0;
+
+    /** Add event without value */
+    public void mark()
+    {
+        count.increment();
+    }
+
+    /** @param value Value of the event */
+    public void add(final long value)
+    {
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    private synchronized void update()
+    {
+        final long now = System.nanoTime();
+        final long nanos = now - interval_start;
+        if (nanos < MIN_INTERVAL)
+            return;
+        final double secs = nanos / 1e9;
+        final long n = count.sumThenReset();
+        final long total = sum.sumThenReset();
+        rate = n / secs;
+        sum_rate = total / secs;
+        average = n > 0 ? (double)total / n : 0.0;
+        maximum = max.getThenReset();
+        interval_start = now;
+    }
+
+    /** @return Events per second */
+    public synchronized double getRate()
+    {
+        update();
+        return rate;
+    }
+
+    /** @return Sum of values per second, for example bytes per second */
+    public synchronized double getSumRate()
+    {
+        update();
+        return sum_rate;
+    }
+
+    /** @return Average value */
+    public synchronized double getAverage()
+    {
+        update();
+        return average;
+    }
+
+    /** @return Maximum value */
+    public synchronized long getMax()
+    {
+        update();
+        return maximum;
+    }
+}
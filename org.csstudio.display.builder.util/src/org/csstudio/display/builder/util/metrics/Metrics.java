@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.util.metrics;
+
+import static org.csstudio.display.builder.util.Plugin.logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/** Registry for runtime metrics
+ *
+ *  <p>Components that want to report metrics
+ *  add an MXBean to the registry.
+ *  While metrics are enabled, these beans are registered
+ *  with the platform MBean server and can be inspected
+ *  via JMX, for example in 'jconsole' or 'jvisualvm'.
+ *
+ *  <p>Code that updates metrics in a hot path should
+ *  first check {@link #isEnabled()},
+ *  so the overhead of disabled metrics is a single volatile read:
+ *
+ *  <pre>
+ *  if (Metrics.isEnabled())
+ *      meter.add(value);
+ *  </pre>
+ *
+ *  <p>Metrics are enabled via the system property
+ *  <code>org.csstudio.display.builder.metrics=true</code>,
+ *  the runtime preferences,
+ *  or the <code>Enabled</code> attribute of the
+ *  <code>org.csstudio.display.builder:type=Metrics</code> MBean.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class Metrics
+{
+    /** JMX domain */
+    public static final String DOMAIN = "org.csstudio.display.builder";
+
+    /** Are metrics enabled? */
+    private static volatile boolean enabled = Boolean.getBoolean(DOMAIN + ".metrics");
+
+    /** Beans by name.
+     *  Registered with the MBean server while enabled.
+     *
+     *  SYNC on Metrics.class
+     */
+    private static final Map<ObjectName, Object> beans = new LinkedHashMap<>();
+
+    /** Number appended to the next bean of a type and name that was already added.
+     *  Removed once all beans of that type and name have been removed.
+     *
+     *  SYNC on Metrics.class
+     */
+    private static final Map<String, int[]> duplicates = new HashMap<>();
+
+    /** Type and name used to add a bean, key for <code>duplicates</code>
+     *
+     *  SYNC on Metrics.class
+     */
+    private static final Map<ObjectName, String> added_as = new HashMap<>();
+
+    static
+    {
+        final MetricsMXBean control = new MetricsMXBean()
+        {
+            @Override
+            public boolean isEnabled()
+            {
+                return Metrics.isEnabled();
+            }
+
+            @Override
+            public void setEnabled(final boolean enable)
+            {
+                Metrics.setEnabled(enable);
+            }
+
+            @Override
+            public int getBeanCount()
+            {
+                synchronized (Metrics.class)
+                {
+                    return beans.size();
+                }
+            }
+        };
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(control, new ObjectName(DOMAIN + ":type=Metrics"));
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot register metrics control", ex);
+        }
+        if (enabled)
+            logger.log(Level.CONFIG, "Metrics are enabled");
+    }
+
+    /** @return <code>true</code> if metrics should be updated */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /** @param enable Enable metrics? */
+    public static synchronized void setEnabled(final boolean enable)
+    {
+        if (enabled == enable)
+            return;
+        enabled = enable;
+        logger.log(Level.CONFIG, enable ? "Enabling metrics" : "Disabling metrics");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<ObjectName, Object> entry : beans.entrySet())
+            if (enable)
+                register(server, entry.getKey(), entry.getValue());
+            else
+                unregister(server, entry.getKey());
+    }
+
+    /** Add a bean to the registry
+     *
+     *  <p>If a bean of the same type and name was already added,
+     *  a number is appended to the name.
+     *
+     *  @param type Type of the bean, for example "PV"
+     *  @param name Name of the bean, for example the PV name
+     *  @param bean MXBean
+     *  @return {@link ObjectName} of the bean, <code>null</code> on error
+     */
+    public static synchronized ObjectName add(final String type, final String name, final Object bean)
+    {
+        try
+        {
+            // Count beans of same type and name, { next number, beans }
+            final String key = type + "," + name;
+            final int[] count = duplicates.computeIfAbsent(key, k -> new int[] { 1, 0 });
+            ObjectName object_name;
+            do
+            {
+                final String unique = count[0] == 1 ? name : name + " (" + count[0] + ")";
+                object_name = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(unique));
+                ++count[0];
+            }
+            // Only repeats if a bean was added with a name like "name (2)"
+            while (beans.containsKey(object_name));
+            ++count[1];
+            added_as.put(object_name, key);
+            beans.put(object_name, bean);
+            if (enabled)
+                register(ManagementFactory.getPlatformMBeanServer(), object_name, bean);
+            return object_name;
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot add metrics for " + type + " " + name, ex);
+            return null;
+        }
+    }
+
+    /** Remove a bean from the registry
+     *  @param name {@link ObjectName} returned by <code>add</code>, may be <code>null</code>
+     */
+    public static synchronized void remove(final ObjectName name)
+    {
+        if (name == null  ||  beans.remove(name) == null)
+            return;
+        final String key = added_as.remove(name);
+        final int[] count = duplicates.get(key);
+        if (count != null  &&  --count[1] <= 0)
+            duplicates.remove(key);
+        if (enabled)
+            unregister(ManagementFactory.getPlatformMBeanServer(), name);
+    }
+
+    private static void register(final MBeanServer server, final ObjectName name, final Object bean)
+    {
+        try
+        {
+            server.registerMBean(bean, name);
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot register " + name, ex);
+        }
+    }
+
+    private static void unregister(final MBeanServer server, final ObjectName name)
+    {
+        try
+        {
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot unregister " + name, ex);
+        }
+    }
+}
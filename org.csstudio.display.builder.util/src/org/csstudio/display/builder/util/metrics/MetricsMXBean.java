@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.util.metrics;
+
+/** JMX control of the {@link Metrics}
+ *  @author Kay Kasemir
+ */
+public interface MetricsMXBean
+{
+    /** @return <code>true</code> if metrics are enabled */
+    public boolean isEnabled();
+
+    /** @param enable Enable metrics? */
+    public void setEnabled(boolean enable);
+
+    /** @return Number of beans in the registry */
+    public int getBeanCount();
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.util.metrics;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/** Metrics of a {@link ThreadPoolExecutor}
+ *
+ *  <p>Thread and queue information is read from the executor.
+ *  Task latency is only available if the executor
+ *  wraps submitted tasks via {@link #wrap(Runnable)},
+ *  or for a scheduled executor via {@link #wrap(RunnableScheduledFuture)}.
+ *
+ *  @author Kay Kasemir
+ */
+public class ThreadPoolMetrics implements ThreadPoolMetricsMXBean
+{
+    private final ThreadPoolExecutor executor;
+
+    /** Time from submitting a task to its start [ns] */
+    private final Meter latency = new Meter();
+
+    /** Task that measures its latency */
+    private class TimedTask implements Runnable
+    {
+        private final Runnable task;
+        private final long submitted = System.nanoTime();
+
+        TimedTask(final Runnable task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public void run()
+        {
+            latency.add(System.nanoTime() - submitted);
+            task.run();
+        }
+    }
+
+    /** Scheduled task that measures the time from when it was due to its start */
+    private class TimedScheduledTask<V> implements RunnableScheduledFuture<V>
+    {
+        private final RunnableScheduledFuture<V> task;
+
+        TimedScheduledTask(final RunnableScheduledFuture<V> task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public void run()
+        {
+            // Delay is negative once the task is overdue.
+            // For periodic tasks, this is the delay of the current period.
+            if (Metrics.isEnabled())
+                latency.add(Math.max(0, -task.getDelay(TimeUnit.NANOSECONDS)));
+            task.run();
+        }
+
+        @Override
+        public boolean isPeriodic()
+        {
+            return task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit)
+        {
+            return task.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(final Delayed other)
+        {
+            return task.compareTo(other);
+        }
+
+        @Override
+        public boolean cancel(final boolean interrupt)
+        {
+            return task.cancel(interrupt);
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone()
+        {
+            return task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException
+        {
+            return task.get();
+        }
+
+        @Override
+        public V get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+        {
+            return task.get(timeout, unit);
+        }
+    }
+
+    /** @param executor Executor to monitor */
+    public ThreadPoolMetrics(final ThreadPoolExecutor executor)
+    {
+        this.executor = executor;
+    }
+
+    /** Wrap a task to measure its latency, if metrics are enabled
+     *  @param task Task that is submitted to the executor
+     *  @return Task to execute
+     */
+    public Runnable wrap(final Runnable task)
+    {
+        if (Metrics.isEnabled())
+            return new TimedTask(task);
+        return task;
+    }
+
+    /** Wrap a scheduled task to measure its latency, if metrics are enabled
+     *
+     *  <p>Latency of a scheduled task is the time from when
+     *  it was due to its start.
+     *
+     *  @param task Task that a scheduled executor is about to queue
+     *  @return Task to queue
+     */
+    public <V> RunnableScheduledFuture<V> wrap(final RunnableScheduledFuture<V> task)
+    {
+        if (Metrics.isEnabled())
+            return new TimedScheduledTask<>(task);
+        return task;
+    }
+
+    @Override
+    public int getActiveThreads()
+    {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getPoolSize()
+    {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getLargestPoolSize()
+    {
+        return executor.getLargestPoolSize();
+    }
+
+    @Override
+    public int getQueuedTasks()
+    {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public long getCompletedTasks()
+    {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public double getTasksPerSecond()
+    {
+        return latency.getRate();
+    }
+
+    @Override
+    public double getAverageTaskLatency()
+    {
+        return latency.getAverage() / 1e6;
+    }
+
+    @Override
+    public double getMaxTaskLatency()
+    {
+        return latency.getMax() / 1e6;
+    }
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.util.metrics;
+
+/** JMX metrics of a thread pool
+ *  @author Kay Kasemir
+ */
+public interface ThreadPoolMetricsMXBean
+{
+    /** @return Number of threads that are executing tasks */
+    public int getActiveThreads();
+
+    /** @return Number of threads in the pool */
+    public int getPoolSize();
+
+    /** @return Largest number of threads that were in the pool */
+    public int getLargestPoolSize();
+
+    /** @return Number of tasks waiting in the queue */
+    public int getQueuedTasks();
+
+    /** @return Number of completed tasks */
+    public long getCompletedTasks();
+
+    /** @return Tasks submitted per second */
+    public double getTasksPerSecond();
+
+    /** @return Average time from submitting a task to its start [ms] */
+    public double getAverageTaskLatency();
+
+    /** @return Maximum time from submitting a task to its start [ms] */
+    public double getMaxTaskLatency();
+}
@@ -64,4 +64,54 @@ public class CompoundUndoableAction extends UndoableAction
         for (int i=steps.size()-1; i>=0; --i)
             steps.get(i).undo();
     }
+
+    @Override
+    public long getSize()
+    {
+        long size = super.getSize();
+        for (UndoableAction step : steps)
+            size += step.getSize();
+        return size;
+    }
+
+    /** Can coalesce a compound action of the same name
+     *  where each step can coalesce with the corresponding step,
+     *  for example when the same widgets are moved again
+     */
+    @Override
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        if (! (newer instanceof CompoundUndoableAction)  ||
+            ! toString().equals(newer.toString()))
+            return false;
+        final List<UndoableAction> newer_steps = ((CompoundUndoableAction) newer).steps;
+        if (newer_steps.size() != steps.size())
+            return false;
+        for (int i=0; i<steps.size(); ++i)
+            if (! steps.get(i).canCoalesce(newer_steps.get(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public void coalesce(final UndoableAction newer)
+    {
+        final List<UndoableAction> newer_steps = ((CompoundUndoableAction) newer).steps;
+        for (int i=0; i<steps.size(); ++i)
+            steps.get(i).coalesce(newer_steps.get(i));
+    }
+
+    @Override
+    public void compact(final UndoJournal journal)
+    {
+        for (UndoableAction step : steps)
+            step.compact(journal);
+    }
+
+    @Override
+    public void release(final UndoJournal journal)
+    {
+        for (UndoableAction step : steps)
+            step.release(journal);
+    }
 }
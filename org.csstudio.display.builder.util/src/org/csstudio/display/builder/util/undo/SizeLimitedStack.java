@@ -11,9 +11,19 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 /** A stack with limited size.
  *  When full, oldest element will be removed.
+ *
+ *  <p>Optionally, the stack is also limited by the total
+ *  weight of its elements.
+ *  The top element is always kept, even if it alone exceeds
+ *  the maximum weight.
+ *  Elements that are removed because of these limits
+ *  are passed to an optional consumer.
+ *
  *  @param <T> Stack element
  *  @author Xihui Chen original org.csstudio.swt.xygraph.undo.SizeLimitedStack
  *  @author Kay Kasemir
@@ -21,12 +31,40 @@ import java.util.NoSuchElementException;
 public class SizeLimitedStack<T>
 {
     final private int limit;
+    final private long max_weight;
+    final private ToLongFunction<T> weigher;
+    final private Consumer<T> dropped;
     final private LinkedList<T> list = new LinkedList<T>();
+    final private LinkedList<Long> weights = new LinkedList<>();
+    private long weight = 0;
 
     /**@param limit Maximum number of stack elements */
     public SizeLimitedStack(final int limit)
+    {
+        this(limit, Long.MAX_VALUE, item -> 0);
+    }
+
+    /** @param limit Maximum number of stack elements
+     *  @param max_weight Maximum total weight of stack elements
+     *  @param weigher Determines weight of an element when it's pushed
+     */
+    public SizeLimitedStack(final int limit, final long max_weight, final ToLongFunction<T> weigher)
+    {
+        this(limit, max_weight, weigher, item -> {});
+    }
+
+    /** @param limit Maximum number of stack elements
+     *  @param max_weight Maximum total weight of stack elements
+     *  @param weigher Determines weight of an element when it's pushed
+     *  @param dropped Called with each element that is removed to stay within the limits
+     */
+    public SizeLimitedStack(final int limit, final long max_weight, final ToLongFunction<T> weigher,
+                            final Consumer<T> dropped)
     {
         this.limit = limit;
+        this.max_weight = max_weight;
+        this.weigher = weigher;
+        this.dropped = dropped;
     }
 
     /** @return <code>true</code> if stack is empty */
@@ -38,9 +76,17 @@ public class SizeLimitedStack<T>
     /** @param item Item to pushed onto stack. */
     public void push(final T item)
     {
-        if (list.size() >= limit)
-            list.removeFirst();
+        final long item_weight = weigher.applyAsLong(item);
         list.addLast(item);
+        weights.addLast(item_weight);
+        weight += item_weight;
+        while (list.size() > limit  ||
+               (list.size() > 1  &&  weight > max_weight))
+        {
+            final T oldest = list.removeFirst();
+            weight -= weights.removeFirst();
+            dropped.accept(oldest);
+        }
     }
 
     /** Get items which are currently on the stack.
@@ -61,6 +107,12 @@ public class SizeLimitedStack<T>
         return list.size();
     }
 
+    /** @return Total weight of items on stack */
+    public long getWeight()
+    {
+        return weight;
+    }
+
     /** @return Top element
      *  @throws NoSuchElementException if empty
      */
@@ -74,12 +126,16 @@ public class SizeLimitedStack<T>
      */
     public T pop()
     {
-        return list.removeLast();
+        final T item = list.removeLast();
+        weight -= weights.removeLast();
+        return item;
     }
 
     /** Empty the stack */
     public void clear()
     {
         list.clear();
+        weights.clear();
+        weight = 0;
     }
 }
@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.util.undo;
+
+import static org.csstudio.display.builder.util.Plugin.logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/** Compact storage for data of {@link UndoableAction}s
+ *
+ *  <p>Actions that would otherwise hold on to large values
+ *  can serialize them into the journal.
+ *  Data is kept compressed in memory,
+ *  or optionally spilled to a temporary file.
+ *
+ *  <p>Consecutive actions often store the same data,
+ *  for example the new value of one edit is the original value
+ *  of the following edit.
+ *  Recently stored entries are therefore shared
+ *  when the same data is stored again.
+ *
+ *  <p>Entries are reference counted.
+ *  Once all users of an entry {@link #release(Entry)} it,
+ *  its space in the spill file is reclaimed.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class UndoJournal
+{
+    /** Compressed data larger than this is spilled to the file, if enabled */
+    public static final int SPILL_THRESHOLD = 1024;
+
+    /** Number of recent entries checked for shared data */
+    private static final int RECENT = 16;
+
+    /** Data in the journal */
+    public class Entry
+    {
+        private final int hash, length;
+        private final byte[] compressed;
+        /** Offset in file, changes when file is compacted. Guarded by journal */
+        private long offset;
+        private final int file_length;
+        /** Number of users. Guarded by journal */
+        private int references = 1;
+
+        private Entry(final int hash, final int length, final byte[] compressed)
+        {
+            this.hash = hash;
+            this.length = length;
+            this.compressed = compressed;
+            this.offset = -1;
+            this.file_length = 0;
+        }
+
+        private Entry(final int hash, final int length, final long offset, final int file_length)
+        {
+            this.hash = hash;
+            this.length = length;
+            this.compressed = null;
+            this.offset = offset;
+            this.file_length = file_length;
+        }
+
+        /** @return Data that was stored
+         *  @throws IOException on error
+         */
+        public byte[] read() throws IOException
+        {
+            final byte[] data = compressed != null ? compressed : readFile(this);
+            final Inflater inflater = new Inflater();
+            try
+            {
+                inflater.setInput(data);
+                final byte[] result = new byte[length];
+                int done = 0;
+                while (done < length)
+                {
+                    final int got = inflater.inflate(result, done, length - done);
+                    if (got <= 0  &&  (inflater.finished()  ||  inflater.needsInput()))
+                        throw new IOException("Journal entry is truncated");
+                    done += got;
+                }
+                return result;
+            }
+            catch (DataFormatException ex)
+            {
+                throw new IOException("Journal entry is corrupted", ex);
+            }
+            finally
+            {
+                inflater.end();
+            }
+        }
+
+        /** @return Estimated number of bytes used in memory */
+        public long getSize()
+        {
+            return 48 + (compressed == null ? 0 : compressed.length);
+        }
+    }
+
+    private final boolean spill;
+
+    private final LinkedList<Entry> recent = new LinkedList<>();
+
+    private File file = null;
+    private RandomAccessFile spill_file = null;
+
+    /** Entries in the spill file, ordered by offset */
+    private final List<Entry> spilled = new ArrayList<>();
+
+    /** Bytes in the spill file used by released entries */
+    private long released = 0;
+
+    /** @param spill Spill larger entries to a temporary file? */
+    public UndoJournal(final boolean spill)
+    {
+        this.spill = spill;
+    }
+
+    /** @param data Data to store
+     *  @return {@link Entry} for reading the data
+     *  @throws IOException on error
+     */
+    public synchronized Entry store(final byte[] data) throws IOException
+    {
+        final int hash = Arrays.hashCode(data);
+        for (Entry entry : recent)
+            if (entry.hash == hash  &&  entry.length == data.length  &&  Arrays.equals(entry.read(), data))
+            {
+                ++entry.references;
+                return entry;
+            }
+
+        final byte[] compressed = compress(data);
+        final Entry entry;
+        if (spill  &&  compressed.length > SPILL_THRESHOLD)
+        {
+            entry = new Entry(hash, data.length, writeFile(compressed), compressed.length);
+            spilled.add(entry);
+        }
+        else
+            entry = new Entry(hash, data.length, compressed);
+
+        recent.addFirst(entry);
+        if (recent.size() > RECENT)
+            recent.removeLast();
+        return entry;
+    }
+
+    private static byte[] compress(final byte[] data)
+    {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(data);
+            deflater.finish();
+            final ByteArrayOutputStream buf = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            final byte[] chunk = new byte[4096];
+            while (! deflater.finished())
+                buf.write(chunk, 0, deflater.deflate(chunk));
+            return buf.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private synchronized long writeFile(final byte[] data) throws IOException
+    {
+        if (spill_file == null)
+        {
+            file = File.createTempFile("undo", ".journal");
+            file.deleteOnExit();
+            spill_file = new RandomAccessFile(file, "rw");
+            logger.log(Level.FINE, "Undo journal spills to {0}", file);
+        }
+        final long offset = spill_file.length();
+        spill_file.seek(offset);
+        spill_file.write(data);
+        return offset;
+    }
+
+    private synchronized byte[] readFile(final Entry entry) throws IOException
+    {
+        if (spill_file == null  ||  entry.references <= 0)
+            throw new IOException("Undo journal entry has been released");
+        final byte[] data = new byte[entry.file_length];
+        spill_file.seek(entry.offset);
+        spill_file.readFully(data);
+        return data;
+    }
+
+    /** Release an entry
+     *
+     *  <p>To be called by each user of an entry that was obtained
+     *  from {@link #store(byte[])} once the entry is no longer needed.
+     *  When the entry is no longer used at all,
+     *  its space in the spill file is reclaimed.
+     *
+     *  @param entry {@link Entry} that is no longer used
+     */
+    public synchronized void release(final Entry entry)
+    {
+        if (entry.references <= 0  ||  --entry.references > 0)
+            return;
+        recent.remove(entry);
+        if (entry.compressed != null  ||  spill_file == null)
+            return;
+        released += entry.file_length;
+        try
+        {
+            final long size = spill_file.length();
+            if (released >= size)
+            {   // Nothing left in the file
+                spill_file.setLength(0);
+                spilled.clear();
+                released = 0;
+            }
+            else if (released > size / 2)
+                compactFile();
+        }
+        catch (IOException ex)
+        {
+            logger.log(Level.WARNING, "Cannot compact undo journal " + file, ex);
+        }
+    }
+
+    /** Move entries that are still used to the start of the file, truncate the rest
+     *  @throws IOException on error
+     */
+    private void compactFile() throws IOException
+    {
+        // Entries are ordered by offset, and each is moved
+        // to a position at or before its original offset,
+        // so the file can be compacted in place
+        long end = 0;
+        final Iterator<Entry> entries = spilled.iterator();
+        while (entries.hasNext())
+        {
+            final Entry entry = entries.next();
+            if (entry.references <= 0)
+            {
+                entries.remove();
+                continue;
+            }
+            if (entry.offset != end)
+            {
+                final byte[] data = readFile(entry);
+                spill_file.seek(end);
+                spill_file.write(data);
+                entry.offset = end;
+            }
+            end += entry.file_length;
+        }
+        spill_file.setLength(end);
+        released = 0;
+    }
+
+    /** @return Number of bytes in the spill file */
+    public synchronized long getFileSize()
+    {
+        try
+        {
+            return spill_file == null ? 0 : spill_file.length();
+        }
+        catch (IOException ex)
+        {
+            return 0;
+        }
+    }
+
+    /** Remove all entries
+     *
+     *  <p>Entries that are still referenced can no longer be read
+     *  if they were spilled to the file.
+     */
+    public synchronized void clear()
+    {
+        recent.clear();
+        for (Entry entry : spilled)
+            entry.references = 0;
+        spilled.clear();
+        released = 0;
+        if (spill_file != null)
+        {
+            try
+            {
+                spill_file.close();
+            }
+            catch (IOException ex)
+            {
+                logger.log(Level.WARNING, "Cannot close undo journal " + file, ex);
+            }
+            if (! file.delete())
+                logger.log(Level.WARNING, "Cannot delete undo journal " + file);
+            spill_file = null;
+            file = null;
+        }
+    }
+}
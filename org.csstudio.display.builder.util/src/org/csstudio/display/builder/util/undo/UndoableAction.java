@@ -34,6 +34,66 @@ abstract public class UndoableAction implements Runnable
     /** Called by the {@link UndoableActionManager} to un-do the action. */
     abstract public void undo();
 
+    /** @return Estimated number of bytes held by this action */
+    public long getSize()
+    {
+        return 64;
+    }
+
+    /** Check if this action can absorb a newer action
+     *
+     *  <p>Called by the {@link UndoableActionManager} when the newer
+     *  action has been performed right after this one,
+     *  for example while the user drags a widget or
+     *  types into the same property.
+     *
+     *  @param newer Action that was performed right after this one
+     *  @return <code>true</code> if {@link #coalesce(UndoableAction)} can be called
+     */
+    public boolean canCoalesce(final UndoableAction newer)
+    {
+        return false;
+    }
+
+    /** Absorb a newer action
+     *
+     *  <p>Afterwards, {@link #undo()} must revert to the state
+     *  before this action, and {@link #run()} must result
+     *  in the state after the newer action.
+     *
+     *  @param newer Action for which {@link #canCoalesce(UndoableAction)} returned <code>true</code>
+     */
+    @SuppressWarnings("nls")
+    public void coalesce(final UndoableAction newer)
+    {
+        throw new UnsupportedOperationException(this + " cannot coalesce " + newer);
+    }
+
+    /** Reduce memory used by the action
+     *
+     *  <p>Called by the {@link UndoableActionManager} once
+     *  a newer action has been added.
+     *  May be called more than once.
+     *
+     *  @param journal {@link UndoJournal} where larger data can be stored
+     */
+    public void compact(final UndoJournal journal)
+    {
+        // Nothing to compact by default
+    }
+
+    /** Release data stored in the journal
+     *
+     *  <p>Called by the {@link UndoableActionManager} when
+     *  the action is dropped from the undo or redo history.
+     *
+     *  @param journal {@link UndoJournal} that was passed to {@link #compact(UndoJournal)}
+     */
+    public void release(final UndoJournal journal)
+    {
+        // Nothing stored by default
+    }
+
     /** @return Name used to show action in undo/redo UI */
     @Override
     final public String toString()
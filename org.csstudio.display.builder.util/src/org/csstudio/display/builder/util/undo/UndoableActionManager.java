@@ -14,6 +14,13 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 /** Manager for {@link UndoableAction}s
+ *
+ *  <p>The history is limited by the number of entries
+ *  and optionally by the estimated memory used by the actions.
+ *  An action that is performed right after a similar one,
+ *  for example while a widget is moved in small steps,
+ *  is coalesced into the previous action.
+ *  Older actions are compacted into an {@link UndoJournal}.
  *
  *  @author Xihui Chen original org.csstudio.swt.xygraph.undo.OperationsManager
  *  @author Kay Kasemir
@@ -21,15 +28,32 @@ import java.util.logging.Level;
 @SuppressWarnings("nls")
 public class UndoableActionManager
 {
+    /** Actions added within this time can be coalesced */
+    private static final long COALESCE_MS = 1000;
+
     private final SizeLimitedStack<UndoableAction> undoStack;
     private final SizeLimitedStack<UndoableAction> redoStack;
+    private final UndoJournal journal;
     private final List<UndoRedoListener> listeners = new CopyOnWriteArrayList<>();
 
+    /** Time when top of undo stack was added, 0 if it must not be coalesced */
+    private long last_add = 0;
+
     /** @param stack_size Number of undo/redo entries */
     public UndoableActionManager(final int stack_size)
     {
-        undoStack = new SizeLimitedStack<UndoableAction>(stack_size);
-        redoStack = new SizeLimitedStack<UndoableAction>(stack_size);
+        this(stack_size, Long.MAX_VALUE, false);
+    }
+
+    /** @param stack_size Number of undo/redo entries
+     *  @param max_bytes Memory budget for undo and for redo entries
+     *  @param spill Spill larger data of older actions to a temporary file?
+     */
+    public UndoableActionManager(final int stack_size, final long max_bytes, final boolean spill)
+    {
+        journal = new UndoJournal(spill);
+        undoStack = new SizeLimitedStack<UndoableAction>(stack_size, max_bytes, UndoableAction::getSize, this::release);
+        redoStack = new SizeLimitedStack<UndoableAction>(stack_size, max_bytes, UndoableAction::getSize, this::release);
     }
 
     /** @param listener Listener to add */
@@ -74,11 +98,70 @@ public class UndoableActionManager
     /** @param action Action that has already been performed, which can be un-done */
     public void add(final UndoableAction action)
     {
-        undoStack.push(action);
+        final long now = System.currentTimeMillis();
+        if (now - last_add < COALESCE_MS  &&
+            ! undoStack.isEmpty()  &&
+            undoStack.peek().canCoalesce(action))
+        {
+            // Re-push to update the weight
+            final UndoableAction top = undoStack.pop();
+            top.coalesce(action);
+            undoStack.push(top);
+        }
+        else
+        {
+            if (! undoStack.isEmpty())
+            {
+                final UndoableAction previous = undoStack.pop();
+                compact(previous);
+                undoStack.push(previous);
+            }
+            undoStack.push(action);
+        }
+        last_add = now;
+        for (UndoableAction dropped : redoStack.getItems())
+            release(dropped);
         redoStack.clear();
         fireOperationsHistoryChanged();
     }
 
+    private void compact(final UndoableAction action)
+    {
+        try
+        {
+            action.compact(journal);
+        }
+        catch (final Throwable ex)
+        {
+            logger.log(Level.WARNING, "Cannot compact " + action, ex);
+        }
+    }
+
+    /** @param action Action that was dropped from the history */
+    private void release(final UndoableAction action)
+    {
+        try
+        {
+            action.release(journal);
+        }
+        catch (final Throwable ex)
+        {
+            logger.log(Level.WARNING, "Cannot release " + action, ex);
+        }
+    }
+
+    /** @return Estimated number of bytes used by undo and redo entries */
+    public long getSize()
+    {
+        return undoStack.getWeight() + redoStack.getWeight();
+    }
+
+    /** @return Number of bytes in the spill file of the journal */
+    public long getSpilledSize()
+    {
+        return journal.getFileSize();
+    }
+
     /** Undo the last command
      *  @returns Action that was un-done
      */
@@ -87,6 +170,7 @@ public class UndoableActionManager
         if (undoStack.isEmpty())
             return null;
         final UndoableAction action = undoStack.pop();
+        last_add = 0;
         try
         {
             logger.log(Level.FINE, "Undo {0}", action);
@@ -110,6 +194,7 @@ public class UndoableActionManager
         if (redoStack.isEmpty())
             return null;
         final UndoableAction action = redoStack.pop();
+        last_add = 0;
         logger.log(Level.FINE, "Redo {0}", action);
         action.run();
         undoStack.push(action);
@@ -122,6 +207,8 @@ public class UndoableActionManager
     {
         undoStack.clear();
         redoStack.clear();
+        journal.clear();
+        last_add = 0;
         fireOperationsHistoryChanged();
     }
 
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.csstudio.javafx.rtplot.internal.ImageColorMapping;
+import org.diirt.util.array.ArrayByte;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.array.ArrayFloat;
+import org.diirt.util.array.ArrayInt;
+import org.diirt.util.array.ArrayShort;
+import org.diirt.util.array.ListNumber;
+import org.junit.Test;
+
+/** JUnit test of {@link ImageColorMapping}
+ *
+ *  <p>Lookup tables, primitive arrays and parallel mapping
+ *  must result in the same pixels as the per-sample mapping.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ImageColorMappingTest
+{
+    /** Large enough to be mapped in parallel */
+    private static final int WIDTH = 400, HEIGHT = 300, N = WIDTH * HEIGHT;
+
+    /** Color mapping with a different color for each of 256 intensities */
+    private static final ColorMappingFunction MAPPING = value ->
+    {
+        final int level = (int) (value * 255 + 0.5);
+        return ColorMappingFunction.getRGB(new int[] { level, 255 - level, (level * 7) & 0xFF });
+    };
+
+    private final ImageColorMapping mapper = new ImageColorMapping();
+
+    private void checkMapping(final ListNumber numbers, final boolean unsigned, final double min, final double max)
+    {
+        for (boolean log : new boolean[] { false, true })
+        {
+            final int[] expected = new int[N];
+            ImageColorMapping.map(expected, WIDTH, HEIGHT, numbers, ImageColorMapping.getSampleFunction(numbers, unsigned),
+                                  min, max, log, MAPPING);
+            final int[] pixels = new int[N];
+            mapper.apply(pixels, WIDTH, HEIGHT, numbers, unsigned, min, max, log, MAPPING);
+            for (int i=0; i<N; ++i)
+                if (pixels[i] != expected[i])
+                    assertThat(numbers.getClass().getSimpleName() + (unsigned ? " unsigned" : "") +
+                               (log ? " log" : "") + " pixel " + i,
+                               Integer.toHexString(pixels[i]), equalTo(Integer.toHexString(expected[i])));
+        }
+    }
+
+    @Test
+    public void testByte()
+    {
+        final byte[] data = new byte[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (byte) i;
+        final ListNumber numbers = new ArrayByte(data);
+        checkMapping(numbers, false, -100, 100);
+        checkMapping(numbers, true, 1, 255);
+        checkMapping(numbers, true, 10, 200);
+    }
+
+    @Test
+    public void testShort()
+    {
+        final short[] data = new short[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (short) (i * 7);
+        final ListNumber numbers = new ArrayShort(data);
+        checkMapping(numbers, false, -30000, 30000);
+        checkMapping(numbers, true, 1, 65535);
+        checkMapping(numbers, true, 1000, 4095);
+    }
+
+    @Test
+    public void testInt()
+    {
+        final int[] data = new int[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (i - N/2) * 20000;
+        final ListNumber numbers = new ArrayInt(data);
+        checkMapping(numbers, false, -1e9, 1e9);
+        checkMapping(numbers, true, 1, 4e9);
+    }
+
+    @Test
+    public void testFloatDouble()
+    {
+        final float[] floats = new float[N];
+        final double[] doubles = new double[N];
+        for (int i=0; i<N; ++i)
+        {
+            doubles[i] = Math.sin(i * 0.001) * 1000.0;
+            floats[i] = (float) doubles[i];
+        }
+        checkMapping(new ArrayFloat(floats), false, 0.1, 1000);
+        checkMapping(new ArrayDouble(doubles), false, -500, 500);
+        checkMapping(new ArrayDouble(doubles), false, 0.1, 1000);
+    }
+
+    @Test
+    public void testLookupUpdate()
+    {
+        final short[] data = new short[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (short) i;
+        final ListNumber numbers = new ArrayShort(data);
+        // Lookup table must follow changes in range and color map
+        checkMapping(numbers, true, 0, 1000);
+        checkMapping(numbers, true, 0, 2000);
+        checkMapping(numbers, false, 0, 2000);
+        final int[] pixels = new int[N];
+        mapper.apply(pixels, WIDTH, HEIGHT, numbers, false, 0, 2000, false, ColorMappingFunction.GRAYSCALE);
+        final int[] expected = new int[N];
+        ImageColorMapping.map(expected, WIDTH, HEIGHT, numbers, ImageColorMapping.getSampleFunction(numbers, false),
+                              0, 2000, false, ColorMappingFunction.GRAYSCALE);
+        assertThat(pixels, equalTo(expected));
+    }
+}
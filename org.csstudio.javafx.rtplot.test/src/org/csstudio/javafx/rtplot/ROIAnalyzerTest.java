@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import org.csstudio.javafx.rtplot.internal.ROIAnalyzer;
+import org.diirt.util.array.ArrayByte;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.array.ArrayFloat;
+import org.diirt.util.array.ArrayInt;
+import org.diirt.util.array.ArrayShort;
+import org.diirt.util.array.ListNumber;
+import org.junit.Test;
+
+/** JUnit test of {@link ROIAnalyzer}
+ *
+ *  <p>Compares with brute-force computation
+ *  based on <code>ListNumber.getDouble</code>.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ROIAnalyzerTest
+{
+    private static final int WIDTH = 300, HEIGHT = 200, N = WIDTH * HEIGHT;
+
+    private static final double TOLERANCE = 1e-9;
+
+    private static double getSample(final ListNumber numbers, final boolean unsigned, final int index)
+    {
+        if (unsigned)
+        {
+            if (numbers instanceof ArrayByte)
+                return Byte.toUnsignedInt(numbers.getByte(index));
+            if (numbers instanceof ArrayShort)
+                return Short.toUnsignedInt(numbers.getShort(index));
+            if (numbers instanceof ArrayInt)
+                return Integer.toUnsignedLong(numbers.getInt(index));
+        }
+        return numbers.getDouble(index);
+    }
+
+    /** Brute-force computation of statistics, one pixel at a time */
+    private static void checkStatistics(final ListNumber numbers, final boolean unsigned,
+                                        final int x0, final int y0, final int x1, final int y1)
+    {
+        final ROIStatistics stats = ROIAnalyzer.analyze(numbers, unsigned, WIDTH, HEIGHT, x0, y0, x1, y1, ROIAnalyzer.DEFAULT_BINS);
+        System.out.println(stats);
+
+        final int cx0 = Math.max(0, x0), cy0 = Math.max(0, y0),
+                  cx1 = Math.min(WIDTH, x1), cy1 = Math.min(HEIGHT, y1);
+        assertThat(stats.getX(), equalTo(cx0));
+        assertThat(stats.getY(), equalTo(cy0));
+        assertThat(stats.getWidth(), equalTo(cx1 - cx0));
+        assertThat(stats.getHeight(), equalTo(cy1 - cy0));
+
+        int count = 0;
+        double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum_x = 0, sum_y = 0;
+        final double[] horiz = new double[cx1 - cx0], vert = new double[cy1 - cy0];
+        for (int y=cy0; y<cy1; ++y)
+            for (int x=cx0; x<cx1; ++x)
+            {
+                final double value = getSample(numbers, unsigned, x + y*WIDTH);
+                if (Double.isNaN(value))
+                    continue;
+                ++count;
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum_x += x * value;
+                sum_y += y * value;
+                horiz[x - cx0] += value / (cy1 - cy0);
+                vert[y - cy0] += value / (cx1 - cx0);
+            }
+        assertThat(stats.getCount(), equalTo(count));
+        final double scale = Math.max(1.0, Math.abs(sum));
+        assertEquals(sum, stats.getSum(), TOLERANCE * scale);
+        assertEquals(sum / count, stats.getMean(), TOLERANCE * scale);
+        assertEquals(min, stats.getMin(), 0.0);
+        assertEquals(max, stats.getMax(), 0.0);
+        assertEquals(sum_x / sum, stats.getCentroidX(), 1e-6);
+        assertEquals(sum_y / sum, stats.getCentroidY(), 1e-6);
+        assertArrayEquals(horiz, stats.getHorizontalProfile(), TOLERANCE * scale);
+        assertArrayEquals(vert, stats.getVerticalProfile(), TOLERANCE * scale);
+
+        final int[] histogram = new int[ROIAnalyzer.DEFAULT_BINS];
+        for (int y=cy0; y<cy1; ++y)
+            for (int x=cx0; x<cx1; ++x)
+            {
+                final double value = getSample(numbers, unsigned, x + y*WIDTH);
+                int bin = max > min ? (int) ((value - min) / (max - min) * histogram.length) : 0;
+                histogram[Math.min(bin, histogram.length-1)] += 1;
+            }
+        int total = 0;
+        for (int i=0; i<histogram.length; ++i)
+        {
+            // Bin of a value close to a bin boundary might differ by rounding
+            assertEquals("Bin " + i, histogram[i], stats.getHistogram()[i], Math.max(2, histogram[i] / 100));
+            total += stats.getHistogram()[i];
+        }
+        assertThat(total, equalTo(count));
+    }
+
+    private static void checkRegions(final ListNumber numbers, final boolean unsigned)
+    {
+        checkStatistics(numbers, unsigned, 0, 0, WIDTH, HEIGHT);
+        checkStatistics(numbers, unsigned, 10, 20, 110, 70);
+        checkStatistics(numbers, unsigned, -10, -20, 50, 30);
+        checkStatistics(numbers, unsigned, 250, 150, 400, 300);
+        checkStatistics(numbers, unsigned, 42, 17, 43, 18);
+    }
+
+    @Test
+    public void testByte()
+    {
+        final byte[] data = new byte[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (byte) (i * 13);
+        checkRegions(new ArrayByte(data), false);
+        checkRegions(new ArrayByte(data), true);
+    }
+
+    @Test
+    public void testShort()
+    {
+        final short[] data = new short[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (short) (i * 7);
+        checkRegions(new ArrayShort(data), false);
+        checkRegions(new ArrayShort(data), true);
+    }
+
+    @Test
+    public void testInt()
+    {
+        final int[] data = new int[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (i - N/2) * 20000;
+        checkRegions(new ArrayInt(data), false);
+        checkRegions(new ArrayInt(data), true);
+    }
+
+    @Test
+    public void testFloatDouble()
+    {
+        final float[] floats = new float[N];
+        final double[] doubles = new double[N];
+        for (int i=0; i<N; ++i)
+        {
+            final int x = i % WIDTH, y = i / WIDTH;
+            // Gaussian spot
+            doubles[i] = 1000.0 * Math.exp(-((x-120)*(x-120) + (y-80)*(y-80)) / 800.0);
+            floats[i] = (float) doubles[i];
+        }
+        checkRegions(new ArrayFloat(floats), false);
+        checkRegions(new ArrayDouble(doubles), false);
+
+        // Spot is centered on 120, 80
+        final ROIStatistics stats = ROIAnalyzer.analyze(new ArrayDouble(doubles), false, WIDTH, HEIGHT, 60, 20, 181, 141, 10);
+        assertEquals(120.0, stats.getCentroidX(), 0.01);
+        assertEquals(80.0, stats.getCentroidY(), 0.01);
+        assertThat(stats.getHistogram().length, equalTo(10));
+    }
+
+    @Test
+    public void testNaN()
+    {
+        final double[] data = new double[N];
+        for (int i=0; i<N; ++i)
+            data[i] = (i % 3) == 0 ? Double.NaN : i;
+        final ROIStatistics stats = ROIAnalyzer.analyze(new ArrayDouble(data), false, WIDTH, HEIGHT, 0, 0, 3, 1, 10);
+        // 0 is NaN, so only 1 and 2
+        assertThat(stats.getCount(), equalTo(2));
+        assertEquals(3.0, stats.getSum(), 0.0);
+        assertEquals(1.0, stats.getMin(), 0.0);
+        assertEquals(2.0, stats.getMax(), 0.0);
+        assertThat(stats.getHorizontalProfile()[0], equalTo(Double.NaN));
+        assertEquals(1.5, stats.getVerticalProfile()[0], 0.0);
+    }
+
+    @Test
+    public void testOutside()
+    {
+        final ROIStatistics stats = ROIAnalyzer.analyze(new ArrayDouble(new double[N]), false, WIDTH, HEIGHT, 400, 0, 500, 100, 10);
+        assertThat(stats.getCount(), equalTo(0));
+        assertThat(stats.getWidth(), equalTo(0));
+        assertThat(stats.getMean(), equalTo(Double.NaN));
+        assertThat(stats.getHorizontalProfile().length, equalTo(0));
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.csstudio.javafx.rtplot.internal.util.LayerCompositor;
+import org.junit.Test;
+
+/** JUnit test of the {@link RTTank} image updates
+ *
+ *  <p>Compares partial updates of the fill level with
+ *  a complete repaint, and measures the allocation rate
+ *  of value updates.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class RTTankTest
+{
+    private static final int WIDTH = 200, HEIGHT = 400;
+
+    /** Sink that keeps a copy of the transferred pixels */
+    private static class TestSink implements LayerCompositor.PixelSink
+    {
+        final int[] image = new int[WIDTH * HEIGHT];
+        long bytes = 0;
+
+        @Override
+        public void setPixels(final int x, final int y, final int width, final int height,
+                              final int[] pixels, final int offset, final int scan)
+        {
+            for (int row=0; row<height; ++row)
+                System.arraycopy(pixels, offset + row*scan, image, (y+row)*WIDTH + x, width);
+            bytes += 4L * width * height;
+        }
+    }
+
+    /** @return Tank that's only updated by the test, not the update throttle */
+    private static RTTank createTank(final double low, final double high, final double value)
+    {
+        final RTTank tank = new RTTank();
+        tank.dispose();
+        tank.setWidth(WIDTH);
+        tank.setHeight(HEIGHT);
+        tank.setRange(low, high);
+        tank.setValue(value);
+        // Initial paint computes the tick labels,
+        // which requests another layout and full paint
+        tank.updateImageBuffer();
+        tank.updateImageBuffer();
+        return tank;
+    }
+
+    private static int[] getPixels(final RTTank tank)
+    {
+        final BufferedImage image = tank.getRenderTarget().getImage();
+        return image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+    }
+
+    @Test
+    public void testPartialUpdates()
+    {
+        for (double[] range : new double[][] { { 0.0, 100.0 }, { 100.0, 0.0 } })
+        {
+            final RTTank tank = createTank(range[0], range[1], 0.0);
+            final TestSink sink = new TestSink();
+            final long full_bytes = tank.getRenderTarget().transfer(sink);
+            assertThat(full_bytes, equalTo(4L * WIDTH * HEIGHT));
+            for (double value : new double[] { 50, 50.01, 51, 30, 90, 100, 120, 0, -5, 1, 99, 50 })
+            {
+                tank.setValue(value);
+                final boolean updated = tank.updateImageBuffer();
+                final long bytes = tank.getRenderTarget().transfer(sink);
+                if (updated)
+                    assertTrue("Partial update for " + value, bytes < full_bytes);
+                else
+                    assertThat("No update for " + value, bytes, equalTo(0L));
+
+                // Compare with complete repaint
+                final RTTank fresh = createTank(range[0], range[1], value);
+                final int[] expected = getPixels(fresh);
+                assertThat("Image for " + value, getPixels(tank), equalTo(expected));
+                assertThat("Transferred " + value, sink.image, equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testAllocationRate()
+    {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (! (bean instanceof com.sun.management.ThreadMXBean)  ||
+            ! ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled())
+        {
+            System.out.println("Cannot measure allocated bytes");
+            return;
+        }
+        final com.sun.management.ThreadMXBean sun_bean = (com.sun.management.ThreadMXBean) bean;
+        final long thread = Thread.currentThread().getId();
+
+        final RTTank tank = createTank(0.0, 100.0, 50.0);
+        final TestSink sink = new TestSink();
+        final int updates = 1000;
+        long start = 0;
+        for (int i=-100; i<updates; ++i)
+        {   // Measure after warm-up
+            if (i == 0)
+                start = sun_bean.getThreadAllocatedBytes(thread);
+            tank.setValue(50.0 + 45.0 * Math.sin(i * 0.1));
+            tank.updateImageBuffer();
+            tank.getRenderTarget().transfer(sink);
+        }
+        final long bytes_per_update = (sun_bean.getThreadAllocatedBytes(thread) - start) / updates;
+        final long image_bytes = 4L * WIDTH * HEIGHT;
+        System.out.println("Allocated " + bytes_per_update + " bytes per update of " + image_bytes + " bytes image");
+        // Painting into a new image and converting it into another new image
+        // would allocate at least twice the image size
+        assertTrue(bytes_per_update < image_bytes / 10);
+    }
+}
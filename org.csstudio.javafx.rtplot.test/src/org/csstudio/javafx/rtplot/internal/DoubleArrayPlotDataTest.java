@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import org.csstudio.javafx.rtplot.LineStyle;
+import org.csstudio.javafx.rtplot.PointType;
+import org.csstudio.javafx.rtplot.TraceType;
+import org.csstudio.javafx.rtplot.data.ArrayPlotDataProvider;
+import org.csstudio.javafx.rtplot.data.DoubleArrayPlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataItem;
+import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.data.SimpleDataItem;
+import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
+import org.csstudio.javafx.rtplot.internal.util.LogScreenTransform;
+import org.csstudio.javafx.rtplot.internal.util.ScreenTransform;
+import org.junit.Test;
+
+import javafx.scene.paint.Color;
+
+/** JUnit test of the {@link DoubleArrayPlotDataProvider}
+ *
+ *  <p>Compares painting array data with painting
+ *  the same data as {@link PlotDataItem}s.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class DoubleArrayPlotDataTest
+{
+    private static final Rectangle BOUNDS = new Rectangle(0, 0, 400, 300);
+
+    private static final PlotPartListener listener = new PlotPartListener()
+    {
+        @Override
+        public void layoutPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+
+        @Override
+        public void refreshPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+    };
+
+    /** @param data Array data
+     *  @return Same data as list of items
+     */
+    private static ArrayPlotDataProvider<Double> toItems(final DoubleArrayPlotDataProvider data)
+    {
+        final ArrayPlotDataProvider<Double> items = new ArrayPlotDataProvider<>();
+        for (int i=0; i<data.size(); ++i)
+        {
+            final PlotDataItem<Double> item = data.get(i);
+            try
+            {
+                items.add(new SimpleDataItem<>(item.getPosition(), item.getValue(), item.getStdDev(),
+                                               item.getMin(), item.getMax(), null));
+            }
+            catch (Exception ex)
+            {
+                throw new RuntimeException(ex);
+            }
+        }
+        return items;
+    }
+
+    private static int[] paint(final PlotDataProvider<Double> data, final TraceType type,
+                               final ScreenTransform<Double> x_transform, final YAxisImpl<Double> y_axis)
+    {
+        final BufferedImage image = new BufferedImage(BOUNDS.width, BOUNDS.height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D gc = image.createGraphics();
+        final TraceImpl<Double> trace = new TraceImpl<>("Test", "", data, Color.BLUE, type, 2,
+                                                        LineStyle.SOLID, PointType.SQUARES, 4, 0);
+        new TracePainter<Double>().paint(gc, BOUNDS, 50, x_transform, y_axis, trace);
+        gc.dispose();
+        return image.getRGB(0, 0, BOUNDS.width, BOUNDS.height, null, 0, BOUNDS.width);
+    }
+
+    @Test
+    public void testData()
+    {
+        final double[] x = { 1, 2, 3, 4 };
+        final double[] y = { 10, 20, Double.NaN, 40 };
+        DoubleArrayPlotDataProvider data = new DoubleArrayPlotDataProvider(x, y, null);
+        assertThat(data.size(), equalTo(4));
+        assertThat(data.getPosition(1), equalTo(2.0));
+        assertThat(data.getValue(1), equalTo(20.0));
+        assertThat(Double.isNaN(data.getMin(1)), equalTo(true));
+
+        // Scalar error
+        data = data.withErrorData(new double[] { 0.5 });
+        assertThat(data.getXData(), sameInstance(x));
+        assertThat(data.getMin(3), equalTo(39.5));
+        assertThat(data.getMax(3), equalTo(40.5));
+        assertThat(data.get(3).getMax(), equalTo(40.5));
+
+        // Y over index, shorter than X
+        data = data.withXData(null).withYData(new double[] { 5, 6 });
+        assertThat(data.size(), equalTo(2));
+        assertThat(data.getPosition(1), equalTo(1.0));
+
+        // Unchanged columns result in same data
+        assertThat(data.withXData(null), sameInstance(data));
+    }
+
+    @Test
+    public void testPainting()
+    {
+        final int N = 5000;
+        final double[] x = new double[N], y = new double[N], error = new double[N];
+        for (int i=0; i<N; ++i)
+        {
+            x[i] = 1.0 + i * 0.37;
+            y[i] = i % 1000 == 500 ? Double.NaN : Math.sin(i * 0.01) * 100.0;
+            error[i] = 5.0 + i % 7;
+        }
+
+        final YAxisImpl<Double> y_axis = new YAxisImpl<>("Y", listener);
+        y_axis.setBounds(BOUNDS);
+        y_axis.setValueRange(-120.0, 120.0);
+        final LinearScreenTransform linear = new LinearScreenTransform();
+        linear.config(0.0, x[N-1], BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+        final LogScreenTransform log = new LogScreenTransform();
+        log.config(1.0, x[N-1], BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+
+        for (DoubleArrayPlotDataProvider data : Arrays.asList(new DoubleArrayPlotDataProvider(x, y, error),
+                                                              new DoubleArrayPlotDataProvider(null, y, new double[] { 3.0 }),
+                                                              new DoubleArrayPlotDataProvider(x, y, null)))
+        {
+            final ArrayPlotDataProvider<Double> items = toItems(data);
+            for (TraceType type : TraceType.values())
+            {
+                assertThat(type + " for " + data, paint(data, type, linear, y_axis), equalTo(paint(items, type, linear, y_axis)));
+                assertThat(type + " for " + data, paint(data, type, log, y_axis), equalTo(paint(items, type, log, y_axis)));
+            }
+        }
+    }
+}
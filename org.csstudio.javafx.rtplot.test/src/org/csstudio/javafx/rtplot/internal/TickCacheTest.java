@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/** JUnit test of cached tick computations
+ *
+ *  <p>Compares ticks that are re-used while scrolling
+ *  or cached by the axis with a fresh computation.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class TickCacheTest
+{
+    private static final int WIDTH = 800;
+
+    private final BufferedImage buf = new BufferedImage(WIDTH, 50, BufferedImage.TYPE_INT_ARGB);
+    private final Graphics2D gc = buf.createGraphics();
+
+    private static final PlotPartListener listener = new PlotPartListener()
+    {
+        @Override
+        public void layoutPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+
+        @Override
+        public void refreshPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+    };
+
+    @After
+    public void cleanup()
+    {
+        gc.dispose();
+    }
+
+    /** @param ticks Ticks
+     *  @return Text with major tick values and labels, minor tick values
+     */
+    private static <T> String ticks2text(final Ticks<T> ticks)
+    {
+        final StringBuilder buf = new StringBuilder();
+        for (MajorTick<T> tick : ticks.getMajorTicks())
+            buf.append(tick.getValue()).append(" '").append(tick.getLabel()).append("', ");
+        buf.append("minor: ");
+        for (MinorTick<T> tick : ticks.getMinorTicks())
+            buf.append(tick.getValue()).append(", ");
+        return buf.toString();
+    }
+
+    @Test
+    public void testScrollingTimeTicks()
+    {
+        // Scroll across midnight
+        final Instant midnight = LocalDateTime.of(2018, 3, 11, 0, 0).atZone(ZoneId.systemDefault()).toInstant();
+        for (Duration range : new Duration[] { Duration.ofSeconds(10), Duration.ofSeconds(50), Duration.ofMinutes(2),
+                                               Duration.ofMinutes(30), Duration.ofHours(5), Duration.ofDays(1),
+                                               Duration.ofDays(5), Duration.ofDays(60) })
+        {
+            final TimeTicks scrolled = new TimeTicks();
+            final Duration step = range.dividedBy(37);
+            final Instant start = midnight.minus(range.multipliedBy(2));
+            int reused = 0;
+            for (int i=0; i<200; ++i)
+            {
+                final Instant low = start.plus(step.multipliedBy(i));
+                final Instant high = low.plus(range);
+                final List<MajorTick<Instant>> previous = scrolled.getMajorTicks();
+                scrolled.compute(low, high, gc, WIDTH);
+
+                final TimeTicks fresh = new TimeTicks();
+                fresh.compute(low, high, gc, WIDTH);
+                assertThat(range + " at " + low, ticks2text(scrolled), equalTo(ticks2text(fresh)));
+
+                // Count labels that were re-used
+                for (MajorTick<Instant> tick : scrolled.getMajorTicks())
+                    for (MajorTick<Instant> prev : previous)
+                        if (prev.getLabel() == tick.getLabel())
+                            ++reused;
+            }
+            System.out.println(range + ": Re-used " + reused + " labels");
+            assertTrue(reused > 0);
+        }
+    }
+
+    @Test
+    public void testAxisCache()
+    {
+        gc.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        final Instant end = LocalDateTime.of(2018, 3, 11, 0, 0).atZone(ZoneId.systemDefault()).toInstant();
+        final Instant start = end.minus(Duration.ofMinutes(5));
+        final TimeAxis axis = new TimeAxis("Time", listener, start, end);
+        axis.setBounds(0, 0, WIDTH, 50);
+        axis.computeTicks(gc);
+        final List<MajorTick<Instant>> ticks = axis.getTicks().getMajorTicks();
+        assertTrue(ticks.size() > 2);
+
+        // Changing the range and returning to the original range
+        // marks ticks as dirty, but the cached ticks remain valid
+        axis.setValueRange(start.minusSeconds(10), end.minusSeconds(10));
+        axis.setValueRange(start, end);
+        axis.computeTicks(gc);
+        assertThat(axis.getTicks().getMajorTicks(), sameInstance(ticks));
+
+        // Different screen size, range or font requires new ticks
+        final List<Runnable> changes = new ArrayList<>();
+        changes.add(() -> axis.setBounds(0, 0, WIDTH/2, 50));
+        changes.add(() -> axis.setValueRange(start.plusSeconds(30), end.plusSeconds(30)));
+        changes.add(() ->
+        {   // Axis paints with its scale font
+            axis.setScaleFont(javafx.scene.text.Font.font(Plot.FONT_FAMILY, 40));
+            gc.setFont(axis.scale_font);
+        });
+        List<MajorTick<Instant>> previous = ticks;
+        for (int i=0; i<changes.size(); ++i)
+        {
+            changes.get(i).run();
+            axis.computeTicks(gc);
+            final List<MajorTick<Instant>> computed = axis.getTicks().getMajorTicks();
+            assertThat("Change " + i, computed, not(sameInstance(previous)));
+
+            final TimeTicks fresh = new TimeTicks();
+            fresh.compute(axis.getValueRange().getLow(), axis.getValueRange().getHigh(), gc, axis.getBounds().width);
+            assertThat("Change " + i, ticks2text(axis.getTicks()), equalTo(ticks2text(fresh)));
+            previous = computed;
+        }
+    }
+
+    @Test
+    public void testLinearAxisCache()
+    {
+        final YAxisImpl<Double> axis = new YAxisImpl<>("Y", listener);
+        axis.setBounds(0, 0, 50, 400);
+        axis.setValueRange(-5.0, 5.0);
+        gc.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        axis.computeTicks(gc);
+        final List<MajorTick<Double>> ticks = axis.getTicks().getMajorTicks();
+
+        // Autoscale might toggle between ranges, and returns to the original one
+        axis.setValueRange(-5.0, 6.0);
+        axis.setValueRange(-5.0, 5.0);
+        axis.computeTicks(gc);
+        assertThat(axis.getTicks().getMajorTicks(), sameInstance(ticks));
+
+        axis.setValueRange(-5.0, 6.0);
+        axis.computeTicks(gc);
+        assertThat(axis.getTicks().getMajorTicks(), not(sameInstance(ticks)));
+        final LinearTicks fresh = new LinearTicks();
+        fresh.compute(-5.0, 6.0, gc, 400);
+        assertThat(ticks2text(axis.getTicks()), equalTo(ticks2text(fresh)));
+    }
+
+    @Test
+    public void testTickConfigChange()
+    {
+        final YAxisImpl<Double> axis = new YAxisImpl<>("Y", listener);
+        axis.setBounds(0, 0, 50, 400);
+        axis.setValueRange(0.0, 1e5);
+        gc.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        axis.computeTicks(gc);
+        final String decimal = ticks2text(axis.getTicks());
+
+        // Same range, size and font, but labels now need exponential notation
+        axis.setExponentialThreshold(2);
+        axis.computeTicks(gc);
+        final String exponential = ticks2text(axis.getTicks());
+        assertThat(exponential, not(equalTo(decimal)));
+
+        final LinearTicks fresh = new LinearTicks();
+        fresh.setExponentialThreshold(2);
+        fresh.compute(0.0, 1e5, gc, 400);
+        assertThat(exponential, equalTo(ticks2text(fresh)));
+    }
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.csstudio.javafx.rtplot.LineStyle;
+import org.csstudio.javafx.rtplot.PointType;
+import org.csstudio.javafx.rtplot.TraceType;
+import org.csstudio.javafx.rtplot.data.ArrayPlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataItem;
+import org.csstudio.javafx.rtplot.data.SimpleDataItem;
+import org.csstudio.javafx.rtplot.internal.util.TimeScreenTransform;
+import org.junit.Test;
+
+import javafx.scene.paint.Color;
+
+/** JUnit test of the {@link TraceRaster}
+ *
+ *  <p>Scrolls through a long simulated run,
+ *  comparing each incrementally updated frame
+ *  with a complete repaint.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class TraceRasterTest
+{
+    private static final Rectangle BOUNDS = new Rectangle(60, 20, 400, 200);
+
+    private static final Duration DURATION = Duration.ofSeconds(60);
+
+    /** Scroll by this many pixels per step */
+    private static final int STEP_PIXELS = 3;
+
+    /** Period of the simulated samples, not aligned with pixels */
+    private static final long SAMPLE_NANOS = 370_000_000L;
+
+    /** Maximum number of pixels that may differ from a complete repaint */
+    private static final int MAX_DIFFERENT_PIXELS = 200;
+
+    private static final PlotPartListener listener = new PlotPartListener()
+    {
+        @Override
+        public void layoutPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+
+        @Override
+        public void refreshPlotPart(final PlotPart plotPart)
+        {
+            // Ignore
+        }
+    };
+
+    private final Random random = new Random(42);
+
+    private PlotDataItem<Instant> createSample(final Instant time)
+    {
+        final double value = Math.sin(time.getEpochSecond() / 5.0 + time.getNano() * 1e-9 / 5.0) + 0.2*random.nextGaussian();
+        return new SimpleDataItem<>(time, value, 0.1, value - 0.3, value + 0.3, null);
+    }
+
+    private static int[] getPixels(final BufferedImage image)
+    {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void testScrolling()
+    {
+        final YAxisImpl<Instant> y_axis = new YAxisImpl<>("Y", listener);
+        y_axis.setBounds(0, BOUNDS.y, BOUNDS.x, BOUNDS.height);
+        y_axis.setValueRange(-2.0, 2.0);
+        final List<YAxisImpl<Instant>> y_axes = Arrays.asList(y_axis);
+
+        // Area with min/max and std.dev, and lines with points, as in data browser
+        final List<PlotDataItem<Instant>> samples = new ArrayList<>();
+        y_axis.addTrace(new TraceImpl<>("Area", "", new ArrayPlotDataProvider<>(samples),
+                                        Color.BLUE, TraceType.AREA, 2, LineStyle.SOLID,
+                                        PointType.NONE, 0, 0));
+        final List<PlotDataItem<Instant>> lines = new ArrayList<>();
+        y_axis.addTrace(new TraceImpl<>("Lines", "", new ArrayPlotDataProvider<>(lines),
+                                        Color.RED, TraceType.LINES_DIRECT, 1, LineStyle.SOLID,
+                                        PointType.CIRCLES, 5, 0));
+
+        final TraceRaster<Instant> raster = new TraceRaster<>();
+        final TimeScreenTransform transform = new TimeScreenTransform();
+        final double pixel_nanos = (double) DURATION.toNanos() / (BOUNDS.width - 1);
+        final Instant start = Instant.ofEpochSecond(1500000000L, 123456789);
+        Instant next_sample = start.minus(DURATION);
+
+        final int steps = 1000;
+        int incremental = 0, differing = 0;
+        for (int step=0; step<steps; ++step)
+        {
+            // Scroll by whole number of pixels
+            final Instant end = start.plusNanos(Math.round(step * STEP_PIXELS * pixel_nanos));
+            transform.config(end.minus(DURATION), end, BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+
+            // New samples up to just before 'now'
+            final Instant now = end.minusSeconds(2);
+            while (next_sample.isBefore(now))
+            {
+                samples.add(createSample(next_sample));
+                if (step % 5 != 1)
+                    lines.add(createSample(next_sample.plusMillis(100)));
+                next_sample = next_sample.plusNanos(SAMPLE_NANOS);
+            }
+            // Ring buffer drops old samples that are no longer visible
+            while (samples.size() > 400)
+                samples.remove(0);
+            while (lines.size() > 300)
+                lines.remove(0);
+
+            final boolean expect_full;
+            if (step == 250)
+            {   // Historic data added in the middle of the plot
+                final int index = samples.size() - 50;
+                final Instant time = samples.get(index).getPosition().plusMillis(10);
+                samples.add(index + 1, new SimpleDataItem<>(time, 1.5));
+                expect_full = true;
+            }
+            else if (step == 500)
+            {   // Different value range
+                y_axis.setValueRange(-3.0, 3.0);
+                expect_full = true;
+            }
+            else if (step == 750)
+            {   // Historic data replaced
+                final int index = lines.size() - 60;
+                final Instant time = lines.get(index).getPosition();
+                lines.set(index, new SimpleDataItem<>(time, -1.5));
+                expect_full = true;
+            }
+            else
+                expect_full = step == 0;
+
+            final int[] pixels = getPixels(raster.paint(BOUNDS, 20, transform, y_axes));
+            if (expect_full)
+                assertThat(raster.getPaintedWidth(), equalTo(BOUNDS.width));
+            else
+            {
+                assertTrue("Step " + step + " painted " + raster.getPaintedWidth() + " columns",
+                           raster.getPaintedWidth() < BOUNDS.width / 2);
+                ++incremental;
+            }
+
+            // Compare with complete repaint.
+            // A sample that's right between two pixels may be rounded
+            // to the neighboring pixel when the axis moves,
+            // which also happens with complete repaints.
+            // Such differences are limited to a few pixels and frames.
+            final int[] expected = getPixels(new TraceRaster<Instant>().paint(BOUNDS, 20, transform, y_axes));
+            int diffs = 0;
+            for (int i=0; i<expected.length; ++i)
+                if (pixels[i] != expected[i])
+                    ++diffs;
+            assertTrue("Step " + step + ": " + diffs + " pixels differ", diffs < MAX_DIFFERENT_PIXELS);
+            if (diffs > 0)
+                ++differing;
+        }
+        System.out.println(incremental + " of " + steps + " frames were updated incrementally, " +
+                           differing + " differ from complete repaint");
+        assertTrue(differing < steps / 100);
+    }
+
+    @Test
+    public void testZoom()
+    {
+        final YAxisImpl<Instant> y_axis = new YAxisImpl<>("Y", listener);
+        y_axis.setBounds(0, BOUNDS.y, BOUNDS.x, BOUNDS.height);
+        y_axis.setValueRange(-2.0, 2.0);
+        final List<YAxisImpl<Instant>> y_axes = Arrays.asList(y_axis);
+
+        final List<PlotDataItem<Instant>> samples = new ArrayList<>();
+        y_axis.addTrace(new TraceImpl<>("Lines", "", new ArrayPlotDataProvider<>(samples),
+                                        Color.RED, TraceType.SINGLE_LINE, 1, LineStyle.SOLID,
+                                        PointType.NONE, 0, 0));
+        final Instant end = Instant.ofEpochSecond(1500000000L);
+        for (Instant time = end.minus(DURATION); time.isBefore(end); time = time.plusNanos(SAMPLE_NANOS))
+            samples.add(createSample(time));
+
+        final TraceRaster<Instant> raster = new TraceRaster<>();
+        final TimeScreenTransform transform = new TimeScreenTransform();
+        transform.config(end.minus(DURATION), end, BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+        raster.paint(BOUNDS, 20, transform, y_axes);
+        assertThat(raster.getPaintedWidth(), equalTo(BOUNDS.width));
+
+        // Unchanged
+        raster.paint(BOUNDS, 20, transform, y_axes);
+        assertThat(raster.getPaintedWidth() < BOUNDS.width, equalTo(true));
+
+        // Zoom results in complete repaint
+        transform.config(end.minus(DURATION.dividedBy(2)), end, BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+        raster.paint(BOUNDS, 20, transform, y_axes);
+        assertThat(raster.getPaintedWidth(), equalTo(BOUNDS.width));
+
+        // Scrolling by fraction of a pixel also needs complete repaint
+        transform.config(end.minus(DURATION.dividedBy(2)).plusMillis(1), end.plusMillis(1), BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+        raster.paint(BOUNDS, 20, transform, y_axes);
+        assertThat(raster.getPaintedWidth(), equalTo(BOUNDS.width));
+
+        // .. as does scrolling to the left
+        transform.config(end.minus(DURATION), end, BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+        raster.paint(BOUNDS, 20, transform, y_axes);
+        transform.config(end.minus(DURATION).minusSeconds(3), end.minusSeconds(3), BOUNDS.x, BOUNDS.x + BOUNDS.width - 1);
+        raster.paint(BOUNDS, 20, transform, y_axes);
+        assertThat(raster.getPaintedWidth(), equalTo(BOUNDS.width));
+    }
+}
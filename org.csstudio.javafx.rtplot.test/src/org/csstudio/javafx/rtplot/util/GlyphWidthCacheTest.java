@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import org.csstudio.javafx.rtplot.internal.util.GlyphWidthCache;
+import org.junit.Test;
+
+/** JUnit test of the {@link GlyphWidthCache}
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class GlyphWidthCacheTest
+{
+    private static final String[] LABELS =
+    {
+        "", "0", "-1.25", "1.234E-5", "100 %",
+        "yyyy-MM-dd", "2018-03-11 02:30", "12:34:56.789",
+        "Value 1", "Temperature [\u00B0C]",
+        // Beyond Latin-1, uses FontMetrics
+        "\u03BCA", "\u2212 5"
+    };
+
+    private void checkWidths(final Graphics2D gc)
+    {
+        for (String label : LABELS)
+        {
+            final int expected = gc.getFontMetrics().stringWidth(label);
+            // Measure twice, once filling the cache, then using it
+            assertThat(gc.getFont() + " '" + label + "'", GlyphWidthCache.stringWidth(gc, label), equalTo(expected));
+            assertThat(gc.getFont() + " '" + label + "'", GlyphWidthCache.stringWidth(gc, label), equalTo(expected));
+        }
+    }
+
+    @Test
+    public void testWidths()
+    {
+        final BufferedImage buf = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D gc = buf.createGraphics();
+        for (String family : new String[] { Font.SANS_SERIF, Font.SERIF, Font.MONOSPACED })
+            for (int style : new int[] { Font.PLAIN, Font.BOLD, Font.ITALIC })
+                for (int size : new int[] { 8, 12, 17, 30 })
+                {
+                    gc.setFont(new Font(family, style, size));
+                    gc.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                    gc.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_OFF);
+                    checkWidths(gc);
+
+                    // Render hints as used by the plot
+                    gc.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    checkWidths(gc);
+
+                    gc.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+                    checkWidths(gc);
+                }
+        gc.dispose();
+    }
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.csstudio.javafx.rtplot.internal.util.LayerCompositor;
+import org.junit.Test;
+
+/** JUnit test of the {@link LayerCompositor}
+ *
+ *  <p>Measures bytes transferred per frame
+ *  when only a cursor moves on a 4K plot.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class LayerCompositorTest
+{
+    private static final int WIDTH = 3840, HEIGHT = 2160;
+
+    private static final int BACKGROUND = 0xFF336699;
+
+    /** Sink that keeps a copy of the transferred pixels */
+    private static class TestSink implements LayerCompositor.PixelSink
+    {
+        final int[] image = new int[WIDTH * HEIGHT];
+        long bytes = 0;
+
+        @Override
+        public void setPixels(final int x, final int y, final int width, final int height,
+                              final int[] pixels, final int offset, final int scan)
+        {
+            for (int row=0; row<height; ++row)
+                System.arraycopy(pixels, offset + row*scan, image, (y+row)*WIDTH + x, width);
+            bytes += 4L * width * height;
+        }
+    }
+
+    private static BufferedImage createPlot()
+    {
+        final BufferedImage plot = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D gc = plot.createGraphics();
+        gc.setColor(new Color(BACKGROUND, true));
+        gc.fillRect(0, 0, WIDTH, HEIGHT);
+        gc.dispose();
+        return plot;
+    }
+
+    private static void drawCrosshair(final Graphics2D gc, final int x, final int y)
+    {
+        gc.setColor(Color.WHITE);
+        gc.drawLine(0, y, WIDTH-1, y);
+        gc.drawLine(x, 0, x, HEIGHT-1);
+    }
+
+    @Test
+    public void testCursorMoves()
+    {
+        final BufferedImage plot = createPlot();
+        final LayerCompositor compositor = new LayerCompositor();
+        final TestSink sink = new TestSink();
+
+        // First frame transfers everything
+        drawCrosshair(compositor.beginOverlay(plot), 100, 100);
+        long bytes = compositor.compose(plot, 0, sink);
+        assertThat(bytes, equalTo(4L * WIDTH * HEIGHT));
+        assertThat(sink.image[100*WIDTH + 500], equalTo(0xFFFFFFFF));
+        assertThat(sink.image[500*WIDTH + 500], equalTo(BACKGROUND));
+
+        // Moving the cursor only transfers the old and new cursor tiles
+        final int frames = 100;
+        long total = 0;
+        final long start = System.nanoTime();
+        for (int i=1; i<=frames; ++i)
+        {
+            drawCrosshair(compositor.beginOverlay(plot), 100 + 10*i, 100 + 10*i);
+            total += compositor.compose(plot, 0, sink);
+        }
+        final long nanos = System.nanoTime() - start;
+        final long per_frame = total / frames;
+        System.out.format("Cursor move on %dx%d plot: %d kB per frame (full frame: %d kB), %.1f ms per frame\n",
+                          WIDTH, HEIGHT, per_frame / 1024, 4L * WIDTH * HEIGHT / 1024, nanos / 1e6 / frames);
+        assertTrue(per_frame < 4L * WIDTH * HEIGHT / 5);
+        assertThat(sink.bytes, equalTo(4L * WIDTH * HEIGHT + total));
+
+        // Old cursor location was restored, new one is shown
+        final int last = 100 + 10*frames;
+        assertThat(sink.image[100*WIDTH + 500], equalTo(BACKGROUND));
+        assertThat(sink.image[last*WIDTH + 500], equalTo(0xFFFFFFFF));
+        assertThat(sink.image[500*WIDTH + last], equalTo(0xFFFFFFFF));
+
+        // New plot image requires full update
+        final BufferedImage update = createPlot();
+        compositor.beginOverlay(update);
+        bytes = compositor.compose(update, 0, sink);
+        assertThat(bytes, equalTo(4L * WIDTH * HEIGHT));
+        assertThat(sink.image[last*WIDTH + 500], equalTo(BACKGROUND));
+
+        compositor.dispose();
+    }
+
+    @Test
+    public void testPlotRepainted()
+    {
+        final BufferedImage plot = createPlot();
+        final LayerCompositor compositor = new LayerCompositor();
+        final TestSink sink = new TestSink();
+
+        drawCrosshair(compositor.beginOverlay(plot), 100, 100);
+        long bytes = compositor.compose(plot, 1, sink);
+        assertThat(bytes, equalTo(4L * WIDTH * HEIGHT));
+        assertThat(sink.image[500*WIDTH + 500], equalTo(BACKGROUND));
+
+        // Paint new content into the same image instance,
+        // as a double buffer would
+        final int UPDATED = 0xFF996633;
+        final Graphics2D gc = plot.createGraphics();
+        gc.setColor(new Color(UPDATED, true));
+        gc.fillRect(0, 0, WIDTH, HEIGHT);
+        gc.dispose();
+
+        // New generation of the same image requires full update
+        drawCrosshair(compositor.beginOverlay(plot), 100, 100);
+        bytes = compositor.compose(plot, 2, sink);
+        assertThat(bytes, equalTo(4L * WIDTH * HEIGHT));
+        assertThat(sink.image[500*WIDTH + 500], equalTo(UPDATED));
+        assertThat(sink.image[100*WIDTH + 500], equalTo(0xFFFFFFFF));
+
+        // Same generation only transfers the cursor tiles
+        drawCrosshair(compositor.beginOverlay(plot), 100, 100);
+        bytes = compositor.compose(plot, 2, sink);
+        assertTrue(bytes < 4L * WIDTH * HEIGHT / 5);
+
+        compositor.dispose();
+    }
+}
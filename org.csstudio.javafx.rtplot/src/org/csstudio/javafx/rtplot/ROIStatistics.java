@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+/** Statistics of the image data within a {@link RegionOfInterest}
+ *
+ *  <p>Positions are in image pixels, 0 being the left resp. top
+ *  pixel of the image.
+ *  'NaN' samples of floating point data are ignored.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ROIStatistics
+{
+    private final int x, y, width, height, count;
+    private final double sum, min, max, centroid_x, centroid_y;
+    private final int[] histogram;
+    private final double[] horizontal_profile, vertical_profile;
+
+    /** Not meant to be called by user.
+     *  Statistics are computed by the {@link RTImagePlot}
+     */
+    public ROIStatistics(final int x, final int y, final int width, final int height,
+                         final int count, final double sum, final double min, final double max,
+                         final double centroid_x, final double centroid_y,
+                         final int[] histogram,
+                         final double[] horizontal_profile, final double[] vertical_profile)
+    {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.centroid_x = centroid_x;
+        this.centroid_y = centroid_y;
+        this.histogram = histogram;
+        this.horizontal_profile = horizontal_profile;
+        this.vertical_profile = vertical_profile;
+    }
+
+    /** @return Left pixel of the analyzed region */
+    public int getX()
+    {
+        return x;
+    }
+
+    /** @return Top pixel of the analyzed region */
+    public int getY()
+    {
+        return y;
+    }
+
+    /** @return Width of the analyzed region in pixels, 0 if outside of image */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /** @return Height of the analyzed region in pixels, 0 if outside of image */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /** @return Number of samples */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /** @return Sum of all samples */
+    public double getSum()
+    {
+        return sum;
+    }
+
+    /** @return Average or <code>NaN</code> */
+    public double getMean()
+    {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /** @return Minimum or <code>NaN</code> */
+    public double getMin()
+    {
+        return min;
+    }
+
+    /** @return Maximum or <code>NaN</code> */
+    public double getMax()
+    {
+        return max;
+    }
+
+    /** @return Horizontal pixel position of intensity-weighted centroid or <code>NaN</code> */
+    public double getCentroidX()
+    {
+        return centroid_x;
+    }
+
+    /** @return Vertical pixel position of intensity-weighted centroid or <code>NaN</code> */
+    public double getCentroidY()
+    {
+        return centroid_y;
+    }
+
+    /** @return Number of samples in each bin, bins evenly spaced from min to max.
+     *          Do not modify.
+     */
+    public int[] getHistogram()
+    {
+        return histogram;
+    }
+
+    /** @return Average of each column in the region, <code>NaN</code> for columns without samples.
+     *          Do not modify.
+     */
+    public double[] getHorizontalProfile()
+    {
+        return horizontal_profile;
+    }
+
+    /** @return Average of each row in the region, <code>NaN</code> for rows without samples.
+     *          Do not modify.
+     */
+    public double[] getVerticalProfile()
+    {
+        return vertical_profile;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ROI " + x + ", " + y + " " + width + " x " + height +
+               ": " + count + " samples, sum " + sum + ", min " + min + ", max " + max +
+               ", centroid " + centroid_x + ", " + centroid_y;
+    }
+}
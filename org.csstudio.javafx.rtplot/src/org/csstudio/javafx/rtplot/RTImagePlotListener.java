@@ -41,6 +41,17 @@ public interface RTImagePlotListener
      */
     default public void changedROI(int index, String name, Rectangle2D region) {}
 
+    /** Invoked when statistics of a region of interest have been computed
+     *
+     *  <p>Called from background thread
+     *  for each new image and for each R.O.I. that is analyzed.
+     *
+     *  @param index Index 0, .. of the R.O.I.
+     *  @param name Name of the R.O.I.
+     *  @param statistics {@link ROIStatistics}
+     */
+    default public void changedROIStatistics(int index, String name, ROIStatistics statistics) {}
+
     /** Invoked when the X axis range was changed by user */
     default public void changedXAxis(double low, double high) {}
 
@@ -12,27 +12,32 @@ import java.awt.GradientPaint;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
-import java.awt.image.BufferedImage;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.csstudio.javafx.BufferUtil;
 import org.csstudio.javafx.rtplot.internal.PlotPart;
 import org.csstudio.javafx.rtplot.internal.PlotPartListener;
 import org.csstudio.javafx.rtplot.internal.YAxisImpl;
 import org.csstudio.javafx.rtplot.internal.util.GraphicsUtils;
+import org.csstudio.javafx.rtplot.internal.util.LayerCompositor;
+import org.csstudio.javafx.rtplot.internal.util.RenderTarget;
 import org.csstudio.javafx.rtplot.util.RTPlotUpdateThrottle;
 
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.text.Font;
 
 /** Tank with scale
+ *
+ *  <p>Paints into a {@link RenderTarget} that is re-used for each update.
+ *  When only the value changes, just the region of the tank
+ *  between the previous and the new fill level is painted
+ *  and transferred to the JFX image.
  *
  *  @author Kay Kasemir
  */
@@ -59,11 +64,34 @@ public class RTTank extends Canvas
     /** Does layout need to be re-computed? */
     protected final AtomicBoolean need_layout = new AtomicBoolean(true);
 
+    /** Does the complete tank and scale need to be painted,
+     *  not just a changed fill level?
+     */
+    private final AtomicBoolean need_full_paint = new AtomicBoolean(true);
+
+    /** Fill level of the last update, in pixels from the empty end of the tank */
+    private int painted_level = -1;
+
+    /** Is the image being updated? Ignore refresh requests from the scale */
+    private volatile boolean in_update = false;
+
     /** Throttle updates, enforcing a 'dormant' period */
     private final RTPlotUpdateThrottle update_throttle;
 
-    /** Buffer for image of the tank and scale */
-    private volatile Image plot_image = null;
+    /** Image of the tank and scale */
+    private final RenderTarget target = new RenderTarget();
+
+    /** JFX image with the pixels of the target, only accessed on UI thread */
+    private WritableImage fx_image = null;
+
+    /** Writes pixels of the target into fx_image, re-allocating it when the size changed */
+    private final LayerCompositor.PixelSink pixel_sink = (x, y, width, height, pixels, offset, scan) ->
+    {
+        final int image_height = pixels.length / scan;
+        if (fx_image == null  ||  fx_image.getWidth() != scan  ||  fx_image.getHeight() != image_height)
+            fx_image = new WritableImage(scan, image_height);
+        fx_image.getPixelWriter().setPixels(x, y, width, height, PixelFormat.getIntArgbInstance(), pixels, offset, scan);
+    };
 
     /** Does the scale be displayed or not. */
     private volatile boolean scaleVisible = true;
@@ -80,20 +108,20 @@ public class RTTank extends Canvas
         @Override
         public void refreshPlotPart(final PlotPart plotPart)
         {
+            if (in_update)
+                return;
+            need_full_paint.set(true);
             requestUpdate();
         }
     };
 
-    /** Redraw the canvas on UI thread by painting the 'plot_image' */
+    /** Redraw the canvas on UI thread by painting the image of the 'target' */
     final private Runnable redraw_runnable = () ->
     {
+        if (target.transfer(pixel_sink) <= 0  ||  fx_image == null)
+            return;
         final GraphicsContext gc = getGraphicsContext2D();
-        final Image image = plot_image;
-        if (image != null)
-            synchronized (image)
-            {
-                gc.drawImage(image, 0, 0);
-            }
+        gc.drawImage(fx_image, 0, 0);
     };
 
     final private YAxisImpl<Double> scale = new YAxisImpl<Double>("", plot_part_listener);
@@ -117,8 +145,8 @@ public class RTTank extends Canvas
         // 50Hz default throttle
         update_throttle = new RTPlotUpdateThrottle(50, TimeUnit.MILLISECONDS, () ->
         {
-            plot_image = updateImageBuffer();
-            redrawSafely();
+            if (updateImageBuffer())
+                redrawSafely();
         });
     }
 
@@ -142,6 +170,7 @@ public class RTTank extends Canvas
     public void setBackground(final javafx.scene.paint.Color color)
     {
         background = GraphicsUtils.convert(Objects.requireNonNull(color));
+        need_full_paint.set(true);
     }
 
     /** @param color Foreground color */
@@ -160,6 +189,7 @@ public class RTTank extends Canvas
             Math.max(0, empty.getBlue()  - 32),
             empty.getAlpha()
         );
+        need_full_paint.set(true);
     }
 
     /** @param color Color for filled region */
@@ -173,6 +203,7 @@ public class RTTank extends Canvas
             Math.min(255, fill.getBlue()  + 32 + saturationContribution),
             empty.getAlpha()
         );
+        need_full_paint.set(true);
     }
 
     /** @param visible Whether the scale must be displayed or not. */
@@ -220,37 +251,39 @@ public class RTTank extends Canvas
             plot_area.setBounds(bounds.x, bounds.y, bounds.width, bounds.height);
     }
 
-    /** Draw all components into image buffer */
-    protected Image updateImageBuffer()
+    /** Draw all components into image buffer
+     *
+     *  <p>Paints the complete tank and scale after changes to the
+     *  size, layout or colors.
+     *  When only the value changed, just the region between the
+     *  previous and the new fill level is painted.
+     *
+     *  @return <code>true</code> if the image was updated
+     */
+    protected boolean updateImageBuffer()
     {
         final Rectangle area_copy = area;
         if (area_copy.width <= 0  ||  area_copy.height <= 0)
-            return null;
+            return false;
 
-        final BufferUtil buffer = BufferUtil.getBufferedImage(area_copy.width, area_copy.height);
-        if (buffer == null)
-            return null;
-        final BufferedImage image = buffer.getImage();
-        final Graphics2D gc = buffer.getGraphics();
+        final Graphics2D gc = target.begin(area_copy.width, area_copy.height);
+        if (gc == null)
+            return false;
 
         gc.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         gc.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED);
         gc.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
         gc.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
 
+        boolean full = need_full_paint.getAndSet(false)  ||  target.isBlank();
         if (need_layout.getAndSet(false))
+        {
             computeLayout(gc, area_copy);
+            full = true;
+        }
 
         final Rectangle plot_bounds = plot_area.getBounds();
 
-        gc.setColor(background);
-        gc.fillRect(0, 0, area_copy.width, area_copy.height);
-
-        if ( scaleVisible )
-            scale.paint(gc, plot_bounds);
-
-        plot_area.paint(gc);
-
         final AxisRange<Double> range = scale.getValueRange();
         final boolean normal = range.getLow() <= range.getHigh();
         final double min = Math.min(range.getLow(), range.getHigh());
@@ -267,6 +300,36 @@ public class RTTank extends Canvas
             level = (int) (plot_bounds.height * (current - min) / (max - min) + 0.5);
 
         final int arc = Math.min(plot_bounds.width, plot_bounds.height) / 10;
+
+        final Rectangle region;
+        if (full)
+            region = new Rectangle(0, 0, area_copy.width, area_copy.height);
+        else if (level == painted_level)
+            return false;
+        else
+        {   // Rows between previous and new fill level,
+            // plus the rounded corners at either level
+            final int old_edge = normal ? plot_bounds.height - painted_level : painted_level;
+            final int new_edge = normal ? plot_bounds.height - level : level;
+            final int y0 = Math.max(0, Math.min(old_edge, new_edge) - arc - 1);
+            final int y1 = Math.min(plot_bounds.height, Math.max(old_edge, new_edge) + arc + 1);
+            region = new Rectangle(plot_bounds.x, plot_bounds.y + y0, plot_bounds.width, y1 - y0);
+            gc.setClip(region);
+        }
+        painted_level = level;
+
+        gc.setColor(background);
+        gc.fillRect(region.x, region.y, region.width, region.height);
+
+        if (scaleVisible  &&  (full  ||  scale.isGridVisible()))
+        {
+            in_update = true;
+            scale.paint(gc, plot_bounds);
+            in_update = false;
+        }
+
+        plot_area.paint(gc);
+
         gc.setPaint(new GradientPaint(plot_bounds.x, 0, empty, plot_bounds.x+plot_bounds.width/2, 0, emptyShadow, true));
         gc.fillRoundRect(plot_bounds.x, plot_bounds.y, plot_bounds.width, plot_bounds.height, arc, arc);
 
@@ -277,10 +340,14 @@ public class RTTank extends Canvas
             gc.fillRoundRect(plot_bounds.x, plot_bounds.y, plot_bounds.width, level, arc, arc);
         gc.setColor(background);
 
-        gc.dispose();
+        target.publish(region);
+        return true;
+    }
 
-        // Convert to JFX
-        return SwingFXUtils.toFXImage(image, null);
+    /** @return Render target, for tests */
+    RenderTarget getRenderTarget()
+    {
+        return target;
     }
 
     /** Request a complete redraw of the plot */
@@ -302,6 +369,7 @@ public class RTTank extends Canvas
     {   // Stop updates which could otherwise still use
         // what's about to be disposed
         update_throttle.dispose();
+        target.dispose();
     }
 
 }
@@ -13,6 +13,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.csstudio.javafx.rtplot.internal.AxisPart;
 import org.csstudio.javafx.rtplot.internal.undo.UpdateScrolling;
 
 import javafx.scene.control.Button;
@@ -125,13 +126,27 @@ public class RTTimePlot extends RTPlot<Instant>
         setScrolling(isScrolling());
     }
 
-    /** Update time axis to have 'now' at right end, keeping current duration */
+    /** Update time axis to have 'now' at right end, keeping current duration
+     *
+     *  <p>Advances the axis by a whole number of pixels
+     *  so that the plot can shift the already painted traces
+     *  instead of painting them again.
+     */
     private void scroll()
     {
-        final Axis<Instant> x_axis = plot.getXAxis();
+        final AxisPart<Instant> x_axis = plot.getXAxis();
         final AxisRange<Instant> range = x_axis.getValueRange();
         final Duration duration = Duration.between(range.getLow(), range.getHigh());
-        final Instant end = Instant.now().plus(scroll_step);
+        Instant end = Instant.now().plus(scroll_step);
+        final AxisRange<Integer> screen = x_axis.getScreenRange();
+        final int pixels = screen.getHigh() - screen.getLow();
+        final Duration step = Duration.between(range.getHigh(), end);
+        if (pixels > 0  &&  ! step.isNegative()  &&  step.compareTo(duration) < 0)
+        {
+            final double pixel_nanos = (double) duration.toNanos() / pixels;
+            final long step_pixels = (long) Math.ceil(step.toNanos() / pixel_nanos);
+            end = range.getHigh().plusNanos(Math.round(step_pixels * pixel_nanos));
+        }
         x_axis.setValueRange(end.minus(duration), end);
     }
 
@@ -24,6 +24,8 @@ public class RegionOfInterest
     private volatile Image image = null;
     private volatile boolean visible, interactive;
     private volatile Rectangle2D region;
+    private volatile boolean analyze = false;
+    private volatile ROIStatistics statistics = null;
 
     /** Not meant to be called by user.
      *  Call {@link RTImagePlot#addROI()} to create ROI
@@ -95,4 +97,33 @@ public class RegionOfInterest
         this.region = region;
         // Caller needs to request update of image
     }
+
+    /** @return Compute {@link ROIStatistics} for each image? */
+    public boolean isAnalyzed()
+    {
+        return analyze;
+    }
+
+    /** @param analyze Compute {@link ROIStatistics} for each image? */
+    public void setAnalyzed(final boolean analyze)
+    {
+        this.analyze = analyze;
+        if (! analyze)
+            statistics = null;
+    }
+
+    /** @return Statistics for the most recent image or <code>null</code> */
+    public ROIStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    /** Not meant to be called by user,
+     *  statistics are computed by the {@link RTImagePlot}
+     *  @param statistics Statistics for the most recent image
+     */
+    public void setStatistics(final ROIStatistics statistics)
+    {
+        this.statistics = statistics;
+    }
 }
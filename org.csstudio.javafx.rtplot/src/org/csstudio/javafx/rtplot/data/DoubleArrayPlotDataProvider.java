@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.data;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/** {@link PlotDataProvider} based on <code>double[]</code> columns
+ *
+ *  <p>Holds X, Y and error data as separate arrays.
+ *  The plot reads positions, values and value ranges
+ *  directly from the arrays, without creating a
+ *  {@link PlotDataItem} for each sample.
+ *  {@link #get(int)} is still supported,
+ *  but creates a new item on each call.
+ *
+ *  <ul>
+ *  <li>X and Y data: Plots Y over X
+ *  <li>Y data with <code>null</code> for X: Plots Y over array index
+ *  <li>X data with <code>null</code> for Y: Plots array index over X
+ *  </ul>
+ *
+ *  Error data may be
+ *  <ul>
+ *  <li>Zero elements: No error bars
+ *  <li>One element: Use that error for all samples
+ *  <li>One element per sample: Error bar for each sample
+ *  </ul>
+ *
+ *  <p>Immutable. The arrays are not copied
+ *  and must not be modified once passed to the provider.
+ *  When only one column changes, {@link #withXData(double[])} etc.
+ *  create an updated provider that shares the unchanged columns.
+ *  Arrays can also be shared by several traces,
+ *  for example one X array for several Y waveforms.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class DoubleArrayPlotDataProvider implements PlotDataProvider<Double>
+{
+    /** Empty array */
+    public static final double[] EMPTY = new double[0];
+
+    /** Sharing the _read_ half of just one lock.
+     *  Never using the _write_ half, since this class is immutable
+     */
+    private static final ReadWriteLock lock = new InstrumentedReadWriteLock();
+
+    private final double[] x_data, y_data, error_data;
+
+    private final int size;
+
+    /** @param x_data X data, may be <code>null</code>
+     *  @param y_data Y data, may be <code>null</code>,
+     *                but at least one of x or y data must be non-<code>null</code>
+     *  @param error_data Error data, may be <code>null</code>
+     */
+    public DoubleArrayPlotDataProvider(final double[] x_data, final double[] y_data, final double[] error_data)
+    {
+        this.x_data = x_data;
+        this.y_data = y_data;
+        this.error_data = error_data == null ? EMPTY : error_data;
+        if (x_data == null)
+            size = y_data.length;
+        else if (y_data == null)
+            size = x_data.length;
+        else
+            size = Math.min(x_data.length, y_data.length);
+    }
+
+    /** Create empty data provider */
+    public DoubleArrayPlotDataProvider()
+    {
+        this(EMPTY, EMPTY, EMPTY);
+    }
+
+    /** @param x_data New X data, may be <code>null</code>
+     *  @return Data provider with new X data and the same Y and error data
+     */
+    public DoubleArrayPlotDataProvider withXData(final double[] x_data)
+    {
+        if (x_data == this.x_data)
+            return this;
+        return new DoubleArrayPlotDataProvider(x_data, y_data, error_data);
+    }
+
+    /** @param y_data New Y data, may be <code>null</code>
+     *  @return Data provider with new Y data and the same X and error data
+     */
+    public DoubleArrayPlotDataProvider withYData(final double[] y_data)
+    {
+        if (y_data == this.y_data)
+            return this;
+        return new DoubleArrayPlotDataProvider(x_data, y_data, error_data);
+    }
+
+    /** @param error_data New error data, may be <code>null</code>
+     *  @return Data provider with new error data and the same X and Y data
+     */
+    public DoubleArrayPlotDataProvider withErrorData(final double[] error_data)
+    {
+        if (error_data == this.error_data  ||
+            (error_data == null  &&  this.error_data == EMPTY))
+            return this;
+        return new DoubleArrayPlotDataProvider(x_data, y_data, error_data);
+    }
+
+    /** @return X data, <code>null</code> when using the array index */
+    public double[] getXData()
+    {
+        return x_data;
+    }
+
+    /** @return Y data, <code>null</code> when using the array index */
+    public double[] getYData()
+    {
+        return y_data;
+    }
+
+    /** @return Error data, may be empty */
+    public double[] getErrorData()
+    {
+        return error_data;
+    }
+
+    @Override
+    public Lock getLock()
+    {
+        return lock.readLock();
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Position of sample
+     */
+    public double getPosition(final int index)
+    {
+        return x_data == null ? index : x_data[index];
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Value of sample
+     */
+    public double getValue(final int index)
+    {
+        return y_data == null ? index : y_data[index];
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Error of sample, NaN if there is no error data
+     */
+    private double getError(final int index)
+    {
+        // Use corresponding array element, or [0] for scalar error info
+        // (silently treating size(error) < size(Y) as a mix of error array and scalar)
+        final int N = error_data.length;
+        if (N <= 0)
+            return Double.NaN;
+        return index < N ? error_data[index] : error_data[0];
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Minimum of sample, i.e. value minus error, or NaN
+     */
+    public double getMin(final int index)
+    {
+        return getValue(index) - getError(index);
+    }
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Maximum of sample, i.e. value plus error, or NaN
+     */
+    public double getMax(final int index)
+    {
+        return getValue(index) + getError(index);
+    }
+
+    @Override
+    public PlotDataItem<Double> get(final int index)
+    {
+        return new SimpleDataItem<Double>(getPosition(index), getValue(index), Double.NaN,
+                                          getMin(index), getMax(index), null);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + ", " + size + " items, lock: " + lock.toString();
+    }
+}
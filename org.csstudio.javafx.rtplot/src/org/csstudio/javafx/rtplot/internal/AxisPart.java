@@ -14,6 +14,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -73,6 +74,19 @@ public abstract class AxisPart<T extends Comparable<T>> extends PlotPart impleme
     /** Do we need to re-compute the ticks? */
     protected volatile boolean dirty_ticks = true;
 
+    /** Has the configuration of the ticks changed,
+     *  so the cached ticks are invalid even for the same range, size and font?
+     */
+    private volatile boolean dirty_config = false;
+
+    /** Ticks, value range, screen size and font of last tick computation.
+     *  Only accessed by computeTicks on the plot's update thread.
+     */
+    private Ticks<T> computed_ticks = null;
+    private AxisRange<T> computed_range = null;
+    private int computed_size = -1;
+    private Font computed_font = null;
+
     /** Low end of value range. */
     protected AxisRange<T> range;
 
@@ -137,7 +151,7 @@ public abstract class AxisPart<T extends Comparable<T>> extends PlotPart impleme
     public void setScaleFont(final javafx.scene.text.Font font)
     {
         scale_font = GraphicsUtils.convert(font);
-        dirty_ticks = true;
+        invalidateTicks();
         requestLayout();
         requestRefresh();
     }
@@ -232,7 +246,7 @@ public abstract class AxisPart<T extends Comparable<T>> extends PlotPart impleme
             this.ticks = Objects.requireNonNull(ticks);
             transform.config(range.getLow(), range.getHigh(), low_screen, high_screen);
         }
-        dirty_ticks = true;
+        invalidateTicks();
         requestLayout();
         requestRefresh();
     }
@@ -354,19 +368,72 @@ public abstract class AxisPart<T extends Comparable<T>> extends PlotPart impleme
         return ticks;
     }
 
+    /** Mark ticks as dirty because their configuration changed
+     *
+     *  <p>Ticks will be computed even if value range,
+     *  screen size and font remain the same.
+     */
+    protected void invalidateTicks()
+    {
+        dirty_config = true;
+        dirty_ticks = true;
+    }
+
+    /** Compute tick marks
+     *
+     *  <p>Ticks are only computed when the value range,
+     *  screen size or font differ from the last computation,
+     *  or the configuration of the ticks was changed.
+     *  Otherwise the cached ticks remain valid.
+     *
+     *  @param gc {@link Graphics2D} with scale font
+     */
     protected void computeTicks(final Graphics2D gc)
     {
         if (! dirty_ticks)
             return;
+        // Clear before computing, so concurrent change marks ticks dirty again
+        dirty_ticks = false;
+        final boolean config_changed = dirty_config;
+        dirty_config = false;
+
+        final Ticks<T> safe_ticks = ticks;
         final AxisRange<T> safe_range = range;
-        if (horizontal)
-            ticks.compute(safe_range.getLow(), safe_range.getHigh(), gc, getBounds().width);
-        else
-            ticks.compute(safe_range.getLow(), safe_range.getHigh(), gc, getBounds().height);
-        // If ticks changed, the layout of tick labels may change
-        requestLayout();
+        final int size = horizontal ? getBounds().width : getBounds().height;
+        final Font font = gc.getFont();
+        if (! config_changed  &&
+            safe_ticks == computed_ticks  &&  size == computed_size  &&
+            safe_range.equals(computed_range)  &&  font.equals(computed_font))
+            return;
+
+        final List<MajorTick<T>> previous = safe_ticks.getMajorTicks();
+        safe_ticks.compute(safe_range.getLow(), safe_range.getHigh(), gc, size);
+        computed_ticks = safe_ticks;
+        computed_range = safe_range;
+        computed_size = size;
+        computed_font = font;
+
+        // If tick labels changed, the layout of tick labels may change.
+        // When a time axis scrolls by less than a tick distance,
+        // the labels remain the same and no new layout is needed.
+        if (! haveSameLabels(previous, safe_ticks.getMajorTicks()))
+            requestLayout();
         requestRefresh();
-        dirty_ticks = false;
+    }
+
+    /** @param a Major ticks
+     *  @param b Other major ticks
+     *  @return <code>true</code> if both have the same labels
+     */
+    private static <T> boolean haveSameLabels(final List<MajorTick<T>> a, final List<MajorTick<T>> b)
+    {
+        final int N = a.size();
+        if (b.size() != N)
+            return false;
+        for (int i=0; i<N; ++i)
+            if (! a.get(i).getLabel().equals(b.get(i).getLabel()))
+                return false;
+        return true;
     }
 
     /** Invoked to paint the part.
@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import static org.csstudio.javafx.rtplot.Activator.logger;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.stream.IntStream;
+
+import org.csstudio.javafx.rtplot.ColorMappingFunction;
+import org.csstudio.javafx.rtplot.internal.util.Log10;
+import org.diirt.util.array.ArrayByte;
+import org.diirt.util.array.ArrayInt;
+import org.diirt.util.array.ArrayShort;
+import org.diirt.util.array.CollectionNumbers;
+import org.diirt.util.array.IteratorNumber;
+import org.diirt.util.array.ListNumber;
+
+/** Map image samples to ARGB pixels
+ *
+ *  <p>Used by the {@link ImagePlot},
+ *  independent from JavaFX to allow headless tests.
+ *
+ *  <p>The static {@link #map} reads each sample via an {@link IteratorNumber}
+ *  and computes its color.
+ *  An instance of this class is faster and creates the same pixels:
+ *  Byte and short data is mapped via a lookup table with the color
+ *  of all 256 resp. 65536 possible values, which is only re-computed
+ *  when the value range, log mode or color mapping change.
+ *  Other data is read directly from the primitive array.
+ *  Large images are mapped in parallel stripes of rows.
+ *
+ *  <p>An instance is meant to be used by one thread,
+ *  for example the plot's update thread.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class ImageColorMapping
+{
+    /** Images with at least this many pixels are mapped in parallel */
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+    /** Lookup table for byte or short data, indexed by the unsigned bits of a sample */
+    private int[] lut = null;
+
+    /** Configuration of the lookup table */
+    private boolean lut_unsigned;
+    private double lut_min, lut_max;
+    private boolean lut_log;
+    private ColorMappingFunction lut_mapping;
+
+    /** Computes color for a sample,
+     *  using the exact computation of the static {@link ImageColorMapping#map}
+     */
+    private static class Scaling
+    {
+        private final double low, span;
+        private final boolean log;
+        private final ColorMappingFunction color_mapping;
+
+        Scaling(final double min, final double max, final boolean log, final ColorMappingFunction color_mapping)
+        {
+            this.log = log;
+            if (log)
+            {
+                low = Log10.log10(min);
+                span = Log10.log10(max) - low;
+            }
+            else
+            {
+                low = min;
+                span = max - min;
+            }
+            this.color_mapping = color_mapping;
+        }
+
+        int getRGB(final double value)
+        {
+            final double sample = log ? Log10.log10(value) : value;
+            double scaled = (sample - low) / span;
+            if (scaled < 0.0)
+                scaled = 0;
+            else if (scaled > 1.0)
+                scaled = 1.0;
+            return color_mapping.getRGB(scaled);
+        }
+    }
+
+    /** Maps a range of pixels */
+    @FunctionalInterface
+    private static interface PixelRangeMapper
+    {
+        /** @param start Index of first pixel
+         *  @param end Index after last pixel
+         */
+        void map(int start, int end);
+    }
+
+    // Functionals for reading the next Number as an unsigned value
+    private static double getUnsignedByte(final IteratorNumber iter)
+    {
+        return Byte.toUnsignedInt(iter.nextByte());
+    }
+
+    private static double getUnsignedShort(final IteratorNumber iter)
+    {
+        return Short.toUnsignedInt(iter.nextShort());
+    }
+
+    private static double getUnsignedInt(final IteratorNumber iter)
+    {
+        return Integer.toUnsignedLong(iter.nextInt());
+    }
+
+    /** @param numbers Image data
+     *  @param unsigned Treat data as unsigned?
+     *  @return Function that reads the next sample
+     */
+    public static ToDoubleFunction<IteratorNumber> getSampleFunction(final ListNumber numbers, final boolean unsigned)
+    {
+        if (unsigned)
+        {
+            if (numbers instanceof ArrayShort)
+                return ImageColorMapping::getUnsignedShort;
+            else if (numbers instanceof ArrayByte)
+                return ImageColorMapping::getUnsignedByte;
+            else if (numbers instanceof ArrayInt)
+                return ImageColorMapping::getUnsignedInt;
+            else
+                logger.log(Level.WARNING, "Cannot handle unsigned data of type " + numbers.getClass().getName());
+        }
+        return IteratorNumber::nextDouble;
+    }
+
+    /** Map samples to pixels
+     *
+     *  @param pixels ARGB pixels, at least <code>data_width * data_height</code>
+     *  @param data_width Image width
+     *  @param data_height Image height
+     *  @param numbers Image data
+     *  @param next_sample_func Function that reads the next sample
+     *  @param min Value mapped to start of color map
+     *  @param max Value mapped to end of color map, must be larger than min
+     *  @param log Use logarithmic scale?
+     *  @param color_mapping Color map
+     */
+    public static void map(final int[] pixels, final int data_width, final int data_height,
+                           final ListNumber numbers, final ToDoubleFunction<IteratorNumber> next_sample_func,
+                           final double min, final double max, final boolean log,
+                           final ColorMappingFunction color_mapping)
+    {
+        final IteratorNumber iter = numbers.iterator();
+        int idx = 0;
+
+        if (log)
+        {
+            final double lmin = Log10.log10(min),
+                         lmax = Log10.log10(max),
+                         span = lmax - lmin;
+            for (int y=0; y<data_height; ++y)
+                for (int x=0; x<data_width; ++x)
+                {
+                    final double sample = Log10.log10(next_sample_func.applyAsDouble(iter));
+                    double scaled = (sample - lmin) / span;
+                    if (scaled < 0.0)
+                        scaled = 0;
+                    else if (scaled > 1.0)
+                        scaled = 1.0;
+                    pixels[idx++] = color_mapping.getRGB(scaled);
+                }
+        }
+        else
+        {
+            final double span = max - min;
+            for (int y=0; y<data_height; ++y)
+                for (int x=0; x<data_width; ++x)
+                {
+                    final double sample = next_sample_func.applyAsDouble(iter);
+                    double scaled = (sample - min) / span;
+                    if (scaled < 0.0)
+                        scaled = 0;
+                    else if (scaled > 1.0)
+                        scaled = 1.0;
+                    pixels[idx++] = color_mapping.getRGB(scaled);
+                }
+        }
+    }
+
+    /** Map samples to pixels
+     *
+     *  <p>Same result as the static {@link #map},
+     *  using lookup tables and primitive arrays when possible.
+     *
+     *  @param pixels ARGB pixels, at least <code>data_width * data_height</code>
+     *  @param data_width Image width
+     *  @param data_height Image height
+     *  @param numbers Image data
+     *  @param unsigned Treat data as unsigned?
+     *  @param min Value mapped to start of color map
+     *  @param max Value mapped to end of color map, must be larger than min
+     *  @param log Use logarithmic scale?
+     *  @param color_mapping Color map, must be thread-safe
+     */
+    public void apply(final int[] pixels, final int data_width, final int data_height,
+                      final ListNumber numbers, final boolean unsigned,
+                      final double min, final double max, final boolean log,
+                      final ColorMappingFunction color_mapping)
+    {
+        // Primitive array, or null if numbers only use a section of an array
+        final Object wrapped = CollectionNumbers.wrappedArray(numbers);
+        if (wrapped instanceof byte[])
+        {
+            final byte[] data = (byte[]) wrapped;
+            final int[] lut = getLookupTable(256, unsigned, min, max, log, color_mapping);
+            mapInParallel(data_width, data_height, (start, end) ->
+            {
+                for (int i=start; i<end; ++i)
+                    pixels[i] = lut[data[i] & 0xFF];
+            });
+        }
+        else if (wrapped instanceof short[])
+        {
+            final short[] data = (short[]) wrapped;
+            final int[] lut = getLookupTable(65536, unsigned, min, max, log, color_mapping);
+            mapInParallel(data_width, data_height, (start, end) ->
+            {
+                for (int i=start; i<end; ++i)
+                    pixels[i] = lut[data[i] & 0xFFFF];
+            });
+        }
+        else if (wrapped instanceof int[])
+        {
+            final int[] data = (int[]) wrapped;
+            final Scaling scaling = new Scaling(min, max, log, color_mapping);
+            if (unsigned)
+                mapInParallel(data_width, data_height, (start, end) ->
+                {
+                    for (int i=start; i<end; ++i)
+                        pixels[i] = scaling.getRGB(Integer.toUnsignedLong(data[i]));
+                });
+            else
+                mapInParallel(data_width, data_height, (start, end) ->
+                {
+                    for (int i=start; i<end; ++i)
+                        pixels[i] = scaling.getRGB(data[i]);
+                });
+        }
+        else if (wrapped instanceof float[])
+        {
+            final float[] data = (float[]) wrapped;
+            final Scaling scaling = new Scaling(min, max, log, color_mapping);
+            mapInParallel(data_width, data_height, (start, end) ->
+            {
+                for (int i=start; i<end; ++i)
+                    pixels[i] = scaling.getRGB(data[i]);
+            });
+        }
+        else if (wrapped instanceof double[])
+        {
+            final double[] data = (double[]) wrapped;
+            final Scaling scaling = new Scaling(min, max, log, color_mapping);
+            mapInParallel(data_width, data_height, (start, end) ->
+            {
+                for (int i=start; i<end; ++i)
+                    pixels[i] = scaling.getRGB(data[i]);
+            });
+        }
+        else
+            map(pixels, data_width, data_height, numbers, getSampleFunction(numbers, unsigned),
+                min, max, log, color_mapping);
+    }
+
+    /** @param size 256 for byte, 65536 for short data
+     *  @param unsigned Treat data as unsigned?
+     *  @param min Value mapped to start of color map
+     *  @param max Value mapped to end of color map
+     *  @param log Use logarithmic scale?
+     *  @param color_mapping Color map
+     *  @return Lookup table, re-used when configuration didn't change
+     */
+    private int[] getLookupTable(final int size, final boolean unsigned,
+                                 final double min, final double max, final boolean log,
+                                 final ColorMappingFunction color_mapping)
+    {
+        if (lut != null  &&  lut.length == size  &&  lut_unsigned == unsigned  &&
+            Double.compare(lut_min, min) == 0  &&  Double.compare(lut_max, max) == 0  &&
+            lut_log == log  &&  lut_mapping == color_mapping)
+            return lut;
+
+        final int[] table = new int[size];
+        final Scaling scaling = new Scaling(min, max, log, color_mapping);
+        // Index is the unsigned bit pattern of the sample.
+        // For signed data, cast back to byte resp. short.
+        for (int i=0; i<size; ++i)
+        {
+            final double sample;
+            if (unsigned)
+                sample = i;
+            else if (size == 256)
+                sample = (byte) i;
+            else
+                sample = (short) i;
+            table[i] = scaling.getRGB(sample);
+        }
+        lut = table;
+        lut_unsigned = unsigned;
+        lut_min = min;
+        lut_max = max;
+        lut_log = log;
+        lut_mapping = color_mapping;
+        return table;
+    }
+
+    /** Map pixels, using parallel stripes of rows for larger images
+     *  @param data_width Image width
+     *  @param data_height Image height
+     *  @param mapper Maps a range of pixels
+     */
+    private static void mapInParallel(final int data_width, final int data_height, final PixelRangeMapper mapper)
+    {
+        final int stripes = Math.min(data_height, 4 * ForkJoinPool.getCommonPoolParallelism());
+        if (data_width * data_height < PARALLEL_THRESHOLD  ||  stripes <= 1)
+        {
+            mapper.map(0, data_width * data_height);
+            return;
+        }
+        IntStream.range(0, stripes).parallel().forEach(stripe ->
+        {
+            final int start_row = (int) ((long) data_height * stripe / stripes);
+            final int end_row = (int) ((long) data_height * (stripe + 1) / stripes);
+            mapper.map(start_row * data_width, end_row * data_width);
+        });
+    }
+}
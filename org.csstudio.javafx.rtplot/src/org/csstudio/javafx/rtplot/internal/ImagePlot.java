@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.ToDoubleFunction;
 import java.util.function.ToIntFunction;
 import java.util.logging.Level;
@@ -28,18 +29,19 @@ import org.csstudio.javafx.ChildCare;
 import org.csstudio.javafx.DoubleBuffer;
 import org.csstudio.javafx.PlatformInfo;
 import org.csstudio.javafx.Tracker;
+import org.csstudio.javafx.rtplot.Activator;
 import org.csstudio.javafx.rtplot.Axis;
 import org.csstudio.javafx.rtplot.AxisRange;
 import org.csstudio.javafx.rtplot.ColorMappingFunction;
 import org.csstudio.javafx.rtplot.Interpolation;
 import org.csstudio.javafx.rtplot.Messages;
+import org.csstudio.javafx.rtplot.ROIStatistics;
 import org.csstudio.javafx.rtplot.RTImagePlotListener;
 import org.csstudio.javafx.rtplot.RegionOfInterest;
 import org.csstudio.javafx.rtplot.data.ValueRange;
 import org.csstudio.javafx.rtplot.internal.undo.ChangeImageZoom;
 import org.csstudio.javafx.rtplot.internal.util.GraphicsUtils;
 import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
-import org.csstudio.javafx.rtplot.internal.util.Log10;
 import org.diirt.util.array.ArrayByte;
 import org.diirt.util.array.ArrayInt;
 import org.diirt.util.array.ArrayShort;
@@ -119,6 +121,11 @@ public class ImagePlot extends PlotCanvasBase
     /** Regions of interest */
     private final List<RegionOfInterest> rois = new CopyOnWriteArrayList<>();
 
+    /** Is analysis of the regions of interest scheduled?
+     *  While set, new images are picked up by the scheduled analysis.
+     */
+    private final AtomicBoolean roi_analysis_pending = new AtomicBoolean();
+
     /** Show crosshair marker, positioned on click?
      *  Otherwise update cursor listener with each mouse movement.
      */
@@ -251,6 +258,7 @@ public class ImagePlot extends PlotCanvasBase
         this.max_y = max_y;
         x_axis.setValueRange(min_x, max_x);
         y_axis.setValueRange(min_y, max_y);
+        requestROIAnalysis();
     }
 
     /** <b>Note: May offer too much access
@@ -352,6 +360,14 @@ public class ImagePlot extends PlotCanvasBase
             {
                 super.setRegion(region);
                 requestUpdate();
+                requestROIAnalysis();
+            }
+
+            @Override
+            public void setAnalyzed(final boolean analyze)
+            {
+                super.setAnalyzed(analyze);
+                requestROIAnalysis();
             }
         };
         rois.add(roi);
@@ -392,6 +408,71 @@ public class ImagePlot extends PlotCanvasBase
         vimage_type = type;
         unsigned_data = unsigned;
         requestUpdate();
+        requestROIAnalysis();
+    }
+
+    /** Schedule analysis of the regions of interest
+     *
+     *  <p>Does nothing if no region is analyzed.
+     *  While an analysis is still scheduled, the request is
+     *  merged with it, so slow analysis skips images instead of
+     *  queuing them up.
+     */
+    private void requestROIAnalysis()
+    {
+        boolean analyze = false;
+        for (RegionOfInterest roi : rois)
+            if (roi.isAnalyzed())
+            {
+                analyze = true;
+                break;
+            }
+        if (analyze  &&  roi_analysis_pending.compareAndSet(false, true))
+            Activator.thread_pool.execute(this::analyzeROIs);
+    }
+
+    /** Compute statistics for the regions of interest, called in background thread */
+    private void analyzeROIs()
+    {
+        // Clear before reading the data,
+        // so a newer image will schedule another analysis
+        roi_analysis_pending.set(false);
+        final ListNumber data = image_data;
+        final int data_width = this.data_width, data_height = this.data_height;
+        if (data == null  ||  vimage_type != VImageType.TYPE_MONO)
+            return;
+        final boolean unsigned = unsigned_data;
+        final double min_x = this.min_x, max_x = this.max_x,
+                     min_y = this.min_y, max_y = this.max_y;
+        final RTImagePlotListener listener = plot_listener;
+        int index = 0;
+        for (RegionOfInterest roi : rois)
+        {
+            if (roi.isAnalyzed())
+            {
+                // Region in axis coordinates to image pixels,
+                // including partially covered pixels.
+                // Image Y goes 'down'
+                final Rectangle2D region = roi.getRegion();
+                final int x0 = (int) Math.floor(data_width * (region.getMinX() - min_x) / (max_x - min_x)),
+                          x1 = (int) Math.ceil (data_width * (region.getMaxX() - min_x) / (max_x - min_x)),
+                          y0 = (int) Math.floor(data_height * (max_y - region.getMaxY()) / (max_y - min_y)),
+                          y1 = (int) Math.ceil (data_height * (max_y - region.getMinY()) / (max_y - min_y));
+                try
+                {
+                    final ROIStatistics statistics = ROIAnalyzer.analyze(data, unsigned, data_width, data_height,
+                                                                         x0, y0, x1, y1, ROIAnalyzer.DEFAULT_BINS);
+                    roi.setStatistics(statistics);
+                    if (listener != null)
+                        listener.changedROIStatistics(index, roi.getName(), statistics);
+                }
+                catch (Throwable ex)
+                {   // Catch ArrayIndexOutOfBoundsException or other internal errors of ListNumber
+                    logger.log(Level.WARNING, "Cannot analyze ROI " + roi.getName(), ex);
+                }
+            }
+            ++index;
+        }
     }
 
     /** Compute layout of plot components */
@@ -429,22 +510,6 @@ public class ImagePlot extends PlotCanvasBase
         x_axis.setBounds(image_area.x, image_area.height, image_area.width, x_axis_height);
     }
 
-    // Functionals for reading the next Number as an unsigned value
-    private static double getUnsignedByte(final IteratorNumber iter)
-    {
-        return Byte.toUnsignedInt(iter.nextByte());
-    }
-
-    private static double getUnsignedShort(final IteratorNumber iter)
-    {
-        return Short.toUnsignedInt(iter.nextShort());
-    }
-
-    private static double getUnsignedInt(final IteratorNumber iter)
-    {
-        return Integer.toUnsignedLong(iter.nextInt());
-    }
-
     // Functionals for RGB
     private static int getUByteForRGB(final IteratorNumber iter)
     {
@@ -574,17 +639,7 @@ public class ImagePlot extends PlotCanvasBase
             }
             else //is not RGB
             {
-	            if (unsigned)
-	            {
-	                if (numbers instanceof ArrayShort)
-	                    next_sample_func = ImagePlot::getUnsignedShort;
-	                else if (numbers instanceof ArrayByte)
-	                    next_sample_func = ImagePlot::getUnsignedByte;
-	                else if (numbers instanceof ArrayInt)
-	                    next_sample_func = ImagePlot::getUnsignedInt;
-	                else
-	                    logger.log(Level.WARNING, "Cannot handle unsigned data of type " + numbers.getClass().getName());
-	            }
+	            next_sample_func = ImageColorMapping.getSampleFunction(numbers, unsigned);
 
 	            if (autoscale)
 	            {   // Compute min..max before layout of color bar
@@ -627,7 +682,7 @@ public class ImagePlot extends PlotCanvasBase
             // Paint the image
             gc.setClip(image_area.x, image_area.y, image_area.width, image_area.height);
             final Object image_or_error =  !isRGB ?
-            		drawData(data_width, data_height, numbers, next_sample_func, min, max, color_mapping) :
+            		drawData(data_width, data_height, numbers, unsigned, min, max, color_mapping) :
         			drawDataRGB(data_width, data_height, numbers, next_rgb, type);
             if (image_or_error instanceof BufferedImage)
             {
@@ -796,17 +851,20 @@ public class ImagePlot extends PlotCanvasBase
     /** Buffers used for the data (to be merged/scaled into the complete image) */
     private final DoubleBuffer data_buffers = new DoubleBuffer();
 
+    /** Maps data to colors, keeps lookup table between updates */
+    private final ImageColorMapping color_mapper = new ImageColorMapping();
+
     /** @param data_width
      *  @param data_height
      *  @param numbers
-     *  @param next_sample_func
+     *  @param unsigned
      *  @param min
      *  @param max
      *  @param color_mapping
      *  @return {@link BufferedImage}, sized to match data or String with error message
      */
     private Object drawData(final int data_width, final int data_height, final ListNumber numbers,
-                                   final ToDoubleFunction<IteratorNumber> next_sample_func,
+                                   final boolean unsigned,
                                    double min, double max, final ColorMappingFunction color_mapping)
     {
         // final long start = System.nanoTime();
@@ -838,42 +896,10 @@ public class ImagePlot extends PlotCanvasBase
         // Creating a byte[] with one byte per pixel and ColorModel based on color map is fastest,
         // but only 8 bits per pixel instead of 8 bits each for R, G and B isn't enough resolution.
         // Rounding of values into 8 bits creates artifacts.
+        // Byte and short data is mapped via lookup table, larger images in parallel.
         final int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
-        final IteratorNumber iter = numbers.iterator();
-        int idx = 0;
-
-        if (colorbar_axis.isLogarithmic())
-        {
-            final double lmin = Log10.log10(min),
-                         lmax = Log10.log10(max),
-                         span = lmax - lmin;
-            for (int y=0; y<data_height; ++y)
-                for (int x=0; x<data_width; ++x)
-                {
-                    final double sample = Log10.log10(next_sample_func.applyAsDouble(iter));
-                    double scaled = (sample - lmin) / span;
-                    if (scaled < 0.0)
-                        scaled = 0;
-                    else if (scaled > 1.0)
-                        scaled = 1.0;
-                    data[idx++] = color_mapping.getRGB(scaled);
-                }
-        }
-        else
-        {
-            final double span = max - min;
-            for (int y=0; y<data_height; ++y)
-                for (int x=0; x<data_width; ++x)
-                {
-                    final double sample = next_sample_func.applyAsDouble(iter);
-                    double scaled = (sample - min) / span;
-                    if (scaled < 0.0)
-                        scaled = 0;
-                    else if (scaled > 1.0)
-                        scaled = 1.0;
-                    data[idx++] = color_mapping.getRGB(scaled);
-                }
-        }
+        color_mapper.apply(data, data_width, data_height, numbers, unsigned,
+                           min, max, colorbar_axis.isLogarithmic(), color_mapping);
         // final long nano = System.nanoTime() - start;
         // avg_nano = (avg_nano*3 + nano)/4;
         // if (++runs > 100)
@@ -9,7 +9,6 @@ package org.csstudio.javafx.rtplot.internal;
 
 import static org.csstudio.javafx.rtplot.Activator.logger;
 
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -20,6 +19,7 @@ import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
+import org.csstudio.javafx.rtplot.internal.util.GlyphWidthCache;
 import org.csstudio.javafx.rtplot.internal.util.Log10;
 
 /** Helper for creating tick marks.
@@ -116,8 +116,7 @@ public class LinearTicks extends Ticks<Double>
         // Guess the label width, using the two extremes.
         final String low_label = format(low);
         final String high_label = format(high);
-        final FontMetrics metrics = gc.getFontMetrics();
-        final int label_width = Math.max(metrics.stringWidth(low_label), metrics.stringWidth(high_label));
+        final int label_width = Math.max(GlyphWidthCache.stringWidth(gc, low_label), GlyphWidthCache.stringWidth(gc, high_label));
         final int num_that_fits = Math.max(1,  screen_width/label_width*FILL_PERCENTAGE/100);
         final double min_distance = range / num_that_fits;
 
@@ -11,6 +11,7 @@ import org.csstudio.javafx.rtplot.AxisRange;
 import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
 import org.csstudio.javafx.rtplot.internal.util.Log10;
 import org.csstudio.javafx.rtplot.internal.util.LogScreenTransform;
+import org.csstudio.javafx.rtplot.internal.util.ScreenTransform;
 
 /** Base for a numeric axis
  *  @author Kay Kasemir
@@ -24,6 +25,23 @@ public abstract class NumericAxis extends AxisPart<Double>
               new LinearScreenTransform(), new LinearTicks());
     }
 
+    /** Get screen coordinate for a plain <code>double</code> value
+     *
+     *  <p>Same result as the {@link Double} variant,
+     *  but avoids boxing each value when painting
+     *  many samples on a linear axis.
+     *
+     *  @param value Value
+     *  @return Screen coordinate
+     */
+    final public int getScreenCoord(final double value)
+    {
+        final ScreenTransform<Double> safe_transform = transform;
+        if (safe_transform instanceof LinearScreenTransform)
+            return (int)Math.round(((LinearScreenTransform) safe_transform).transform(value));
+        return (int)Math.round(safe_transform.transform(value));
+    }
+
     /** {@inheritDoc} */
     public void setLogarithmic(boolean use_log)
     {
@@ -50,7 +68,7 @@ public abstract class NumericAxis extends AxisPart<Double>
 
         ((LinearTicks)safe_ticks).setExponentialThreshold(order_of_magnitude);
 
-        dirty_ticks = true;
+        invalidateTicks();
         requestLayout();
     }
 
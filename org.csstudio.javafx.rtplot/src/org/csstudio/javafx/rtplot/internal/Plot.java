@@ -87,6 +87,7 @@ public class Plot<XTYPE extends Comparable<XTYPE>> extends PlotCanvasBase
     final private List<YAxisImpl<XTYPE>> y_axes = new CopyOnWriteArrayList<>();
     final private PlotPart plot_area;
     final private TracePainter<XTYPE> trace_painter = new TracePainter<XTYPE>();
+    final private TraceRaster<XTYPE> trace_raster = new TraceRaster<XTYPE>();
     final private List<AnnotationImpl<XTYPE>> annotations = new CopyOnWriteArrayList<>();
     final private LegendPart<XTYPE> legend;
 
@@ -660,9 +661,15 @@ public class Plot<XTYPE extends Comparable<XTYPE>> extends PlotCanvasBase
 
         plot_area.paint(gc);
 
-        for (YAxisImpl<XTYPE> y_axis : y_axes)
-            for (Trace<XTYPE> trace : y_axis.getTraces())
-                trace_painter.paint(gc, plot_area.getBounds(), opacity, x_transform, y_axis, trace);
+        if (x_axis instanceof TimeAxis)
+        {   // Scrolling time axis: Update raster of traces incrementally
+            final BufferedImage traces = trace_raster.paint(plot_bounds, opacity, x_transform, y_axes);
+            gc.drawImage(traces, plot_bounds.x, plot_bounds.y, null);
+        }
+        else
+            for (YAxisImpl<XTYPE> y_axis : y_axes)
+                for (Trace<XTYPE> trace : y_axis.getTraces())
+                    trace_painter.paint(gc, plot_area.getBounds(), opacity, x_transform, y_axis, trace);
 
         drawPlotMarkers(gc);
         gc.setClip(null);
@@ -11,17 +11,13 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.RenderingHints;
-import java.awt.geom.IllegalPathStateException;
 import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.csstudio.display.builder.util.undo.UndoableActionManager;
-import org.csstudio.javafx.BufferUtil;
-import org.csstudio.javafx.DoubleBuffer;
+import org.csstudio.javafx.rtplot.internal.util.LayerCompositor;
 import org.csstudio.javafx.rtplot.util.RTPlotUpdateThrottle;
 
 import javafx.application.Platform;
@@ -101,6 +97,12 @@ abstract class PlotCanvasBase extends ImageView
      */
     private volatile BufferedImage plot_image = null;
 
+    /** Incremented by the update throttle whenever it sets the 'plot_image'.
+     *  The buffer may be the same image instance with new content,
+     *  so the generation tells the compositor that the plot changed.
+     */
+    private volatile long plot_generation = 0;
+
     /** Listener to {@link PlotPart}s, triggering refresh of plot */
     protected final PlotPartListener plot_part_listener = new PlotPartListener()
     {
@@ -118,8 +120,10 @@ abstract class PlotCanvasBase extends ImageView
         }
     };
 
-    /** (Double) buffer used to combined the plot with mouse feedback overlays */
-    private final DoubleBuffer buffers = new DoubleBuffer();
+    /** Combines the plot with mouse feedback overlay.
+     *  Only accessed on UI thread.
+     */
+    private final LayerCompositor compositor = new LayerCompositor();
 
     /** Has a call to redraw_runnable already been queued?
      *  Cleared when redraw_runnable is executed
@@ -128,6 +132,9 @@ abstract class PlotCanvasBase extends ImageView
 
     private WritableImage awt_jfx_convert_buffer = null;
 
+    private final LayerCompositor.PixelSink pixel_sink = (x, y, width, height, pixels, offset, scan) ->
+        awt_jfx_convert_buffer.getPixelWriter().setPixels(x, y, width, height, PixelFormat.getIntArgbInstance(), pixels, offset, scan);
+
     /** Debug option to show update performance */
     private static final boolean show_updates = Boolean.parseBoolean(System.getProperty("org.csstudio.javafx.rtplot.update_counter"));
     private long update_counter = 0, last_counter = 0, next_rate_update = 0;
@@ -139,22 +146,14 @@ abstract class PlotCanvasBase extends ImageView
         // Indicate that a redraw has occurred
         pending_redraw.set(false);
         final BufferedImage copy = plot_image;
+        final long generation = plot_generation;
         if (copy != null)
         {
-            // Create copy of basic plot
-            if (copy.getType() != BufferedImage.TYPE_INT_ARGB)
-                throw new IllegalPathStateException("Need TYPE_INT_ARGB for direct buffer access, not " + copy.getType());
+            // Draw mouse mode feedback into overlay.
+            // Compositor will then only transfer the changed regions
+            // unless the plot itself changed.
             final int width = copy.getWidth(), height = copy.getHeight();
-            final BufferUtil buffer = buffers.getBufferedImage(width, height);
-            final BufferedImage combined = buffer.getImage();
-            final int[] src  = ((DataBufferInt)     copy.getRaster().getDataBuffer()).getData();
-            final int[] dest = ((DataBufferInt) combined.getRaster().getDataBuffer()).getData();
-            System.arraycopy(src, 0, dest, 0, width * height);
-
-            // Add mouse mode feedback
-            final Graphics2D gc = buffer.getGraphics();
-            gc.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            gc.setColor(Color.BLACK);
+            final Graphics2D gc = compositor.beginOverlay(copy);
             drawMouseModeFeedback(gc);
 
             if (show_updates)
@@ -179,11 +178,14 @@ abstract class PlotCanvasBase extends ImageView
             if (awt_jfx_convert_buffer == null  ||
                 awt_jfx_convert_buffer.getWidth() != width ||
                 awt_jfx_convert_buffer.getHeight() != height)
+            {   // New image needs all pixels
                 awt_jfx_convert_buffer = new WritableImage(width, height);
-            // SwingFXUtils.toFXImage(combined, image);
-            awt_jfx_convert_buffer.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), dest, 0, width);
+                compositor.invalidate();
+            }
+            compositor.compose(copy, generation, pixel_sink);
 
-            setImage(awt_jfx_convert_buffer);
+            if (getImage() != awt_jfx_convert_buffer)
+                setImage(awt_jfx_convert_buffer);
         }
     };
 
@@ -208,7 +210,14 @@ abstract class PlotCanvasBase extends ImageView
                     // Update failed, request another
                     requestUpdate();
                 else
+                {
                     plot_image = latest;
+                    // Only incremented by this thread.
+                    // Redraw is requested after the increment,
+                    // so a redraw that reads the new image with the
+                    // previous generation is followed by another one.
+                    ++plot_generation;
+                }
             }
             if (!pending_redraw.getAndSet(true))
                 Platform.runLater(redraw_runnable);
@@ -468,5 +477,6 @@ abstract class PlotCanvasBase extends ImageView
     {   // Stop updates which could otherwise still use
         // what's about to be disposed
         update_throttle.dispose();
+        Platform.runLater(compositor::dispose);
     }
 }
@@ -26,6 +26,7 @@ import org.csstudio.javafx.rtplot.Axis;
 import org.csstudio.javafx.rtplot.AxisRange;
 import org.csstudio.javafx.rtplot.Messages;
 import org.csstudio.javafx.rtplot.Trace;
+import org.csstudio.javafx.rtplot.data.DoubleArrayPlotDataProvider;
 import org.csstudio.javafx.rtplot.data.PlotDataItem;
 import org.csstudio.javafx.rtplot.data.PlotDataProvider;
 import org.csstudio.javafx.rtplot.data.PlotDataSearch;
@@ -125,6 +126,32 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
 
 
 
+    /** Range of sample values */
+    private static class RangeAccumulator
+    {
+        double low = Double.MAX_VALUE;
+        double high = -Double.MAX_VALUE;
+
+        /** @param value Value of a sample, ignored if not finite
+         *  @param min Minimum of the sample
+         *  @param max Maximum of the sample
+         */
+        void add(final double value, final double min, final double max)
+        {
+            if (!Double.isFinite(value))
+                return;
+            if (value < low)
+                low = value;
+            if (value > high)
+                high = value;
+            // Implies Double.isFinite(min), ..(max)
+            if (min < low)
+                low = min;
+            if (max > high)
+                high = max;
+        }
+    }
+
     /** Submit background job to determine value range
      *  @param data {@link PlotDataProvider} with values
      *  @param position_range Range of positions to consider
@@ -137,8 +164,7 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
             @Override
             public ValueRange call() throws Exception
             {
-                double low = Double.MAX_VALUE;
-                double high = -Double.MAX_VALUE;
+                final RangeAccumulator range = new RangeAccumulator();
                 final PlotDataSearch<XTYPE> search = new PlotDataSearch<XTYPE>();
 
                 if (! data.getLock().tryLock(10, TimeUnit.SECONDS))
@@ -161,29 +187,25 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
                         // If data is completely outside the position_range,
                         // we end up using just data[0]
                         // Check [start .. stop], including stop
-                        for (int idx = start; idx <= stop; idx++)
-                        {
-                            final PlotDataItem<XTYPE> item = data.get(idx);
-                            final double value = item.getValue();
-                            if (!Double.isFinite(value))
-                                continue;
-                            if (value < low)
-                                low = value;
-                            if (value > high)
-                                high = value;
-                            // Implies Double.isFinite(min), ..(max)
-                            if (item.getMin() < low)
-                                low = item.getMin();
-                            if (item.getMax() > high)
-                                high = item.getMax();
+                        if (data instanceof DoubleArrayPlotDataProvider)
+                        {   // Read arrays without creating PlotDataItems
+                            final DoubleArrayPlotDataProvider array_data = (DoubleArrayPlotDataProvider) data;
+                            for (int idx = start; idx <= stop; idx++)
+                                range.add(array_data.getValue(idx), array_data.getMin(idx), array_data.getMax(idx));
                         }
+                        else
+                            for (int idx = start; idx <= stop; idx++)
+                            {
+                                final PlotDataItem<XTYPE> item = data.get(idx);
+                                range.add(item.getValue(), item.getMin(), item.getMax());
+                            }
                     }
                 }
                 finally
                 {
                     data.getLock().unlock();
                 }
-                return new ValueRange(low, high);
+                return new ValueRange(range.low, range.high);
             }
         });
     }
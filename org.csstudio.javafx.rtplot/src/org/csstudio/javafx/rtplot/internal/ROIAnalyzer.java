@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import org.csstudio.javafx.rtplot.ROIStatistics;
+import org.diirt.util.array.ArrayByte;
+import org.diirt.util.array.ArrayInt;
+import org.diirt.util.array.ArrayShort;
+import org.diirt.util.array.CollectionNumbers;
+import org.diirt.util.array.ListNumber;
+
+/** Computes {@link ROIStatistics}
+ *
+ *  <p>Used by the {@link ImagePlot},
+ *  independent from JavaFX to allow headless tests.
+ *
+ *  <p>Reads the image data directly from its primitive array,
+ *  one row of the region at a time, so the image is never copied.
+ *  A first pass over the region computes sum, minimum, maximum,
+ *  centroid and profiles.
+ *  A second pass fills the histogram, which needs minimum and maximum.
+ *
+ *  @author Kay Kasemir
+ */
+public class ROIAnalyzer
+{
+    /** Default number of histogram bins */
+    public static final int DEFAULT_BINS = 100;
+
+    /** Reads a section of a row as double */
+    @FunctionalInterface
+    private static interface RowReader
+    {
+        /** @param offset Index of first sample
+         *  @param count Number of samples to read
+         *  @param row Buffer for the samples
+         */
+        void read(int offset, int count, double[] row);
+    }
+
+    /** @param numbers Image data
+     *  @param unsigned Treat data as unsigned?
+     *  @return {@link RowReader} for the data
+     */
+    private static RowReader getRowReader(final ListNumber numbers, final boolean unsigned)
+    {
+        // Primitive array, or null if numbers only use a section of an array
+        final Object wrapped = CollectionNumbers.wrappedArray(numbers);
+        if (wrapped instanceof byte[])
+        {
+            final byte[] data = (byte[]) wrapped;
+            if (unsigned)
+                return (offset, count, row) ->
+                {
+                    for (int i=0; i<count; ++i)
+                        row[i] = data[offset + i] & 0xFF;
+                };
+            return (offset, count, row) ->
+            {
+                for (int i=0; i<count; ++i)
+                    row[i] = data[offset + i];
+            };
+        }
+        else if (wrapped instanceof short[])
+        {
+            final short[] data = (short[]) wrapped;
+            if (unsigned)
+                return (offset, count, row) ->
+                {
+                    for (int i=0; i<count; ++i)
+                        row[i] = data[offset + i] & 0xFFFF;
+                };
+            return (offset, count, row) ->
+            {
+                for (int i=0; i<count; ++i)
+                    row[i] = data[offset + i];
+            };
+        }
+        else if (wrapped instanceof int[])
+        {
+            final int[] data = (int[]) wrapped;
+            if (unsigned)
+                return (offset, count, row) ->
+                {
+                    for (int i=0; i<count; ++i)
+                        row[i] = Integer.toUnsignedLong(data[offset + i]);
+                };
+            return (offset, count, row) ->
+            {
+                for (int i=0; i<count; ++i)
+                    row[i] = data[offset + i];
+            };
+        }
+        else if (wrapped instanceof float[])
+        {
+            final float[] data = (float[]) wrapped;
+            return (offset, count, row) ->
+            {
+                for (int i=0; i<count; ++i)
+                    row[i] = data[offset + i];
+            };
+        }
+        else if (wrapped instanceof double[])
+        {
+            final double[] data = (double[]) wrapped;
+            return (offset, count, row) -> System.arraycopy(data, offset, row, 0, count);
+        }
+
+        // Fall back to ListNumber access
+        if (unsigned)
+        {
+            if (numbers instanceof ArrayByte)
+                return (offset, count, row) ->
+                {
+                    for (int i=0; i<count; ++i)
+                        row[i] = Byte.toUnsignedInt(numbers.getByte(offset + i));
+                };
+            else if (numbers instanceof ArrayShort)
+                return (offset, count, row) ->
+                {
+                    for (int i=0; i<count; ++i)
+                        row[i] = Short.toUnsignedInt(numbers.getShort(offset + i));
+                };
+            else if (numbers instanceof ArrayInt)
+                return (offset, count, row) ->
+                {
+                    for (int i=0; i<count; ++i)
+                        row[i] = Integer.toUnsignedLong(numbers.getInt(offset + i));
+                };
+        }
+        return (offset, count, row) ->
+        {
+            for (int i=0; i<count; ++i)
+                row[i] = numbers.getDouble(offset + i);
+        };
+    }
+
+    /** Compute statistics for a region of an image
+     *
+     *  <p>Region is clipped to the image.
+     *
+     *  @param numbers Image data
+     *  @param unsigned Treat data as unsigned?
+     *  @param data_width Image width
+     *  @param data_height Image height
+     *  @param x0 Left pixel of region
+     *  @param y0 Top pixel of region
+     *  @param x1 Pixel after right edge of region
+     *  @param y1 Pixel below bottom edge of region
+     *  @param bins Number of histogram bins
+     *  @return {@link ROIStatistics}
+     */
+    public static ROIStatistics analyze(final ListNumber numbers, final boolean unsigned,
+                                        final int data_width, int data_height,
+                                        int x0, int y0, int x1, int y1,
+                                        final int bins)
+    {
+        // Clip region to image, considering actual data size
+        if (data_width > 0)
+            data_height = Math.min(data_height, numbers.size() / data_width);
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(data_width, x1);
+        y1 = Math.min(data_height, y1);
+        final int width = Math.max(0, x1 - x0),
+                  height = Math.max(0, y1 - y0);
+        if (width <= 0  ||  height <= 0)
+            return new ROIStatistics(x0, y0, 0, 0, 0, 0.0, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                                     new int[bins], new double[0], new double[0]);
+
+        final RowReader reader = getRowReader(numbers, unsigned);
+        final double[] row = new double[width];
+        final double[] column_sum = new double[width];
+        final int[] column_count = new int[width];
+        final double[] vertical_profile = new double[height];
+        int count = 0;
+        double sum = 0.0, weighted_y = 0.0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+        // Pass 1: Sum, min, max, profiles
+        for (int r=0; r<height; ++r)
+        {
+            reader.read((y0 + r) * data_width + x0, width, row);
+            double row_sum = 0.0;
+            int row_count = 0;
+            for (int c=0; c<width; ++c)
+            {
+                final double value = row[c];
+                if (Double.isNaN(value))
+                    continue;
+                row_sum += value;
+                ++row_count;
+                column_sum[c] += value;
+                ++column_count[c];
+                if (value < min)
+                    min = value;
+                if (value > max)
+                    max = value;
+            }
+            sum += row_sum;
+            count += row_count;
+            weighted_y += (y0 + r) * row_sum;
+            vertical_profile[r] = row_count > 0 ? row_sum / row_count : Double.NaN;
+        }
+
+        final double[] horizontal_profile = new double[width];
+        double weighted_x = 0.0;
+        for (int c=0; c<width; ++c)
+        {
+            weighted_x += (x0 + c) * column_sum[c];
+            horizontal_profile[c] = column_count[c] > 0 ? column_sum[c] / column_count[c] : Double.NaN;
+        }
+
+        final int[] histogram = new int[bins];
+        if (count <= 0)
+            return new ROIStatistics(x0, y0, width, height, 0, 0.0, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                                     histogram, horizontal_profile, vertical_profile);
+
+        // Pass 2: Histogram from min to max
+        if (bins > 0)
+        {
+            final double scale = max > min ? bins / (max - min) : 0.0;
+            for (int r=0; r<height; ++r)
+            {
+                reader.read((y0 + r) * data_width + x0, width, row);
+                for (int c=0; c<width; ++c)
+                {
+                    final double value = row[c];
+                    if (Double.isNaN(value))
+                        continue;
+                    int bin = (int) ((value - min) * scale);
+                    if (bin >= bins)
+                        bin = bins - 1;
+                    else if (bin < 0)
+                        bin = 0;
+                    ++histogram[bin];
+                }
+            }
+        }
+
+        final double centroid_x = sum != 0.0 ? weighted_x / sum : Double.NaN,
+                     centroid_y = sum != 0.0 ? weighted_y / sum : Double.NaN;
+        return new ROIStatistics(x0, y0, width, height, count, sum, min, max, centroid_x, centroid_y,
+                                 histogram, horizontal_profile, vertical_profile);
+    }
+}
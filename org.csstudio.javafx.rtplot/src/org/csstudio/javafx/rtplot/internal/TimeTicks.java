@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
+import org.csstudio.javafx.rtplot.internal.util.GlyphWidthCache;
 import org.csstudio.javafx.rtplot.internal.util.TemporalRounding;
 
 /** Helper for creating tick marks.
@@ -172,11 +173,19 @@ public class TimeTicks extends Ticks<Instant>
             throw new Error("Tick range is not ordered, " + low + " > " + high);
 
         // Estimate number of labels that fits on screen
-        final int label_width = gc.getFontMetrics().stringWidth("yyyy-MM-dd");
+        final int label_width = GlyphWidthCache.stringWidth(gc, "yyyy-MM-dd");
         final int num_that_fits = Math.max(1,  screen_width/label_width*FILL_PERCENTAGE/100);
 
         final Duration distance = range.dividedBy(num_that_fits);
 
+        // When the time axis scrolls, the same configuration tends
+        // to be used, and most ticks remain, only shifted on the screen.
+        // Re-use their labels instead of formatting them again.
+        final TickConfig previous_config = config;
+        final Instant previous_start = start;
+        final List<MajorTick<Instant>> previous_ticks = this.major_ticks;
+        int previous_index = 0;
+
         // Which of the available formats suits the visible time range?
         for (int i=0; i<tick_configs.length; ++i)
         {
@@ -201,7 +210,23 @@ public class TimeTicks extends Ticks<Instant>
         for (Instant value = start;  value.isBefore(end);  value = getNext(value))
         {
             if (value.compareTo(low) >= 0  &&  value.compareTo(high) <= 0)
-                major_ticks.add(new MajorTick<Instant>(value, format(value)));
+            {
+                String label = null;
+                // Labels of ticks after the start tick use the plain formatter,
+                // so they can be re-used if they had the same format before
+                if (config == previous_config  &&  value.isAfter(start)  &&  value.isAfter(previous_start))
+                {
+                    while (previous_index < previous_ticks.size()  &&
+                           previous_ticks.get(previous_index).getValue().isBefore(value))
+                        ++previous_index;
+                    if (previous_index < previous_ticks.size()  &&
+                        previous_ticks.get(previous_index).getValue().equals(value))
+                        label = previous_ticks.get(previous_index).getLabel();
+                }
+                if (label == null)
+                    label = format(value);
+                major_ticks.add(new MajorTick<Instant>(value, label));
+            }
 
             final long ms = value.toEpochMilli();
             for (int i=1; i<config.minor_ticks; ++i)
@@ -22,8 +22,8 @@ import org.csstudio.javafx.rtplot.LineStyle;
 import org.csstudio.javafx.rtplot.PointType;
 import org.csstudio.javafx.rtplot.Trace;
 import org.csstudio.javafx.rtplot.TraceType;
-import org.csstudio.javafx.rtplot.data.PlotDataItem;
 import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataSearch;
 import org.csstudio.javafx.rtplot.internal.util.GraphicsUtils;
 import org.csstudio.javafx.rtplot.internal.util.IntList;
 import org.csstudio.javafx.rtplot.internal.util.ScreenTransform;
@@ -56,6 +56,8 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
     final private static int OUTSIDE = 1000;
     private int x_min, x_max, y_min, y_max;
 
+    final private PlotDataSearch<XTYPE> search = new PlotDataSearch<>();
+
     final private int clipX(final double x)
     {
         if (x < x_min)
@@ -83,6 +85,21 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
     final public void paint(final Graphics2D gc, final Rectangle bounds, final int opacity,
                             final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
                             final Trace<XTYPE> trace)
+    {
+        paint(gc, bounds, opacity, x_transform, y_axis, trace, null);
+    }
+
+    /** @param gc GC
+     *  @param bounds Clipping bounds within which to paint
+     *  @param opacity Opacity (0 .. 100 %) of 'area'
+     *  @param x_transform Coordinate transform used by the x axis
+     *  @param trace Trace, has reference to its value axis
+     *  @param start Paint samples starting with the one at or before this position,
+     *               <code>null</code> to paint all samples
+     */
+    final public void paint(final Graphics2D gc, final Rectangle bounds, final int opacity,
+                            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
+                            final Trace<XTYPE> trace, final XTYPE start)
     {
         if (! trace.isVisible())
             return;
@@ -101,8 +118,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
         // TODO Optimize drawing
         //
-        // Determine first sample to draw via PlotDataSearch.findSampleLessOrEqual(),
-        // then end drawing when reaching right end of area.
+        // End drawing when reaching right end of area.
         //
         // Loop only once, performing drawMinMax, drawStdDev, drawValueStaircase in one loop
         //
@@ -121,6 +137,10 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         }
         try
         {
+            final int first = start == null
+                            ? 0
+                            : Math.max(0, search.findSampleLessOrEqual(data, start));
+            final TraceSamples<XTYPE> samples = TraceSamples.of(data, x_transform);
             final TraceType type = trace.getType();
             logger.log(Level.ALL, "Painting trace type " + type.toString());
 
@@ -130,64 +150,64 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
                 break;
             case AREA:
                 gc.setPaint(tpcolor);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, samples, y_axis, first);
                 gc.setPaint(color);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawStdDevLines(gc, samples, y_axis, first, trace.getWidth());
+                drawValueStaircase(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case AREA_DIRECT:
                 gc.setPaint(tpcolor);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, samples, y_axis, first);
                 gc.setPaint(color);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawStdDevLines(gc, samples, y_axis, first, trace.getWidth());
+                drawValueLines(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case LINES:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, samples, y_axis, first, trace.getWidth());
                 gc.setPaint(tpcolor);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, samples, y_axis, first, trace.getWidth());
                 gc.setPaint(color);
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueStaircase(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case LINES_DIRECT:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, samples, y_axis, first, trace.getWidth());
                 gc.setPaint(tpcolor);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, samples, y_axis, first, trace.getWidth());
                 gc.setPaint(color);
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueLines(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case SINGLE_LINE:
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueStaircase(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case SINGLE_LINE_DIRECT:
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueLines(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case LINES_ERROR_BARS:
-                drawErrorBars(gc, x_transform, y_axis, data, trace.getPointSize());
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawErrorBars(gc, samples, y_axis, first, trace.getPointSize());
+                drawValueLines(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
                 break;
             case ERROR_BARS:
                 // Compare error bars to area and min/max lines
                 // gc.setPaint(tpcolor);
-                // drawMinMaxArea(gc, x_transform, y_axis, data);
+                // drawMinMaxArea(gc, samples, y_axis, first);
                 // gc.setPaint(color);
-                // drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawErrorBars(gc, x_transform, y_axis, data, trace.getPointSize());
+                // drawMinMaxLines(gc, samples, y_axis, first, trace.getWidth());
+                drawErrorBars(gc, samples, y_axis, first, trace.getPointSize());
                 break;
             case BARS:
                 final int width = trace.getWidth();
                 if (width > 0)
-                    drawBars(gc, x_transform, y_axis, data, width);
+                    drawBars(gc, samples, y_axis, first, width);
                 else
-                    drawHistogram(gc, x_transform, y_axis, data);
+                    drawHistogram(gc, samples, y_axis, first);
                 break;
             default:
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueStaircase(gc, samples, y_axis, first, trace.getWidth(), trace.getLineStyle());
             }
 
             final PointType point_type = trace.getPointType();
             if (point_type != PointType.NONE)
-                drawPoints(gc, x_transform, y_axis, data, point_type, trace.getPointSize());
+                drawPoints(gc, samples, y_axis, first, point_type, trace.getPointSize());
         }
         finally
         {
@@ -234,26 +254,25 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
     
     /** Draw values of data as staircase line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      *  @param line_width
      *  @param lineStyle 
      */
     final private void drawValueStaircase(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width, final LineStyle line_style)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, final int line_width, final LineStyle line_style)
     {
         final IntList poly_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList poly_y = new IntList(INITIAL_ARRAY_SIZE);
-        final int N = data.size();
+        final int N = samples.size();
         int last_x = -1, last_y = -1;
         gc.setStroke(createStroke(line_width, line_style));
-        for (int i=0; i<N; ++i)
+        for (int i=first; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(samples.getX(i)));
+            final double value = samples.getValue(i);
             if (poly_x.size() > 0  && x != last_x)
             {   // Staircase from last 'y'..
                 poly_x.add(x);
@@ -280,26 +299,25 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw values of data as direct line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      *  @param line_width
      */
     final private void drawValueLines(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width, final LineStyle line_style)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, final int line_width, final LineStyle line_style)
     {
         final IntList value_poly_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList value_poly_y = new IntList(INITIAL_ARRAY_SIZE);
-        final int N = data.size();
+        final int N = samples.size();
 
         gc.setStroke(createStroke(line_width, line_style));
         int last_x = -1, last_y = -1;
-        for (int i=0; i<N; ++i)
+        for (int i=first; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(samples.getX(i)));
+            final double value = samples.getValue(i);
             if (Double.isNaN(value))
                 flushPolyLine(gc, value_poly_x, value_poly_y, line_width);
             else
@@ -318,31 +336,30 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw min/max outline
      *  @param graphics2D GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      */
     final private void drawMinMaxArea(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first)
     {
-        final int N = data.size();
+        final int N = samples.size();
         // Assume N, might use less because end up with sections
         // separated by Double.NaN
-        final IntList pos = new IntList(N);
-        final IntList min = new IntList(N);
-        final IntList max = new IntList(N);
+        final IntList pos = new IntList(N - first);
+        final IntList min = new IntList(N - first);
+        final IntList max = new IntList(N - first);
 
-        for (int i = 0;  i < N;  ++i)
+        for (int i = first;  i < N;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
+            double ymin = samples.getMin(i);
+            double ymax = samples.getMax(i);
             if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
                 flushPolyFill(gc, pos, min, max);
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
+                final int x1 = clipX(samples.getX(i));
                 final int y1min = clipY(y_axis.getScreenCoord(ymin));
                 final int y1max = clipY(y_axis.getScreenCoord(ymax));
                 pos.add(x1);
@@ -355,25 +372,24 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw min/max outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      */
     final private void drawMinMaxLines(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, final int line_width)
     {
         final IntList min_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList min_y = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max_y = new IntList(INITIAL_ARRAY_SIZE);
 
-        final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        final int N = samples.size();
+        for (int i = first;  i < N;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
+            double ymin = samples.getMin(i);
+            double ymax = samples.getMax(i);
             if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
             {
                 flushPolyLine(gc, min_x, min_y, line_width);
@@ -381,7 +397,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
             }
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
+                final int x1 = clipX(samples.getX(i));
                 final int y1min = clipY(y_axis.getScreenCoord(ymin));
                 final int y1max = clipY(y_axis.getScreenCoord(ymax));
                 min_x.add(x1);   min_y.add(y1min);
@@ -394,25 +410,24 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw std. deviation outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      *  @param line_width
      */
-    final private void drawStdDevLines(final Graphics2D gc, final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+    final private void drawStdDevLines(final Graphics2D gc, final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, final int line_width)
     {
         final IntList lower_poly_y = new IntList(INITIAL_ARRAY_SIZE);
         final IntList upper_poly_y = new IntList(INITIAL_ARRAY_SIZE);
         final IntList lower_poly_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList upper_poly_x = new IntList(INITIAL_ARRAY_SIZE);
 
-        final int N = data.size();
-        for (int i = 0;  i < N;  ++i)
+        final int N = samples.size();
+        for (int i = first;  i < N;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double value = item.getValue();
-            double dev = item.getStdDev();
+            double value = samples.getValue(i);
+            double dev = samples.getStdDev(i);
             if (Double.isNaN(value) ||  ! (dev > 0))
             {
                 flushPolyLine(gc, lower_poly_x, lower_poly_y, line_width);
@@ -420,7 +435,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
             }
             else
             {
-                final int x = clipX(x_transform.transform(item.getPosition()));
+                final int x = clipX(samples.getX(i));
                 final int low_y = clipY(y_axis.getScreenCoord(value - dev));
                 final int upp_y = clipY(y_axis.getScreenCoord(value + dev));
                 lower_poly_x.add(x);  lower_poly_y.add(low_y);
@@ -448,32 +463,31 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw error bar for each value
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      *  @param size
      */
     final private void drawErrorBars(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int size)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, final int size)
     {
-        final int N = data.size();
-        for (int i=0; i<N; ++i)
+        final int N = samples.size();
+        for (int i=first; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
+            final double value = samples.getValue(i);
             if (!Double.isNaN(value))
             {
-                final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
+                final int x = clipX(Math.round(samples.getX(i)));
                 final int y = clipY(y_axis.getScreenCoord(value));
-                final double min = item.getMin();
+                final double min = samples.getMin(i);
                 if (!Double.isNaN(min))
                 {
                     final int ym = clipY(y_axis.getScreenCoord(min));
                     gc.drawLine(x, y, x, ym);
                     gc.drawLine(x-size/2, ym, x+size/2, ym);
                 }
-                final double max = item.getMax();
+                final double max = samples.getMax(i);
                 if (!Double.isNaN(max))
                 {
                     final int ym = clipY(y_axis.getScreenCoord(max));
@@ -486,25 +500,24 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw point for each value
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      *  @param point_type
      *  @param size
      */
     final private void drawPoints(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, PointType point_type, final int size)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, PointType point_type, final int size)
     {
-        final int N = data.size();
+        final int N = samples.size();
         int last_x = -1, last_y = -1;
-        for (int i=0; i<N; ++i)
+        for (int i=first; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
+            final double value = samples.getValue(i);
             if (!Double.isNaN(value))
             {
-                final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
+                final int x = clipX(Math.round(samples.getX(i)));
                 final int y = clipY(y_axis.getScreenCoord(value));
                 if (x == last_x  &&  y == last_y)
                     continue;
@@ -583,24 +596,23 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      *  <p>Bars are centered on each sample.
      *
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      *  @param width Width of each bar
      */
     final private void drawBars(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, int width)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first, int width)
     {
-        final int N = data.size();
+        final int N = samples.size();
         final int y0 = clipY(y_axis.getScreenCoord(0.0));
-        for (int i=0; i<N; ++i)
+        for (int i=first; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
+            final double value = samples.getValue(i);
             if (Double.isNaN(value))
                 continue;
-            final int x = (int) Math.round(x_transform.transform(item.getPosition()));
+            final int x = (int) Math.round(samples.getX(i));
             final int y = clipY(y_axis.getScreenCoord(value));
             if (y0 > y)
                 gc.fillRect(x-width/2, y, width, y0-y);
@@ -614,26 +626,25 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      *  <p>Adjacent bars which start/end at the midpoints between samples.
      *
      *  @param gc GC
-     *  @param x_transform Horizontal axis
+     *  @param samples Samples of the trace
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param first Index of first sample to draw
      */
     final private void drawHistogram(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data)
+            final TraceSamples<XTYPE> samples, final YAxisImpl<XTYPE> y_axis,
+            final int first)
     {
         // Bars need the x0, x1 center points between samples.
         // Each bar is drawn for the (last_x,last_y) while on sample (x,y):
         // Samples      :       (last_x,y)        (x,y)
         // Bar start/end:   x0              x1
-        final int N = data.size();
+        final int N = samples.size();
         final int y0 = clipY(y_axis.getScreenCoord(0.0));
         int last_x1 = -1, last_x = -1, last_y = -1;
-        for (int i=0; i<N; ++i)
+        for (int i=first; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
-            final int x = (int) Math.round(x_transform.transform(item.getPosition()));
+            final double value = samples.getValue(i);
+            final int x = (int) Math.round(samples.getX(i));
             final int y = Double.isNaN(value) ?  -1  :  clipY(y_axis.getScreenCoord(value));
             if (last_x >= 0)
             {
@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import static org.csstudio.javafx.rtplot.Activator.logger;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.csstudio.javafx.rtplot.LineStyle;
+import org.csstudio.javafx.rtplot.Trace;
+import org.csstudio.javafx.rtplot.TraceType;
+import org.csstudio.javafx.rtplot.data.PlotDataItem;
+import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataSearch;
+import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
+import org.csstudio.javafx.rtplot.internal.util.ScreenTransform;
+import org.csstudio.javafx.rtplot.internal.util.TimeScreenTransform;
+
+/** Raster of all traces, updated incrementally while scrolling
+ *
+ *  <p>When the x axis scrolls by a whole number of pixels
+ *  and the data only grew at the end,
+ *  the existing raster is shifted left
+ *  and only the columns from the last 'stable' sample
+ *  to the right edge of the plot are painted again.
+ *
+ *  <p>Any other change, like a different axis scale,
+ *  zoom, trace configuration or historic samples that were
+ *  added to, removed from or replaced in the already painted range
+ *  results in a complete repaint.
+ *
+ *  <p>The raster covers the plot area and is transparent
+ *  outside of the traces.
+ *
+ *  <p>Not thread-safe, to be called from the plot's update thread.
+ *
+ *  @param <XTYPE> Data type of horizontal {@link Axis}
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class TraceRaster<XTYPE extends Comparable<XTYPE>>
+{
+    /** Maximum error of a 'whole' pixel shift */
+    private static final double PIXEL_EPSILON = 0.01;
+
+    /** Samples of a trace that were painted in the raster */
+    private static class Anchor<XTYPE extends Comparable<XTYPE>>
+    {
+        /** Data provider of the trace */
+        final PlotDataProvider<XTYPE> data;
+
+        /** Position of sample at or before left edge of plot,
+         *  and of the second-newest sample which will
+         *  not be changed by a future 'continuation' sample.
+         *  <code>null</code> if less than 2 samples.
+         */
+        final XTYPE left, stable;
+
+        /** Number of samples from left to stable sample */
+        final int count;
+
+        /** Hash of the samples from left to stable sample */
+        final long hash;
+
+        Anchor(final PlotDataProvider<XTYPE> data,
+               final XTYPE left, final XTYPE stable, final int count, final long hash)
+        {
+            this.data = data;
+            this.left = left;
+            this.stable = stable;
+            this.count = count;
+            this.hash = hash;
+        }
+    }
+
+    private final TracePainter<XTYPE> trace_painter = new TracePainter<XTYPE>();
+
+    private final PlotDataSearch<XTYPE> search = new PlotDataSearch<>();
+
+    private BufferedImage image = null;
+    private int[] pixels;
+
+    /** Configuration of traces and axes that was used for the raster */
+    private List<Object> painted_config = null;
+
+    /** X axis transformation that was used for the raster */
+    private ScreenTransform<XTYPE> painted_transform = null;
+
+    /** Anchor for each painted trace, or <code>null</code> if unknown */
+    private List<Anchor<XTYPE>> painted_anchors = null;
+
+    /** Width of the last painted columns, for tests */
+    private int painted_width = 0;
+
+    /** Paint traces
+     *
+     *  @param bounds Plot area
+     *  @param opacity Opacity (0 .. 100 %) of 'area'
+     *  @param x_transform Coordinate transform used by the x axis
+     *  @param y_axes Y axes with their traces
+     *  @return Image of the traces for the plot area,
+     *          to be drawn at <code>bounds.x, bounds.y</code>.
+     *          Remains owned by the {@link TraceRaster}.
+     */
+    public BufferedImage paint(final Rectangle bounds, final int opacity,
+                               final ScreenTransform<XTYPE> x_transform,
+                               final List<YAxisImpl<XTYPE>> y_axes)
+    {
+        if (image == null  ||  image.getWidth() != bounds.width  ||  image.getHeight() != bounds.height)
+        {
+            image = new BufferedImage(Math.max(1, bounds.width), Math.max(1, bounds.height), BufferedImage.TYPE_INT_ARGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            painted_config = null;
+        }
+
+        // Determine configuration and the margin that a sample may affect
+        final List<Object> config = new ArrayList<>();
+        config.add(new Rectangle(bounds));
+        config.add(opacity);
+        boolean can_shift = x_transform instanceof TimeScreenTransform  ||
+                            x_transform instanceof LinearScreenTransform;
+        int line_size = 0, point_size = 0;
+        for (YAxisImpl<XTYPE> y_axis : y_axes)
+        {
+            config.add(y_axis.getValueRange());
+            config.add(y_axis.getScreenRange());
+            config.add(y_axis.isLogarithmic());
+            for (Trace<XTYPE> trace : y_axis.getTraces())
+            {
+                config.add(trace);
+                config.add(trace.isVisible());
+                if (! trace.isVisible())
+                    continue;
+                config.add(trace.getData());
+                config.add(trace.getColor());
+                config.add(trace.getType());
+                config.add(trace.getWidth());
+                config.add(trace.getLineStyle());
+                config.add(trace.getPointType());
+                config.add(trace.getPointSize());
+                line_size = Math.max(line_size, trace.getWidth());
+                point_size = Math.max(point_size, trace.getPointSize());
+                // Dash pattern depends on start of line,
+                // bars and histogram on neighboring samples
+                if (trace.getLineStyle() != LineStyle.SOLID  ||
+                    trace.getType() == TraceType.BARS)
+                    can_shift = false;
+            }
+        }
+        // Mitered corners of lines can extend up to 10 x half the line width
+        final int margin = 5*line_size + point_size + 2;
+
+        // Check if raster can be shifted
+        int shift = -1;
+        if (can_shift  &&  config.equals(painted_config))
+            shift = getShift(painted_transform, x_transform, bounds);
+
+        // Check that painted samples are unchanged, determine new anchors
+        final XTYPE left_edge = x_transform.inverse(bounds.x - margin);
+        final List<Anchor<XTYPE>> anchors = new ArrayList<>();
+        int update_x = bounds.x + bounds.width - shift;
+        for (YAxisImpl<XTYPE> y_axis : y_axes)
+            for (Trace<XTYPE> trace : y_axis.getTraces())
+            {
+                if (! trace.isVisible())
+                    continue;
+                final Anchor<XTYPE> painted = shift >= 0  &&  painted_anchors.size() > anchors.size()
+                                            ? painted_anchors.get(anchors.size())
+                                            : null;
+                final PlotDataProvider<XTYPE> data = trace.getData();
+                if (! lock(data))
+                {
+                    anchors.add(null);
+                    shift = -1;
+                    continue;
+                }
+                try
+                {
+                    if (shift >= 0)
+                    {
+                        if (isUnchanged(painted, data))
+                        {
+                            if (painted.stable != null)
+                                update_x = Math.min(update_x,
+                                                    (int) Math.round(x_transform.transform(painted.stable)));
+                        }
+                        else
+                            shift = -1;
+                    }
+                    anchors.add(createAnchor(data, left_edge));
+                }
+                finally
+                {
+                    data.getLock().unlock();
+                }
+            }
+
+        final Graphics2D gc = image.createGraphics();
+        gc.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        gc.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+        gc.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+        gc.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        // Traces are painted in plot coordinates
+        gc.translate(-bounds.x, -bounds.y);
+        XTYPE start = null;
+        if (shift >= 0)
+        {   // Shift existing raster, clear what needs to be painted again
+            final int keep = Math.max(0, Math.min(update_x - margin - bounds.x, bounds.width - shift));
+            shiftRaster(shift, keep);
+            painted_width = bounds.width - keep;
+            gc.setClip(bounds.x + keep, bounds.y, painted_width, bounds.height);
+            start = x_transform.inverse(bounds.x + keep - margin);
+        }
+        else
+        {
+            Arrays.fill(pixels, 0);
+            painted_width = bounds.width;
+            gc.setClip(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+
+        if (painted_width > 0)
+            for (YAxisImpl<XTYPE> y_axis : y_axes)
+                for (Trace<XTYPE> trace : y_axis.getTraces())
+                    trace_painter.paint(gc, bounds, opacity, x_transform, y_axis, trace, start);
+        gc.dispose();
+
+        painted_config = config;
+        painted_transform = x_transform.copy();
+        painted_anchors = anchors;
+
+        return image;
+    }
+
+    /** @return Width of the columns that were painted in the last call to <code>paint</code> */
+    public int getPaintedWidth()
+    {
+        return painted_width;
+    }
+
+    /** @param painted Transformation used for painted raster
+     *  @param current Current transformation
+     *  @param bounds Plot area
+     *  @return Number of pixels to shift raster to the left, or -1 if not possible
+     */
+    private int getShift(final ScreenTransform<XTYPE> painted, final ScreenTransform<XTYPE> current,
+                         final Rectangle bounds)
+    {
+        final XTYPE left = painted.inverse(bounds.x), right = painted.inverse(bounds.x + bounds.width);
+        final double left_shift = painted.transform(left) - current.transform(left);
+        final double right_shift = painted.transform(right) - current.transform(right);
+        // Same scale?
+        if (Math.abs(left_shift - right_shift) > PIXEL_EPSILON)
+            return -1;
+        // Whole number of pixels, moving left?
+        final long pixels = Math.round(left_shift);
+        if (Math.abs(left_shift - pixels) > PIXEL_EPSILON  ||
+            pixels < 0  ||  pixels >= bounds.width)
+            return -1;
+        return (int) pixels;
+    }
+
+    /** @param data Data to lock
+     *  @return <code>true</code> if locked
+     */
+    private boolean lock(final PlotDataProvider<XTYPE> data)
+    {
+        try
+        {
+            if (data.getLock().tryLock(10, TimeUnit.SECONDS))
+                return true;
+        }
+        catch (InterruptedException ex)
+        {
+            // Ignore, handled as failure to lock
+        }
+        logger.log(Level.WARNING, "Cannot lock " + data);
+        return false;
+    }
+
+    /** @param data Data, must be locked
+     *  @param left_edge Position at left edge of plot
+     *  @return {@link Anchor} for the data
+     */
+    private Anchor<XTYPE> createAnchor(final PlotDataProvider<XTYPE> data, final XTYPE left_edge)
+    {
+        final int N = data.size();
+        if (N < 2)
+            return new Anchor<>(data, null, null, N, 0);
+        final int stable = N - 2;
+        final int left = Math.min(stable, Math.max(0, search.findSampleLessOrEqual(data, left_edge)));
+        return new Anchor<>(data, data.get(left).getPosition(), data.get(stable).getPosition(),
+                            stable - left, hash(data, left, stable));
+    }
+
+    /** @param painted Anchor for painted samples
+     *  @param data Current data, must be locked
+     *  @return <code>true</code> if the painted samples are unchanged
+     */
+    private boolean isUnchanged(final Anchor<XTYPE> painted, final PlotDataProvider<XTYPE> data)
+    {
+        if (painted == null  ||  painted.data != data)
+            return false;
+        if (painted.stable == null)
+            return data.size() == painted.count;
+        final int left = find(data, painted.left);
+        final int stable = find(data, painted.stable);
+        // Reading the samples is much cheaper than painting them,
+        // so check all of them to detect historic data that replaced
+        // samples without changing their number
+        return left >= 0  &&  stable >= 0  &&  stable - left == painted.count  &&
+               hash(data, left, stable) == painted.hash;
+    }
+
+    /** @param data Data, must be locked
+     *  @param position Position of a sample
+     *  @return Index of sample with that position or -1
+     */
+    private int find(final PlotDataProvider<XTYPE> data, final XTYPE position)
+    {
+        final int index = search.findSampleLessOrEqual(data, position);
+        if (index >= 0  &&  position.equals(data.get(index).getPosition()))
+            return index;
+        return -1;
+    }
+
+    /** @param data Data, must be locked
+     *  @param first Index of first sample
+     *  @param last Index of last sample
+     *  @return Hash of the samples
+     */
+    private static <XTYPE extends Comparable<XTYPE>> long hash(final PlotDataProvider<XTYPE> data,
+                                                                final int first, final int last)
+    {
+        long hash = 1;
+        for (int i=first; i<=last; ++i)
+        {
+            final PlotDataItem<XTYPE> item = data.get(i);
+            hash = 31*hash + item.getPosition().hashCode();
+            hash = 31*hash + Double.doubleToLongBits(item.getValue());
+            hash = 31*hash + Double.doubleToLongBits(item.getStdDev());
+            hash = 31*hash + Double.doubleToLongBits(item.getMin());
+            hash = 31*hash + Double.doubleToLongBits(item.getMax());
+        }
+        return hash;
+    }
+
+    /** Shift raster to the left
+     *  @param shift Number of pixels to shift
+     *  @param keep Number of columns to keep, the rest is cleared
+     */
+    private void shiftRaster(final int shift, final int keep)
+    {
+        final int width = image.getWidth(), height = image.getHeight();
+        for (int y=0; y<height; ++y)
+        {
+            final int row = y * width;
+            if (shift > 0  &&  keep > 0)
+                System.arraycopy(pixels, row + shift, pixels, row, keep);
+            Arrays.fill(pixels, row + keep, row + width, 0);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import org.csstudio.javafx.rtplot.data.DoubleArrayPlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataItem;
+import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
+import org.csstudio.javafx.rtplot.internal.util.ScreenTransform;
+
+/** Access to the samples of a trace while painting
+ *
+ *  <p>Provides the horizontal screen position, value and
+ *  value range of each sample.
+ *  For a {@link DoubleArrayPlotDataProvider} these are read
+ *  from its arrays without creating a {@link PlotDataItem}
+ *  for each sample.
+ *  Other data providers are accessed via their {@link PlotDataItem}s,
+ *  fetching each item just once.
+ *
+ *  <p>Caller must hold the data lock.
+ *
+ *  @param <XTYPE> Data type of horizontal {@link Axis}
+ *  @author Kay Kasemir
+ */
+abstract class TraceSamples<XTYPE extends Comparable<XTYPE>>
+{
+    /** @param data Data
+     *  @param x_transform Coordinate transform used by the x axis
+     *  @return {@link TraceSamples} for the data
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static <XTYPE extends Comparable<XTYPE>> TraceSamples<XTYPE> of(final PlotDataProvider<XTYPE> data,
+                                                                    final ScreenTransform<XTYPE> x_transform)
+    {
+        if (data instanceof DoubleArrayPlotDataProvider)
+            return (TraceSamples) new ArraySamples((DoubleArrayPlotDataProvider) data, (ScreenTransform) x_transform);
+        return new ItemSamples<>(data, x_transform);
+    }
+
+    /** @return Number of samples */
+    abstract int size();
+
+    /** @param index Sample index
+     *  @return Horizontal screen coordinate of the sample, not rounded
+     */
+    abstract double getX(int index);
+
+    /** @param index Sample index
+     *  @return Value of the sample
+     */
+    abstract double getValue(int index);
+
+    /** @param index Sample index
+     *  @return Standard deviation of the sample
+     */
+    abstract double getStdDev(int index);
+
+    /** @param index Sample index
+     *  @return Minimum of the sample
+     */
+    abstract double getMin(int index);
+
+    /** @param index Sample index
+     *  @return Maximum of the sample
+     */
+    abstract double getMax(int index);
+
+    /** Samples of any {@link PlotDataProvider} */
+    private static class ItemSamples<XTYPE extends Comparable<XTYPE>> extends TraceSamples<XTYPE>
+    {
+        private final PlotDataProvider<XTYPE> data;
+        private final ScreenTransform<XTYPE> x_transform;
+        private int index = -1;
+        private PlotDataItem<XTYPE> item;
+
+        ItemSamples(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform)
+        {
+            this.data = data;
+            this.x_transform = x_transform;
+        }
+
+        /** @param i Sample index
+         *  @return Item for that index, fetched once while accessing the same sample
+         */
+        private PlotDataItem<XTYPE> getItem(final int i)
+        {
+            if (i != index)
+            {
+                item = data.get(i);
+                index = i;
+            }
+            return item;
+        }
+
+        @Override
+        int size()
+        {
+            return data.size();
+        }
+
+        @Override
+        double getX(final int i)
+        {
+            return x_transform.transform(getItem(i).getPosition());
+        }
+
+        @Override
+        double getValue(final int i)
+        {
+            return getItem(i).getValue();
+        }
+
+        @Override
+        double getStdDev(final int i)
+        {
+            return getItem(i).getStdDev();
+        }
+
+        @Override
+        double getMin(final int i)
+        {
+            return getItem(i).getMin();
+        }
+
+        @Override
+        double getMax(final int i)
+        {
+            return getItem(i).getMax();
+        }
+    }
+
+    /** Samples of a {@link DoubleArrayPlotDataProvider} */
+    private static class ArraySamples extends TraceSamples<Double>
+    {
+        private final DoubleArrayPlotDataProvider data;
+        private final ScreenTransform<Double> x_transform;
+        private final LinearScreenTransform linear;
+
+        ArraySamples(final DoubleArrayPlotDataProvider data, final ScreenTransform<Double> x_transform)
+        {
+            this.data = data;
+            this.x_transform = x_transform;
+            linear = x_transform instanceof LinearScreenTransform
+                   ? (LinearScreenTransform) x_transform
+                   : null;
+        }
+
+        @Override
+        int size()
+        {
+            return data.size();
+        }
+
+        @Override
+        double getX(final int i)
+        {
+            if (linear != null)
+                return linear.transform(data.getPosition(i));
+            return x_transform.transform(data.getPosition(i));
+        }
+
+        @Override
+        double getValue(final int i)
+        {
+            return data.getValue(i);
+        }
+
+        @Override
+        double getStdDev(final int i)
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        double getMin(final int i)
+        {
+            return data.getMin(i);
+        }
+
+        @Override
+        double getMax(final int i)
+        {
+            return data.getMax(i);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.logging.Level;
 import org.csstudio.javafx.rtplot.Trace;
 import org.csstudio.javafx.rtplot.YAxis;
 import org.csstudio.javafx.rtplot.data.PlotDataItem;
+import org.csstudio.javafx.rtplot.internal.util.GlyphWidthCache;
 import org.csstudio.javafx.rtplot.internal.util.GraphicsUtils;
 import org.csstudio.javafx.rtplot.internal.util.IntList;
 
@@ -202,8 +203,8 @@ public class YAxisImpl<XTYPE extends Comparable<XTYPE>> extends NumericAxis impl
         final IntList label_length = new IntList(2);
         while (label_provider.hasNext())
         {
-            label_y_separation = metrics.stringWidth(label_provider.getSeparator());
-            label_length.add(metrics.stringWidth(label_provider.getLabel()));
+            label_y_separation = GlyphWidthCache.stringWidth(gc, label_provider.getSeparator());
+            label_length.add(GlyphWidthCache.stringWidth(gc, label_provider.getLabel()));
         }
         while (label_provider.hasNext());
 
@@ -265,15 +266,14 @@ public class YAxisImpl<XTYPE extends Comparable<XTYPE>> extends NumericAxis impl
             return super.getPixelGaps(gc);
 
         gc.setFont(scale_font);
-        final FontMetrics metrics = gc.getFontMetrics();
 
         final List<MajorTick<Double>> major_ticks = ticks.getMajorTicks();
         if (major_ticks.isEmpty())
             return super.getPixelGaps(gc);
 
         // Measure first and last tick
-        final int low = metrics.stringWidth(major_ticks.get(0).getLabel());
-        final int high = metrics.stringWidth(major_ticks.get(major_ticks.size()-1).getLabel());
+        final int low = GlyphWidthCache.stringWidth(gc, major_ticks.get(0).getLabel());
+        final int high = GlyphWidthCache.stringWidth(gc, major_ticks.get(major_ticks.size()-1).getLabel());
 
         return new int[] { low / 2, high / 2 };
     }
@@ -381,7 +381,7 @@ public class YAxisImpl<XTYPE extends Comparable<XTYPE>> extends NumericAxis impl
         final Rectangle region = getBounds();
         gc.setFont(scale_font);
         final FontMetrics metrics = gc.getFontMetrics();
-        final int mark_height = metrics.stringWidth(mark);
+        final int mark_height = GlyphWidthCache.stringWidth(gc, mark);
         final int mark_width = metrics.getHeight();
         final int x = is_right ? region.x + TICK_LENGTH : region.x + region.width - TICK_LENGTH - mark_width;
         int y = screen_y  - mark_height/2;
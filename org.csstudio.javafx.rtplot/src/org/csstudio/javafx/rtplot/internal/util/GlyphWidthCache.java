@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal.util;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Cache of glyph widths for measuring labels
+ *
+ *  <p>Tick labels are measured over and over,
+ *  each time the plot is painted.
+ *  Asking {@link java.awt.FontMetrics} for the width
+ *  of a string involves a lookup of the font strike
+ *  and its glyph cache for each character.
+ *  This cache remembers the advance of each character
+ *  per font and font render context, so the width
+ *  of a label is computed by adding the cached advances.
+ *
+ *  <p>Like <code>FontMetrics.stringWidth</code>,
+ *  the fractional advances are added up and then rounded,
+ *  so the result is the same.
+ *  Text beyond the Latin-1 character set and fonts
+ *  with layout attributes like kerning fall back to
+ *  <code>FontMetrics</code>.
+ *
+ *  <p>Thread safe, shared by all plots.
+ *
+ *  @author Kay Kasemir
+ */
+public class GlyphWidthCache
+{
+    /** Characters with cached widths */
+    private static final int CACHED_CHARS = 256;
+
+    /** Limit for the number of fonts, in case fonts or scaling keep changing */
+    private static final int MAX_FONTS = 100;
+
+    /** Advance of each character, NaN if not known, by font and render context */
+    private static final Map<List<Object>, float[]> widths = new ConcurrentHashMap<>();
+
+    /** @param gc AWT Graphics context. Font must be set.
+     *  @param text Text to measure, single line
+     *  @return Width of text in pixels, same as <code>gc.getFontMetrics().stringWidth(text)</code>
+     */
+    public static int stringWidth(final Graphics2D gc, final String text)
+    {
+        final Font font = gc.getFont();
+        if (font.hasLayoutAttributes())
+            return gc.getFontMetrics().stringWidth(text);
+
+        final FontRenderContext frc = gc.getFontRenderContext();
+        final float[] advances = getAdvances(font, frc);
+        float width = 0;
+        final int len = text.length();
+        for (int i=0; i<len; ++i)
+        {
+            final char c = text.charAt(i);
+            if (c >= CACHED_CHARS)
+                return gc.getFontMetrics().stringWidth(text);
+            float advance = advances[c];
+            if (Float.isNaN(advance))
+            {   // Several threads might compute the same value, which is harmless
+                advance = (float) font.getStringBounds(String.valueOf(c), frc).getWidth();
+                advances[c] = advance;
+            }
+            width += advance;
+        }
+        return (int) (0.5f + width);
+    }
+
+    private static float[] getAdvances(final Font font, final FontRenderContext frc)
+    {
+        final List<Object> key = Arrays.asList(font, frc);
+        float[] advances = widths.get(key);
+        if (advances == null)
+        {
+            if (widths.size() > MAX_FONTS)
+                widths.clear();
+            advances = new float[CACHED_CHARS];
+            Arrays.fill(advances, Float.NaN);
+            final float[] other = widths.putIfAbsent(key, advances);
+            if (other != null)
+                advances = other;
+        }
+        return advances;
+    }
+}
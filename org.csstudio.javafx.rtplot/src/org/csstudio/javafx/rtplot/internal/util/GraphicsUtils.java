@@ -130,7 +130,7 @@ public class GraphicsUtils
     	final Rectangle info = new Rectangle(0, metrics.getLeading() + metrics.getAscent(), 0, 0);
         for (String line : text.split("\n"))
         {
-            final int width = metrics.stringWidth(line);
+            final int width = GlyphWidthCache.stringWidth(gc, line);
             if (width > info.width)
                 info.width = width;
             info.height += metrics.getHeight();
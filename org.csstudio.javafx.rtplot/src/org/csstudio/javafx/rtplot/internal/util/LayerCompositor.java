@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal.util;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/** Combines plot image with an overlay, transferring only what changed
+ *
+ *  <p>The plot image with axes, grid, traces, annotations
+ *  is the base layer, prepared in a background thread.
+ *  Mouse feedback like cursors or the zoom 'rubberband'
+ *  is drawn into a transparent overlay layer on the UI thread.
+ *
+ *  <p>The image is divided into tiles.
+ *  When only the overlay changes, only tiles that
+ *  had overlay content in the previous frame or have
+ *  overlay content now are re-composed and passed on
+ *  to the {@link PixelSink}.
+ *  A new base image, or a new generation of the same base image
+ *  that was painted again, causes a full update.
+ *
+ *  <p>Not thread-safe, to be called from the UI thread.
+ *
+ *  @author Kay Kasemir
+ */
+@SuppressWarnings("nls")
+public class LayerCompositor
+{
+    /** Receiver of composed pixels, for example a JFX PixelWriter */
+    @FunctionalInterface
+    public static interface PixelSink
+    {
+        /** @param x Left edge of region
+         *  @param y Top edge of region
+         *  @param width Width of region
+         *  @param height Height of region
+         *  @param pixels ARGB pixels of the complete image
+         *  @param offset Offset of region's first pixel in <code>pixels</code>
+         *  @param scan Distance between rows in <code>pixels</code>
+         */
+        public void setPixels(int x, int y, int width, int height, int[] pixels, int offset, int scan);
+    }
+
+    /** Tile size in pixels */
+    public static final int TILE = 32;
+
+    private int width = -1, height = -1, tiles_x, tiles_y;
+
+    /** Transparent overlay layer */
+    private BufferedImage overlay = null;
+    private Graphics2D overlay_gc;
+    private int[] overlay_pixels;
+
+    /** Composed image */
+    private int[] combined;
+
+    /** Base image and its generation that were used for the last frame */
+    private BufferedImage shown_base = null;
+    private long shown_generation;
+
+    /** Tiles that have overlay content in the last frame resp. the current one */
+    private boolean[] covered, now_covered;
+
+    /** Tiles that need to be transferred */
+    private boolean[] dirty;
+
+    private long last_transfer = 0;
+
+    /** Prepare overlay for the next frame
+     *
+     *  @param base Base image, must be of type BufferedImage.TYPE_INT_ARGB
+     *  @return GC for drawing the overlay
+     */
+    public Graphics2D beginOverlay(final BufferedImage base)
+    {
+        if (base.getType() != BufferedImage.TYPE_INT_ARGB)
+            throw new IllegalArgumentException("Need TYPE_INT_ARGB for direct buffer access, not " + base.getType());
+
+        if (overlay == null  ||  base.getWidth() != width  ||  base.getHeight() != height)
+        {
+            if (overlay_gc != null)
+                overlay_gc.dispose();
+            width = base.getWidth();
+            height = base.getHeight();
+            tiles_x = (width + TILE - 1) / TILE;
+            tiles_y = (height + TILE - 1) / TILE;
+            overlay = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            overlay_gc = overlay.createGraphics();
+            overlay_gc.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            overlay_pixels = ((DataBufferInt) overlay.getRaster().getDataBuffer()).getData();
+            combined = new int[width * height];
+            covered = new boolean[tiles_x * tiles_y];
+            now_covered = new boolean[tiles_x * tiles_y];
+            dirty = new boolean[tiles_x * tiles_y];
+            shown_base = null;
+        }
+        else
+        {   // Clear what was drawn in the last frame
+            for (int ty=0; ty<tiles_y; ++ty)
+                for (int tx=0; tx<tiles_x; ++tx)
+                    if (covered[ty*tiles_x + tx])
+                        clearTile(tx, ty);
+        }
+        overlay_gc.setColor(java.awt.Color.BLACK);
+        return overlay_gc;
+    }
+
+    private void clearTile(final int tx, final int ty)
+    {
+        final int x0 = tx * TILE, x1 = Math.min(x0 + TILE, width);
+        final int y1 = Math.min((ty+1) * TILE, height);
+        for (int y=ty*TILE; y<y1; ++y)
+            Arrays.fill(overlay_pixels, y*width + x0, y*width + x1, 0);
+    }
+
+    /** @return Does the tile have overlay content? */
+    private boolean hasOverlay(final int tx, final int ty)
+    {
+        final int x0 = tx * TILE, x1 = Math.min(x0 + TILE, width);
+        final int y1 = Math.min((ty+1) * TILE, height);
+        for (int y=ty*TILE; y<y1; ++y)
+        {
+            final int row = y*width;
+            for (int x=x0; x<x1; ++x)
+                if (overlay_pixels[row + x] != 0)
+                    return true;
+        }
+        return false;
+    }
+
+    /** Compose base and overlay, pass changed regions to sink
+     *
+     *  <p>Must be called after {@link #beginOverlay(BufferedImage)}
+     *  with the same base image.
+     *
+     *  <p>The base image may be re-used, for example by a double buffer
+     *  that paints into the same image again.
+     *  The caller must then pass a different generation
+     *  whenever the content of the base image changed.
+     *
+     *  @param base Base image
+     *  @param generation Generation of the base image content
+     *  @param sink {@link PixelSink}
+     *  @return Number of bytes passed to the sink
+     */
+    public long compose(final BufferedImage base, final long generation, final PixelSink sink)
+    {
+        final int[] base_pixels = ((DataBufferInt) base.getRaster().getDataBuffer()).getData();
+        final boolean full = base != shown_base  ||  generation != shown_generation;
+
+        // Determine dirty tiles, compose them
+        for (int ty=0; ty<tiles_y; ++ty)
+            for (int tx=0; tx<tiles_x; ++tx)
+            {
+                final int t = ty*tiles_x + tx;
+                now_covered[t] = hasOverlay(tx, ty);
+                dirty[t] = full  ||  covered[t]  ||  now_covered[t];
+                if (dirty[t])
+                    composeTile(base_pixels, tx, ty, now_covered[t]);
+            }
+
+        // Transfer, merging dirty tiles in each row of tiles
+        long bytes = 0;
+        if (full)
+        {
+            sink.setPixels(0, 0, width, height, combined, 0, width);
+            bytes = 4L * width * height;
+        }
+        else
+            for (int ty=0; ty<tiles_y; ++ty)
+            {
+                final int y = ty * TILE, h = Math.min(TILE, height - y);
+                int tx = 0;
+                while (tx < tiles_x)
+                {
+                    if (! dirty[ty*tiles_x + tx])
+                    {
+                        ++tx;
+                        continue;
+                    }
+                    final int start = tx;
+                    while (tx < tiles_x  &&  dirty[ty*tiles_x + tx])
+                        ++tx;
+                    final int x = start * TILE, w = Math.min(tx * TILE, width) - x;
+                    sink.setPixels(x, y, w, h, combined, y*width + x, width);
+                    bytes += 4L * w * h;
+                }
+            }
+
+        final boolean[] swap = covered;
+        covered = now_covered;
+        now_covered = swap;
+        shown_base = base;
+        shown_generation = generation;
+        last_transfer = bytes;
+        return bytes;
+    }
+
+    private void composeTile(final int[] base_pixels, final int tx, final int ty, final boolean with_overlay)
+    {
+        final int x0 = tx * TILE, x1 = Math.min(x0 + TILE, width);
+        final int y1 = Math.min((ty+1) * TILE, height);
+        for (int y=ty*TILE; y<y1; ++y)
+        {
+            final int row = y*width;
+            if (! with_overlay)
+            {
+                System.arraycopy(base_pixels, row + x0, combined, row + x0, x1 - x0);
+                continue;
+            }
+            for (int i=row+x0; i<row+x1; ++i)
+                combined[i] = blend(base_pixels[i], overlay_pixels[i]);
+        }
+    }
+
+    /** @param dst Non-premultiplied ARGB
+     *  @param src Non-premultiplied ARGB to draw 'over' dst
+     *  @return Combined ARGB
+     */
+    static int blend(final int dst, final int src)
+    {
+        final int sa = src >>> 24;
+        if (sa == 0)
+            return dst;
+        if (sa == 255)
+            return src;
+        final int da = (dst >>> 24) * (255 - sa) / 255;
+        final int a = sa + da;
+        final int r = (((src >> 16) & 0xFF) * sa + ((dst >> 16) & 0xFF) * da) / a;
+        final int g = (((src >>  8) & 0xFF) * sa + ((dst >>  8) & 0xFF) * da) / a;
+        final int b = (( src        & 0xFF) * sa + ( dst        & 0xFF) * da) / a;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /** Request full update on the next frame */
+    public void invalidate()
+    {
+        shown_base = null;
+    }
+
+    /** @return Number of bytes passed to the sink in the last frame */
+    public long getLastTransfer()
+    {
+        return last_transfer;
+    }
+
+    /** Release resources */
+    public void dispose()
+    {
+        if (overlay_gc != null)
+            overlay_gc.dispose();
+        overlay_gc = null;
+        overlay = null;
+        overlay_pixels = null;
+        combined = null;
+        shown_base = null;
+    }
+}
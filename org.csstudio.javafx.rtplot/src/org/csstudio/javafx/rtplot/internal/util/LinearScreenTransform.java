@@ -38,6 +38,15 @@ public class LinearScreenTransform implements ScreenTransform<Double>
         return a*x + b;
     }
 
+    /** Transform a plain <code>double</code>, avoiding boxing when transforming many values
+     *  @param x Value to transform
+     *  @return Returns x transformed into the y range.
+     */
+    public synchronized double transform(final double x)
+    {
+        return a*x + b;
+    }
+
     /** {@inheritDoc} */
     @Override
     public synchronized Double inverse(final double y)
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal.util;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import org.csstudio.javafx.BufferUtil;
+
+/** Re-used image for a widget that paints in a background thread
+ *
+ *  <p>Widgets like the tank used to paint each update into a new
+ *  {@link BufferedImage}, then convert that into a new JFX image.
+ *  The render target keeps one image for painting
+ *  and one pixel buffer for the transfer to the UI thread,
+ *  both only re-allocated when the size changes.
+ *
+ *  <p>After painting, the painting thread publishes the region
+ *  that it changed.
+ *  The UI thread then transfers the published regions
+ *  to a {@link LayerCompositor.PixelSink}, for example the
+ *  <code>PixelWriter</code> of a JFX <code>WritableImage</code>
+ *  that is also re-used.
+ *
+ *  <p>When the size changes, the next transfer covers the complete image.
+ *  The sink can thus check the <code>scan</code> width and
+ *  the size of the <code>pixels</code> to adjust its image.
+ *
+ *  <p>{@link #begin(int, int)} and {@link #publish(Rectangle)}
+ *  must be called by one painting thread,
+ *  {@link #transfer(LayerCompositor.PixelSink)} may be called
+ *  by another thread.
+ *
+ *  @author Kay Kasemir
+ */
+public class RenderTarget
+{
+    // Painting thread
+    private BufferUtil buffer = null;
+    private int[] image_pixels;
+    private boolean blank = true;
+
+    /** Pixels to transfer and region that has been published
+     *  since the last transfer, empty if x0 >= x1.
+     *  SYNC on this
+     */
+    private int[] pixels = null;
+    private int width = 0, height = 0;
+    private int x0, y0, x1, y1;
+
+    /** Prepare painting
+     *
+     *  <p>Image is re-allocated when the size changes,
+     *  otherwise it still holds what was painted before.
+     *
+     *  @param width Width of the image
+     *  @param height Height of the image
+     *  @return {@link Graphics2D} for painting into the image, <code>null</code> on error
+     */
+    public Graphics2D begin(final int width, final int height)
+    {
+        if (buffer == null  ||
+            buffer.getImage().getWidth() != width  ||
+            buffer.getImage().getHeight() != height)
+        {
+            final BufferUtil new_buffer = BufferUtil.getBufferedImage(width, height);
+            if (new_buffer == null)
+                return null;
+            if (buffer != null)
+                buffer.dispose();
+            buffer = new_buffer;
+            image_pixels = ((DataBufferInt) buffer.getImage().getRaster().getDataBuffer()).getData();
+            blank = true;
+        }
+        final Graphics2D gc = buffer.getGraphics();
+        gc.setClip(null);
+        return gc;
+    }
+
+    /** @return <code>true</code> if the image was created by the last {@link #begin(int, int)}
+     *          and needs to be painted completely
+     */
+    public boolean isBlank()
+    {
+        return blank;
+    }
+
+    /** @return Image, <code>null</code> before {@link #begin(int, int)} */
+    public BufferedImage getImage()
+    {
+        return buffer == null ? null : buffer.getImage();
+    }
+
+    /** Publish painted region for the next transfer
+     *  @param region Region that was painted
+     */
+    public void publish(final Rectangle region)
+    {
+        if (buffer == null)
+            return;
+        final BufferedImage image = buffer.getImage();
+        final int img_width = image.getWidth(), img_height = image.getHeight();
+        int rx0 = Math.max(region.x, 0), rx1 = Math.min(region.x + region.width, img_width);
+        int ry0 = Math.max(region.y, 0), ry1 = Math.min(region.y + region.height, img_height);
+        synchronized (this)
+        {
+            if (pixels == null  ||  width != img_width  ||  height != img_height)
+            {   // New transfer buffer needs all pixels
+                width = img_width;
+                height = img_height;
+                pixels = new int[width * height];
+                x0 = y0 = x1 = y1 = 0;
+                rx0 = ry0 = 0;
+                rx1 = width;
+                ry1 = height;
+            }
+            else if (blank)
+            {
+                rx0 = ry0 = 0;
+                rx1 = width;
+                ry1 = height;
+            }
+            if (rx0 >= rx1  ||  ry0 >= ry1)
+                return;
+            for (int y=ry0; y<ry1; ++y)
+                System.arraycopy(image_pixels, y*width + rx0, pixels, y*width + rx0, rx1 - rx0);
+            if (x0 >= x1)
+            {
+                x0 = rx0;
+                y0 = ry0;
+                x1 = rx1;
+                y1 = ry1;
+            }
+            else
+            {
+                x0 = Math.min(x0, rx0);
+                y0 = Math.min(y0, ry0);
+                x1 = Math.max(x1, rx1);
+                y1 = Math.max(y1, ry1);
+            }
+        }
+        blank = false;
+    }
+
+    /** Transfer published pixels
+     *  @param sink {@link LayerCompositor.PixelSink}
+     *  @return Number of bytes passed to the sink, 0 if nothing was published
+     */
+    public synchronized long transfer(final LayerCompositor.PixelSink sink)
+    {
+        if (x0 >= x1)
+            return 0;
+        sink.setPixels(x0, y0, x1 - x0, y1 - y0, pixels, y0*width + x0, width);
+        final long bytes = 4L * (x1 - x0) * (y1 - y0);
+        x0 = y0 = x1 = y1 = 0;
+        return bytes;
+    }
+
+    /** Release resources */
+    public void dispose()
+    {
+        if (buffer != null)
+            buffer.dispose();
+        buffer = null;
+        image_pixels = null;
+        synchronized (this)
+        {
+            pixels = null;
+            x0 = y0 = x1 = y1 = 0;
+        }
+    }
+}
@@ -50,10 +50,17 @@ public class BufferUtil
             return new BufferUtil(width, height);
 
         final CompletableFuture<BufferUtil> result = new CompletableFuture<>();
-        Platform.runLater(() ->
+        try
         {
-            result.complete(new BufferUtil(width, height));
-        });
+            Platform.runLater(() ->
+            {
+                result.complete(new BufferUtil(width, height));
+            });
+        }
+        catch (IllegalStateException ex)
+        {   // JFX toolkit not running, for example in headless tests
+            return new BufferUtil(width, height);
+        }
 
         try
         {
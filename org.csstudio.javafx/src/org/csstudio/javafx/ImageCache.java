@@ -9,11 +9,17 @@
 package org.csstudio.javafx;
 
 
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-
-import org.apache.commons.collections4.map.AbstractReferenceMap.ReferenceStrength;
-import org.apache.commons.collections4.map.ReferenceMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javafx.scene.image.Image;
 
@@ -25,15 +31,20 @@ import javafx.scene.image.Image;
  * This class will allow caching of images using their resolved filename as key.
  * <p/>
  * <p>
- * Current implementation uses a {@link ReferenceMap} of soft pointers for both
- * the key and the value (an {@link Image}). This will allow for the garbage
- * collector to reclaim the memory of unreferenced images on critically low
- * memory
- * situations.
+ * Current implementation is a least-recently-used cache weighted by the
+ * size of the image pixels. When the total exceeds the byte budget, the
+ * least recently used images are evicted one by one, instead of the garbage
+ * collector reclaiming all of them at once on low memory.
+ * </p>
+ * <p>
+ * Images can be loaded via {@link #load(String, Callable)} on a bounded
+ * pool of worker threads. Concurrent requests for the same image share
+ * one load operation.
  * </p>
  * <p>
- * A better implementation will use a real cache library (e.g.
- * <a href="https://cache2k.org">cache2k</a>) with proper policies.
+ * The budget defaults to {@value #DEFAULT_MAX_BYTES} bytes and can be
+ * configured via the {@value #MAX_BYTES_PROPERTY} system property
+ * or {@link #setMaxBytes(long)}.
  * </p>
  *
  * @author claudiorosati, European Spallation Source ERIC
@@ -41,18 +52,70 @@ import javafx.scene.image.Image;
  */
 public class ImageCache {
 
-    private static final Map<String, Image> CACHE = Collections.synchronizedMap(new ReferenceMap<>(ReferenceStrength.SOFT, ReferenceStrength.SOFT));
+    /**
+     * Default byte budget, 256 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024L * 1024L;
+
+    /**
+     * System property for the byte budget.
+     */
+    public static final String MAX_BYTES_PROPERTY = "org.csstudio.javafx.image_cache_bytes";
+
+    /**
+     * Access-ordered, i.e. least recently used image is first. SYNC on CACHE.
+     */
+    private static final LinkedHashMap<String, Image> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Images that are currently loading.
+     */
+    private static final Map<String, CompletableFuture<Image>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ExecutorService LOADERS = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())),
+        runnable -> {
+
+            Thread thread = new Thread(runnable, "ImageCache-" + THREAD_COUNT.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+
+        }
+    );
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    /**
+     * Total bytes of cached images. SYNC on CACHE.
+     */
+    private static long bytes = 0;
+
+    /**
+     * Byte budget. SYNC on CACHE.
+     */
+    private static long maxBytes = Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
 
     /**
      * @return The number of entries before the cache is cleared.
      */
     public static int clear ( ) {
 
-        int entries = size();
+        synchronized ( CACHE ) {
 
-        CACHE.clear();
+            int entries = CACHE.size();
 
-        return entries;
+            CACHE.clear();
+            bytes = 0;
+
+            return entries;
+
+        }
 
     }
 
@@ -62,7 +125,97 @@ public class ImageCache {
      * @return The cached {@link Image} instance or {@code null}.
      */
     public static Image get ( String key ) {
-        return CACHE.get(key);
+
+        Image image;
+
+        synchronized ( CACHE ) {
+            image = CACHE.get(key);
+        }
+
+        if ( image == null ) {
+            MISSES.incrementAndGet();
+        } else {
+            HITS.incrementAndGet();
+        }
+
+        return image;
+
+    }
+
+    /**
+     * Load an image unless it's already cached.
+     * <p>
+     * The {@code loader} is invoked on a worker thread. While an image is
+     * loading, additional requests for the same {@code key} receive the
+     * same future. Successfully loaded images are added to the cache.
+     * </p>
+     *
+     * @param key    The unique identifier of the cached image, usually its
+     *               resolved filename.
+     * @param loader Loads the image. Should throw an exception on error.
+     * @return Future for the cached or loaded {@link Image}.
+     */
+    public static CompletableFuture<Image> load ( String key, Callable<Image> loader ) {
+
+        Image cached = get(key);
+
+        if ( cached != null ) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Image> created = new CompletableFuture<>();
+        CompletableFuture<Image> loading = IN_FLIGHT.putIfAbsent(key, created);
+
+        if ( loading != null ) {
+            return loading;
+        }
+
+        LOADERS.execute(( ) -> {
+            try {
+
+                Image image = loader.call();
+
+                put(key, image);
+                created.complete(image);
+
+            } catch ( Throwable ex ) {
+                created.completeExceptionally(ex);
+            } finally {
+                IN_FLIGHT.remove(key, created);
+            }
+        });
+
+        return created;
+
+    }
+
+    /**
+     * Get cached image or load it, waiting for the result.
+     * <p>
+     * Must not be called on the UI thread.
+     * </p>
+     *
+     * @param key    The unique identifier of the cached image, usually its
+     *               resolved filename.
+     * @param loader Loads the image. Should throw an exception on error.
+     * @return The cached or loaded {@link Image}.
+     * @throws Exception If loading failed.
+     * @see #load(String, Callable)
+     */
+    public static Image getOrLoad ( String key, Callable<Image> loader ) throws Exception {
+        try {
+            return load(key, loader).get();
+        } catch ( ExecutionException ex ) {
+
+            Throwable cause = ex.getCause();
+
+            if ( cause instanceof Exception ) {
+                throw (Exception) cause;
+            } else {
+                throw ex;
+            }
+
+        }
     }
 
     /**
@@ -73,7 +226,31 @@ public class ImageCache {
      *         {@code key}, or {@code null}.
      */
     public static Image put ( String key, Image value ) {
-        return CACHE.put(key, value);
+
+        long weight = weigh(value);
+
+        synchronized ( CACHE ) {
+
+            Image previous;
+
+            if ( weight > maxBytes ) {
+                // Too large to cache, just drop the old entry.
+                previous = CACHE.remove(key);
+            } else {
+                previous = CACHE.put(key, value);
+                bytes += weight;
+            }
+
+            if ( previous != null ) {
+                bytes -= weigh(previous);
+            }
+
+            evict();
+
+            return previous;
+
+        }
+
     }
 
     /**
@@ -83,7 +260,19 @@ public class ImageCache {
      *         {@code key}, or {@code null}.
      */
     public static Image remove ( String key ) {
-        return CACHE.remove(key);
+
+        synchronized ( CACHE ) {
+
+            Image previous = CACHE.remove(key);
+
+            if ( previous != null ) {
+                bytes -= weigh(previous);
+            }
+
+            return previous;
+
+        }
+
     }
 
     /**
@@ -91,7 +280,117 @@ public class ImageCache {
      *         cache.
      */
     public static int size ( ) {
-        return CACHE.size();
+        synchronized ( CACHE ) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * @return The number of bytes used by the cached images.
+     */
+    public static long getBytes ( ) {
+        synchronized ( CACHE ) {
+            return bytes;
+        }
+    }
+
+    /**
+     * @return The byte budget of the cache.
+     */
+    public static long getMaxBytes ( ) {
+        synchronized ( CACHE ) {
+            return maxBytes;
+        }
+    }
+
+    /**
+     * @param max The new byte budget of the cache. Least recently used
+     *            images are evicted until the cache fits.
+     */
+    public static void setMaxBytes ( long max ) {
+        synchronized ( CACHE ) {
+            maxBytes = max;
+            evict();
+        }
+    }
+
+    /**
+     * @return The number of {@link #get(String)} calls that found a cached image.
+     */
+    public static long getHits ( ) {
+        return HITS.get();
+    }
+
+    /**
+     * @return The number of {@link #get(String)} calls that found no cached image.
+     */
+    public static long getMisses ( ) {
+        return MISSES.get();
+    }
+
+    /**
+     * @return The number of images evicted to keep the cache within its budget.
+     */
+    public static long getEvictions ( ) {
+        return EVICTIONS.get();
+    }
+
+    /**
+     * @return Human readable statistics.
+     */
+    public static String getStatistics ( ) {
+        return String.format(
+            "ImageCache: %d images, %d of %d kB, %d hits, %d misses, %d evictions",
+            size(),
+            getBytes() / 1024,
+            getMaxBytes() / 1024,
+            getHits(),
+            getMisses(),
+            getEvictions()
+        );
+    }
+
+    /**
+     * Reset the hit, miss, eviction counters.
+     */
+    public static void resetStatistics ( ) {
+        HITS.set(0);
+        MISSES.set(0);
+        EVICTIONS.set(0);
+    }
+
+    /**
+     * @param image An {@link Image}.
+     * @return Approximate bytes used by the image pixels.
+     */
+    static long weigh ( Image image ) {
+
+        if ( image == null ) {
+            return 0;
+        }
+
+        return 4L * (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight());
+
+    }
+
+    /**
+     * Remove least recently used images until cache fits into budget.
+     * Caller must hold the CACHE lock.
+     */
+    private static void evict ( ) {
+
+        Iterator<Image> iterator = CACHE.values().iterator();
+
+        while ( bytes > maxBytes && iterator.hasNext() ) {
+
+            Image image = iterator.next();
+
+            iterator.remove();
+            bytes -= weigh(image);
+            EVICTIONS.incrementAndGet();
+
+        }
+
     }
 
     private ImageCache ( ) {
@@ -112,6 +112,11 @@ public class StringTable extends BorderPane
    /** Data shown in the table, includes MAGIC_LAST_ROW */
    private final ObservableList<List<StringProperty>> data = FXCollections.observableArrayList();
 
+   /** Rows passed to the last {@link #setData(List)},
+    *  <code>null</code> after the data was changed in any other way
+    */
+   private List<List<String>> set_rows = null;
+
    /** Optional cell coloring, does not include MAGIC_LAST_ROW */
    private volatile List<List<Color>> cell_colors = null;
 
@@ -585,6 +590,7 @@ public class StringTable extends BorderPane
            createTableColumn(-1, header);
 
        // Start over with no data, since table columns changed
+       set_rows = null;
        data.clear();
        if (editable)
            data.add(MAGIC_LAST_ROW);
@@ -753,36 +759,63 @@ public class StringTable extends BorderPane
    }
 
    /** Set or update data
+    *
+    *  <p>A row that is passed as the identical {@link List}
+    *  at the same index as in the previous call is skipped,
+    *  unless the table was changed otherwise in between.
+    *  Callers that update only some rows can thus re-use the
+    *  unchanged row instances, see {@link TableHelper#reuseUnchangedRows(List, List)},
+    *  and pass a new list for each changed row.
+    *  Rows are added or removed in one list change.
     *
     *  @param new_data Rows of data,
     *                  where each row must contain the same number
     *                  of elements as the column headers
+    *  @return Number of rows that were updated or added
     */
-   public void setData(final List<List<String>> new_data)
+   public int setData(final List<List<String>> new_data)
    {
+       int changes = 0;
+
        // Try to update existing StringProperty cells for common rows
+       final List<List<String>> previous = set_rows;
        final int rows = getDataRowCount();
        final int both = Math.min(rows, new_data.size());
        for (int r=0; r<both; ++r)
-           copyRow(r, new_data.get(r), data.get(r));
+       {
+           final List<String> row = new_data.get(r);
+           if (previous != null  &&  r < previous.size()  &&  previous.get(r) == row)
+               continue;
+           copyRow(r, row, data.get(r));
+           ++changes;
+       }
 
        // Add new rows
-       for (int r=rows; r<new_data.size(); ++r)
+       if (new_data.size() > rows)
        {
-           final List<StringProperty> row = createEmptyRow();
-           copyRow(r, new_data.get(r), row);
-           data.add(r, row);
+           final List<List<StringProperty>> new_rows = new ArrayList<>(new_data.size() - rows);
+           for (int r=rows; r<new_data.size(); ++r)
+           {
+               final List<StringProperty> row = createEmptyRow();
+               copyRow(r, new_data.get(r), row);
+               new_rows.add(row);
+               ++changes;
+           }
+           data.addAll(rows, new_rows);
        }
 
        // Delete superfluous rows
-       for (int r=rows-1; r>=new_data.size(); --r)
-           data.remove(r);
+       if (rows > new_data.size())
+           data.remove(new_data.size(), rows);
 
        if (editable  &&  data.size() <= new_data.size())
            data.add(MAGIC_LAST_ROW);
 
+       set_rows = new ArrayList<>(new_data);
+
        // Don't fire, since external source changed data, not user
        // fireDataChanged();
+       return changes;
    }
 
    /** @param row Row index (for error message)
@@ -856,6 +889,7 @@ public class StringTable extends BorderPane
            if (row_data == MAGIC_LAST_ROW)
                throw new IndexOutOfBoundsException("Magic Last Row");
            row_data.get(col).set(value);
+           set_rows = null;
        }
        catch (IndexOutOfBoundsException ex)
        {
@@ -1233,6 +1267,8 @@ public class StringTable extends BorderPane
 
    private void fireTableChanged()
    {
+       // Table no longer matches the rows of the last setData()
+       set_rows = null;
        final StringTableListener copy = listener;
        if (copy != null)
            copy.tableChanged(this);
@@ -1240,6 +1276,8 @@ public class StringTable extends BorderPane
 
    private void fireDataChanged()
    {
+       // Table no longer matches the rows of the last setData()
+       set_rows = null;
        final StringTableListener copy = listener;
        if (copy != null)
            copy.dataChanged(this);
@@ -7,6 +7,8 @@
  *******************************************************************************/
 package org.csstudio.javafx;
 
+import java.util.List;
+
 import javafx.collections.ObservableList;
 import javafx.scene.control.TableView;
 
@@ -42,4 +44,34 @@ public class TableHelper
             items.set(sel, next);
         }
     }
+
+    /** Re-use unchanged rows of table data
+     *
+     *  <p>Each row of the update that is equal to the row
+     *  at the same index in the previous data is replaced
+     *  by that previous row instance.
+     *  When the update is then passed to {@link StringTable#setData(List)}
+     *  after the previous data, the table skips those rows.
+     *
+     *  <p>Meant to be called off the UI thread,
+     *  so the UI thread only handles the changed rows.
+     *
+     *  @param previous Previous rows, may be <code>null</code>
+     *  @param update New rows, will be modified to hold the re-used previous rows
+     *  @return Number of rows in the update that changed or were added
+     */
+    public static int reuseUnchangedRows(final List<List<String>> previous, final List<List<String>> update)
+    {
+        final int both = previous == null ? 0 : Math.min(previous.size(), update.size());
+        int changes = update.size() - both;
+        for (int r=0; r<both; ++r)
+        {
+            final List<String> row = previous.get(r);
+            if (row.equals(update.get(r)))
+                update.set(r, row);
+            else
+                ++changes;
+        }
+        return changes;
+    }
 }